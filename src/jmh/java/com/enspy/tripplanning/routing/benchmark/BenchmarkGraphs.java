@@ -0,0 +1,309 @@
+package com.enspy.tripplanning.routing.benchmark;
+
+import com.enspy.tripplanning.routing.graph.RoadGraph;
+import com.enspy.tripplanning.routing.graph.RoadGraphBuilder;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Graphes des benchmarks, construits sans PostgreSQL.
+ *
+ * - "cameroon" : réseau de database/02_cameroon_road_network.sql, lu
+ * directement dans le script (chemin modifiable par
+ * -Dbenchmark.cameroon.sql=...).
+ * - "grid-N" : grille d'environ N nœuds (pas de ~200 m), hiérarchie
+ * résidentielle / secondaire / primaire toutes les 10 et 50 lignes.
+ * - "geometric-N" : N points uniformes sur l'emprise du Cameroun, chacun
+ * relié à ses 3 plus proches voisins (graphe géométrique aléatoire).
+ *
+ * Générateurs à graine fixe : un même nom donne toujours le même graphe.
+ * Les graphes sont gardés en cache le temps du fork JMH.
+ */
+public final class BenchmarkGraphs {
+
+    public static final String CAMEROON = "cameroon";
+
+    private static final long SEED = 20240601L;
+
+    /** Emprise du Cameroun (graphes géométriques) */
+    private static final double MIN_LAT = 2.0, MAX_LAT = 13.0;
+    private static final double MIN_LON = 8.5, MAX_LON = 16.0;
+
+    /** Pas de la grille en degrés (~220 m) */
+    private static final double GRID_STEP = 0.002;
+
+    /** Voisins reliés par nœud dans les graphes géométriques */
+    private static final int NEAREST_NEIGHBORS = 3;
+
+    /** Proportion d'arêtes à sens unique des graphes générés */
+    private static final double ONE_WAY_RATIO = 0.05;
+
+    private static final Pattern NODE_TUPLE = Pattern.compile(
+            "\\((\\d+), ([\\d.]+), ([\\d.]+), '([^']*)', '([^']*)'\\)");
+    private static final Pattern EDGE_TUPLE = Pattern.compile(
+            "\\((\\d+), (\\d+), '([^']*)', '([^']*)', ([\\d.]+), (\\d+), (\\d+), (true|false)\\)");
+
+    private static final Map<String, RoadGraph> CACHE = new ConcurrentHashMap<>();
+
+    private BenchmarkGraphs() {
+    }
+
+    /**
+     * @param spec "cameroon", "grid-N" ou "geometric-N"
+     */
+    public static RoadGraph load(String spec) {
+        return CACHE.computeIfAbsent(spec, BenchmarkGraphs::create);
+    }
+
+    private static RoadGraph create(String spec) {
+        if (CAMEROON.equals(spec)) {
+            return cameroon(Path.of(System.getProperty("benchmark.cameroon.sql",
+                    "database/02_cameroon_road_network.sql")));
+        }
+        int dash = spec.lastIndexOf('-');
+        if (dash > 0) {
+            String kind = spec.substring(0, dash);
+            int nodes = Integer.parseInt(spec.substring(dash + 1));
+            if ("grid".equals(kind)) {
+                return grid(nodes);
+            }
+            if ("geometric".equals(kind)) {
+                return geometric(nodes);
+            }
+        }
+        throw new IllegalArgumentException("Graphe de benchmark inconnu: " + spec);
+    }
+
+    /**
+     * Réseau du script SQL : les tuples de road_nodes et road_edges sont lus
+     * dans l'ordre du script, les edge_id sont attribués comme par la
+     * séquence (1, 2, ...).
+     */
+    static RoadGraph cameroon(Path sqlFile) {
+        String sql;
+        try {
+            sql = Files.readString(sqlFile);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Script du réseau introuvable: " + sqlFile.toAbsolutePath(), e);
+        }
+
+        RoadGraphBuilder builder = new RoadGraphBuilder();
+        Matcher node = NODE_TUPLE.matcher(sql);
+        while (node.find()) {
+            builder.addNode(Long.parseLong(node.group(1)), Double.parseDouble(node.group(2)),
+                    Double.parseDouble(node.group(3)), node.group(4));
+        }
+        Matcher edge = EDGE_TUPLE.matcher(sql);
+        long edgeId = 1;
+        while (edge.find()) {
+            builder.addEdge(edgeId++, 0, Long.parseLong(edge.group(1)), Long.parseLong(edge.group(2)),
+                    Double.parseDouble(edge.group(5)) * 1000, Integer.parseInt(edge.group(6)),
+                    Integer.parseInt(edge.group(7)), Boolean.parseBoolean(edge.group(8)),
+                    edge.group(4), edge.group(3));
+        }
+        return builder.build();
+    }
+
+    static RoadGraph grid(int nodes) {
+        int side = (int) Math.ceil(Math.sqrt(nodes));
+        SplittableRandom random = new SplittableRandom(SEED);
+        RoadGraphBuilder builder = new RoadGraphBuilder();
+
+        double[] lats = new double[side * side];
+        double[] lons = new double[side * side];
+        for (int row = 0; row < side; row++) {
+            for (int col = 0; col < side; col++) {
+                int v = row * side + col;
+                // Léger bruit : des distances toutes égales rendraient A* trop favorable
+                lats[v] = 3.0 + row * GRID_STEP + random.nextDouble(-0.2, 0.2) * GRID_STEP;
+                lons[v] = 10.0 + col * GRID_STEP + random.nextDouble(-0.2, 0.2) * GRID_STEP;
+                builder.addNode(v + 1L, lats[v], lons[v], null);
+            }
+        }
+
+        long edgeId = 1;
+        for (int row = 0; row < side; row++) {
+            for (int col = 0; col < side; col++) {
+                int v = row * side + col;
+                if (col + 1 < side) {
+                    edgeId = addGenerated(builder, random, edgeId, v, v + 1, lats, lons, gridRoadType(row));
+                }
+                if (row + 1 < side) {
+                    edgeId = addGenerated(builder, random, edgeId, v, v + side, lats, lons, gridRoadType(col));
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    private static String gridRoadType(int line) {
+        if (line % 50 == 0) {
+            return "primary";
+        }
+        return line % 10 == 0 ? "secondary" : "residential";
+    }
+
+    static RoadGraph geometric(int nodes) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        double[] lats = new double[nodes];
+        double[] lons = new double[nodes];
+        RoadGraphBuilder builder = new RoadGraphBuilder();
+        for (int v = 0; v < nodes; v++) {
+            lats[v] = random.nextDouble(MIN_LAT, MAX_LAT);
+            lons[v] = random.nextDouble(MIN_LON, MAX_LON);
+            builder.addNode(v + 1L, lats[v], lons[v], null);
+        }
+
+        int[] nearest = nearestNeighbors(lats, lons, NEAREST_NEIGHBORS);
+
+        // Arête {u, v} ajoutée une seule fois, même si chacun est voisin de l'autre
+        long edgeId = 1;
+        for (int u = 0; u < nodes; u++) {
+            for (int i = 0; i < NEAREST_NEIGHBORS; i++) {
+                int v = nearest[u * NEAREST_NEIGHBORS + i];
+                if (v < 0 || (v < u && isNeighbor(nearest, v, u))) {
+                    continue;
+                }
+                double roll = random.nextDouble();
+                String roadType = roll < 0.1 ? "primary" : roll < 0.4 ? "secondary" : "tertiary";
+                edgeId = addGenerated(builder, random, edgeId, u, v, lats, lons, roadType);
+            }
+        }
+        return builder.build();
+    }
+
+    private static boolean isNeighbor(int[] nearest, int u, int v) {
+        for (int i = 0; i < NEAREST_NEIGHBORS; i++) {
+            if (nearest[u * NEAREST_NEIGHBORS + i] == v) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * k plus proches voisins de chaque point par grille de cases (environ
+     * deux points par case), en coordonnées planes approchées.
+     *
+     * @return Tableau n × k des voisins (-1 si moins de k points)
+     */
+    private static int[] nearestNeighbors(double[] lats, double[] lons, int k) {
+        int n = lats.length;
+        int cells = Math.max(1, (int) Math.sqrt(n / 2.0));
+        double cellLat = (MAX_LAT - MIN_LAT) / cells;
+        double cellLon = (MAX_LON - MIN_LON) / cells;
+        double lonScale = Math.cos(Math.toRadians((MIN_LAT + MAX_LAT) / 2));
+        double ringWidth = Math.min(cellLat, cellLon * lonScale);
+
+        // Points rangés par case (tri par comptage)
+        int[] cellOf = new int[n];
+        int[] cellStart = new int[cells * cells + 1];
+        for (int v = 0; v < n; v++) {
+            int row = Math.min(cells - 1, (int) ((lats[v] - MIN_LAT) / cellLat));
+            int col = Math.min(cells - 1, (int) ((lons[v] - MIN_LON) / cellLon));
+            cellOf[v] = row * cells + col;
+            cellStart[cellOf[v] + 1]++;
+        }
+        for (int c = 0; c < cells * cells; c++) {
+            cellStart[c + 1] += cellStart[c];
+        }
+        int[] cellPoints = new int[n];
+        int[] fill = cellStart.clone();
+        for (int v = 0; v < n; v++) {
+            cellPoints[fill[cellOf[v]]++] = v;
+        }
+
+        int[] nearest = new int[n * k];
+        Arrays.fill(nearest, -1);
+        double[] best = new double[k];
+        for (int u = 0; u < n; u++) {
+            Arrays.fill(best, Double.MAX_VALUE);
+            int base = u * k;
+            int row0 = cellOf[u] / cells;
+            int col0 = cellOf[u] % cells;
+            for (int ring = 0; ring < cells; ring++) {
+                for (int row = row0 - ring; row <= row0 + ring; row++) {
+                    if (row < 0 || row >= cells) {
+                        continue;
+                    }
+                    boolean edgeRow = row == row0 - ring || row == row0 + ring;
+                    for (int col = col0 - ring; col <= col0 + ring; col += edgeRow ? 1 : 2 * ring) {
+                        if (col >= 0 && col < cells) {
+                            int cell = row * cells + col;
+                            for (int p = cellStart[cell]; p < cellStart[cell + 1]; p++) {
+                                int v = cellPoints[p];
+                                if (v == u) {
+                                    continue;
+                                }
+                                double dLat = lats[v] - lats[u];
+                                double dLon = (lons[v] - lons[u]) * lonScale;
+                                insert(nearest, base, best, v, dLat * dLat + dLon * dLon);
+                            }
+                        }
+                        if (ring == 0) {
+                            break;
+                        }
+                    }
+                }
+                // Au-delà de cet anneau, tout point est à plus de ring × largeur de case
+                double reach = ring * ringWidth;
+                if (best[k - 1] <= reach * reach) {
+                    break;
+                }
+            }
+        }
+        return nearest;
+    }
+
+    /** Insertion triée dans les k meilleurs voisins de u */
+    private static void insert(int[] nearest, int base, double[] best, int v, double distance) {
+        int k = best.length;
+        if (distance >= best[k - 1]) {
+            return;
+        }
+        int i = k - 1;
+        while (i > 0 && best[i - 1] > distance) {
+            best[i] = best[i - 1];
+            nearest[base + i] = nearest[base + i - 1];
+            i--;
+        }
+        best[i] = distance;
+        nearest[base + i] = v;
+    }
+
+    private static long addGenerated(RoadGraphBuilder builder, SplittableRandom random, long edgeId,
+            int u, int v, double[] lats, double[] lons, String roadType) {
+        int speedKmh = switch (roadType) {
+            case "primary" -> 90;
+            case "secondary" -> 70;
+            case "tertiary" -> 50;
+            default -> 30;
+        };
+        double meters = haversineMeters(lats[u], lons[u], lats[v], lons[v]);
+        int seconds = Math.max(1, (int) Math.ceil(meters / 1000.0 / speedKmh * 3600));
+        boolean oneWay = random.nextDouble() < ONE_WAY_RATIO;
+        // Sens unique : orientation tirée au hasard
+        boolean reversed = oneWay && random.nextBoolean();
+        builder.addEdge(edgeId, 0, reversed ? v + 1L : u + 1L, reversed ? u + 1L : v + 1L, meters, speedKmh,
+                seconds, oneWay, roadType, null);
+        return edgeId + 1;
+    }
+
+    static double haversineMeters(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                        * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 6_371_000.0 * 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    }
+}
@@ -0,0 +1,117 @@
+package com.enspy.tripplanning.routing.benchmark;
+
+import com.enspy.tripplanning.routing.graph.RoadGraph;
+import com.enspy.tripplanning.routing.graph.RoutePathCodec;
+import com.enspy.tripplanning.routing.model.RoadEdge;
+import com.enspy.tripplanning.routing.model.RoadNode;
+import com.enspy.tripplanning.routing.model.Route;
+import com.enspy.tripplanning.routing.service.AStarService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reconstruction des chemins, isolée de la recherche :
+ * - {@link RoadGraph#toRoute} : matérialisation des nœuds et arêtes d'une
+ * suite d'arcs (fin de chaque recherche A*),
+ * - {@link RoutePathCodec#toRoute} : décodage d'un itinéraire mis en cache.
+ *
+ * Les chemins sont ceux des requêtes fixes, calculés une fois au démarrage.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms2g", "-Xmx8g" })
+public class PathReconstructionBenchmark {
+
+    private static final int PATHS = 200;
+
+    @Param({ "cameroon", "grid-10000", "geometric-100000", "geometric-1000000" })
+    public String graph;
+
+    private RoadGraph roadGraph;
+    private int[] starts;
+    private int[] ends;
+    private int[][] arcs;
+    private byte[][] encodedNodes;
+    private byte[][] encodedEdges;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        roadGraph = BenchmarkGraphs.load(graph);
+        QuerySet queries = QuerySet.create(roadGraph, PATHS);
+        AStarService aStarService = RoutingBenchmark.engine();
+
+        starts = new int[PATHS];
+        ends = new int[PATHS];
+        arcs = new int[PATHS][];
+        encodedNodes = new byte[PATHS][];
+        encodedEdges = new byte[PATHS][];
+        for (int i = 0; i < PATHS; i++) {
+            Route route = aStarService.executeBidirectional(roadGraph, queries.source(i), queries.target(i),
+                    null, false);
+            starts[i] = queries.source(i);
+            ends[i] = queries.target(i);
+            arcs[i] = arcsOf(route);
+            encodedNodes[i] = RoutePathCodec.encodeNodes(route.getNodes());
+            encodedEdges[i] = RoutePathCodec.encodeEdges(route.getEdges());
+        }
+    }
+
+    /**
+     * Arcs avant d'un chemin : pour chaque arête, l'arc sortant du nœud
+     * courant qui la porte.
+     */
+    private int[] arcsOf(Route route) {
+        List<RoadNode> nodes = route.getNodes();
+        List<RoadEdge> edges = route.getEdges();
+        int[] firstOut = roadGraph.getFirstOut();
+        int[] arcHead = roadGraph.getArcHead();
+        int[] arcEdge = roadGraph.getArcEdge();
+        long[] edgeIds = roadGraph.getEdgeIds();
+
+        int[] path = new int[edges.size()];
+        for (int i = 0; i < edges.size(); i++) {
+            int u = roadGraph.indexOf(nodes.get(i).getNodeId());
+            int v = roadGraph.indexOf(nodes.get(i + 1).getNodeId());
+            long edgeId = edges.get(i).getEdgeId();
+            path[i] = -1;
+            for (int a = firstOut[u]; a < firstOut[u + 1]; a++) {
+                if (arcHead[a] == v && edgeIds[arcEdge[a]] == edgeId) {
+                    path[i] = a;
+                    break;
+                }
+            }
+            if (path[i] < 0) {
+                throw new IllegalStateException("Arc introuvable pour l'arête " + edgeId);
+            }
+        }
+        return path;
+    }
+
+    @Benchmark
+    public Route toRoute(RoutingBenchmark.Cursor cursor) {
+        int i = cursor.advance(PATHS);
+        return roadGraph.toRoute(starts[i], ends[i], arcs[i], arcs[i].length, 0);
+    }
+
+    @Benchmark
+    public Route decodeCached(RoutingBenchmark.Cursor cursor) {
+        int i = cursor.advance(PATHS);
+        return RoutePathCodec.toRoute(roadGraph, encodedNodes[i], encodedEdges[i], 0);
+    }
+}
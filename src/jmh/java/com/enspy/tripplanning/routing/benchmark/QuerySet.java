@@ -0,0 +1,140 @@
+package com.enspy.tripplanning.routing.benchmark;
+
+import com.enspy.tripplanning.routing.graph.RoadGraph;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Requêtes fixes d'un benchmark : paires de nœuds et points GPS tirés avec
+ * une graine fixe, pour que chaque exécution mesure exactement les mêmes
+ * recherches.
+ *
+ * Les paires sont prises dans une même composante fortement connexe : chaque
+ * requête trouve un chemin (une requête sans chemin parcourrait toute la
+ * composante et fausserait les moyennes).
+ */
+public final class QuerySet {
+
+    private static final long SEED = 42L;
+
+    private final int[] sources;
+    private final int[] targets;
+    private final double[] latitudes;
+    private final double[] longitudes;
+
+    private QuerySet(int[] sources, int[] targets, double[] latitudes, double[] longitudes) {
+        this.sources = sources;
+        this.targets = targets;
+        this.latitudes = latitudes;
+        this.longitudes = longitudes;
+    }
+
+    /**
+     * @param count Nombre de requêtes
+     */
+    public static QuerySet create(RoadGraph graph, int count) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        int[] component = largestComponentSample(graph, random);
+
+        int[] sources = new int[count];
+        int[] targets = new int[count];
+        double[] latitudes = new double[count];
+        double[] longitudes = new double[count];
+        double[] lats = graph.getLatitudes();
+        double[] lons = graph.getLongitudes();
+        for (int i = 0; i < count; i++) {
+            sources[i] = component[random.nextInt(component.length)];
+            do {
+                targets[i] = component[random.nextInt(component.length)];
+            } while (targets[i] == sources[i] && component.length > 1);
+
+            // Point GPS à quelques centaines de mètres d'un nœud du réseau
+            int near = component[random.nextInt(component.length)];
+            latitudes[i] = lats[near] + random.nextDouble(-0.003, 0.003);
+            longitudes[i] = lons[near] + random.nextDouble(-0.003, 0.003);
+        }
+        return new QuerySet(sources, targets, latitudes, longitudes);
+    }
+
+    /**
+     * Composante fortement connexe d'un nœud tiré au hasard, en retenant la
+     * plus grande de quelques tirages. Les arcs fermés
+     * ({@link RoadGraph#CLOSED_WEIGHT}, routes interdites au profil) ne
+     * relient rien : les moteurs ne les empruntent pas.
+     */
+    private static int[] largestComponentSample(RoadGraph graph, SplittableRandom random) {
+        int n = graph.getNodeCount();
+        int[] best = new int[0];
+        for (int attempt = 0; attempt < 8 && best.length * 2 < n; attempt++) {
+            int root = random.nextInt(n);
+            if (!graph.isRoutable(root)) {
+                continue;
+            }
+            int[] weights = graph.getArcWeight();
+            boolean[] forward = reach(n, root, graph.getFirstOut(), graph.getArcHead(), null, weights);
+            boolean[] backward = reach(n, root, graph.getFirstIn(), graph.getInArcTail(), graph.getInArcRef(),
+                    weights);
+            int[] component = new int[n];
+            int size = 0;
+            for (int v = 0; v < n; v++) {
+                if (forward[v] && backward[v]) {
+                    component[size++] = v;
+                }
+            }
+            if (size > best.length) {
+                best = Arrays.copyOf(component, size);
+            }
+        }
+        if (best.length < 2) {
+            throw new IllegalStateException("Graphe sans composante exploitable: " + graph);
+        }
+        return best;
+    }
+
+    /**
+     * @param arcRef Arc avant de chaque arc parcouru (parcours arrière), ou
+     *               null si ce sont les arcs avant eux-mêmes
+     */
+    private static boolean[] reach(int n, int root, int[] first, int[] head, int[] arcRef, int[] weights) {
+        boolean[] seen = new boolean[n];
+        int[] stack = new int[n];
+        int top = 0;
+        seen[root] = true;
+        stack[top++] = root;
+        while (top > 0) {
+            int u = stack[--top];
+            for (int a = first[u]; a < first[u + 1]; a++) {
+                if (weights[arcRef != null ? arcRef[a] : a] >= RoadGraph.CLOSED_WEIGHT) {
+                    continue;
+                }
+                int v = head[a];
+                if (!seen[v]) {
+                    seen[v] = true;
+                    stack[top++] = v;
+                }
+            }
+        }
+        return seen;
+    }
+
+    public int size() {
+        return sources.length;
+    }
+
+    public int source(int i) {
+        return sources[i];
+    }
+
+    public int target(int i) {
+        return targets[i];
+    }
+
+    public double latitude(int i) {
+        return latitudes[i];
+    }
+
+    public double longitude(int i) {
+        return longitudes[i];
+    }
+}
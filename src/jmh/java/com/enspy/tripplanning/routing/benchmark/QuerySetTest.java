@@ -0,0 +1,36 @@
+package com.enspy.tripplanning.routing.benchmark;
+
+import com.enspy.tripplanning.routing.graph.RoadGraph;
+import com.enspy.tripplanning.routing.graph.RoadGraphFixtures;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Graphes et requêtes des benchmarks : chaque requête doit trouver un
+ * chemin, sinon les mesures comparent des recherches avortées.
+ * Exécuté avec le profil : mvn -Pbenchmark test -Dtest=QuerySetTest
+ */
+class QuerySetTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = { BenchmarkGraphs.CAMEROON, "grid-10000", "geometric-5000" })
+    void everyQueryHasARoute(String spec) {
+        RoadGraph graph = BenchmarkGraphs.load(spec);
+        QuerySet queries = QuerySet.create(graph, 40);
+        QuerySet again = QuerySet.create(graph, 40);
+
+        assertTrue(graph.getNodeCount() > 0);
+        for (int i = 0; i < queries.size(); i++) {
+            assertNotEquals(queries.source(i), queries.target(i), spec + " requête " + i);
+            assertNotEquals(Long.MAX_VALUE, RoadGraphFixtures.dijkstra(graph, queries.source(i))[queries.target(i)],
+                    spec + " requête " + i);
+            // Graine fixe : mêmes requêtes d'une exécution à l'autre
+            assertEquals(queries.source(i), again.source(i));
+            assertEquals(queries.target(i), again.target(i));
+        }
+    }
+}
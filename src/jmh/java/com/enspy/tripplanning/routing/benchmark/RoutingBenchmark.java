@@ -0,0 +1,98 @@
+package com.enspy.tripplanning.routing.benchmark;
+
+import com.enspy.tripplanning.routing.engine.alt.LandmarkTable;
+import com.enspy.tripplanning.routing.engine.alt.LandmarkTableBuilder;
+import com.enspy.tripplanning.routing.graph.RoadGraph;
+import com.enspy.tripplanning.routing.model.Route;
+import com.enspy.tripplanning.routing.service.AStarService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recherches point à point de {@link AStarService} sur le graphe CSR :
+ * A* unidirectionnelle et bidirectionnelle, avec l'heuristique distance /
+ * vitesse maximale ou les tables ALT (8 landmarks, comme en production).
+ *
+ * Débit (requêtes/ms) et distribution des latences (SampleTime : p50, p99...)
+ * sur {@link #QUERIES} paires fixes parcourues en boucle.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = { "-Xms2g", "-Xmx8g" })
+public class RoutingBenchmark {
+
+    static final int QUERIES = 1000;
+
+    private static final int LANDMARKS = 8;
+
+    /** Ajouter par exemple -p graph=geometric-4000000 pour les très grands graphes */
+    @Param({ "cameroon", "grid-10000", "geometric-100000", "geometric-1000000" })
+    public String graph;
+
+    @Param({ "false", "true" })
+    public boolean alt;
+
+    private RoadGraph roadGraph;
+    private LandmarkTable landmarks;
+    private AStarService aStarService;
+    private QuerySet queries;
+
+    /**
+     * Position de chaque thread dans le jeu de requêtes.
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next;
+
+        int advance(int size) {
+            int current = next;
+            next = current + 1 == size ? 0 : current + 1;
+            return current;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        roadGraph = BenchmarkGraphs.load(graph);
+        landmarks = alt ? LandmarkTableBuilder.build(roadGraph, new int[0], LANDMARKS) : null;
+        aStarService = engine();
+        queries = QuerySet.create(roadGraph, QUERIES);
+    }
+
+    @Benchmark
+    public Route astar(Cursor cursor) {
+        int i = cursor.advance(queries.size());
+        return aStarService.executeOnGraph(roadGraph, queries.source(i), queries.target(i), landmarks);
+    }
+
+    @Benchmark
+    public Route bidirectional(Cursor cursor) {
+        int i = cursor.advance(queries.size());
+        return aStarService.executeBidirectional(roadGraph, queries.source(i), queries.target(i), landmarks,
+                false);
+    }
+
+    /**
+     * Service hors Spring : les recherches sur le graphe résident
+     * (executeOnGraph, executeBidirectional) n'utilisent aucune de ses
+     * dépendances (dépôt, cache de tuiles, pool, métriques).
+     */
+    static AStarService engine() {
+        return new AStarService(null, null, null, null, null, null, null);
+    }
+}
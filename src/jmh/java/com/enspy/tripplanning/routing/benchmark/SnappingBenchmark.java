@@ -0,0 +1,70 @@
+package com.enspy.tripplanning.routing.benchmark;
+
+import com.enspy.tripplanning.routing.graph.NodeSpatialIndex;
+import com.enspy.tripplanning.routing.graph.RoadGraph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Snapping des points GPS ({@link NodeSpatialIndex}) : nœud le plus proche,
+ * projection sur l'arête la plus proche, et construction de l'index au
+ * chargement du graphe (une mesure par construction).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms2g", "-Xmx8g" })
+public class SnappingBenchmark {
+
+    /** Rayon de recherche (application.routing.snap.max-distance-meters = 0 : illimité) */
+    private static final double MAX_DISTANCE_METERS = 0;
+
+    @Param({ "cameroon", "grid-10000", "geometric-100000", "geometric-1000000" })
+    public String graph;
+
+    private RoadGraph roadGraph;
+    private NodeSpatialIndex index;
+    private QuerySet queries;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        roadGraph = BenchmarkGraphs.load(graph);
+        index = NodeSpatialIndex.build(roadGraph);
+        queries = QuerySet.create(roadGraph, RoutingBenchmark.QUERIES);
+    }
+
+    @Benchmark
+    public int nearestNode(RoutingBenchmark.Cursor cursor) {
+        int i = cursor.advance(queries.size());
+        return index.nearestNode(queries.latitude(i), queries.longitude(i), MAX_DISTANCE_METERS);
+    }
+
+    @Benchmark
+    public NodeSpatialIndex.EdgeSnap nearestEdge(RoutingBenchmark.Cursor cursor) {
+        int i = cursor.advance(queries.size());
+        return index.nearestEdge(queries.latitude(i), queries.longitude(i), MAX_DISTANCE_METERS);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public NodeSpatialIndex buildIndex() {
+        return NodeSpatialIndex.build(roadGraph);
+    }
+}
@@ -0,0 +1,62 @@
+package com.enspy.tripplanning.routing.benchmark;
+
+import com.enspy.tripplanning.routing.graph.RoadGraph;
+import com.enspy.tripplanning.routing.model.RoadEdge;
+import com.enspy.tripplanning.routing.model.RoadNode;
+import com.enspy.tripplanning.routing.model.Subgraph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Indexation d'un sous-graphe chargé depuis la base ({@link Subgraph#index}),
+ * étape de chaque recherche A* sur tuiles : les entités du graphe entier sont
+ * indexées comme le serait une emprise de cette taille.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.AverageTime, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms2g", "-Xmx8g" })
+public class SubgraphBenchmark {
+
+    @Param({ "cameroon", "grid-10000", "geometric-100000" })
+    public String graph;
+
+    private List<RoadNode> nodes;
+    private List<RoadEdge> edges;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        RoadGraph roadGraph = BenchmarkGraphs.load(graph);
+        nodes = new ArrayList<>(roadGraph.getNodeCount());
+        for (int v = 0; v < roadGraph.getNodeCount(); v++) {
+            nodes.add(roadGraph.toRoadNode(v));
+        }
+        edges = new ArrayList<>(roadGraph.getEdgeCount());
+        for (int e = 0; e < roadGraph.getEdgeCount(); e++) {
+            edges.add(roadGraph.toRoadEdge(e));
+        }
+    }
+
+    @Benchmark
+    public Subgraph index() {
+        Subgraph subgraph = new Subgraph();
+        subgraph.index(nodes, edges);
+        return subgraph;
+    }
+}
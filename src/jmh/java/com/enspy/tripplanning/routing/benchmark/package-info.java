@@ -0,0 +1,17 @@
+/**
+ * Benchmarks JMH du moteur de routage, hors Spring et sans PostgreSQL.
+ *
+ * Graphes : réseau camerounais du script SQL et graphes générés de 10k à
+ * plusieurs millions de nœuds ({@link com.enspy.tripplanning.routing.benchmark.BenchmarkGraphs}).
+ * Requêtes à graine fixe ({@link com.enspy.tripplanning.routing.benchmark.QuerySet}).
+ *
+ * LANCEMENT (profil Maven benchmark, depuis la racine du projet) :
+ * - tout : mvn -Pbenchmark test-compile exec:exec
+ * - sélection : mvn -Pbenchmark test-compile exec:exec
+ *   -Djmh.args="-prof gc RoutingBenchmark.bidirectional -p graph=geometric-4000000"
+ *
+ * Le profileur gc (par défaut) ajoute le taux d'allocation
+ * (gc.alloc.rate.norm : octets par requête) ; résultats JSON dans
+ * target/jmh-result.json.
+ */
+package com.enspy.tripplanning.routing.benchmark;
@@ -148,6 +148,10 @@ public class SecurityConfig {
                                                 // Actuator (monitoring)
                                                 .pathMatchers("/actuator/health", "/actuator/info").permitAll()
 
+                                                // Fermetures et ralentissements de routes
+                                                .pathMatchers(HttpMethod.POST, "/api/v1/routing/overrides/**").hasRole("ADMIN")
+                                                .pathMatchers(HttpMethod.DELETE, "/api/v1/routing/overrides/**").hasRole("ADMIN")
+
                                                 // Routing (Temporairement public pour test de performance)
                                                 .pathMatchers("/api/v1/routing/**").authenticated()
 
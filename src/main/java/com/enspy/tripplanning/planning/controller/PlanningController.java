@@ -61,8 +61,10 @@ public class PlanningController {
 
     @Operation(summary = "Récupérer les items d'un planning", security = @SecurityRequirement(name = "bearer-jwt"))
     @GetMapping("/local/{id}/items")
-    public Flux<PlanningItem> getPlanningItems(@PathVariable UUID id) {
-        return planningService.getPlanningItems(id);
+    public Flux<PlanningItem> getPlanningItems(@PathVariable UUID id,
+            @RequestParam(required = false) Integer zoom) {
+        Flux<PlanningItem> items = planningService.getPlanningItems(id);
+        return zoom == null ? items : items.map(item -> routeOptimizationService.withZoom(item, zoom));
     }
 
     @Operation(summary = "Calculer l'itinéraire pour un item", security = @SecurityRequirement(name = "bearer-jwt"))
@@ -105,7 +107,8 @@ public class PlanningController {
 
     @Operation(summary = "Récupérer un item par son ID", security = @SecurityRequirement(name = "bearer-jwt"))
     @GetMapping("/items/{itemId}")
-    public Mono<PlanningItem> getItem(@PathVariable UUID itemId) {
-        return planningService.getPlanningItemById(itemId);
+    public Mono<PlanningItem> getItem(@PathVariable UUID itemId, @RequestParam(required = false) Integer zoom) {
+        Mono<PlanningItem> item = planningService.getPlanningItemById(itemId);
+        return zoom == null ? item : item.map(found -> routeOptimizationService.withZoom(found, zoom));
     }
 }
@@ -1,5 +1,6 @@
 package com.enspy.tripplanning.planning.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -66,6 +67,15 @@ public class PlanningItem implements org.springframework.data.domain.Persistable
     @Column("optimal_route_geom")
     private String optimalRouteGeom; // The calculated "best" route for comparison (Green line)
 
+    // Versions simplifiées précalculées par zoom : {"6": "<polyline>", ...}
+    @JsonIgnore
+    @Column("route_geom_levels")
+    private String routeGeomLevelsJson;
+
+    @JsonIgnore
+    @Column("optimal_route_geom_levels")
+    private String optimalRouteGeomLevelsJson;
+
     @Column("itinerary_id")
     private UUID itineraryId; // Linked saved itinerary if applicable
 
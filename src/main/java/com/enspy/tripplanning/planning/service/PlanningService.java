@@ -9,6 +9,7 @@ import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Objects;
 import java.util.UUID;
 
 @Service
@@ -70,6 +71,13 @@ public class PlanningService {
                 .flatMap(existing -> {
                     item.setId(itemId);
                     item.setPlanningId(existing.getPlanningId());
+                    // Niveaux simplifiés conservés tant que la géométrie ne change pas
+                    if (Objects.equals(item.getRouteGeom(), existing.getRouteGeom())) {
+                        item.setRouteGeomLevelsJson(existing.getRouteGeomLevelsJson());
+                    }
+                    if (Objects.equals(item.getOptimalRouteGeom(), existing.getOptimalRouteGeom())) {
+                        item.setOptimalRouteGeomLevelsJson(existing.getOptimalRouteGeomLevelsJson());
+                    }
                     // On ne met pas setNew(true) car c'est un update
                     return planningItemRepository.save(item);
                 });
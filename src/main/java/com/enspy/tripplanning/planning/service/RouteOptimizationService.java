@@ -6,7 +6,10 @@ import com.enspy.tripplanning.planning.entity.Planning;
 import com.enspy.tripplanning.planning.repository.PlanningItemRepository;
 import com.enspy.tripplanning.planning.repository.PlanningRepository;
 import com.enspy.tripplanning.routing.dto.RouteRequest;
+import com.enspy.tripplanning.routing.geometry.GeometrySimplifier;
+import com.enspy.tripplanning.routing.geometry.Polyline;
 import com.enspy.tripplanning.routing.service.RouteCalculatorService;
+import com.enspy.tripplanning.routing.service.RoutingExecutor;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
@@ -17,7 +20,9 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Service
@@ -32,6 +37,9 @@ public class RouteOptimizationService {
     private final ItineraryRepository itineraryRepository;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
+    /** Zooms des géométries simplifiées précalculées (vue pays, région, ville) */
+    private static final int[] GEOMETRY_ZOOM_LEVELS = { 6, 9, 12 };
+
     public Mono<PlanningItem> calculateRouteForItem(UUID itemId) {
         return planningItemRepository.findById(itemId)
                 .flatMap(this::optimizeItem);
@@ -39,7 +47,9 @@ public class RouteOptimizationService {
 
     public Flux<PlanningItem> calculateAllRoutesForPlanning(UUID planningId) {
         return planningItemRepository.findAllByPlanningId(planningId)
-                .flatMap(this::optimizeItem, 5);
+                .flatMap(this::optimizeItem, 5)
+                // Planification complète : voie par lot du pool de calcul
+                .contextWrite(RoutingExecutor.batchLane());
     }
 
     // New method to assign an itinerary
@@ -227,12 +237,75 @@ public class RouteOptimizationService {
                     } else if (!"CALCULATED".equals(updatedItem.getStatus())) {
                         updatedItem.setStatus("FAILED");
                     }
+                    precomputeGeometryLevels(updatedItem);
                     return planningItemRepository.save(updatedItem)
                             .flatMap(savedItem -> checkPlanningCompletion(savedItem.getPlanningId())
                                     .thenReturn(savedItem));
                 });
     }
 
+    /**
+     * Précalcule les géométries simplifiées des zooms {@link #GEOMETRY_ZOOM_LEVELS}
+     * pour les cartes d'ensemble.
+     */
+    private void precomputeGeometryLevels(PlanningItem item) {
+        item.setRouteGeomLevelsJson(geometryLevelsJson(item.getRouteGeom()));
+        item.setOptimalRouteGeomLevelsJson(geometryLevelsJson(item.getOptimalRouteGeom()));
+    }
+
+    private String geometryLevelsJson(String geometry) {
+        if (geometry == null || geometry.isEmpty()) {
+            return null;
+        }
+        Map<String, String> levels = new LinkedHashMap<>();
+        for (int zoom : GEOMETRY_ZOOM_LEVELS) {
+            levels.put(String.valueOf(zoom), GeometrySimplifier.simplify(geometry, zoom, Polyline.PRECISION));
+        }
+        try {
+            return objectMapper.writeValueAsString(levels);
+        } catch (Exception e) {
+            log.error("Error serializing geometry levels: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Remplace les géométries de l'item par leur version au zoom de la carte :
+     * plus petit niveau précalculé au moins égal à ce zoom (écart au tracé
+     * jamais supérieur à la tolérance demandée), sinon simplification à la
+     * volée. L'item n'est pas enregistré.
+     */
+    public PlanningItem withZoom(PlanningItem item, int zoom) {
+        item.setRouteGeom(geometryAtZoom(item.getRouteGeom(), item.getRouteGeomLevelsJson(), zoom));
+        item.setOptimalRouteGeom(geometryAtZoom(item.getOptimalRouteGeom(), item.getOptimalRouteGeomLevelsJson(), zoom));
+        return item;
+    }
+
+    private String geometryAtZoom(String geometry, String levelsJson, int zoom) {
+        if (geometry == null || zoom >= GeometrySimplifier.MAX_SIMPLIFIED_ZOOM) {
+            return geometry;
+        }
+        if (levelsJson != null) {
+            try {
+                Map<String, String> levels = objectMapper.readValue(levelsJson, new TypeReference<Map<String, String>>() {
+                });
+                int level = -1;
+                for (int candidate : GEOMETRY_ZOOM_LEVELS) {
+                    if (candidate >= zoom && levels.containsKey(String.valueOf(candidate))) {
+                        level = candidate;
+                        break;
+                    }
+                }
+                if (level >= 0) {
+                    return levels.get(String.valueOf(level));
+                }
+            } catch (Exception e) {
+                log.warn("Invalid geometry levels JSON: {}", e.getMessage());
+            }
+        }
+        return GeometrySimplifier.simplify(geometry, zoom, Polyline.PRECISION);
+    }
+
     private Mono<Void> checkPlanningCompletion(UUID planningId) {
         return planningItemRepository.findAllByPlanningId(planningId)
                 .collectList()
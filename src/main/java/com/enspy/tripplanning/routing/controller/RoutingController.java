@@ -1,8 +1,20 @@
 package com.enspy.tripplanning.routing.controller;
 
+import com.enspy.tripplanning.routing.dto.BatchRouteRequest;
+import com.enspy.tripplanning.routing.dto.BatchRouteResultDTO;
+import com.enspy.tripplanning.routing.dto.EdgeWeightOverrideRequest;
+import com.enspy.tripplanning.routing.dto.IsochroneResponse;
+import com.enspy.tripplanning.routing.dto.MatrixRequest;
+import com.enspy.tripplanning.routing.dto.MatrixRowDTO;
 import com.enspy.tripplanning.routing.dto.MultiRouteResponse;
 import com.enspy.tripplanning.routing.dto.RouteRequest;
+import com.enspy.tripplanning.routing.graph.RoutingProfile;
+import com.enspy.tripplanning.routing.model.EdgeWeightOverride;
+import com.enspy.tripplanning.routing.service.BatchRoutingService;
+import com.enspy.tripplanning.routing.service.EdgeWeightOverrideService;
+import com.enspy.tripplanning.routing.service.IsochroneService;
 import com.enspy.tripplanning.routing.service.RouteCalculatorService;
+import com.enspy.tripplanning.routing.service.TravelTimeMatrixService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -13,17 +25,27 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
 /**
  * Contrôleur REST pour le calcul d'itinéraires.
  * 
  * Expose les endpoints pour:
  * - Calculer un itinéraire optimal entre deux points
  * - Calculer des itinéraires avec waypoints (POI)
+ * - Calculer des matrices de temps de parcours N×M
+ * - Calculer des milliers d'itinéraires par lot
+ * - Calculer les zones atteignables en un temps donné (isochrones)
+ * - Fermer ou ralentir temporairement des routes (administrateurs)
  * 
  * @author Pangui Peguy
  * @version 1.0
@@ -37,6 +59,10 @@ import reactor.core.publisher.Mono;
 public class RoutingController {
 
     private final RouteCalculatorService routeCalculatorService;
+    private final TravelTimeMatrixService matrixService;
+    private final BatchRoutingService batchRoutingService;
+    private final IsochroneService isochroneService;
+    private final EdgeWeightOverrideService overrideService;
 
     /**
      * Calcule l'itinéraire optimal entre deux points.
@@ -115,7 +141,13 @@ public class RoutingController {
 
             @Parameter(description = "Latitude d'arrivée", example = "4.0511", required = true) @RequestParam Double endLat,
 
-            @Parameter(description = "Longitude d'arrivée", example = "9.7679", required = true) @RequestParam Double endLon) {
+            @Parameter(description = "Longitude d'arrivée", example = "9.7679", required = true) @RequestParam Double endLon,
+
+            @Parameter(description = "Zoom de la carte (géométries simplifiées à cette échelle)", example = "8") @RequestParam(required = false) Integer zoom,
+
+            @Parameter(description = "Heure de départ locale (ISO 8601)", example = "2025-01-15T07:30:00") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime departureTime,
+
+            @Parameter(description = "Profil de véhicule", example = "TRUCK") @RequestParam(defaultValue = "CAR") RoutingProfile profile) {
         log.info("GET /api/v1/routing/calculate - Calcul simplifié multi-route");
 
         RouteRequest request = RouteRequest.builder()
@@ -123,11 +155,159 @@ public class RoutingController {
                 .startLongitude(startLon)
                 .endLatitude(endLat)
                 .endLongitude(endLon)
+                .zoom(zoom)
+                .departureTime(departureTime)
+                .profile(profile)
                 .build();
 
         return routeCalculatorService.calculateRoute(request);
     }
 
+    /**
+     * Calcule une matrice de temps de parcours entre plusieurs points.
+     *
+     * ALGORITHME UTILISÉ: Dijkstra un-vers-plusieurs par ligne, ou buckets
+     * sur la hiérarchie de contraction lorsqu'elle est prête.
+     *
+     * @param request Sources et destinations
+     * @return Une ligne par source, émise dès qu'elle est calculée
+     */
+    @Operation(summary = "Calculer une matrice de temps de parcours", description = """
+            Calcule les temps de parcours (s) et distances (km) entre chaque source
+            et chaque destination en une seule passe sur le graphe routier.
+
+            Sans destinations, la matrice est carrée sur les sources.
+            Les lignes sont diffusées au fil du calcul (`application/x-ndjson`)
+            et portent leur `sourceIndex` : elles n'arrivent pas forcément dans l'ordre.
+            """)
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lignes de la matrice", content = @Content(mediaType = "application/x-ndjson", schema = @Schema(implementation = MatrixRowDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Paramètres invalides"),
+            @ApiResponse(responseCode = "500", description = "Erreur interne")
+    })
+    @PostMapping(value = "/matrix", consumes = MediaType.APPLICATION_JSON_VALUE, produces = {
+            MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE })
+    public Flux<MatrixRowDTO> calculateMatrix(
+            @Parameter(description = "Sources et destinations de la matrice", required = true) @Valid @RequestBody MatrixRequest request) {
+        log.info("POST /api/v1/routing/matrix - Matrice {}×{} demandée", request.getSources().size(),
+                request.getDestinations() != null && !request.getDestinations().isEmpty()
+                        ? request.getDestinations().size()
+                        : request.getSources().size());
+
+        return matrixService.computeMatrix(request);
+    }
+
+    /**
+     * Calcule des itinéraires pour un lot de couples origine/destination.
+     *
+     * Un seul appel HTTP (et une seule place dans le limiteur de débit) pour
+     * tout le lot ; les couples identiques après snapping ne sont calculés
+     * qu'une fois.
+     *
+     * @param request Couples origine/destination
+     * @return Un résultat par couple, émis dès qu'il est prêt
+     */
+    @Operation(summary = "Calculer des itinéraires par lot", description = """
+            Calcule jusqu'à 10000 itinéraires en un seul appel.
+
+            Les résultats sont diffusés au fil du calcul (`application/x-ndjson`, une ligne
+            JSON par couple) et portent leur `index` dans la requête : ils n'arrivent pas
+            forcément dans l'ordre. Le calcul suit le rythme de lecture du client.
+            """)
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Résultats du lot", content = @Content(mediaType = "application/x-ndjson", schema = @Schema(implementation = BatchRouteResultDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Paramètres invalides"),
+            @ApiResponse(responseCode = "500", description = "Erreur interne")
+    })
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BatchRouteResultDTO> calculateBatch(
+            @Parameter(description = "Couples origine/destination", required = true) @Valid @RequestBody BatchRouteRequest request) {
+        log.info("POST /api/v1/routing/batch - Lot de {} couples demandé", request.getPairs().size());
+
+        return batchRoutingService.calculateBatch(request);
+    }
+
+    /**
+     * Calcule les zones atteignables depuis un point pour un ou plusieurs
+     * budgets de temps.
+     *
+     * ALGORITHME UTILISÉ: un seul Dijkstra borné par le plus grand budget,
+     * puis contours sur une grille des temps.
+     */
+    @Operation(summary = "Calculer des isochrones", description = """
+            Retourne, pour chaque budget (minutes), la zone atteignable en voiture
+            depuis le point donné, sous forme de coordonnées GeoJSON MultiPolygon.
+
+            Plusieurs budgets peuvent être demandés en une seule recherche :
+            `minutes=30,60,120`.
+            """)
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Isochrones calculées", content = @Content(mediaType = "application/json", schema = @Schema(implementation = IsochroneResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Budgets invalides"),
+            @ApiResponse(responseCode = "500", description = "Erreur interne")
+    })
+    @GetMapping(value = "/isochrone", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<IsochroneResponse> calculateIsochrone(
+            @Parameter(description = "Latitude du point de départ", example = "4.0511", required = true) @RequestParam Double lat,
+
+            @Parameter(description = "Longitude du point de départ", example = "9.7679", required = true) @RequestParam Double lon,
+
+            @Parameter(description = "Budgets de temps (minutes)", example = "30,60,120", required = true) @RequestParam List<Integer> minutes) {
+        log.info("GET /api/v1/routing/isochrone - ({}, {}) pour {} min", lat, lon, minutes);
+
+        return isochroneService.computeIsochrones(lat, lon, minutes);
+    }
+
+    /**
+     * Ferme ou ralentit temporairement des routes (accident, inondation,
+     * travaux).
+     *
+     * Les poids du graphe résident sont mis à jour immédiatement, sans
+     * rechargement ; la surcharge disparaît d'elle-même à expiration.
+     */
+    @Operation(summary = "Fermer ou ralentir des routes", description = """
+            Applique une surcharge temporaire aux arêtes ou voies OSM indiquées :
+            `closed: true` interdit leur passage, `timeFactor` multiplie leur temps de parcours.
+
+            Les calculs suivants en tiennent compte immédiatement (A*, alternatives,
+            matrices, isochrones ; la hiérarchie de contraction est repondérée).
+            Réservé aux administrateurs.
+            """)
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Surcharges appliquées", content = @Content(mediaType = "application/json", schema = @Schema(implementation = EdgeWeightOverride.class))),
+            @ApiResponse(responseCode = "400", description = "Paramètres invalides"),
+            @ApiResponse(responseCode = "403", description = "Réservé aux administrateurs")
+    })
+    @PostMapping(value = "/overrides", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.CREATED)
+    public Flux<EdgeWeightOverride> createOverride(
+            @Parameter(description = "Routes concernées et nature de la surcharge", required = true) @Valid @RequestBody EdgeWeightOverrideRequest request) {
+        log.info("POST /api/v1/routing/overrides - {}", request.getReason());
+
+        return overrideService.create(request);
+    }
+
+    @Operation(summary = "Lister les surcharges actives", description = "Fermetures et ralentissements non expirés, par date d'expiration.")
+    @GetMapping(value = "/overrides", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Flux<EdgeWeightOverride> listOverrides() {
+        return overrideService.findActive();
+    }
+
+    @Operation(summary = "Lever une surcharge", description = "Rétablit les temps de parcours avant l'expiration prévue. Réservé aux administrateurs.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Surcharge supprimée"),
+            @ApiResponse(responseCode = "404", description = "Surcharge introuvable"),
+            @ApiResponse(responseCode = "403", description = "Réservé aux administrateurs")
+    })
+    @DeleteMapping("/overrides/{overrideId}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public Mono<Void> deleteOverride(
+            @Parameter(description = "Identifiant de la surcharge", required = true) @PathVariable UUID overrideId) {
+        log.info("DELETE /api/v1/routing/overrides/{}", overrideId);
+
+        return overrideService.delete(overrideId);
+    }
+
     /**
      * Endpoint de test pour vérifier que le service est opérationnel.
      * 
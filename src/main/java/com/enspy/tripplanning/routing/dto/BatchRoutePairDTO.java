@@ -0,0 +1,46 @@
+package com.enspy.tripplanning.routing.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Couple origine/destination d'un calcul d'itinéraires par lot.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Couple origine/destination")
+public class BatchRoutePairDTO {
+
+    @Schema(description = "Identifiant libre du client, renvoyé tel quel dans le résultat", example = "livraison-42")
+    private String id;
+
+    @Schema(description = "Latitude du point de départ", example = "3.8667", required = true)
+    @NotNull(message = "La latitude de départ est requise")
+    @DecimalMin(value = "-90.0", message = "Latitude invalide")
+    @DecimalMax(value = "90.0", message = "Latitude invalide")
+    private Double startLatitude;
+
+    @Schema(description = "Longitude du point de départ", example = "11.5167", required = true)
+    @NotNull(message = "La longitude de départ est requise")
+    @DecimalMin(value = "-180.0", message = "Longitude invalide")
+    @DecimalMax(value = "180.0", message = "Longitude invalide")
+    private Double startLongitude;
+
+    @Schema(description = "Latitude du point d'arrivée", example = "4.0511", required = true)
+    @NotNull(message = "La latitude d'arrivée est requise")
+    @DecimalMin(value = "-90.0", message = "Latitude invalide")
+    @DecimalMax(value = "90.0", message = "Latitude invalide")
+    private Double endLatitude;
+
+    @Schema(description = "Longitude du point d'arrivée", example = "9.7679", required = true)
+    @NotNull(message = "La longitude d'arrivée est requise")
+    @DecimalMin(value = "-180.0", message = "Longitude invalide")
+    @DecimalMax(value = "180.0", message = "Longitude invalide")
+    private Double endLongitude;
+}
@@ -0,0 +1,31 @@
+package com.enspy.tripplanning.routing.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Requête de calcul d'itinéraires par lot.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Requête de calcul d'itinéraires par lot")
+public class BatchRouteRequest {
+
+    @Schema(description = "Couples origine/destination", required = true)
+    @NotEmpty(message = "Au moins un couple est requis")
+    @Size(max = 10000, message = "10000 couples au maximum")
+    private List<@Valid @NotNull BatchRoutePairDTO> pairs;
+
+    @Schema(description = "Inclure la géométrie de chaque itinéraire", example = "false")
+    @Builder.Default
+    private Boolean includeGeometry = false;
+}
@@ -0,0 +1,46 @@
+package com.enspy.tripplanning.routing.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Résultat d'un couple d'un calcul par lot. Les résultats sont envoyés dès
+ * qu'ils sont prêts, pas forcément dans l'ordre de la requête.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Résultat d'un couple origine/destination")
+public class BatchRouteResultDTO {
+
+    @Schema(description = "Position du couple dans la requête", example = "0")
+    private Integer index;
+
+    @Schema(description = "Identifiant fourni par le client")
+    private String id;
+
+    @Schema(description = "Indique si un chemin a été trouvé")
+    private Boolean found;
+
+    @Schema(description = "Message d'erreur si aucun chemin trouvé")
+    private String errorMessage;
+
+    @Schema(description = "ID du nœud de départ snappé")
+    private Long startNodeId;
+
+    @Schema(description = "ID du nœud d'arrivée snappé")
+    private Long endNodeId;
+
+    @Schema(description = "Distance totale en kilomètres", example = "245.8")
+    private Double totalDistanceKm;
+
+    @Schema(description = "Temps de parcours total en secondes", example = "9000")
+    private Integer totalTimeSeconds;
+
+    @Schema(description = "Géométrie encodée, si demandée")
+    private String geometryEncoded;
+}
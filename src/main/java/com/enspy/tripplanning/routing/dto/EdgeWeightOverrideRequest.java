@@ -0,0 +1,47 @@
+package com.enspy.tripplanning.routing.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Requête de fermeture ou de ralentissement temporaire de routes.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Surcharge temporaire des temps de parcours (fermeture ou ralentissement)")
+public class EdgeWeightOverrideRequest {
+
+    @Schema(description = "Arêtes concernées (road_edges.edge_id)")
+    @Size(max = 10000, message = "10000 arêtes au maximum")
+    private List<@NotNull Long> edgeIds;
+
+    @Schema(description = "Voies OSM concernées (toutes leurs arêtes)")
+    @Size(max = 1000, message = "1000 voies au maximum")
+    private List<@NotNull Long> osmWayIds;
+
+    @Schema(description = "Route fermée à la circulation", example = "false")
+    @Builder.Default
+    private Boolean closed = false;
+
+    @Schema(description = "Multiplicateur du temps de parcours si la route reste ouverte", example = "2.5")
+    @DecimalMin(value = "1.0", inclusive = false, message = "Le facteur doit être supérieur à 1")
+    @DecimalMax(value = "100.0", message = "Le facteur doit être inférieur à 100")
+    private Double timeFactor;
+
+    @Schema(description = "Durée de validité en minutes (défaut : application.routing.overrides.default-duration-minutes)", example = "240")
+    @Min(value = 1, message = "La durée doit être d'au moins une minute")
+    @Max(value = 43200, message = "La durée ne peut pas dépasser 30 jours")
+    private Integer durationMinutes;
+
+    @Schema(description = "Motif", example = "Inondation axe Douala-Yaoundé PK 45")
+    @Size(max = 255)
+    private String reason;
+}
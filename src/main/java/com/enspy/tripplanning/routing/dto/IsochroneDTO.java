@@ -0,0 +1,32 @@
+package com.enspy.tripplanning.routing.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Zone atteignable pour un budget de temps.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Isochrone pour un budget de temps")
+public class IsochroneDTO {
+
+    @Schema(description = "Budget de temps (minutes)", example = "60")
+    private Integer minutes;
+
+    @Schema(description = "Nombre de nœuds du réseau atteints dans le budget")
+    private Integer reachableNodes;
+
+    @Schema(description = "Type de géométrie GeoJSON", example = "MultiPolygon")
+    private String type;
+
+    @Schema(description = "Coordonnées GeoJSON MultiPolygon : polygones → anneaux → [longitude, latitude]")
+    private List<List<List<double[]>>> coordinates;
+}
@@ -0,0 +1,35 @@
+package com.enspy.tripplanning.routing.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Isochrones autour d'un point, une par budget demandé.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Zones atteignables autour d'un point")
+public class IsochroneResponse {
+
+    @Schema(description = "ID du nœud sur lequel le point a été snappé")
+    private Long centerNodeId;
+
+    @Schema(description = "Latitude du nœud de départ", example = "3.8667")
+    private Double latitude;
+
+    @Schema(description = "Longitude du nœud de départ", example = "11.5167")
+    private Double longitude;
+
+    @Schema(description = "Isochrones, par budget croissant")
+    private List<IsochroneDTO> isochrones;
+
+    @Schema(description = "Temps de calcul (ms)")
+    private Long computationTimeMs;
+}
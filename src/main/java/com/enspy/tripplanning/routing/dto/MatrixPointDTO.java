@@ -0,0 +1,31 @@
+package com.enspy.tripplanning.routing.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Point d'une matrice de temps de parcours (source ou destination).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Point géographique d'une matrice de temps de parcours")
+public class MatrixPointDTO {
+
+    @Schema(description = "Latitude", example = "3.8667", required = true)
+    @NotNull(message = "La latitude est requise")
+    @DecimalMin(value = "-90.0", message = "Latitude invalide")
+    @DecimalMax(value = "90.0", message = "Latitude invalide")
+    private Double latitude;
+
+    @Schema(description = "Longitude", example = "11.5167", required = true)
+    @NotNull(message = "La longitude est requise")
+    @DecimalMin(value = "-180.0", message = "Longitude invalide")
+    @DecimalMax(value = "180.0", message = "Longitude invalide")
+    private Double longitude;
+}
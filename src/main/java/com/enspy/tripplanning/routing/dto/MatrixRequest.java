@@ -0,0 +1,31 @@
+package com.enspy.tripplanning.routing.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Requête de matrice de temps de parcours N×M.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Requête de matrice de temps de parcours")
+public class MatrixRequest {
+
+    @Schema(description = "Points de départ (lignes de la matrice)", required = true)
+    @NotEmpty(message = "Au moins une source est requise")
+    @Size(max = 1000, message = "1000 sources au maximum")
+    private List<@Valid @NotNull MatrixPointDTO> sources;
+
+    @Schema(description = "Points d'arrivée (colonnes). Absent : matrice carrée sur les sources")
+    @Size(max = 1000, message = "1000 destinations au maximum")
+    private List<@Valid @NotNull MatrixPointDTO> destinations;
+}
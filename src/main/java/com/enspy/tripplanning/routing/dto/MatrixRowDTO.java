@@ -0,0 +1,34 @@
+package com.enspy.tripplanning.routing.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Ligne d'une matrice de temps de parcours : une source vers toutes les
+ * destinations. Les lignes sont envoyées dès qu'elles sont prêtes, pas
+ * forcément dans l'ordre des sources.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Ligne de matrice de temps de parcours")
+public class MatrixRowDTO {
+
+    @Schema(description = "Position de la source dans la requête", example = "0")
+    private Integer sourceIndex;
+
+    @Schema(description = "ID du nœud sur lequel la source a été snappée")
+    private Long sourceNodeId;
+
+    @Schema(description = "Temps de parcours (s) par destination, null si inaccessible")
+    private List<Integer> durationsSeconds;
+
+    @Schema(description = "Distance (km) par destination, null si inaccessible")
+    private List<Double> distancesKm;
+}
@@ -6,6 +6,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.List;
+
 /**
  * Réponse contenant plusieurs options d'itinéraire.
  * Permet à l'utilisateur de comparer sa route personnalisée
@@ -29,4 +31,7 @@ public class MultiRouteResponse {
 
     @Schema(description = "L'itinéraire direct optimal entre départ et arrivée")
     private RouteResponse optimalRoute;
+
+    @Schema(description = "Itinéraires alternatifs au trajet direct, calculés sur le graphe routier (du plus court au plus long)")
+    private List<RouteResponse> alternativeRoutes;
 }
@@ -1,5 +1,6 @@
 package com.enspy.tripplanning.routing.dto;
 
+import com.enspy.tripplanning.routing.graph.RoutingProfile;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.*;
 import lombok.AllArgsConstructor;
@@ -7,6 +8,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 // ============================================
@@ -53,6 +55,10 @@ public class RouteRequest {
     @Schema(description = "Liste optionnelle d'IDs de POI à inclure dans l'itinéraire")
     private List<Long> waypointPoiIds;
 
+    @Schema(description = "Réordonner les POIs pour minimiser le temps total (départ et arrivée fixes)", example = "false")
+    @Builder.Default
+    private Boolean optimizeOrder = false;
+
     @Schema(description = "Critère d'optimisation", example = "fastest", allowableValues = {"fastest", "shortest"})
     @Builder.Default
     private String optimizationCriteria = "fastest";
@@ -63,4 +69,16 @@ public class RouteRequest {
     @Schema(description = "Vitesse minimale des routes (km/h)", example = "50")
     @Min(value = 0, message = "La vitesse doit être positive")
     private Integer minSpeedKmh;
+
+    @Schema(description = "Niveau de zoom de la carte : géométries simplifiées à cette échelle (absent = pleine résolution)", example = "8")
+    @Min(value = 0, message = "Le zoom doit être compris entre 0 et 22")
+    @Max(value = 22, message = "Le zoom doit être compris entre 0 et 22")
+    private Integer zoom;
+
+    @Schema(description = "Heure de départ (heure locale) : durées selon les profils de trafic horaires (absent = temps statiques)", example = "2025-01-15T07:30:00")
+    private LocalDateTime departureTime;
+
+    @Schema(description = "Profil de véhicule : routes autorisées et vitesses (CAR, TRUCK, MOTORBIKE)", example = "CAR")
+    @Builder.Default
+    private RoutingProfile profile = RoutingProfile.CAR;
 }
@@ -38,6 +38,9 @@ public class RouteResponse {
     @Schema(description = "Point d'arrivée")
     private RoutePointDTO end;
 
+    @Schema(description = "IDs des POIs dans l'ordre de visite effectivement suivi")
+    private List<Long> waypointPoiIds;
+
     @Schema(description = "Liste ordonnée des segments de route")
     private List<RouteSegmentDTO> segments;
 
@@ -11,6 +11,9 @@ import java.util.List;
 
 /**
  * Statistiques de performance de l'algorithme A*
+ *
+ * Compteurs d'effort de la recherche, également exportés en métriques
+ * (routing.search.*, voir RoutingMetrics).
  */
 @Data
 @Builder
@@ -19,16 +22,34 @@ import java.util.List;
 @Schema(description = "Statistiques de calcul de l'itinéraire")
 public class RouteStatisticsDTO {
 
-    @Schema(description = "Nombre de nœuds explorés par l'algorithme")
+    @Schema(description = "Nombre de nœuds explorés (fixés) par l'algorithme")
     private Integer nodesExplored;
 
+    @Schema(description = "Arcs examinés depuis les nœuds fixés")
+    private Integer edgesRelaxed;
+
+    @Schema(description = "Insertions dans la file de priorité")
+    private Integer heapPushes;
+
+    @Schema(description = "Diminutions de clé dans la file de priorité")
+    private Integer heapDecreaseKeys;
+
     @Schema(description = "Nombre de nœuds dans le graphe")
     private Integer totalNodesInGraph;
 
     @Schema(description = "Temps d'exécution de l'algorithme (ms)")
     private Long computationTimeMs;
 
-    @Schema(description = "Algorithme utilisé", example = "A* avec heuristique euclidienne")
+    @Schema(description = "Temps de snapping des points (ms)", example = "0.12")
+    private Double snapTimeMs;
+
+    @Schema(description = "Temps d'attente des tuiles lues en base (ms)", example = "0.0")
+    private Double subgraphLoadTimeMs;
+
+    @Schema(description = "Temps de reconstruction du chemin (ms)", example = "0.8")
+    private Double unpackTimeMs;
+
+    @Schema(description = "Algorithme utilisé", example = "A* bidirectionnelle (graphe résident)")
     private String algorithm;
 
     @Schema(description = "Taux d'exploration", example = "0.05")
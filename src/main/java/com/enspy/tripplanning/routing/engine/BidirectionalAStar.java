@@ -0,0 +1,291 @@
+package com.enspy.tripplanning.routing.engine;
+
+import com.enspy.tripplanning.routing.graph.RoadGraph;
+import com.enspy.tripplanning.routing.model.Route;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A* bidirectionnelle sur le {@link RoadGraph} : une recherche avant depuis
+ * le départ (arcs sortants) et une recherche arrière depuis l'arrivée (graphe
+ * inverse, donc sens uniques respectés).
+ *
+ * POTENTIELS MOYENS:
+ * Avec h(v, t) estimation de v vers l'arrivée et h(s, v) estimation du
+ * départ vers v, on pose p(v) = (h(v, t) − h(s, v)) / 2 pour la recherche
+ * avant et −p(v) pour la recherche arrière. Les deux potentiels restent
+ * cohérents et leur somme est nulle, ce qui autorise un critère d'arrêt
+ * simple. Les clés sont doublées pour rester entières :
+ * clé_avant(v) = 2 g_avant(v) + P(v), clé_arrière(v) = 2 g_arrière(v) − P(v),
+ * avec P(v) = h(v, t) − h(s, v).
+ *
+ * ARRÊT:
+ * μ = meilleure longueur s → t connue, mise à jour à chaque arc relâché vers
+ * un nœud déjà atteint par l'autre recherche.
+ * - Séquentiel : arrêt dès que min_avant + min_arrière ≥ 2μ.
+ * - Parallèle : chaque côté s'arrête dès que sa propre clé minimale est
+ * ≥ 2μ − h(s, t) (critère suffisant à lui seul), ou quand l'autre côté a
+ * conclu.
+ *
+ * RECONSTRUCTION: chaîne avant du nœud de rencontre m jusqu'à s, puis chaîne
+ * arrière de m jusqu'à t (les arcs arrière référencent les arcs avant).
+ */
+public final class BidirectionalAStar {
+
+    /**
+     * Estimation admissible du temps de parcours (secondes) de from vers to.
+     */
+    @FunctionalInterface
+    public interface Heuristic {
+        int estimate(int from, int to);
+    }
+
+    private static final long NO_MEETING = Long.MAX_VALUE;
+
+    private BidirectionalAStar() {
+    }
+
+    /**
+     * Recherche bidirectionnelle alternée sur le thread courant.
+     */
+    public static Route search(RoadGraph graph, int start, int end, Heuristic h,
+            SearchContext forward, SearchContext backward) {
+        if (start == end) {
+            return graph.toRoute(start, end, forward.pathBuffer(0), 0, 1);
+        }
+        int[] firstOut = graph.getFirstOut();
+        int[] arcHead = graph.getArcHead();
+        int[] firstIn = graph.getFirstIn();
+        int[] inArcTail = graph.getInArcTail();
+        int[] inArcRef = graph.getInArcRef();
+        int[] arcWeight = graph.getArcWeight();
+
+        IndexedDaryHeap forwardHeap = forward.heap();
+        IndexedDaryHeap backwardHeap = backward.heap();
+        forward.label(start, 0, -1);
+        forwardHeap.push(start, potential(h, start, end, start));
+        backward.label(end, 0, -1);
+        backwardHeap.push(end, -potential(h, start, end, end));
+
+        int best = Integer.MAX_VALUE;
+        int meeting = -1;
+        int nodesExplored = 0;
+
+        while (!forwardHeap.isEmpty() && !backwardHeap.isEmpty()) {
+            int forwardKey = forwardHeap.peekKey();
+            int backwardKey = backwardHeap.peekKey();
+            if ((long) forwardKey + backwardKey >= 2L * best) {
+                break;
+            }
+
+            if (forwardKey <= backwardKey) {
+                int u = forwardHeap.popMin();
+                forward.settle(u);
+                nodesExplored++;
+                forward.countRelaxed(firstOut[u + 1] - firstOut[u]);
+                int du = forward.dist(u);
+                for (int arc = firstOut[u]; arc < firstOut[u + 1]; arc++) {
+                    if (arcWeight[arc] >= RoadGraph.CLOSED_WEIGHT) {
+                        continue;
+                    }
+                    int v = arcHead[arc];
+                    int dv = du + arcWeight[arc];
+                    int other = backward.dist(v);
+                    if (other != Integer.MAX_VALUE && dv + other < best) {
+                        best = dv + other;
+                        meeting = v;
+                    }
+                    relax(forward, forwardHeap, v, dv, arc, 2 * dv + potential(h, start, end, v));
+                }
+            } else {
+                int u = backwardHeap.popMin();
+                backward.settle(u);
+                nodesExplored++;
+                backward.countRelaxed(firstIn[u + 1] - firstIn[u]);
+                int du = backward.dist(u);
+                for (int i = firstIn[u]; i < firstIn[u + 1]; i++) {
+                    int v = inArcTail[i];
+                    int arc = inArcRef[i];
+                    if (arcWeight[arc] >= RoadGraph.CLOSED_WEIGHT) {
+                        continue;
+                    }
+                    int dv = du + arcWeight[arc];
+                    int other = forward.dist(v);
+                    if (other != Integer.MAX_VALUE && dv + other < best) {
+                        best = dv + other;
+                        meeting = v;
+                    }
+                    relax(backward, backwardHeap, v, dv, arc, 2 * dv - potential(h, start, end, v));
+                }
+            }
+        }
+
+        if (meeting < 0) {
+            return null;
+        }
+        return reconstructPath(graph, forward, backward, start, end, meeting, nodesExplored);
+    }
+
+    /**
+     * Variante parallèle : la recherche arrière est confiée à {@code executor}
+     * pendant que le thread courant mène la recherche avant. Les contextes
+     * doivent appartenir au thread appelant.
+     *
+     * La recherche avant suffit seule à conclure : si la recherche arrière
+     * n'a pas encore démarré à ce moment (file d'attente, tâche refusée),
+     * elle est abandonnée. Le thread appelant n'attend donc jamais une tâche
+     * restée en file, et l'executor peut être le pool qui l'exécute.
+     *
+     * @return Route trouvée, ou null si aucun chemin
+     */
+    public static Route searchParallel(RoadGraph graph, int start, int end, Heuristic h,
+            SearchContext forward, SearchContext backward, Executor executor) {
+        if (start == end) {
+            return graph.toRoute(start, end, forward.pathBuffer(0), 0, 1);
+        }
+
+        // Étiquettes initiales publiées avant le démarrage du second thread
+        forward.labelShared(start, 0, -1);
+        forward.heap().push(start, potential(h, start, end, start));
+        backward.labelShared(end, 0, -1);
+        backward.heap().push(end, -potential(h, start, end, end));
+
+        // μ et nœud de rencontre empaquetés : (μ << 32) | m, le minimum suit μ
+        AtomicLong best = new AtomicLong(NO_MEETING);
+        AtomicBoolean done = new AtomicBoolean();
+        int stopOffset = h.estimate(start, end);
+
+        // La recherche arrière ne démarre que si personne ne l'a réclamée avant
+        AtomicBoolean claimed = new AtomicBoolean();
+        CompletableFuture<Integer> backwardSide = new CompletableFuture<>();
+        executor.execute(() -> {
+            if (!claimed.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                backwardSide.complete(runSide(graph, start, end, h, backward, forward, false, best, done, stopOffset));
+            } catch (Throwable error) {
+                done.set(true);
+                backwardSide.completeExceptionally(error);
+            }
+        });
+        int nodesExplored = runSide(graph, start, end, h, forward, backward, true, best, done, stopOffset);
+        if (!claimed.compareAndSet(false, true)) {
+            nodesExplored += backwardSide.join();
+        }
+
+        long packed = best.get();
+        if (packed == NO_MEETING) {
+            return null;
+        }
+        return reconstructPath(graph, forward, backward, start, end, (int) packed, nodesExplored);
+    }
+
+    private static int runSide(RoadGraph graph, int start, int end, Heuristic h,
+            SearchContext own, SearchContext other, boolean isForward,
+            AtomicLong best, AtomicBoolean done, int stopOffset) {
+        int[] first = isForward ? graph.getFirstOut() : graph.getFirstIn();
+        int[] neighbors = isForward ? graph.getArcHead() : graph.getInArcTail();
+        int[] inArcRef = graph.getInArcRef();
+        int[] arcWeight = graph.getArcWeight();
+        IndexedDaryHeap heap = own.heap();
+        int nodesExplored = 0;
+
+        while (!done.get()) {
+            if (heap.isEmpty()) {
+                // Tous les nœuds accessibles de ce côté sont fixés : μ est optimal
+                done.set(true);
+                break;
+            }
+            long packed = best.get();
+            int mu = packed == NO_MEETING ? Integer.MAX_VALUE : (int) (packed >>> 32);
+            if (heap.peekKey() >= 2L * mu - stopOffset) {
+                done.set(true);
+                break;
+            }
+
+            int u = heap.popMin();
+            own.settle(u);
+            nodesExplored++;
+            own.countRelaxed(first[u + 1] - first[u]);
+            int du = own.dist(u);
+            for (int i = first[u]; i < first[u + 1]; i++) {
+                int v = neighbors[i];
+                int arc = isForward ? i : inArcRef[i];
+                if (arcWeight[arc] >= RoadGraph.CLOSED_WEIGHT) {
+                    continue;
+                }
+                int dv = du + arcWeight[arc];
+                int otherDist = other.distShared(v);
+                if (otherDist != Integer.MAX_VALUE) {
+                    long candidate = ((long) (dv + otherDist) << 32) | v;
+                    if (candidate < best.get()) {
+                        best.accumulateAndGet(candidate, Math::min);
+                    }
+                }
+                if (own.isSettled(v)) {
+                    continue;
+                }
+                int p = potential(h, start, end, v);
+                int key = isForward ? 2 * dv + p : 2 * dv - p;
+                if (!own.isReached(v)) {
+                    own.labelShared(v, dv, arc);
+                    heap.push(v, key);
+                } else if (dv < own.dist(v)) {
+                    own.labelShared(v, dv, arc);
+                    heap.decreaseKey(v, key);
+                }
+            }
+        }
+        return nodesExplored;
+    }
+
+    /**
+     * P(v) = h(v, t) − h(s, v)
+     */
+    private static int potential(Heuristic h, int start, int end, int v) {
+        return h.estimate(v, end) - h.estimate(start, v);
+    }
+
+    private static void relax(SearchContext ctx, IndexedDaryHeap heap, int node, int distance, int arc, int key) {
+        if (ctx.isSettled(node)) {
+            return;
+        }
+        if (!ctx.isReached(node)) {
+            ctx.label(node, distance, arc);
+            heap.push(node, key);
+        } else if (distance < ctx.dist(node)) {
+            ctx.label(node, distance, arc);
+            heap.decreaseKey(node, key);
+        }
+    }
+
+    private static Route reconstructPath(RoadGraph graph, SearchContext forward, SearchContext backward,
+            int start, int end, int meeting, int nodesExplored) {
+        int[] arcHead = graph.getArcHead();
+
+        int forwardLength = 0;
+        for (int v = meeting; v != start; v = graph.arcTail(forward.parentArc(v))) {
+            forwardLength++;
+        }
+        int length = forwardLength;
+        for (int v = meeting; v != end; v = arcHead[backward.parentArc(v)]) {
+            length++;
+        }
+
+        int[] buffer = forward.pathBuffer(length);
+        int i = forwardLength;
+        for (int v = meeting; v != start; v = graph.arcTail(forward.parentArc(v))) {
+            buffer[--i] = forward.parentArc(v);
+        }
+        i = forwardLength;
+        for (int v = meeting; v != end; v = arcHead[backward.parentArc(v)]) {
+            buffer[i++] = backward.parentArc(v);
+        }
+
+        return graph.toRoute(start, end, buffer, length, nodesExplored);
+    }
+}
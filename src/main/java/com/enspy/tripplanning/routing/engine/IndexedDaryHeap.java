@@ -0,0 +1,216 @@
+package com.enspy.tripplanning.routing.engine;
+
+/**
+ * File de priorité indexée (tas d-aire, d = 4) sur des nœuds entiers.
+ *
+ * Contrairement à {@link java.util.PriorityQueue}, le tas connaît la position
+ * de chaque nœud et supporte donc decrease-key : un nœud n'est jamais
+ * présent deux fois, et aucune entrée objet n'est allouée par insertion.
+ *
+ * RÉINITIALISATION O(1):
+ * {@link #clear()} remet seulement la taille à zéro. Le tableau des positions
+ * n'est jamais vidé : un nœud v est dans le tas si et seulement si
+ * position[v] < size et heap[position[v]] == v, ce qui invalide
+ * automatiquement les positions laissées par les requêtes précédentes.
+ *
+ * COMPLEXITÉ: push / decreaseKey en O(log_d n), popMin en O(d log_d n).
+ * Un tas 4-aire est moins profond qu'un tas binaire et reste dans la même
+ * ligne de cache pour les enfants, ce qui le rend plus rapide en pratique.
+ *
+ * Les insertions et diminutions de clé depuis le dernier {@link #clear()}
+ * sont comptées (effort de recherche, voir {@link SearchEffort}).
+ */
+public final class IndexedDaryHeap {
+
+    private static final int ARITY = 4;
+
+    private final int[] heap;
+    private final int[] keys;
+    private final int[] position;
+    private int size;
+    private int pushCount;
+    private int decreaseKeyCount;
+
+    /**
+     * @param capacity Nombre de nœuds du graphe (indices 0..capacity-1)
+     */
+    public IndexedDaryHeap(int capacity) {
+        this.heap = new int[capacity];
+        this.keys = new int[capacity];
+        this.position = new int[capacity];
+    }
+
+    public int capacity() {
+        return position.length;
+    }
+
+    public void clear() {
+        size = 0;
+        pushCount = 0;
+        decreaseKeyCount = 0;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return Insertions depuis le dernier {@link #clear()}
+     */
+    public int pushCount() {
+        return pushCount;
+    }
+
+    /**
+     * @return Diminutions de clé depuis le dernier {@link #clear()}
+     */
+    public int decreaseKeyCount() {
+        return decreaseKeyCount;
+    }
+
+    public boolean contains(int node) {
+        int p = position[node];
+        return p < size && heap[p] == node;
+    }
+
+    /**
+     * Clé minimale (le tas ne doit pas être vide).
+     */
+    public int peekKey() {
+        return keys[0];
+    }
+
+    /**
+     * Nœud de clé minimale (le tas ne doit pas être vide).
+     */
+    public int peek() {
+        return heap[0];
+    }
+
+    public int keyOf(int node) {
+        return keys[position[node]];
+    }
+
+    /**
+     * Insère un nœud absent du tas.
+     */
+    public void push(int node, int key) {
+        int p = size++;
+        pushCount++;
+        heap[p] = node;
+        keys[p] = key;
+        position[node] = p;
+        siftUp(p);
+    }
+
+    /**
+     * Diminue la clé d'un nœud déjà présent.
+     */
+    public void decreaseKey(int node, int key) {
+        int p = position[node];
+        decreaseKeyCount++;
+        keys[p] = key;
+        siftUp(p);
+    }
+
+    /**
+     * Modifie la clé d'un nœud présent, à la hausse comme à la baisse.
+     */
+    public void changeKey(int node, int key) {
+        int p = position[node];
+        int old = keys[p];
+        keys[p] = key;
+        if (key < old) {
+            decreaseKeyCount++;
+            siftUp(p);
+        } else if (key > old) {
+            siftDown(p);
+        }
+    }
+
+    /**
+     * Insère le nœud, ou diminue sa clé s'il est déjà présent avec une clé
+     * supérieure.
+     *
+     * @return true si le nœud a été inséré, false s'il a été mis à jour ou ignoré
+     */
+    public boolean pushOrDecrease(int node, int key) {
+        if (contains(node)) {
+            if (key < keys[position[node]]) {
+                decreaseKey(node, key);
+            }
+            return false;
+        }
+        push(node, key);
+        return true;
+    }
+
+    /**
+     * Retire et retourne le nœud de clé minimale.
+     */
+    public int popMin() {
+        int min = heap[0];
+        size--;
+        if (size > 0) {
+            heap[0] = heap[size];
+            keys[0] = keys[size];
+            position[heap[0]] = 0;
+            siftDown(0);
+        }
+        // Invalide explicitement la position du nœud retiré
+        position[min] = Integer.MAX_VALUE;
+        return min;
+    }
+
+    private void siftUp(int p) {
+        int node = heap[p];
+        int key = keys[p];
+        while (p > 0) {
+            int parent = (p - 1) / ARITY;
+            if (keys[parent] <= key) {
+                break;
+            }
+            heap[p] = heap[parent];
+            keys[p] = keys[parent];
+            position[heap[p]] = p;
+            p = parent;
+        }
+        heap[p] = node;
+        keys[p] = key;
+        position[node] = p;
+    }
+
+    private void siftDown(int p) {
+        int node = heap[p];
+        int key = keys[p];
+        while (true) {
+            int first = p * ARITY + 1;
+            if (first >= size) {
+                break;
+            }
+            int last = Math.min(first + ARITY, size);
+            int best = first;
+            int bestKey = keys[first];
+            for (int c = first + 1; c < last; c++) {
+                if (keys[c] < bestKey) {
+                    best = c;
+                    bestKey = keys[c];
+                }
+            }
+            if (bestKey >= key) {
+                break;
+            }
+            heap[p] = heap[best];
+            keys[p] = bestKey;
+            position[heap[p]] = p;
+            p = best;
+        }
+        heap[p] = node;
+        keys[p] = key;
+        position[node] = p;
+    }
+}
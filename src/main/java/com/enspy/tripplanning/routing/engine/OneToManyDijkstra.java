@@ -0,0 +1,107 @@
+package com.enspy.tripplanning.routing.engine;
+
+import com.enspy.tripplanning.routing.graph.RoadGraph;
+
+import java.util.Arrays;
+
+/**
+ * Dijkstra un-vers-plusieurs sur le {@link RoadGraph} : une seule recherche
+ * depuis la source donne le temps de parcours vers toutes les cibles d'une
+ * ligne de matrice.
+ *
+ * ARRÊT: la recherche s'interrompt dès que toutes les cibles distinctes sont
+ * fixées (ou que le tas est vide : cibles inaccessibles).
+ *
+ * DISTANCES: la distance en mètres n'entre pas dans l'ordre de la recherche
+ * (on minimise le temps). Elle est propagée au moment où un nœud est fixé :
+ * son parent l'a forcément été avant lui, donc
+ * mètres(v) = mètres(parent) + longueur(arc parent).
+ *
+ * Contexte : slot 0 de {@link SearchContextPool}, tampon des mètres par
+ * thread ; aucune allocation par nœud.
+ */
+public final class OneToManyDijkstra {
+
+    public static final int UNREACHABLE = -1;
+
+    private static final ThreadLocal<double[]> METERS = ThreadLocal.withInitial(() -> new double[0]);
+
+    private OneToManyDijkstra() {
+    }
+
+    /**
+     * @param graph          Graphe résident
+     * @param source         Indice dense de la source
+     * @param sortedTargets  Cibles distinctes triées (indices denses)
+     * @param durations      Sortie : secondes par cible de {@code sortedTargets}
+     *                       ({@link #UNREACHABLE} si inaccessible)
+     * @param distancesMeters Sortie : mètres par cible de {@code sortedTargets}
+     * @return Nombre de nœuds fixés
+     */
+    public static int row(RoadGraph graph, int source, int[] sortedTargets,
+            int[] durations, double[] distancesMeters) {
+        int n = graph.getNodeCount();
+        int[] firstOut = graph.getFirstOut();
+        int[] arcHead = graph.getArcHead();
+        int[] arcEdge = graph.getArcEdge();
+        int[] arcWeight = graph.getArcWeight();
+        double[] edgeMeters = graph.getEdgeDistancesMeters();
+
+        SearchContext ctx = SearchContextPool.acquire(n, 0);
+        IndexedDaryHeap heap = ctx.heap();
+        double[] meters = metersBuffer(n);
+
+        ctx.label(source, 0, -1);
+        heap.push(source, 0);
+        int remaining = sortedTargets.length;
+        int nodesSettled = 0;
+
+        while (!heap.isEmpty() && remaining > 0) {
+            int u = heap.popMin();
+            ctx.settle(u);
+            nodesSettled++;
+            int parent = ctx.parentArc(u);
+            meters[u] = parent < 0 ? 0.0 : meters[graph.arcTail(parent)] + edgeMeters[arcEdge[parent]];
+            if (Arrays.binarySearch(sortedTargets, u) >= 0) {
+                remaining--;
+            }
+
+            int du = ctx.dist(u);
+            for (int arc = firstOut[u]; arc < firstOut[u + 1]; arc++) {
+                int v = arcHead[arc];
+                if (ctx.isSettled(v) || arcWeight[arc] >= RoadGraph.CLOSED_WEIGHT) {
+                    continue;
+                }
+                int dv = du + arcWeight[arc];
+                if (!ctx.isReached(v)) {
+                    ctx.label(v, dv, arc);
+                    heap.push(v, dv);
+                } else if (dv < ctx.dist(v)) {
+                    ctx.label(v, dv, arc);
+                    heap.decreaseKey(v, dv);
+                }
+            }
+        }
+
+        for (int i = 0; i < sortedTargets.length; i++) {
+            int t = sortedTargets[i];
+            if (ctx.isSettled(t)) {
+                durations[i] = ctx.dist(t);
+                distancesMeters[i] = meters[t];
+            } else {
+                durations[i] = UNREACHABLE;
+                distancesMeters[i] = 0.0;
+            }
+        }
+        return nodesSettled;
+    }
+
+    private static double[] metersBuffer(int nodeCount) {
+        double[] meters = METERS.get();
+        if (meters.length < nodeCount) {
+            meters = new double[nodeCount];
+            METERS.set(meters);
+        }
+        return meters;
+    }
+}
@@ -0,0 +1,140 @@
+package com.enspy.tripplanning.routing.engine;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+
+/**
+ * État réutilisable d'une recherche de plus court chemin (Dijkstra / A*).
+ *
+ * Tous les tableaux sont indexés par indice dense de nœud et alloués une
+ * seule fois. Au lieu de les remettre à zéro entre deux requêtes (O(n)), on
+ * incrémente un numéro de version : un nœud n'est considéré "atteint" ou
+ * "fixé" que si sa marque est égale à la version courante.
+ * {@link #reset()} est donc en O(1).
+ *
+ * Une instance n'est PAS thread-safe : voir {@link SearchContextPool}.
+ * Seule exception : {@link #labelShared} / {@link #distShared} permettent à
+ * un autre thread de lire les distances pendant la recherche (A*
+ * bidirectionnelle parallèle).
+ */
+public final class SearchContext {
+
+    private static final VarHandle VERSIONS = MethodHandles.arrayElementVarHandle(int[].class);
+
+    private final int[] dist;
+    private final int[] parentArc;
+    private final int[] reachedVersion;
+    private final int[] settledVersion;
+    private final IndexedDaryHeap heap;
+    private int version;
+    /** Arcs examinés depuis le dernier {@link #reset()} */
+    private int relaxedCount;
+
+    private int[] pathBuffer = new int[256];
+
+    public SearchContext(int capacity) {
+        this.dist = new int[capacity];
+        this.parentArc = new int[capacity];
+        this.reachedVersion = new int[capacity];
+        this.settledVersion = new int[capacity];
+        this.heap = new IndexedDaryHeap(capacity);
+    }
+
+    public int capacity() {
+        return dist.length;
+    }
+
+    /**
+     * Prépare une nouvelle recherche en O(1).
+     */
+    public void reset() {
+        heap.clear();
+        relaxedCount = 0;
+        if (++version == Integer.MAX_VALUE) {
+            // Débordement (après ~2 milliards de requêtes) : remise à zéro réelle
+            Arrays.fill(reachedVersion, 0);
+            Arrays.fill(settledVersion, 0);
+            version = 1;
+        }
+    }
+
+    public IndexedDaryHeap heap() {
+        return heap;
+    }
+
+    public boolean isReached(int node) {
+        return reachedVersion[node] == version;
+    }
+
+    public boolean isSettled(int node) {
+        return settledVersion[node] == version;
+    }
+
+    /**
+     * Distance courante du nœud (Integer.MAX_VALUE s'il n'est pas atteint).
+     */
+    public int dist(int node) {
+        return reachedVersion[node] == version ? dist[node] : Integer.MAX_VALUE;
+    }
+
+    public int parentArc(int node) {
+        return parentArc[node];
+    }
+
+    /**
+     * Enregistre (ou améliore) l'étiquette d'un nœud.
+     */
+    public void label(int node, int distance, int arc) {
+        dist[node] = distance;
+        parentArc[node] = arc;
+        reachedVersion[node] = version;
+    }
+
+    /**
+     * Comme {@link #label}, mais publie l'étiquette (écriture "release" de la
+     * marque de version) pour un lecteur concurrent utilisant
+     * {@link #distShared}.
+     */
+    public void labelShared(int node, int distance, int arc) {
+        dist[node] = distance;
+        parentArc[node] = arc;
+        VERSIONS.setRelease(reachedVersion, node, version);
+    }
+
+    /**
+     * Lecture concurrente de la distance (lecture "acquire" de la marque) :
+     * un lecteur ne voit jamais la marque courante avec une distance d'une
+     * requête précédente. La valeur lue peut être dépassée, mais correspond
+     * toujours à un chemin réel.
+     */
+    public int distShared(int node) {
+        return (int) VERSIONS.getAcquire(reachedVersion, node) == version ? dist[node] : Integer.MAX_VALUE;
+    }
+
+    public void settle(int node) {
+        settledVersion[node] = version;
+    }
+
+    /**
+     * Compte les arcs examinés depuis un nœud fixé (un appel par nœud, pas
+     * par arc).
+     */
+    public void countRelaxed(int arcs) {
+        relaxedCount += arcs;
+    }
+
+    public int relaxedCount() {
+        return relaxedCount;
+    }
+
+    /**
+     * Tampon réutilisable pour la reconstruction des chemins.
+     */
+    public int[] pathBuffer(int minLength) {
+        if (pathBuffer.length < minLength) {
+            pathBuffer = new int[Math.max(minLength, pathBuffer.length * 2)];
+        }
+        return pathBuffer;
+    }
+}
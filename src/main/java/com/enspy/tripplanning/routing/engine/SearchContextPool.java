@@ -0,0 +1,39 @@
+package com.enspy.tripplanning.routing.engine;
+
+/**
+ * Contextes de recherche réutilisables, un jeu par thread de calcul.
+ *
+ * Chaque thread garde ses {@link SearchContext} (un par "slot" : une
+ * recherche bidirectionnelle utilise par exemple deux slots) d'une requête
+ * à l'autre. Un contexte n'est réalloué que si le graphe a grossi.
+ *
+ * La boucle de recherche ne produit ainsi aucun déchet pour le GC.
+ */
+public final class SearchContextPool {
+
+    public static final int MAX_SLOTS = 4;
+
+    private static final ThreadLocal<SearchContext[]> CONTEXTS =
+            ThreadLocal.withInitial(() -> new SearchContext[MAX_SLOTS]);
+
+    private SearchContextPool() {
+    }
+
+    /**
+     * Retourne le contexte du thread courant pour un slot donné, réinitialisé
+     * et dimensionné pour {@code nodeCount} nœuds.
+     *
+     * @param nodeCount Nombre de nœuds du graphe
+     * @param slot      Slot (0..MAX_SLOTS-1)
+     */
+    public static SearchContext acquire(int nodeCount, int slot) {
+        SearchContext[] contexts = CONTEXTS.get();
+        SearchContext context = contexts[slot];
+        if (context == null || context.capacity() < nodeCount) {
+            context = new SearchContext(nodeCount);
+            contexts[slot] = context;
+        }
+        context.reset();
+        return context;
+    }
+}
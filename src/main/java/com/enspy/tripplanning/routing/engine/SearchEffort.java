@@ -0,0 +1,40 @@
+package com.enspy.tripplanning.routing.engine;
+
+import com.enspy.tripplanning.routing.model.Route;
+
+/**
+ * Report de l'effort d'une recherche (arcs examinés, insertions et
+ * diminutions de clé dans le tas) depuis ses {@link SearchContext} vers la
+ * {@link Route} produite.
+ *
+ * Les compteurs vivent dans les contextes et sont remis à zéro par
+ * {@link SearchContext#reset()} : ils ne coûtent qu'une addition par nœud
+ * fixé et par opération de tas, et n'ont de sens que juste après la
+ * recherche, sur le thread qui l'a menée.
+ */
+public final class SearchEffort {
+
+    private SearchEffort() {
+    }
+
+    /**
+     * Ajoute à {@code route} l'effort mesuré dans {@code contexts} (une
+     * recherche bidirectionnelle en utilise deux).
+     *
+     * @return {@code route}, pour chaîner
+     */
+    public static Route record(Route route, SearchContext... contexts) {
+        int relaxed = 0;
+        int pushes = 0;
+        int decreases = 0;
+        for (SearchContext context : contexts) {
+            relaxed += context.relaxedCount();
+            pushes += context.heap().pushCount();
+            decreases += context.heap().decreaseKeyCount();
+        }
+        route.setEdgesRelaxed(relaxed);
+        route.setHeapPushes(pushes);
+        route.setHeapDecreaseKeys(decreases);
+        return route;
+    }
+}
@@ -0,0 +1,223 @@
+package com.enspy.tripplanning.routing.engine;
+
+import com.enspy.tripplanning.routing.model.RoadEdge;
+import com.enspy.tripplanning.routing.model.RoadNode;
+import com.enspy.tripplanning.routing.model.Route;
+import com.enspy.tripplanning.routing.model.SearchAlgorithm;
+import com.enspy.tripplanning.routing.model.Subgraph;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.LongFunction;
+import java.util.function.ToDoubleBiFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * A* suspendable sur un graphe découpé en tuiles chargées à la demande.
+ *
+ * La recherche ne connaît que les tuiles déjà atteintes par sa frontière.
+ * Lorsqu'elle doit développer un nœud dont la tuile n'est pas en mémoire,
+ * {@link #run()} s'interrompt et retourne la clé de cette tuile : l'appelant
+ * la charge de façon asynchrone, la fournit par {@link #addTile} puis
+ * relance {@link #run()}, qui reprend exactement où il s'était arrêté.
+ * Aucun thread n'attend jamais une requête.
+ *
+ * Seules les tuiles effectivement traversées sont chargées : la mémoire est
+ * bornée par la zone explorée, pas par la taille du réseau.
+ *
+ * Une instance n'est pas thread-safe ; les appels successifs peuvent venir de
+ * threads différents tant qu'ils ne se chevauchent pas.
+ */
+public final class TiledAStar {
+
+    /** Retour de {@link #run()} : recherche terminée */
+    public static final long DONE = Long.MIN_VALUE;
+
+    private final RoadNode start;
+    private final RoadNode end;
+    private final ToLongFunction<RoadNode> tileOf;
+    private final LongFunction<Subgraph> cachedTile;
+    private final ToDoubleBiFunction<RoadNode, RoadNode> heuristic;
+
+    /** Tuiles utilisées par cette recherche */
+    private final Map<Long, Subgraph> tiles = new HashMap<>();
+    /** Nœuds atteints (départ et voisins découverts) */
+    private final Map<Long, RoadNode> nodes = new HashMap<>();
+    private final Map<Long, Double> g = new HashMap<>();
+    private final Map<Long, RoadEdge> cameBy = new HashMap<>();
+    private final PriorityQueue<NodeScore> openSet = new PriorityQueue<>(Comparator.comparingDouble(NodeScore::fScore));
+    private final Set<Long> closedSet = new HashSet<>();
+
+    private int nodesExplored;
+    private int edgesRelaxed;
+    private int heapPushes;
+    private int heapDecreaseKeys;
+    private boolean found;
+
+    private record NodeScore(long nodeId, double fScore) {
+    }
+
+    /**
+     * @param tileOf     Clé de la tuile contenant un nœud
+     * @param cachedTile Tuile déjà en mémoire, ou null s'il faut la charger
+     * @param heuristic  Estimation (secondes) du temps restant d'un nœud vers
+     *                   l'arrivée
+     */
+    public TiledAStar(RoadNode start, RoadNode end, ToLongFunction<RoadNode> tileOf,
+            LongFunction<Subgraph> cachedTile, ToDoubleBiFunction<RoadNode, RoadNode> heuristic) {
+        this.start = start;
+        this.end = end;
+        this.tileOf = tileOf;
+        this.cachedTile = cachedTile;
+        this.heuristic = heuristic;
+
+        nodes.put(start.getNodeId(), start);
+        g.put(start.getNodeId(), 0.0);
+        openSet.add(new NodeScore(start.getNodeId(), heuristic.applyAsDouble(start, end)));
+        heapPushes++;
+    }
+
+    /**
+     * Poursuit la recherche.
+     *
+     * @return {@link #DONE} si la recherche est terminée (chemin trouvé ou
+     *         frontière épuisée), sinon la clé de la tuile à fournir avant de
+     *         rappeler cette méthode
+     */
+    public long run() {
+        while (!openSet.isEmpty()) {
+            long currentId = openSet.peek().nodeId();
+            if (closedSet.contains(currentId)) {
+                openSet.poll();
+                continue;
+            }
+
+            RoadNode current = nodes.get(currentId);
+            long key = tileOf.applyAsLong(current);
+            Subgraph tile = tiles.get(key);
+            if (tile == null) {
+                tile = cachedTile.apply(key);
+                if (tile == null) {
+                    // Suspension : le nœud reste en tête de file
+                    return key;
+                }
+                tiles.put(key, tile);
+            }
+
+            openSet.poll();
+            closedSet.add(currentId);
+            nodesExplored++;
+
+            if (currentId == end.getNodeId()) {
+                found = true;
+                return DONE;
+            }
+
+            double currentG = g.get(currentId);
+            List<RoadEdge> neighbors = tile.getNeighbors(currentId);
+            edgesRelaxed += neighbors.size();
+            for (RoadEdge edge : neighbors) {
+                long neighborId = edge.getSourceNodeId() == currentId ? edge.getTargetNodeId() : edge.getSourceNodeId();
+                if (closedSet.contains(neighborId)) {
+                    continue;
+                }
+
+                Integer travelTime = edge.getTravelTimeSeconds();
+                if (travelTime == null || travelTime <= 0) {
+                    travelTime = edge.calculateTravelTime();
+                }
+                double tentativeG = currentG + travelTime;
+
+                if (tentativeG < g.getOrDefault(neighborId, Double.MAX_VALUE)) {
+                    RoadNode neighbor = tile.getNode(neighborId);
+                    if (neighbor == null) {
+                        continue;
+                    }
+                    // Pas de decrease-key : nouvelle entrée, l'ancienne est ignorée au retrait
+                    if (nodes.put(neighborId, neighbor) != null) {
+                        heapDecreaseKeys++;
+                    }
+                    heapPushes++;
+                    g.put(neighborId, tentativeG);
+                    cameBy.put(neighborId, edge);
+                    openSet.add(new NodeScore(neighborId, tentativeG + heuristic.applyAsDouble(neighbor, end)));
+                }
+            }
+        }
+        return DONE;
+    }
+
+    /**
+     * Fournit la tuile demandée par {@link #run()}.
+     */
+    public void addTile(long key, Subgraph tile) {
+        tiles.put(key, tile);
+    }
+
+    public int getTileCount() {
+        return tiles.size();
+    }
+
+    public int getNodesExplored() {
+        return nodesExplored;
+    }
+
+    /**
+     * @return Route trouvée, ou route found = false si l'arrivée est
+     *         inaccessible
+     */
+    public Route toRoute() {
+        if (!found) {
+            return Route.builder()
+                    .startNode(start)
+                    .endNode(end)
+                    .found(false)
+                    .nodesExplored(nodesExplored)
+                    .algorithm(SearchAlgorithm.TILED_ASTAR)
+                    .edgesRelaxed(edgesRelaxed)
+                    .heapPushes(heapPushes)
+                    .heapDecreaseKeys(heapDecreaseKeys)
+                    .errorMessage("Aucun chemin trouvé")
+                    .build();
+        }
+
+        long unpackStart = System.nanoTime();
+        List<RoadNode> pathNodes = new ArrayList<>();
+        List<RoadEdge> pathEdges = new ArrayList<>();
+        long current = end.getNodeId();
+        pathNodes.add(nodes.get(current));
+        while (current != start.getNodeId()) {
+            RoadEdge edge = cameBy.get(current);
+            current = edge.getSourceNodeId() == current ? edge.getTargetNodeId() : edge.getSourceNodeId();
+            pathEdges.add(edge);
+            pathNodes.add(nodes.get(current));
+        }
+        Collections.reverse(pathNodes);
+        Collections.reverse(pathEdges);
+
+        Route route = Route.builder()
+                .startNode(start)
+                .endNode(end)
+                .nodes(pathNodes)
+                .edges(pathEdges)
+                .found(true)
+                .nodesExplored(nodesExplored)
+                .algorithm(SearchAlgorithm.TILED_ASTAR)
+                .edgesRelaxed(edgesRelaxed)
+                .heapPushes(heapPushes)
+                .heapDecreaseKeys(heapDecreaseKeys)
+                .build();
+
+        route.setTotalDistanceKm(route.calculateTotalDistance());
+        route.setTotalTimeSeconds(route.calculateTotalTime());
+        route.setUnpackTimeNanos(System.nanoTime() - unpackStart);
+        return route;
+    }
+}
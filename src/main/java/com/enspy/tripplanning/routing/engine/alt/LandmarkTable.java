@@ -0,0 +1,73 @@
+package com.enspy.tripplanning.routing.engine.alt;
+
+import com.enspy.tripplanning.routing.graph.RoadGraph;
+import lombok.Getter;
+
+/**
+ * Tables de distances des landmarks pour l'heuristique ALT
+ * (A*, Landmarks, Triangle inequality).
+ *
+ * Pour chaque landmark L et chaque nœud v on stocke :
+ * - fromLandmark : d(L, v), temps de parcours de L vers v,
+ * - toLandmark   : d(v, L), temps de parcours de v vers L.
+ *
+ * Par l'inégalité triangulaire, pour tout landmark L :
+ * d(v, t) ≥ d(L, t) − d(L, v)   et   d(v, t) ≥ d(v, L) − d(t, L)
+ * Le maximum de ces bornes sur tous les landmarks est une heuristique
+ * admissible ET cohérente, bien plus serrée que distance / vitesse_max
+ * sur un réseau lent et peu dense.
+ *
+ * DISPOSITION: tableaux "nœud-majeur" (index v × k + i) : les k distances
+ * d'un nœud sont contiguës, une seule ligne de cache par évaluation.
+ * Les nœuds inaccessibles valent {@link #UNREACHABLE}.
+ */
+@Getter
+public final class LandmarkTable {
+
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    private final RoadGraph graph;
+    /** Indices denses des landmarks */
+    private final int[] landmarks;
+    private final int[] fromLandmark;
+    private final int[] toLandmark;
+
+    LandmarkTable(RoadGraph graph, int[] landmarks, int[] fromLandmark, int[] toLandmark) {
+        this.graph = graph;
+        this.landmarks = landmarks;
+        this.fromLandmark = fromLandmark;
+        this.toLandmark = toLandmark;
+    }
+
+    public int getLandmarkCount() {
+        return landmarks.length;
+    }
+
+    /**
+     * Borne inférieure du temps de parcours (secondes) de v vers target.
+     */
+    public int lowerBound(int v, int target) {
+        int k = landmarks.length;
+        int vRow = v * k;
+        int tRow = target * k;
+        int best = 0;
+        for (int i = 0; i < k; i++) {
+            int lv = fromLandmark[vRow + i];
+            int lt = fromLandmark[tRow + i];
+            if (lv != UNREACHABLE && lt != UNREACHABLE && lt - lv > best) {
+                best = lt - lv;
+            }
+            int vl = toLandmark[vRow + i];
+            int tl = toLandmark[tRow + i];
+            if (vl != UNREACHABLE && tl != UNREACHABLE && vl - tl > best) {
+                best = vl - tl;
+            }
+        }
+        return best;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("LandmarkTable[landmarks=%d, nodes=%d]", landmarks.length, graph.getNodeCount());
+    }
+}
@@ -0,0 +1,163 @@
+package com.enspy.tripplanning.routing.engine.alt;
+
+import com.enspy.tripplanning.routing.engine.IndexedDaryHeap;
+import com.enspy.tripplanning.routing.engine.SearchContext;
+import com.enspy.tripplanning.routing.engine.SearchContextPool;
+import com.enspy.tripplanning.routing.graph.RoadGraph;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Arrays;
+
+/**
+ * Sélection des landmarks et calcul des tables ALT.
+ *
+ * SÉLECTION:
+ * 1. Graines fournies par l'appelant (centres des grandes villes), dans
+ * l'ordre, sans doublon.
+ * 2. Complétée par "farthest-point" : le landmark suivant est le nœud
+ * accessible le plus éloigné (en temps) de tous les landmarks déjà choisis.
+ * Les landmarks en périphérie du réseau donnent les meilleures bornes.
+ *
+ * Chaque landmark coûte deux Dijkstra complètes (graphe avant pour d(L, ·),
+ * graphe inverse pour d(·, L)). La Dijkstra avant sert aussi à la sélection
+ * farthest-point.
+ */
+@Slf4j
+public final class LandmarkTableBuilder {
+
+    private LandmarkTableBuilder() {
+    }
+
+    /**
+     * @param graph Graphe résident
+     * @param seeds Indices denses des graines (-1 ignorés)
+     * @param count Nombre total de landmarks souhaité
+     */
+    public static LandmarkTable build(RoadGraph graph, int[] seeds, int count) {
+        long startTime = System.currentTimeMillis();
+        int n = graph.getNodeCount();
+
+        int[] landmarks = new int[Math.min(count, n)];
+        int k = 0;
+        boolean[] chosen = new boolean[n];
+        for (int seed : seeds) {
+            if (k == landmarks.length) {
+                break;
+            }
+            if (seed >= 0 && !chosen[seed] && graph.isRoutable(seed)) {
+                chosen[seed] = true;
+                landmarks[k++] = seed;
+            }
+        }
+
+        // Distances avant par landmark (nœud-majeur à la fin)
+        int[][] forward = new int[landmarks.length][];
+        int[] closest = new int[n];
+        Arrays.fill(closest, LandmarkTable.UNREACHABLE);
+
+        if (k == 0) {
+            // Aucune graine : partir du premier nœud routable
+            for (int v = 0; v < n; v++) {
+                if (graph.isRoutable(v)) {
+                    chosen[v] = true;
+                    landmarks[k++] = v;
+                    break;
+                }
+            }
+        }
+
+        int done = 0;
+        while (done < k) {
+            forward[done] = dijkstra(graph, landmarks[done], false);
+            updateClosest(closest, forward[done]);
+            done++;
+
+            // Farthest-point : une fois les graines traitées, ajouter le nœud le plus éloigné
+            if (done == k && k < landmarks.length) {
+                int farthest = -1;
+                int farthestDist = 0;
+                for (int v = 0; v < n; v++) {
+                    int d = closest[v];
+                    if (!chosen[v] && d != LandmarkTable.UNREACHABLE && d > farthestDist) {
+                        farthest = v;
+                        farthestDist = d;
+                    }
+                }
+                if (farthest >= 0) {
+                    chosen[farthest] = true;
+                    landmarks[k++] = farthest;
+                }
+            }
+        }
+
+        landmarks = Arrays.copyOf(landmarks, k);
+        int[] fromLandmark = new int[n * k];
+        int[] toLandmark = new int[n * k];
+        for (int i = 0; i < k; i++) {
+            int[] backward = dijkstra(graph, landmarks[i], true);
+            for (int v = 0; v < n; v++) {
+                fromLandmark[v * k + i] = forward[i][v];
+                toLandmark[v * k + i] = backward[v];
+            }
+        }
+
+        LandmarkTable table = new LandmarkTable(graph, landmarks, fromLandmark, toLandmark);
+        log.info("Tables ALT calculées en {}ms: {}", System.currentTimeMillis() - startTime, table);
+        return table;
+    }
+
+    private static void updateClosest(int[] closest, int[] dist) {
+        for (int v = 0; v < closest.length; v++) {
+            if (dist[v] < closest[v]) {
+                closest[v] = dist[v];
+            }
+        }
+    }
+
+    /**
+     * Dijkstra complète depuis {@code source}.
+     *
+     * @param reverse true pour parcourir le graphe inverse (distances vers source)
+     * @return Distances en secondes ({@link LandmarkTable#UNREACHABLE} si inaccessible)
+     */
+    static int[] dijkstra(RoadGraph graph, int source, boolean reverse) {
+        int n = graph.getNodeCount();
+        int[] first = reverse ? graph.getFirstIn() : graph.getFirstOut();
+        int[] other = reverse ? graph.getInArcTail() : graph.getArcHead();
+        int[] inArcRef = graph.getInArcRef();
+        // Poids de base : les surcharges n'allongent que les temps, les bornes restent valides
+        int[] arcWeight = graph.getBaseArcWeight();
+
+        SearchContext ctx = SearchContextPool.acquire(n, 0);
+        IndexedDaryHeap heap = ctx.heap();
+        ctx.label(source, 0, -1);
+        heap.push(source, 0);
+
+        int[] result = new int[n];
+        Arrays.fill(result, LandmarkTable.UNREACHABLE);
+
+        while (!heap.isEmpty()) {
+            int u = heap.popMin();
+            ctx.settle(u);
+            int du = ctx.dist(u);
+            result[u] = du;
+
+            for (int i = first[u]; i < first[u + 1]; i++) {
+                int v = other[i];
+                int arc = reverse ? inArcRef[i] : i;
+                if (ctx.isSettled(v) || arcWeight[arc] >= RoadGraph.CLOSED_WEIGHT) {
+                    continue;
+                }
+                int dv = du + arcWeight[arc];
+                if (!ctx.isReached(v)) {
+                    ctx.label(v, dv, i);
+                    heap.push(v, dv);
+                } else if (dv < ctx.dist(v)) {
+                    ctx.label(v, dv, i);
+                    heap.decreaseKey(v, dv);
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,97 @@
+package com.enspy.tripplanning.routing.engine.alt;
+
+import com.enspy.tripplanning.routing.graph.RoadGraph;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Persistance des tables ALT sur disque.
+ *
+ * Le fichier est associé à l'empreinte du graphe ({@link RoadGraph#getFingerprint()}) :
+ * tant que la topologie et les poids ne changent pas, les tables sont
+ * relues au démarrage au lieu d'être recalculées (2k Dijkstra complètes).
+ *
+ * FORMAT: MAGIC, VERSION, empreinte, n, k, landmarks[k],
+ * fromLandmark[n×k], toLandmark[n×k] (entiers big-endian).
+ */
+public final class LandmarkTableStore {
+
+    private static final int MAGIC = 0x414C5431; // "ALT1"
+    private static final int VERSION = 1;
+
+    private LandmarkTableStore() {
+    }
+
+    /**
+     * Nom de fichier propre à un graphe et à un nombre de landmarks.
+     */
+    public static String fileName(RoadGraph graph, int landmarkCount) {
+        return String.format("landmarks-%016x-%d.bin", graph.getFingerprint(), landmarkCount);
+    }
+
+    public static void write(LandmarkTable table, Path file) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(tmp), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(table.getGraph().getFingerprint());
+            out.writeInt(table.getGraph().getNodeCount());
+            out.writeInt(table.getLandmarkCount());
+            writeInts(out, table.getLandmarks());
+            writeInts(out, table.getFromLandmark());
+            writeInts(out, table.getToLandmark());
+        }
+        // Remplacement atomique : jamais de fichier à moitié écrit
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * @return Tables relues, ou null si le fichier est absent ou ne correspond
+     *         pas au graphe
+     */
+    public static LandmarkTable read(RoadGraph graph, Path file) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                return null;
+            }
+            long fingerprint = in.readLong();
+            int n = in.readInt();
+            int k = in.readInt();
+            if (fingerprint != graph.getFingerprint() || n != graph.getNodeCount()) {
+                return null;
+            }
+            int[] landmarks = readInts(in, k);
+            int[] fromLandmark = readInts(in, n * k);
+            int[] toLandmark = readInts(in, n * k);
+            return new LandmarkTable(graph, landmarks, fromLandmark, toLandmark);
+        }
+    }
+
+    private static void writeInts(DataOutputStream out, int[] values) throws IOException {
+        for (int value : values) {
+            out.writeInt(value);
+        }
+    }
+
+    private static int[] readInts(DataInputStream in, int length) throws IOException {
+        int[] values = new int[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = in.readInt();
+        }
+        return values;
+    }
+}
@@ -0,0 +1,267 @@
+package com.enspy.tripplanning.routing.engine.alternative;
+
+import com.enspy.tripplanning.routing.engine.IndexedDaryHeap;
+import com.enspy.tripplanning.routing.engine.SearchContext;
+import com.enspy.tripplanning.routing.engine.SearchContextPool;
+import com.enspy.tripplanning.routing.engine.SearchEffort;
+import com.enspy.tripplanning.routing.graph.RoadGraph;
+import com.enspy.tripplanning.routing.model.Route;
+import com.enspy.tripplanning.routing.model.SearchAlgorithm;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Itinéraires alternatifs par la méthode des plateaux.
+ *
+ * PRINCIPE:
+ * =========
+ * Un Dijkstra avant depuis le départ et un Dijkstra arrière depuis l'arrivée,
+ * tous deux bornés par (1 + maxStretch) × d(départ, arrivée), donnent deux
+ * arbres de plus courts chemins. Un "plateau" est une suite d'arcs présents
+ * dans les deux arbres : le chemin départ → début du plateau → fin du plateau
+ * → arrivée est alors un plus court chemin sur toute la longueur du plateau,
+ * donc sans détour local absurde. Le plus court chemin lui-même est le plateau
+ * qui relie le départ à l'arrivée.
+ *
+ * SÉLECTION: les candidats sont triés par (longueur - plateau) croissant, puis
+ * retenus s'ils respectent :
+ * - l'étirement : longueur ≤ (1 + maxStretch) × plus court ;
+ * - le partage : au plus maxSharing de leur temps sur des arêtes déjà
+ * empruntées par un itinéraire retenu ;
+ * - un plateau d'au moins {@link #MIN_PLATEAU_RATIO} du plus court.
+ *
+ * COÛT: deux recherches bornées, quel que soit le nombre d'itinéraires
+ * demandés. Contextes : slots 0 et 1 de {@link SearchContextPool}.
+ */
+public final class AlternativeRoutes {
+
+    /** Longueur minimale d'un plateau, relative au plus court chemin */
+    private static final double MIN_PLATEAU_RATIO = 0.1;
+    /** Candidats examinés au plus (reconstruction de chemin chacun) */
+    private static final int MAX_CANDIDATES = 64;
+
+    private static final ThreadLocal<int[]> SETTLED = ThreadLocal.withInitial(() -> new int[1024]);
+
+    private AlternativeRoutes() {
+    }
+
+    /**
+     * @param graph      Graphe résident
+     * @param start      Indice dense du départ
+     * @param end        Indice dense de l'arrivée
+     * @param maxRoutes  Nombre maximal d'itinéraires (plus court compris)
+     * @param maxStretch Allongement maximal toléré (0.25 = +25 %)
+     * @param maxSharing Part maximale du temps partagée avec les itinéraires
+     *                   déjà retenus (0..1)
+     * @return Itinéraires du plus court au plus long ; liste vide si l'arrivée
+     *         est inaccessible
+     */
+    public static List<Route> search(RoadGraph graph, int start, int end, int maxRoutes,
+            double maxStretch, double maxSharing) {
+        SearchContext forward = SearchContextPool.acquire(graph.getNodeCount(), 0);
+        SearchContext backward = SearchContextPool.acquire(graph.getNodeCount(), 1);
+        if (start == end) {
+            return List.of(graph.toRoute(start, end, forward.pathBuffer(0), 0, 1));
+        }
+
+        int[] settled = SETTLED.get();
+        int settledCount = 0;
+
+        // 1. Recherche avant, poursuivie au-delà de l'arrivée jusqu'à la borne
+        int[] firstOut = graph.getFirstOut();
+        int[] arcHead = graph.getArcHead();
+        int[] arcWeight = graph.getArcWeight();
+        IndexedDaryHeap heap = forward.heap();
+        forward.label(start, 0, -1);
+        heap.push(start, 0);
+        int bound = Integer.MAX_VALUE;
+        while (!heap.isEmpty() && heap.peekKey() <= bound) {
+            int u = heap.popMin();
+            forward.settle(u);
+            int du = forward.dist(u);
+            if (settledCount == settled.length) {
+                settled = Arrays.copyOf(settled, settledCount * 2);
+                SETTLED.set(settled);
+            }
+            settled[settledCount++] = u;
+            if (u == end) {
+                bound = (int) Math.min(Integer.MAX_VALUE - 1, (long) Math.floor(du * (1 + maxStretch)));
+            }
+            forward.countRelaxed(firstOut[u + 1] - firstOut[u]);
+            for (int arc = firstOut[u]; arc < firstOut[u + 1]; arc++) {
+                if (arcWeight[arc] < RoadGraph.CLOSED_WEIGHT) {
+                    relax(forward, heap, arcHead[arc], du + arcWeight[arc], arc);
+                }
+            }
+        }
+        if (!forward.isSettled(end)) {
+            return List.of();
+        }
+        int shortest = forward.dist(end);
+
+        // 2. Recherche arrière (parentArc = arc avant vers l'arrivée)
+        int[] firstIn = graph.getFirstIn();
+        int[] inArcTail = graph.getInArcTail();
+        int[] inArcRef = graph.getInArcRef();
+        heap = backward.heap();
+        backward.label(end, 0, -1);
+        heap.push(end, 0);
+        int nodesExplored = settledCount;
+        while (!heap.isEmpty() && heap.peekKey() <= bound) {
+            int u = heap.popMin();
+            backward.settle(u);
+            nodesExplored++;
+            int du = backward.dist(u);
+            backward.countRelaxed(firstIn[u + 1] - firstIn[u]);
+            for (int i = firstIn[u]; i < firstIn[u + 1]; i++) {
+                int arc = inArcRef[i];
+                if (arcWeight[arc] < RoadGraph.CLOSED_WEIGHT) {
+                    relax(backward, heap, inArcTail[i], du + arcWeight[arc], arc);
+                }
+            }
+        }
+
+        // 3. Débuts de plateaux, codés (longueur - plateau) << 32 | nœud
+        long[] candidates = new long[16];
+        int candidateCount = 0;
+        int minPlateau = (int) Math.ceil(shortest * MIN_PLATEAU_RATIO);
+        for (int i = 0; i < settledCount; i++) {
+            int u = settled[i];
+            if (!backward.isSettled(u) || !onPlateau(graph, forward, backward, backward.parentArc(u))) {
+                continue;
+            }
+            int length = forward.dist(u) + backward.dist(u);
+            if (length > bound) {
+                continue;
+            }
+            int incoming = forward.parentArc(u);
+            if (incoming >= 0 && onPlateau(graph, forward, backward, incoming)) {
+                // Pas un début : le plateau commence plus tôt
+                continue;
+            }
+            int plateau = 0;
+            for (int v = u; v != end;) {
+                int arc = backward.parentArc(v);
+                if (!onPlateau(graph, forward, backward, arc)) {
+                    break;
+                }
+                plateau += arcWeight[arc];
+                v = arcHead[arc];
+            }
+            if (plateau < minPlateau && length != shortest) {
+                continue;
+            }
+            if (candidateCount == candidates.length) {
+                candidates = Arrays.copyOf(candidates, candidateCount * 2);
+            }
+            candidates[candidateCount++] = ((long) (length - plateau) << 32) | u;
+        }
+        Arrays.sort(candidates, 0, candidateCount);
+
+        // 4. Sélection gloutonne sous contraintes de partage
+        List<Route> routes = new ArrayList<>(maxRoutes);
+        Set<Integer> usedEdges = new HashSet<>();
+        Set<Integer> pathNodes = new HashSet<>();
+        int[] arcEdge = graph.getArcEdge();
+        int examined = Math.min(candidateCount, MAX_CANDIDATES);
+        for (int c = 0; c < examined && routes.size() < maxRoutes; c++) {
+            int via = (int) candidates[c];
+            int length = forward.dist(via) + backward.dist(via);
+            int arcCount = viaPath(graph, forward, backward, start, end, via, pathNodes);
+            if (arcCount < 0) {
+                continue;
+            }
+            int[] arcs = forward.pathBuffer(arcCount);
+            int shared = 0;
+            for (int i = 0; i < arcCount; i++) {
+                if (usedEdges.contains(arcEdge[arcs[i]])) {
+                    shared += arcWeight[arcs[i]];
+                }
+            }
+            if (!routes.isEmpty() && shared > maxSharing * length) {
+                continue;
+            }
+            Route route = graph.toRoute(start, end, arcs, arcCount, nodesExplored);
+            if (!route.getFound()) {
+                continue; // Emprunte une route fermée
+            }
+            for (int i = 0; i < arcCount; i++) {
+                usedEdges.add(arcEdge[arcs[i]]);
+            }
+            route.setAlgorithm(SearchAlgorithm.ALTERNATIVES);
+            routes.add(SearchEffort.record(route, forward, backward));
+        }
+        routes.sort(Comparator.comparingInt(Route::getTotalTimeSeconds));
+        return routes;
+    }
+
+    private static void relax(SearchContext ctx, IndexedDaryHeap heap, int v, int dv, int arc) {
+        if (ctx.isSettled(v)) {
+            return;
+        }
+        if (!ctx.isReached(v)) {
+            ctx.label(v, dv, arc);
+            heap.push(v, dv);
+        } else if (dv < ctx.dist(v)) {
+            ctx.label(v, dv, arc);
+            heap.decreaseKey(v, dv);
+        }
+    }
+
+    /**
+     * Un arc est sur un plateau s'il appartient aux deux arbres de plus
+     * courts chemins.
+     */
+    private static boolean onPlateau(RoadGraph graph, SearchContext forward, SearchContext backward, int arc) {
+        if (arc < 0) {
+            return false;
+        }
+        int head = graph.getArcHead()[arc];
+        int tail = graph.arcTail(arc);
+        return forward.isSettled(head) && forward.parentArc(head) == arc
+                && backward.isSettled(tail) && backward.parentArc(tail) == arc;
+    }
+
+    /**
+     * Écrit dans le tampon du contexte avant les arcs du chemin départ → via
+     * (arbre avant) puis via → arrivée (arbre arrière).
+     *
+     * @param visited Ensemble de travail (vidé ici)
+     * @return Nombre d'arcs, ou -1 si les deux moitiés se croisent (boucle)
+     */
+    private static int viaPath(RoadGraph graph, SearchContext forward, SearchContext backward,
+            int start, int end, int via, Set<Integer> visited) {
+        int[] arcHead = graph.getArcHead();
+        visited.clear();
+        int forwardArcs = 0;
+        for (int v = via; v != start; v = graph.arcTail(forward.parentArc(v))) {
+            visited.add(v);
+            forwardArcs++;
+        }
+        visited.add(start);
+        int length = forwardArcs;
+        for (int v = via; v != end;) {
+            v = arcHead[backward.parentArc(v)];
+            if (!visited.add(v)) {
+                return -1;
+            }
+            length++;
+        }
+
+        int[] buffer = forward.pathBuffer(length);
+        int i = forwardArcs;
+        for (int v = via; v != start; v = graph.arcTail(forward.parentArc(v))) {
+            buffer[--i] = forward.parentArc(v);
+        }
+        i = forwardArcs;
+        for (int v = via; v != end; v = arcHead[backward.parentArc(v)]) {
+            buffer[i++] = backward.parentArc(v);
+        }
+        return length;
+    }
+}
@@ -0,0 +1,214 @@
+package com.enspy.tripplanning.routing.engine.ch;
+
+import com.enspy.tripplanning.routing.graph.RoadGraph;
+import lombok.Getter;
+
+/**
+ * Hiérarchie de contraction (Contraction Hierarchies) précalculée sur un
+ * {@link RoadGraph}.
+ *
+ * PRINCIPE:
+ * =========
+ * Chaque nœud reçoit un rang (ordre de contraction). Contracter un nœud v
+ * consiste à le retirer du graphe en ajoutant des raccourcis u → w lorsque
+ * u → v → w est l'unique plus court chemin entre u et w. Une requête s → t
+ * n'explore ensuite que des arcs "montants" (vers des rangs supérieurs) :
+ * - recherche avant depuis s dans le graphe montant,
+ * - recherche arrière depuis t dans le graphe descendant inversé,
+ * et les deux recherches se rejoignent au sommet de la hiérarchie.
+ *
+ * STOCKAGE:
+ * - Tous les arcs (originaux et raccourcis) sont numérotés : arcFrom, arcTo,
+ * arcWeight. Pour un arc original, arcOriginal donne l'arc avant du
+ * RoadGraph ; pour un raccourci, arcChildFirst/arcChildSecond donnent les
+ * deux arcs qu'il remplace (dépliage récursif).
+ * - upFirst/upHead/upArc : arcs u → v avec rang(u) < rang(v), indexés par u.
+ * - downFirst/downHead/downArc : arcs v → u avec rang(v) > rang(u), indexés
+ * par u (parcourus à l'envers par la recherche arrière).
+ * - arcMeters : longueur en mètres de chaque arc (somme des deux demi-arcs
+ * pour un raccourci), pour les matrices de distances sans dépliage.
+ *
+ * PERSONNALISATION: {@link #customize} recalcule les poids de tous les arcs
+ * pour un nouveau jeu de poids du graphe (surcharges) en un passage
+ * linéaire, sans nouvelle contraction. Les raccourcis omis grâce à un témoin
+ * restent omis : si une surcharge rallonge ce témoin, la requête renvoie un
+ * chemin réel mais pas forcément le plus court, jusqu'à la prochaine
+ * contraction.
+ */
+@Getter
+public final class ContractionHierarchy {
+
+    private final RoadGraph graph;
+    private final int[] rank;
+
+    private final int[] arcFrom;
+    private final int[] arcTo;
+    private final int[] arcWeight;
+    private final int[] arcOriginal;
+    private final int[] arcChildFirst;
+    private final int[] arcChildSecond;
+    private final double[] arcMeters;
+
+    private final int[] upFirst;
+    private final int[] upHead;
+    private final int[] upArc;
+
+    private final int[] downFirst;
+    private final int[] downHead;
+    private final int[] downArc;
+
+    private final int shortcutCount;
+
+    /** Poids du graphe (arcs avant) dont sont issus les poids de la hiérarchie */
+    private final int[] sourceWeights;
+    /** Poids du graphe sur lesquels la contraction a été faite */
+    private final int[] contractedWeights;
+
+    ContractionHierarchy(RoadGraph graph, int[] rank,
+            int[] arcFrom, int[] arcTo, int[] arcWeight, int[] arcOriginal,
+            int[] arcChildFirst, int[] arcChildSecond,
+            int[] upFirst, int[] upHead, int[] upArc,
+            int[] downFirst, int[] downHead, int[] downArc,
+            int shortcutCount, int[] sourceWeights) {
+        this.graph = graph;
+        this.rank = rank;
+        this.arcFrom = arcFrom;
+        this.arcTo = arcTo;
+        this.arcWeight = arcWeight;
+        this.arcOriginal = arcOriginal;
+        this.arcChildFirst = arcChildFirst;
+        this.arcChildSecond = arcChildSecond;
+        this.upFirst = upFirst;
+        this.upHead = upHead;
+        this.upArc = upArc;
+        this.downFirst = downFirst;
+        this.downHead = downHead;
+        this.downArc = downArc;
+        this.shortcutCount = shortcutCount;
+        this.sourceWeights = sourceWeights;
+        this.contractedWeights = sourceWeights;
+        this.arcMeters = computeArcMeters(graph, arcOriginal, arcChildFirst, arcChildSecond);
+    }
+
+    private ContractionHierarchy(ContractionHierarchy topology, int[] arcWeight, int[] sourceWeights) {
+        this.graph = topology.graph;
+        this.rank = topology.rank;
+        this.arcFrom = topology.arcFrom;
+        this.arcTo = topology.arcTo;
+        this.arcWeight = arcWeight;
+        this.arcOriginal = topology.arcOriginal;
+        this.arcChildFirst = topology.arcChildFirst;
+        this.arcChildSecond = topology.arcChildSecond;
+        this.arcMeters = topology.arcMeters;
+        this.upFirst = topology.upFirst;
+        this.upHead = topology.upHead;
+        this.upArc = topology.upArc;
+        this.downFirst = topology.downFirst;
+        this.downHead = topology.downHead;
+        this.downArc = topology.downArc;
+        this.shortcutCount = topology.shortcutCount;
+        this.sourceWeights = sourceWeights;
+        this.contractedWeights = topology.contractedWeights;
+    }
+
+    /**
+     * Hiérarchie de même topologie, repondérée pour {@code weights} (poids
+     * des arcs avant du graphe). Un raccourci étant créé après ses deux
+     * demi-arcs, un seul passage dans l'ordre des arcs suffit ; la somme est
+     * plafonnée à {@link RoadGraph#CLOSED_WEIGHT}.
+     *
+     * COMPLEXITÉ: O(arcs de la hiérarchie), quelques millisecondes.
+     */
+    public ContractionHierarchy customize(int[] weights) {
+        int[] customized = new int[arcFrom.length];
+        for (int arc = 0; arc < customized.length; arc++) {
+            int original = arcOriginal[arc];
+            customized[arc] = original >= 0
+                    ? weights[original]
+                    : Math.min(RoadGraph.CLOSED_WEIGHT, customized[arcChildFirst[arc]] + customized[arcChildSecond[arc]]);
+        }
+        return new ContractionHierarchy(this, customized, weights);
+    }
+
+    /**
+     * @return true si les poids sont ceux de la contraction (plus courts
+     *         chemins garantis), false après {@link #customize} sur d'autres
+     *         poids
+     */
+    public boolean isExact() {
+        return contractedWeights == sourceWeights;
+    }
+
+    public int getArcCount() {
+        return arcFrom.length;
+    }
+
+    /**
+     * Déplie un arc de la hiérarchie en arcs avant du RoadGraph.
+     *
+     * @param arc    Arc de la hiérarchie (original ou raccourci)
+     * @param out    Tableau de sortie (doit être assez grand)
+     * @param offset Position d'écriture dans {@code out}
+     * @param stack  Pile de travail réutilisable
+     * @return Nouvelle position d'écriture
+     */
+    public int unpack(int arc, int[] out, int offset, int[] stack) {
+        int top = 0;
+        stack[top++] = arc;
+        while (top > 0) {
+            int current = stack[--top];
+            int original = arcOriginal[current];
+            if (original >= 0) {
+                out[offset++] = original;
+            } else {
+                // Le second demi-raccourci est empilé en premier pour dépiler le premier d'abord
+                stack[top++] = arcChildSecond[current];
+                stack[top++] = arcChildFirst[current];
+            }
+        }
+        return offset;
+    }
+
+    /**
+     * Nombre d'arcs originaux représentés par un arc de la hiérarchie.
+     */
+    public int unpackedLength(int arc, int[] stack) {
+        int length = 0;
+        int top = 0;
+        stack[top++] = arc;
+        while (top > 0) {
+            int current = stack[--top];
+            if (arcOriginal[current] >= 0) {
+                length++;
+            } else {
+                stack[top++] = arcChildSecond[current];
+                stack[top++] = arcChildFirst[current];
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Un raccourci est toujours créé après les deux arcs qu'il remplace : un
+     * seul passage dans l'ordre des arcs suffit.
+     */
+    private static double[] computeArcMeters(RoadGraph graph, int[] arcOriginal,
+            int[] arcChildFirst, int[] arcChildSecond) {
+        int[] arcEdge = graph.getArcEdge();
+        double[] edgeMeters = graph.getEdgeDistancesMeters();
+        double[] meters = new double[arcOriginal.length];
+        for (int arc = 0; arc < meters.length; arc++) {
+            int original = arcOriginal[arc];
+            meters[arc] = original >= 0
+                    ? edgeMeters[arcEdge[original]]
+                    : meters[arcChildFirst[arc]] + meters[arcChildSecond[arc]];
+        }
+        return meters;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ContractionHierarchy[nodes=%d, arcs=%d, shortcuts=%d]",
+                rank.length, getArcCount(), shortcutCount);
+    }
+}
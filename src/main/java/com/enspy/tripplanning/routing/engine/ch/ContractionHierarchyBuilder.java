@@ -0,0 +1,347 @@
+package com.enspy.tripplanning.routing.engine.ch;
+
+import com.enspy.tripplanning.routing.engine.IndexedDaryHeap;
+import com.enspy.tripplanning.routing.engine.SearchContext;
+import com.enspy.tripplanning.routing.graph.RoadGraph;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Arrays;
+
+/**
+ * Prétraitement Contraction Hierarchies sur les arêtes de road_edges.
+ *
+ * ÉTAPES:
+ * 1. Ordre des nœuds : file de priorité sur
+ * priorité(v) = 4 × différence d'arêtes + 2 × voisins contractés + niveau
+ * avec mise à jour paresseuse (la priorité du nœud extrait est recalculée ;
+ * s'il n'est plus minimal il est réinséré).
+ * 2. Contraction de v : pour chaque paire u → v → w de voisins non
+ * contractés, une recherche de témoin (Dijkstra limitée depuis u, sans
+ * passer par v) décide si le raccourci u → w est nécessaire.
+ * 3. Répartition des arcs en graphe montant / descendant selon les rangs.
+ *
+ * La recherche de témoin est bornée (nombre de nœuds fixés) : un témoin
+ * manqué ajoute seulement un raccourci superflu, jamais un chemin faux.
+ */
+@Slf4j
+public class ContractionHierarchyBuilder {
+
+    /** Nombre maximal de nœuds fixés par recherche de témoin (contraction réelle) */
+    private static final int WITNESS_SETTLE_LIMIT = 500;
+
+    /** Limite réduite pour l'estimation des priorités (simple heuristique d'ordre) */
+    private static final int SIMULATION_SETTLE_LIMIT = 50;
+
+    private final RoadGraph graph;
+    private final int[] weights;
+    private final int n;
+
+    // Arcs (originaux puis raccourcis)
+    private int[] arcFrom;
+    private int[] arcTo;
+    private int[] arcWeight;
+    private int[] arcOriginal;
+    private int[] arcChildFirst;
+    private int[] arcChildSecond;
+    private int arcCount;
+    private int shortcutCount;
+
+    // Adjacence dynamique (identifiants d'arcs) pendant la contraction
+    private final int[][] outArcs;
+    private final int[] outSize;
+    private final int[][] inArcs;
+    private final int[] inSize;
+
+    private final boolean[] contracted;
+    private final int[] deletedNeighbors;
+    private final int[] level;
+    private final SearchContext witness;
+
+    public ContractionHierarchyBuilder(RoadGraph graph) {
+        this(graph, graph.getArcWeight());
+    }
+
+    /**
+     * @param weights Poids des arcs avant à contracter (poids effectifs du
+     *                graphe au moment de la construction)
+     */
+    public ContractionHierarchyBuilder(RoadGraph graph, int[] weights) {
+        this.graph = graph;
+        this.weights = weights;
+        this.n = graph.getNodeCount();
+
+        int initial = Math.max(16, graph.getArcCount() * 2);
+        this.arcFrom = new int[initial];
+        this.arcTo = new int[initial];
+        this.arcWeight = new int[initial];
+        this.arcOriginal = new int[initial];
+        this.arcChildFirst = new int[initial];
+        this.arcChildSecond = new int[initial];
+
+        this.outArcs = new int[n][];
+        this.outSize = new int[n];
+        this.inArcs = new int[n][];
+        this.inSize = new int[n];
+        this.contracted = new boolean[n];
+        this.deletedNeighbors = new int[n];
+        this.level = new int[n];
+        this.witness = new SearchContext(n);
+    }
+
+    public ContractionHierarchy build() {
+        long startTime = System.currentTimeMillis();
+
+        int[] firstOut = graph.getFirstOut();
+        int[] head = graph.getArcHead();
+        int[] weight = weights;
+        for (int u = 0; u < n; u++) {
+            outArcs[u] = new int[Math.max(2, firstOut[u + 1] - firstOut[u])];
+            inArcs[u] = new int[Math.max(2, graph.getFirstIn()[u + 1] - graph.getFirstIn()[u])];
+        }
+        for (int u = 0; u < n; u++) {
+            for (int a = firstOut[u]; a < firstOut[u + 1]; a++) {
+                if (head[a] != u) {
+                    addArc(u, head[a], weight[a], a, -1, -1);
+                }
+            }
+        }
+
+        // 1. Priorités initiales
+        IndexedDaryHeap queue = new IndexedDaryHeap(n);
+        for (int v = 0; v < n; v++) {
+            queue.push(v, priority(v));
+        }
+
+        // 2. Contraction dans l'ordre des priorités (mises à jour paresseuses)
+        int[] rank = new int[n];
+        int nextRank = 0;
+        while (!queue.isEmpty()) {
+            int v = queue.popMin();
+            int updated = priority(v);
+            if (!queue.isEmpty() && updated > queue.peekKey()) {
+                queue.push(v, updated);
+                continue;
+            }
+
+            contract(v);
+            contracted[v] = true;
+            rank[v] = nextRank++;
+
+            // Mise à jour des voisins
+            for (int i = 0; i < outSize[v]; i++) {
+                touchNeighbor(v, arcTo[outArcs[v][i]], queue);
+            }
+            for (int i = 0; i < inSize[v]; i++) {
+                touchNeighbor(v, arcFrom[inArcs[v][i]], queue);
+            }
+        }
+
+        ContractionHierarchy hierarchy = assemble(rank);
+        log.info("Hiérarchie de contraction construite en {}ms: {}",
+                System.currentTimeMillis() - startTime, hierarchy);
+        return hierarchy;
+    }
+
+    private void touchNeighbor(int v, int neighbor, IndexedDaryHeap queue) {
+        if (contracted[neighbor]) {
+            return;
+        }
+        deletedNeighbors[neighbor]++;
+        level[neighbor] = Math.max(level[neighbor], level[v] + 1);
+        if (queue.contains(neighbor)) {
+            queue.changeKey(neighbor, priority(neighbor));
+        }
+    }
+
+    /**
+     * priorité(v) = 4 × (raccourcis nécessaires − arcs supprimés)
+     * + 2 × voisins déjà contractés + niveau
+     */
+    private int priority(int v) {
+        int shortcuts = processNode(v, false);
+        int removed = 0;
+        for (int i = 0; i < inSize[v]; i++) {
+            if (!contracted[arcFrom[inArcs[v][i]]]) {
+                removed++;
+            }
+        }
+        for (int i = 0; i < outSize[v]; i++) {
+            if (!contracted[arcTo[outArcs[v][i]]]) {
+                removed++;
+            }
+        }
+        return 4 * (shortcuts - removed) + 2 * deletedNeighbors[v] + level[v];
+    }
+
+    private void contract(int v) {
+        processNode(v, true);
+    }
+
+    /**
+     * Simule (ou effectue) la contraction de v.
+     *
+     * @param apply true pour ajouter réellement les raccourcis
+     * @return Nombre de raccourcis nécessaires
+     */
+    private int processNode(int v, boolean apply) {
+        int shortcuts = 0;
+        int inCount = inSize[v];
+        int outCount = outSize[v];
+
+        for (int i = 0; i < inCount; i++) {
+            int inArc = inArcs[v][i];
+            int u = arcFrom[inArc];
+            if (contracted[u] || arcWeight[inArc] >= RoadGraph.CLOSED_WEIGHT) {
+                continue;
+            }
+
+            // Borne de la recherche de témoin : plus long chemin u → v → w
+            int maxTarget = -1;
+            for (int j = 0; j < outCount; j++) {
+                int outArc = outArcs[v][j];
+                int w = arcTo[outArc];
+                if (!contracted[w] && w != u && arcWeight[outArc] < RoadGraph.CLOSED_WEIGHT) {
+                    maxTarget = Math.max(maxTarget, arcWeight[inArc] + arcWeight[outArc]);
+                }
+            }
+            if (maxTarget < 0) {
+                continue; // Aucun voisin sortant à relier
+            }
+
+            witnessSearch(u, v, maxTarget, apply ? WITNESS_SETTLE_LIMIT : SIMULATION_SETTLE_LIMIT);
+
+            for (int j = 0; j < outCount; j++) {
+                int outArc = outArcs[v][j];
+                int w = arcTo[outArc];
+                if (contracted[w] || w == u || arcWeight[outArc] >= RoadGraph.CLOSED_WEIGHT) {
+                    continue;
+                }
+                int viaWeight = arcWeight[inArc] + arcWeight[outArc];
+                if (witness.dist(w) <= viaWeight) {
+                    continue; // Témoin trouvé : pas de raccourci
+                }
+                shortcuts++;
+                if (apply) {
+                    addArc(u, w, viaWeight, -1, inArc, outArc);
+                    // Le raccourci sert de témoin pour les paires suivantes
+                    witness.label(w, viaWeight, -1);
+                }
+            }
+        }
+        return shortcuts;
+    }
+
+    /**
+     * Dijkstra limitée depuis u dans le graphe restant, sans passer par v.
+     */
+    private void witnessSearch(int u, int excluded, int maxWeight, int settleLimit) {
+        witness.reset();
+        IndexedDaryHeap heap = witness.heap();
+        witness.label(u, 0, -1);
+        heap.push(u, 0);
+        int settled = 0;
+
+        while (!heap.isEmpty() && settled < settleLimit) {
+            int x = heap.popMin();
+            int dx = witness.dist(x);
+            if (dx > maxWeight) {
+                break;
+            }
+            witness.settle(x);
+            settled++;
+
+            for (int i = 0; i < outSize[x]; i++) {
+                int arc = outArcs[x][i];
+                int y = arcTo[arc];
+                if (y == excluded || contracted[y] || witness.isSettled(y)
+                        || arcWeight[arc] >= RoadGraph.CLOSED_WEIGHT) {
+                    continue;
+                }
+                int dy = dx + arcWeight[arc];
+                if (!witness.isReached(y)) {
+                    witness.label(y, dy, arc);
+                    heap.push(y, dy);
+                } else if (dy < witness.dist(y)) {
+                    witness.label(y, dy, arc);
+                    heap.decreaseKey(y, dy);
+                }
+            }
+        }
+    }
+
+    private void addArc(int from, int to, int weight, int original, int childFirst, int childSecond) {
+        if (arcCount == arcFrom.length) {
+            int capacity = arcCount * 2;
+            arcFrom = Arrays.copyOf(arcFrom, capacity);
+            arcTo = Arrays.copyOf(arcTo, capacity);
+            arcWeight = Arrays.copyOf(arcWeight, capacity);
+            arcOriginal = Arrays.copyOf(arcOriginal, capacity);
+            arcChildFirst = Arrays.copyOf(arcChildFirst, capacity);
+            arcChildSecond = Arrays.copyOf(arcChildSecond, capacity);
+        }
+        int arc = arcCount++;
+        arcFrom[arc] = from;
+        arcTo[arc] = to;
+        arcWeight[arc] = weight;
+        arcOriginal[arc] = original;
+        arcChildFirst[arc] = childFirst;
+        arcChildSecond[arc] = childSecond;
+        if (original < 0) {
+            shortcutCount++;
+        }
+
+        if (outSize[from] == outArcs[from].length) {
+            outArcs[from] = Arrays.copyOf(outArcs[from], outSize[from] * 2);
+        }
+        outArcs[from][outSize[from]++] = arc;
+        if (inSize[to] == inArcs[to].length) {
+            inArcs[to] = Arrays.copyOf(inArcs[to], inSize[to] * 2);
+        }
+        inArcs[to][inSize[to]++] = arc;
+    }
+
+    /**
+     * Répartit les arcs en graphes montant et descendant (format CSR).
+     */
+    private ContractionHierarchy assemble(int[] rank) {
+        int[] upFirst = new int[n + 1];
+        int[] downFirst = new int[n + 1];
+        for (int a = 0; a < arcCount; a++) {
+            if (rank[arcFrom[a]] < rank[arcTo[a]]) {
+                upFirst[arcFrom[a] + 1]++;
+            } else {
+                downFirst[arcTo[a] + 1]++;
+            }
+        }
+        for (int v = 0; v < n; v++) {
+            upFirst[v + 1] += upFirst[v];
+            downFirst[v + 1] += downFirst[v];
+        }
+
+        int[] upHead = new int[upFirst[n]];
+        int[] upArc = new int[upFirst[n]];
+        int[] downHead = new int[downFirst[n]];
+        int[] downArc = new int[downFirst[n]];
+        int[] upCursor = Arrays.copyOf(upFirst, n);
+        int[] downCursor = Arrays.copyOf(downFirst, n);
+        for (int a = 0; a < arcCount; a++) {
+            if (rank[arcFrom[a]] < rank[arcTo[a]]) {
+                int i = upCursor[arcFrom[a]]++;
+                upHead[i] = arcTo[a];
+                upArc[i] = a;
+            } else {
+                int i = downCursor[arcTo[a]]++;
+                downHead[i] = arcFrom[a];
+                downArc[i] = a;
+            }
+        }
+
+        return new ContractionHierarchy(graph, rank,
+                Arrays.copyOf(arcFrom, arcCount), Arrays.copyOf(arcTo, arcCount),
+                Arrays.copyOf(arcWeight, arcCount), Arrays.copyOf(arcOriginal, arcCount),
+                Arrays.copyOf(arcChildFirst, arcCount), Arrays.copyOf(arcChildSecond, arcCount),
+                upFirst, upHead, upArc,
+                downFirst, downHead, downArc,
+                shortcutCount, weights);
+    }
+}
@@ -0,0 +1,229 @@
+package com.enspy.tripplanning.routing.engine.ch;
+
+import com.enspy.tripplanning.routing.engine.IndexedDaryHeap;
+import com.enspy.tripplanning.routing.engine.OneToManyDijkstra;
+import com.enspy.tripplanning.routing.engine.SearchContext;
+import com.enspy.tripplanning.routing.engine.SearchContextPool;
+import com.enspy.tripplanning.routing.graph.RoadGraph;
+
+import java.util.Arrays;
+
+/**
+ * Matrice de temps de parcours plusieurs-vers-plusieurs sur une
+ * {@link ContractionHierarchy} (algorithme des "buckets").
+ *
+ * PRINCIPE:
+ * =========
+ * 1. {@link #prepare} : pour chaque cible t, recherche arrière montante
+ * (comme {@link ContractionHierarchyQuery}). Chaque nœud v fixé et non
+ * bloqué reçoit dans son bucket l'entrée (t, d(v → t)).
+ * 2. {@link #row} : pour chaque source s, recherche avant montante ; chaque
+ * nœud v fixé et non bloqué parcourt son bucket :
+ * d(s, t) = min sur v de d(s → v) + d(v → t).
+ *
+ * Les espaces de recherche montants ne comptent que quelques centaines de
+ * nœuds : une ligne coûte bien moins qu'un Dijkstra sur le graphe.
+ *
+ * Les buckets sont immuables après {@link #prepare} : {@link #row} peut être
+ * appelé depuis plusieurs threads (contextes de {@link SearchContextPool}).
+ */
+public final class ContractionHierarchyMatrix {
+
+    private static final ThreadLocal<double[]> METERS = ThreadLocal.withInitial(() -> new double[0]);
+
+    private final ContractionHierarchy ch;
+    private final int targetCount;
+
+    // Buckets au format CSR sur les nœuds qui en possèdent (triés)
+    private final int[] bucketNodes;
+    private final int[] bucketFirst;
+    private final int[] entryTarget;
+    private final int[] entryDist;
+    private final double[] entryMeters;
+
+    private ContractionHierarchyMatrix(ContractionHierarchy ch, int targetCount, int[] bucketNodes,
+            int[] bucketFirst, int[] entryTarget, int[] entryDist, double[] entryMeters) {
+        this.ch = ch;
+        this.targetCount = targetCount;
+        this.bucketNodes = bucketNodes;
+        this.bucketFirst = bucketFirst;
+        this.entryTarget = entryTarget;
+        this.entryDist = entryDist;
+        this.entryMeters = entryMeters;
+    }
+
+    /**
+     * Remplit les buckets pour les cibles données.
+     *
+     * @param ch            Hiérarchie de contraction
+     * @param sortedTargets Cibles distinctes triées (indices denses)
+     */
+    public static ContractionHierarchyMatrix prepare(ContractionHierarchy ch, int[] sortedTargets) {
+        int n = ch.getGraph().getNodeCount();
+        int[] arcTo = ch.getArcTo();
+        int[] arcWeight = ch.getArcWeight();
+        double[] arcMeters = ch.getArcMeters();
+        int[] upFirst = ch.getUpFirst();
+        int[] upHead = ch.getUpHead();
+        int[] upArc = ch.getUpArc();
+        int[] downFirst = ch.getDownFirst();
+        int[] downHead = ch.getDownHead();
+        int[] downArc = ch.getDownArc();
+        double[] meters = metersBuffer(n);
+
+        int size = 0;
+        int[] nodes = new int[Math.max(16, sortedTargets.length * 64)];
+        int[] targets = new int[nodes.length];
+        int[] dists = new int[nodes.length];
+        double[] entryMeters = new double[nodes.length];
+
+        for (int t = 0; t < sortedTargets.length; t++) {
+            SearchContext ctx = SearchContextPool.acquire(n, 1);
+            IndexedDaryHeap heap = ctx.heap();
+            ctx.label(sortedTargets[t], 0, -1);
+            heap.push(sortedTargets[t], 0);
+
+            while (!heap.isEmpty()) {
+                int v = heap.popMin();
+                ctx.settle(v);
+                int dv = ctx.dist(v);
+                int parent = ctx.parentArc(v);
+                meters[v] = parent < 0 ? 0.0 : meters[arcTo[parent]] + arcMeters[parent];
+
+                if (ContractionHierarchyQuery.isStalled(ctx, v, dv, upFirst, upHead, upArc, arcWeight)) {
+                    continue;
+                }
+                if (size == nodes.length) {
+                    int capacity = size * 2;
+                    nodes = Arrays.copyOf(nodes, capacity);
+                    targets = Arrays.copyOf(targets, capacity);
+                    dists = Arrays.copyOf(dists, capacity);
+                    entryMeters = Arrays.copyOf(entryMeters, capacity);
+                }
+                nodes[size] = v;
+                targets[size] = t;
+                dists[size] = dv;
+                entryMeters[size] = meters[v];
+                size++;
+
+                for (int i = downFirst[v]; i < downFirst[v + 1]; i++) {
+                    if (arcWeight[downArc[i]] < RoadGraph.CLOSED_WEIGHT) {
+                        ContractionHierarchyQuery.relax(ctx, heap, downHead[i], dv + arcWeight[downArc[i]],
+                                downArc[i]);
+                    }
+                }
+            }
+        }
+
+        // Tri des entrées par nœud : (nœud << 32) | position
+        long[] order = new long[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = ((long) nodes[i] << 32) | i;
+        }
+        Arrays.sort(order);
+
+        int[] sortedTarget = new int[size];
+        int[] sortedDist = new int[size];
+        double[] sortedMeters = new double[size];
+        int[] bucketNodes = new int[size];
+        int[] bucketFirst = new int[size + 1];
+        int buckets = 0;
+        for (int i = 0; i < size; i++) {
+            int entry = (int) order[i];
+            int node = (int) (order[i] >>> 32);
+            if (buckets == 0 || bucketNodes[buckets - 1] != node) {
+                bucketNodes[buckets] = node;
+                bucketFirst[buckets] = i;
+                buckets++;
+            }
+            sortedTarget[i] = targets[entry];
+            sortedDist[i] = dists[entry];
+            sortedMeters[i] = entryMeters[entry];
+        }
+        bucketFirst[buckets] = size;
+
+        return new ContractionHierarchyMatrix(ch, sortedTargets.length,
+                Arrays.copyOf(bucketNodes, buckets), Arrays.copyOf(bucketFirst, buckets + 1),
+                sortedTarget, sortedDist, sortedMeters);
+    }
+
+    /**
+     * Calcule une ligne de la matrice.
+     *
+     * @param source          Indice dense de la source
+     * @param durations       Sortie : secondes par cible (ordre de
+     *                        {@code sortedTargets}),
+     *                        {@link OneToManyDijkstra#UNREACHABLE} si inaccessible
+     * @param distancesMeters Sortie : mètres par cible
+     * @return Nombre de nœuds fixés
+     */
+    public int row(int source, int[] durations, double[] distancesMeters) {
+        int n = ch.getGraph().getNodeCount();
+        int[] arcFrom = ch.getArcFrom();
+        int[] arcWeight = ch.getArcWeight();
+        double[] arcMeters = ch.getArcMeters();
+        int[] upFirst = ch.getUpFirst();
+        int[] upHead = ch.getUpHead();
+        int[] upArc = ch.getUpArc();
+        int[] downFirst = ch.getDownFirst();
+        int[] downHead = ch.getDownHead();
+        int[] downArc = ch.getDownArc();
+        double[] meters = metersBuffer(n);
+
+        Arrays.fill(durations, 0, targetCount, Integer.MAX_VALUE);
+        Arrays.fill(distancesMeters, 0, targetCount, 0.0);
+
+        SearchContext ctx = SearchContextPool.acquire(n, 0);
+        IndexedDaryHeap heap = ctx.heap();
+        ctx.label(source, 0, -1);
+        heap.push(source, 0);
+        int nodesSettled = 0;
+
+        while (!heap.isEmpty()) {
+            int v = heap.popMin();
+            ctx.settle(v);
+            nodesSettled++;
+            int dv = ctx.dist(v);
+            int parent = ctx.parentArc(v);
+            meters[v] = parent < 0 ? 0.0 : meters[arcFrom[parent]] + arcMeters[parent];
+
+            if (ContractionHierarchyQuery.isStalled(ctx, v, dv, downFirst, downHead, downArc, arcWeight)) {
+                continue;
+            }
+
+            int bucket = Arrays.binarySearch(bucketNodes, v);
+            if (bucket >= 0) {
+                for (int e = bucketFirst[bucket]; e < bucketFirst[bucket + 1]; e++) {
+                    int t = entryTarget[e];
+                    int candidate = dv + entryDist[e];
+                    if (candidate < durations[t]) {
+                        durations[t] = candidate;
+                        distancesMeters[t] = meters[v] + entryMeters[e];
+                    }
+                }
+            }
+
+            for (int i = upFirst[v]; i < upFirst[v + 1]; i++) {
+                if (arcWeight[upArc[i]] < RoadGraph.CLOSED_WEIGHT) {
+                    ContractionHierarchyQuery.relax(ctx, heap, upHead[i], dv + arcWeight[upArc[i]], upArc[i]);
+                }
+            }
+        }
+
+        for (int t = 0; t < targetCount; t++) {
+            if (durations[t] == Integer.MAX_VALUE) {
+                durations[t] = OneToManyDijkstra.UNREACHABLE;
+            }
+        }
+        return nodesSettled;
+    }
+
+    private static double[] metersBuffer(int nodeCount) {
+        double[] meters = METERS.get();
+        if (meters.length < nodeCount) {
+            meters = new double[nodeCount];
+            METERS.set(meters);
+        }
+        return meters;
+    }
+}
@@ -0,0 +1,216 @@
+package com.enspy.tripplanning.routing.engine.ch;
+
+import com.enspy.tripplanning.routing.engine.IndexedDaryHeap;
+import com.enspy.tripplanning.routing.engine.SearchContext;
+import com.enspy.tripplanning.routing.engine.SearchContextPool;
+import com.enspy.tripplanning.routing.engine.SearchEffort;
+import com.enspy.tripplanning.routing.graph.RoadGraph;
+import com.enspy.tripplanning.routing.model.Route;
+import com.enspy.tripplanning.routing.model.SearchAlgorithm;
+
+/**
+ * Requête point à point sur une {@link ContractionHierarchy}.
+ *
+ * ALGORITHME:
+ * - Dijkstra bidirectionnelle : la recherche avant ne suit que les arcs
+ * montants depuis s, la recherche arrière ne suit que les arcs descendants
+ * (à l'envers) depuis t. On avance à chaque pas le côté dont la clé
+ * minimale est la plus petite.
+ * - μ = meilleure distance s → t connue (mise à jour quand un nœud est
+ * atteint des deux côtés). Arrêt dès que les deux clés minimales sont ≥ μ.
+ * - Stall-on-demand : un nœud v fixé est "bloqué" (ses arcs ne sont pas
+ * relâchés) si un voisin de rang supérieur déjà atteint donne une distance
+ * plus courte à v par un arc entrant : v ne peut pas être sur le plus court
+ * chemin montant.
+ *
+ * Le chemin obtenu (arcs de la hiérarchie) est ensuite déplié en arcs du
+ * {@link RoadGraph} puis converti en {@link Route}.
+ *
+ * Les contextes de recherche proviennent de {@link SearchContextPool}
+ * (slots 0 et 1) : aucune allocation dans la boucle principale.
+ */
+public final class ContractionHierarchyQuery {
+
+    private static final ThreadLocal<int[]> UNPACK_STACK = ThreadLocal.withInitial(() -> new int[64]);
+
+    private ContractionHierarchyQuery() {
+    }
+
+    /**
+     * @param ch    Hiérarchie de contraction
+     * @param start Indice dense du nœud de départ
+     * @param end   Indice dense du nœud d'arrivée
+     * @return Route trouvée, ou Route avec found=false
+     */
+    public static Route shortestPath(ContractionHierarchy ch, int start, int end) {
+        RoadGraph graph = ch.getGraph();
+        int n = graph.getNodeCount();
+        int[] arcFrom = ch.getArcFrom();
+        int[] arcTo = ch.getArcTo();
+        int[] arcWeight = ch.getArcWeight();
+        int[] upFirst = ch.getUpFirst();
+        int[] upHead = ch.getUpHead();
+        int[] upArc = ch.getUpArc();
+        int[] downFirst = ch.getDownFirst();
+        int[] downHead = ch.getDownHead();
+        int[] downArc = ch.getDownArc();
+
+        SearchContext forward = SearchContextPool.acquire(n, 0);
+        SearchContext backward = SearchContextPool.acquire(n, 1);
+        IndexedDaryHeap forwardHeap = forward.heap();
+        IndexedDaryHeap backwardHeap = backward.heap();
+
+        forward.label(start, 0, -1);
+        forwardHeap.push(start, 0);
+        backward.label(end, 0, -1);
+        backwardHeap.push(end, 0);
+
+        int best = start == end ? 0 : Integer.MAX_VALUE;
+        int meeting = start == end ? start : -1;
+        int nodesExplored = 0;
+
+        while (true) {
+            int forwardKey = forwardHeap.isEmpty() ? Integer.MAX_VALUE : forwardHeap.peekKey();
+            int backwardKey = backwardHeap.isEmpty() ? Integer.MAX_VALUE : backwardHeap.peekKey();
+            if (Math.min(forwardKey, backwardKey) >= best) {
+                break;
+            }
+
+            if (forwardKey <= backwardKey) {
+                int v = forwardHeap.popMin();
+                forward.settle(v);
+                nodesExplored++;
+                int dv = forward.dist(v);
+
+                int other = backward.dist(v);
+                if (other != Integer.MAX_VALUE && dv + other < best) {
+                    best = dv + other;
+                    meeting = v;
+                }
+
+                // Stall-on-demand : arc entrant u → v depuis un rang supérieur
+                if (isStalled(forward, v, dv, downFirst, downHead, downArc, arcWeight)) {
+                    continue;
+                }
+                forward.countRelaxed(upFirst[v + 1] - upFirst[v]);
+
+                for (int i = upFirst[v]; i < upFirst[v + 1]; i++) {
+                    if (arcWeight[upArc[i]] < RoadGraph.CLOSED_WEIGHT) {
+                        relax(forward, forwardHeap, upHead[i], dv + arcWeight[upArc[i]], upArc[i]);
+                    }
+                }
+            } else {
+                int v = backwardHeap.popMin();
+                backward.settle(v);
+                nodesExplored++;
+                int dv = backward.dist(v);
+
+                int other = forward.dist(v);
+                if (other != Integer.MAX_VALUE && dv + other < best) {
+                    best = dv + other;
+                    meeting = v;
+                }
+
+                if (isStalled(backward, v, dv, upFirst, upHead, upArc, arcWeight)) {
+                    continue;
+                }
+                backward.countRelaxed(downFirst[v + 1] - downFirst[v]);
+
+                for (int i = downFirst[v]; i < downFirst[v + 1]; i++) {
+                    if (arcWeight[downArc[i]] < RoadGraph.CLOSED_WEIGHT) {
+                        relax(backward, backwardHeap, downHead[i], dv + arcWeight[downArc[i]], downArc[i]);
+                    }
+                }
+            }
+        }
+
+        Route route = meeting < 0
+                ? Route.builder()
+                        .startNode(graph.toRoadNode(start))
+                        .endNode(graph.toRoadNode(end))
+                        .found(false)
+                        .nodesExplored(nodesExplored)
+                        .errorMessage("Aucun chemin trouvé")
+                        .build()
+                : reconstructPath(ch, forward, backward, start, end, meeting, arcFrom, arcTo, nodesExplored);
+        route.setAlgorithm(SearchAlgorithm.CH);
+        return SearchEffort.record(route, forward, backward);
+    }
+
+    static boolean isStalled(SearchContext ctx, int v, int dv,
+            int[] first, int[] head, int[] arcs, int[] arcWeight) {
+        for (int i = first[v]; i < first[v + 1]; i++) {
+            int u = head[i];
+            int du = ctx.dist(u);
+            if (du != Integer.MAX_VALUE && arcWeight[arcs[i]] < RoadGraph.CLOSED_WEIGHT
+                    && du + arcWeight[arcs[i]] < dv) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static void relax(SearchContext ctx, IndexedDaryHeap heap, int node, int distance, int arc) {
+        if (ctx.isSettled(node)) {
+            return;
+        }
+        if (!ctx.isReached(node)) {
+            ctx.label(node, distance, arc);
+            heap.push(node, distance);
+        } else if (distance < ctx.dist(node)) {
+            ctx.label(node, distance, arc);
+            heap.decreaseKey(node, distance);
+        }
+    }
+
+    /**
+     * Assemble s → meeting (chaîne avant) puis meeting → t (chaîne arrière),
+     * puis déplie chaque arc de la hiérarchie.
+     */
+    private static Route reconstructPath(ContractionHierarchy ch, SearchContext forward, SearchContext backward,
+            int start, int end, int meeting, int[] arcFrom, int[] arcTo, int nodesExplored) {
+        long unpackStart = System.nanoTime();
+        int n = ch.getGraph().getNodeCount();
+        int[] stack = UNPACK_STACK.get();
+        if (stack.length < n + 1) {
+            stack = new int[n + 1];
+            UNPACK_STACK.set(stack);
+        }
+
+        // Arcs de la hiérarchie, dans l'ordre s → t
+        int chLength = 0;
+        for (int v = meeting; v != start; v = arcFrom[forward.parentArc(v)]) {
+            chLength++;
+        }
+        for (int v = meeting; v != end; v = arcTo[backward.parentArc(v)]) {
+            chLength++;
+        }
+        int[] chArcs = new int[chLength];
+        int i = 0;
+        for (int v = meeting; v != start; v = arcFrom[forward.parentArc(v)]) {
+            chArcs[i++] = forward.parentArc(v);
+        }
+        for (int a = 0, b = i - 1; a < b; a++, b--) {
+            int tmp = chArcs[a];
+            chArcs[a] = chArcs[b];
+            chArcs[b] = tmp;
+        }
+        for (int v = meeting; v != end; v = arcTo[backward.parentArc(v)]) {
+            chArcs[i++] = backward.parentArc(v);
+        }
+
+        int length = 0;
+        for (int arc : chArcs) {
+            length += ch.unpackedLength(arc, stack);
+        }
+        int[] buffer = forward.pathBuffer(length);
+        int offset = 0;
+        for (int arc : chArcs) {
+            offset = ch.unpack(arc, buffer, offset, stack);
+        }
+
+        Route route = ch.getGraph().toRoute(start, end, buffer, length, nodesExplored);
+        route.setUnpackTimeNanos(System.nanoTime() - unpackStart);
+        return route;
+    }
+}
@@ -0,0 +1,369 @@
+package com.enspy.tripplanning.routing.engine.isochrone;
+
+import com.enspy.tripplanning.routing.graph.RoadGraph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Contours d'isochrones par grille.
+ *
+ * PRINCIPE:
+ * 1. Les nœuds atteints et les routes qui en partent sont projetés sur une
+ * grille régulière (taille de cellule en mètres). Chaque cellule reçoit le
+ * plus petit temps des points situés dans son voisinage 3×3, ce qui comble
+ * les trous entre routes proches.
+ * 2. Pour un budget donné, les cellules dont le temps est dans le budget
+ * forment une région ; ses bords sont suivis pour former des anneaux fermés
+ * (extérieurs dans le sens trigonométrique, trous dans le sens horaire,
+ * comme le veut GeoJSON).
+ * 3. Chaque trou est rattaché au plus petit anneau extérieur qui le contient ;
+ * les trous de moins de {@link #MIN_HOLE_CELLS} cellules sont comblés.
+ *
+ * Une même grille sert à tous les budgets d'une requête ; une instance
+ * n'est pas thread-safe.
+ */
+public final class IsochroneContour {
+
+    /** Nombre maximal de cellules : au-delà, la cellule est agrandie */
+    private static final int MAX_CELLS = 1 << 20;
+
+    /** Trous plus petits (en cellules) ignorés : espaces entre routes voisines */
+    private static final int MIN_HOLE_CELLS = 16;
+
+    private static final double METERS_PER_DEGREE_LAT = 110_540.0;
+    private static final double METERS_PER_DEGREE_LON = 111_320.0;
+
+    private final int rows;
+    private final int columns;
+    private final double originLat;
+    private final double originLon;
+    private final double cellLat;
+    private final double cellLon;
+    /** Plus petit temps (s) du voisinage de chaque cellule */
+    private final int[] cellSeconds;
+    /** Bords sortants par sommet, réutilisés d'un budget à l'autre */
+    private int[] outFirst;
+    private int[] outSecond;
+
+    private IsochroneContour(int rows, int columns, double originLat, double originLon,
+            double cellLat, double cellLon, int[] cellSeconds) {
+        this.rows = rows;
+        this.columns = columns;
+        this.originLat = originLat;
+        this.originLon = originLon;
+        this.cellLat = cellLat;
+        this.cellLon = cellLon;
+        this.cellSeconds = cellSeconds;
+    }
+
+    /**
+     * Construit la grille des temps à partir du résultat d'une recherche.
+     *
+     * Les routes sont échantillonnées à chaque cellule entre un nœud atteint
+     * et ses voisins (temps interpolé le long de l'arc, jusqu'à
+     * {@code maxSeconds}) : une route rurale dont les nœuds sont espacés de
+     * plusieurs kilomètres reste un couloir continu.
+     *
+     * @param cellMeters Taille de cellule souhaitée (mètres)
+     * @param maxSeconds Plus grand budget de la requête
+     */
+    public static IsochroneContour build(RoadGraph graph, IsochroneSearch.Result reached, double cellMeters,
+            int maxSeconds) {
+        double[] latitudes = graph.getLatitudes();
+        double[] longitudes = graph.getLongitudes();
+        int[] firstOut = graph.getFirstOut();
+        int[] arcHead = graph.getArcHead();
+        int[] nodes = reached.nodes();
+        int count = reached.count();
+
+        // Emprise : nœuds atteints et extrémités de leurs arcs
+        double minLat = Double.MAX_VALUE;
+        double maxLat = -Double.MAX_VALUE;
+        double minLon = Double.MAX_VALUE;
+        double maxLon = -Double.MAX_VALUE;
+        for (int i = 0; i < count; i++) {
+            int u = nodes[i];
+            for (int arc = firstOut[u] - 1; arc < firstOut[u + 1]; arc++) {
+                int v = arc < firstOut[u] ? u : arcHead[arc];
+                minLat = Math.min(minLat, latitudes[v]);
+                maxLat = Math.max(maxLat, latitudes[v]);
+                minLon = Math.min(minLon, longitudes[v]);
+                maxLon = Math.max(maxLon, longitudes[v]);
+            }
+        }
+
+        double cellLat = cellMeters / METERS_PER_DEGREE_LAT;
+        double cellLon = cellMeters / (METERS_PER_DEGREE_LON * Math.cos(Math.toRadians((minLat + maxLat) / 2)));
+        double cells = ((maxLat - minLat) / cellLat + 3) * ((maxLon - minLon) / cellLon + 3);
+        double sampleMeters = cellMeters;
+        if (cells > MAX_CELLS) {
+            double scale = Math.sqrt(cells / MAX_CELLS);
+            cellLat *= scale;
+            cellLon *= scale;
+            sampleMeters *= scale;
+        }
+
+        // Une cellule de marge de chaque côté pour le voisinage 3×3
+        int rows = (int) ((maxLat - minLat) / cellLat) + 3;
+        int columns = (int) ((maxLon - minLon) / cellLon) + 3;
+        IsochroneContour contour = new IsochroneContour(rows, columns, minLat - cellLat, minLon - cellLon,
+                cellLat, cellLon, new int[rows * columns]);
+        Arrays.fill(contour.cellSeconds, Integer.MAX_VALUE);
+
+        int[] arcEdge = graph.getArcEdge();
+        int[] arcWeight = graph.getArcWeight();
+        double[] edgeMeters = graph.getEdgeDistancesMeters();
+        for (int i = 0; i < count; i++) {
+            int u = nodes[i];
+            int seconds = reached.seconds()[i];
+            contour.mark(latitudes[u], longitudes[u], seconds);
+
+            for (int arc = firstOut[u]; arc < firstOut[u + 1]; arc++) {
+                if (arcWeight[arc] >= RoadGraph.CLOSED_WEIGHT) {
+                    continue;
+                }
+                int v = arcHead[arc];
+                int steps = (int) Math.ceil(edgeMeters[arcEdge[arc]] / sampleMeters);
+                for (int k = 1; k < steps; k++) {
+                    double fraction = (double) k / steps;
+                    int time = seconds + (int) (fraction * arcWeight[arc]);
+                    if (time > maxSeconds) {
+                        break;
+                    }
+                    contour.mark(latitudes[u] + fraction * (latitudes[v] - latitudes[u]),
+                            longitudes[u] + fraction * (longitudes[v] - longitudes[u]), time);
+                }
+            }
+        }
+        return contour;
+    }
+
+    /**
+     * Reporte un temps sur la cellule du point et ses 8 voisines.
+     */
+    private void mark(double latitude, double longitude, int seconds) {
+        // Bornage : protège des arrondis sur les bords de l'emprise
+        int r = Math.max(1, Math.min(rows - 2, (int) ((latitude - originLat) / cellLat)));
+        int c = Math.max(1, Math.min(columns - 2, (int) ((longitude - originLon) / cellLon)));
+        for (int dr = -1; dr <= 1; dr++) {
+            for (int dc = -1; dc <= 1; dc++) {
+                int cell = (r + dr) * columns + (c + dc);
+                if (seconds < cellSeconds[cell]) {
+                    cellSeconds[cell] = seconds;
+                }
+            }
+        }
+    }
+
+    /**
+     * Contour de la zone atteignable dans le budget donné.
+     *
+     * @return Coordonnées d'un MultiPolygon GeoJSON : polygones → anneaux
+     *         (extérieur puis trous) → points [longitude, latitude]
+     */
+    public List<List<List<double[]>>> polygons(int budgetSeconds) {
+        List<int[]> rings = traceRings(budgetSeconds);
+
+        List<int[]> outers = new ArrayList<>();
+        List<Long> outerAreas = new ArrayList<>();
+        List<int[]> holes = new ArrayList<>();
+        for (int[] ring : rings) {
+            long area = signedArea(ring);
+            if (area > 0) {
+                outers.add(ring);
+                outerAreas.add(area);
+            } else if (-area >= 2 * MIN_HOLE_CELLS) {
+                holes.add(ring);
+            }
+        }
+
+        List<List<List<double[]>>> polygons = new ArrayList<>(outers.size());
+        for (int[] outer : outers) {
+            List<List<double[]>> polygon = new ArrayList<>();
+            polygon.add(toCoordinates(outer));
+            polygons.add(polygon);
+        }
+        for (int[] hole : holes) {
+            int owner = -1;
+            long ownerArea = Long.MAX_VALUE;
+            // Centre (en demi-cellules) de la cellule atteinte à gauche du premier bord
+            int x0 = 2 * x(hole[0]);
+            int y0 = 2 * y(hole[0]);
+            int dx = Integer.signum(x(hole[1]) - x(hole[0]));
+            int dy = Integer.signum(y(hole[1]) - y(hole[0]));
+            int px = x0 + dx - dy;
+            int py = y0 + dy + dx;
+            for (int i = 0; i < outers.size(); i++) {
+                long area = outerAreas.get(i);
+                if (area < ownerArea && (outers.size() == 1 || contains(outers.get(i), px, py))) {
+                    owner = i;
+                    ownerArea = area;
+                }
+            }
+            if (owner >= 0) {
+                polygons.get(owner).add(toCoordinates(hole));
+            }
+        }
+        return polygons;
+    }
+
+    /**
+     * Suit les bords de la région "temps ≤ budget". Sommets numérotés
+     * y × (colonnes + 1) + x ; chaque bord laisse la région à sa gauche.
+     */
+    private List<int[]> traceRings(int budgetSeconds) {
+        int stride = columns + 1;
+        int vertexCount = (rows + 1) * stride;
+        // Au plus deux bords sortants par sommet (sommet "en selle"). Le suivi
+        // consomme tous les bords : les tableaux reviennent à -1 et servent
+        // au budget suivant.
+        if (outFirst == null) {
+            outFirst = new int[vertexCount];
+            outSecond = new int[vertexCount];
+            Arrays.fill(outFirst, -1);
+            Arrays.fill(outSecond, -1);
+        }
+
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < columns; c++) {
+                if (!inside(r, c, budgetSeconds)) {
+                    continue;
+                }
+                int sw = r * stride + c;
+                int se = sw + 1;
+                int nw = sw + stride;
+                int ne = nw + 1;
+                if (!inside(r - 1, c, budgetSeconds)) {
+                    addEdge(sw, se);
+                }
+                if (!inside(r, c + 1, budgetSeconds)) {
+                    addEdge(se, ne);
+                }
+                if (!inside(r + 1, c, budgetSeconds)) {
+                    addEdge(ne, nw);
+                }
+                if (!inside(r, c - 1, budgetSeconds)) {
+                    addEdge(nw, sw);
+                }
+            }
+        }
+
+        List<int[]> rings = new ArrayList<>();
+        int[] path = new int[16];
+        for (int start = 0; start < vertexCount; start++) {
+            while (outFirst[start] >= 0) {
+                int length = 0;
+                int previous = start;
+                int current = takeEdge(start, -1, -1);
+                path[length++] = start;
+                while (current != start) {
+                    if (length == path.length) {
+                        path = Arrays.copyOf(path, length * 2);
+                    }
+                    path[length++] = current;
+                    int next = takeEdge(current,
+                            x(current) - x(previous), y(current) - y(previous));
+                    previous = current;
+                    current = next;
+                }
+                rings.add(simplify(path, length));
+            }
+        }
+        return rings;
+    }
+
+    private boolean inside(int r, int c, int budgetSeconds) {
+        return r >= 0 && r < rows && c >= 0 && c < columns && cellSeconds[r * columns + c] <= budgetSeconds;
+    }
+
+    private void addEdge(int from, int to) {
+        if (outFirst[from] < 0) {
+            outFirst[from] = to;
+        } else {
+            outSecond[from] = to;
+        }
+    }
+
+    /**
+     * Retire un bord sortant de {@code vertex}. En selle, préfère le virage à
+     * gauche : les cellules qui ne se touchent que par un coin donnent des
+     * anneaux distincts.
+     */
+    private int takeEdge(int vertex, int dx, int dy) {
+        int first = outFirst[vertex];
+        int second = outSecond[vertex];
+        if (second >= 0 && x(second) - x(vertex) == -dy && y(second) - y(vertex) == dx) {
+            outSecond[vertex] = -1;
+            return second;
+        }
+        outFirst[vertex] = second;
+        outSecond[vertex] = -1;
+        return first;
+    }
+
+    /**
+     * Ne garde que les sommets où la direction change.
+     */
+    private int[] simplify(int[] path, int length) {
+        int[] corners = new int[length];
+        int count = 0;
+        for (int i = 0; i < length; i++) {
+            int previous = path[(i + length - 1) % length];
+            int current = path[i];
+            int next = path[(i + 1) % length];
+            if (x(current) - x(previous) != x(next) - x(current)
+                    || y(current) - y(previous) != y(next) - y(current)) {
+                corners[count++] = current;
+            }
+        }
+        return Arrays.copyOf(corners, count);
+    }
+
+    /**
+     * Double de l'aire signée (positive : sens trigonométrique).
+     */
+    private long signedArea(int[] ring) {
+        long area = 0;
+        for (int i = 0; i < ring.length; i++) {
+            int j = (i + 1) % ring.length;
+            area += (long) x(ring[i]) * y(ring[j]) - (long) x(ring[j]) * y(ring[i]);
+        }
+        return area;
+    }
+
+    /**
+     * Point (en demi-unités de grille) strictement intérieur à l'anneau ?
+     */
+    private boolean contains(int[] ring, int px, int py) {
+        boolean inside = false;
+        for (int i = 0, j = ring.length - 1; i < ring.length; j = i++) {
+            int xi = 2 * x(ring[i]);
+            int yi = 2 * y(ring[i]);
+            int xj = 2 * x(ring[j]);
+            int yj = 2 * y(ring[j]);
+            if ((yi > py) != (yj > py) && px < (double) (xj - xi) * (py - yi) / (yj - yi) + xi) {
+                inside = !inside;
+            }
+        }
+        return inside;
+    }
+
+    private List<double[]> toCoordinates(int[] ring) {
+        List<double[]> coordinates = new ArrayList<>(ring.length + 1);
+        for (int vertex : ring) {
+            coordinates.add(new double[] { originLon + x(vertex) * cellLon, originLat + y(vertex) * cellLat });
+        }
+        coordinates.add(coordinates.get(0));
+        return coordinates;
+    }
+
+    private int x(int vertex) {
+        return vertex % (columns + 1);
+    }
+
+    private int y(int vertex) {
+        return vertex / (columns + 1);
+    }
+}
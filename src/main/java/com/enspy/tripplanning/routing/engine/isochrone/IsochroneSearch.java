@@ -0,0 +1,107 @@
+package com.enspy.tripplanning.routing.engine.isochrone;
+
+import com.enspy.tripplanning.routing.engine.IndexedDaryHeap;
+import com.enspy.tripplanning.routing.engine.SearchContext;
+import com.enspy.tripplanning.routing.engine.SearchContextPool;
+import com.enspy.tripplanning.routing.graph.RoadGraph;
+
+import java.util.Arrays;
+
+/**
+ * Dijkstra borné en temps depuis un nœud : tous les nœuds atteignables en
+ * au plus {@code maxSeconds}, avec leur temps de parcours.
+ *
+ * Une seule recherche sert tous les budgets d'une requête d'isochrones : elle
+ * est bornée par le plus grand, les plus petits sont obtenus en filtrant sur
+ * le temps.
+ *
+ * Contexte : slot 0 de {@link SearchContextPool} et tampons de résultat par
+ * thread ; aucune allocation par nœud d'une requête à l'autre.
+ */
+public final class IsochroneSearch {
+
+    private static final ThreadLocal<Result> RESULT = ThreadLocal.withInitial(Result::new);
+
+    private IsochroneSearch() {
+    }
+
+    /**
+     * Nœuds fixés par la recherche, dans l'ordre croissant du temps. Les
+     * tableaux sont réutilisés par le thread : seules les {@link #count}
+     * premières cases sont valides, jusqu'à la recherche suivante.
+     */
+    public static final class Result {
+        private int[] nodes = new int[0];
+        private int[] seconds = new int[0];
+        private int count;
+
+        public int[] nodes() {
+            return nodes;
+        }
+
+        public int[] seconds() {
+            return seconds;
+        }
+
+        public int count() {
+            return count;
+        }
+
+        private void add(int node, int time) {
+            if (count == nodes.length) {
+                int capacity = Math.max(1024, count * 2);
+                nodes = Arrays.copyOf(nodes, capacity);
+                seconds = Arrays.copyOf(seconds, capacity);
+            }
+            nodes[count] = node;
+            seconds[count] = time;
+            count++;
+        }
+    }
+
+    /**
+     * @param graph      Graphe résident
+     * @param source     Indice dense du nœud de départ
+     * @param maxSeconds Budget maximal (secondes)
+     * @return Nœuds atteints (tampon du thread courant)
+     */
+    public static Result search(RoadGraph graph, int source, int maxSeconds) {
+        int[] firstOut = graph.getFirstOut();
+        int[] arcHead = graph.getArcHead();
+        int[] arcWeight = graph.getArcWeight();
+
+        SearchContext ctx = SearchContextPool.acquire(graph.getNodeCount(), 0);
+        IndexedDaryHeap heap = ctx.heap();
+        Result result = RESULT.get();
+        result.count = 0;
+
+        ctx.label(source, 0, -1);
+        heap.push(source, 0);
+
+        while (!heap.isEmpty() && heap.peekKey() <= maxSeconds) {
+            int u = heap.popMin();
+            ctx.settle(u);
+            int du = ctx.dist(u);
+            result.add(u, du);
+
+            for (int arc = firstOut[u]; arc < firstOut[u + 1]; arc++) {
+                int v = arcHead[arc];
+                if (ctx.isSettled(v) || arcWeight[arc] >= RoadGraph.CLOSED_WEIGHT) {
+                    continue;
+                }
+                int dv = du + arcWeight[arc];
+                if (dv > maxSeconds) {
+                    continue;
+                }
+                if (!ctx.isReached(v)) {
+                    ctx.label(v, dv, arc);
+                    heap.push(v, dv);
+                } else if (dv < ctx.dist(v)) {
+                    ctx.label(v, dv, arc);
+                    heap.decreaseKey(v, dv);
+                }
+            }
+        }
+        return result;
+    }
+}
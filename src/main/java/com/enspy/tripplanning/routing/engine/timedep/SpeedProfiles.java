@@ -0,0 +1,238 @@
+package com.enspy.tripplanning.routing.engine.timedep;
+
+import com.enspy.tripplanning.routing.graph.RoadGraph;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Profils de vitesse horaires du graphe résident.
+ *
+ * Un profil est une fonction linéaire par morceaux de l'heure de la journée
+ * donnant un facteur de vitesse (1 = vitesse libre, 0.5 = deux fois plus
+ * lent) ; le temps de parcours d'un arc à l'instant t vaut
+ * travel_time / facteur(t). Les profils sont partagés : chaque arc ne porte
+ * que l'identifiant (octet) du sien, -1 s'il n'en a pas.
+ *
+ * STOCKAGE: chaque profil est échantillonné aux bornes des créneaux de
+ * {@link #BUCKET_SECONDS} secondes (97 valeurs, la dernière reprenant la
+ * première), puis interpolé entre deux bornes : une lecture de tableau et
+ * une interpolation par arc relâché, sans recherche de point de rupture.
+ *
+ * Le facteur est borné à [{@link #MIN_FACTOR}, {@link #MAX_FACTOR}]. Des
+ * profils aux pentes modérées conservent la propriété FIFO (partir plus
+ * tard ne fait pas arriver plus tôt), qui garantit l'exactitude de
+ * {@link TimeDependentAStar}.
+ */
+public final class SpeedProfiles {
+
+    public static final int DAY_SECONDS = 24 * 3600;
+    /** Largeur d'un créneau (15 min) */
+    public static final int BUCKET_SECONDS = 900;
+    public static final int BUCKETS = DAY_SECONDS / BUCKET_SECONDS;
+
+    public static final float MIN_FACTOR = 0.05f;
+    public static final float MAX_FACTOR = 2.0f;
+
+    private static final int STRIDE = BUCKETS + 1;
+
+    private final RoadGraph graph;
+    /** Profil de chaque arc avant (-1 = temps statique) */
+    private final byte[] arcProfile;
+    /** Facteurs aux bornes des créneaux, STRIDE valeurs par profil */
+    private final float[] factors;
+    private final String[] names;
+    private final float maxFactor;
+
+    /**
+     * Définition d'un profil et des arêtes auxquelles il s'applique.
+     *
+     * @param roadTypes Types de route OSM concernés (vide = tous)
+     * @param zone      [minLat, minLon, maxLat, maxLon] contenant le milieu
+     *                  de l'arête (ville), ou null pour tout le réseau
+     * @param seconds   Points de rupture (secondes depuis minuit, croissants)
+     * @param values    Facteur de vitesse à chaque point de rupture
+     */
+    public record Profile(String name, Set<String> roadTypes, double[] zone, int[] seconds, float[] values) {
+
+        /**
+         * Lit des points de rupture "HH:mm=facteur" séparés par des
+         * points-virgules, par exemple "06:30=1;07:30=0.5;09:00=0.8".
+         *
+         * @throws IllegalArgumentException si le format est invalide
+         */
+        public static Profile parse(String name, Set<String> roadTypes, double[] zone, String breakpoints) {
+            String[] parts = breakpoints.trim().split("\\s*;\\s*");
+            int[] seconds = new int[parts.length];
+            float[] values = new float[parts.length];
+            for (int i = 0; i < parts.length; i++) {
+                String[] pair = parts[i].split("=");
+                String[] clock = pair.length == 2 ? pair[0].trim().split(":") : new String[0];
+                if (clock.length != 2) {
+                    throw new IllegalArgumentException("Point de rupture invalide: " + parts[i]);
+                }
+                seconds[i] = Integer.parseInt(clock[0]) * 3600 + Integer.parseInt(clock[1]) * 60;
+                values[i] = Float.parseFloat(pair[1].trim());
+                if (seconds[i] < 0 || seconds[i] >= DAY_SECONDS || (i > 0 && seconds[i] <= seconds[i - 1])) {
+                    throw new IllegalArgumentException("Points de rupture non croissants dans [00:00, 24:00): "
+                            + breakpoints);
+                }
+            }
+            return new Profile(name, roadTypes, zone, seconds, values);
+        }
+
+        /**
+         * Facteur à l'instant t (interpolation linéaire, périodique sur 24 h).
+         */
+        float valueAt(int t) {
+            int n = seconds.length;
+            if (n == 1) {
+                return values[0];
+            }
+            int next = 0;
+            while (next < n && seconds[next] <= t) {
+                next++;
+            }
+            int previous = next - 1;
+            int previousTime;
+            int nextTime;
+            if (next == 0) {
+                previous = n - 1;
+                previousTime = seconds[previous] - DAY_SECONDS;
+                nextTime = seconds[0];
+            } else if (next == n) {
+                next = 0;
+                previousTime = seconds[previous];
+                nextTime = seconds[0] + DAY_SECONDS;
+            } else {
+                previousTime = seconds[previous];
+                nextTime = seconds[next];
+            }
+            float ratio = (float) (t - previousTime) / (nextTime - previousTime);
+            return values[previous] + (values[next] - values[previous]) * ratio;
+        }
+
+        boolean matches(String roadType, double latitude, double longitude) {
+            if (!roadTypes.isEmpty()
+                    && (roadType == null || !roadTypes.contains(roadType.toLowerCase(Locale.ROOT)))) {
+                return false;
+            }
+            return zone == null || (latitude >= zone[0] && longitude >= zone[1]
+                    && latitude <= zone[2] && longitude <= zone[3]);
+        }
+    }
+
+    private SpeedProfiles(RoadGraph graph, byte[] arcProfile, float[] factors, String[] names) {
+        this.graph = graph;
+        this.arcProfile = arcProfile;
+        this.factors = factors;
+        this.names = names;
+        float max = 1.0f;
+        for (float factor : factors) {
+            max = Math.max(max, factor);
+        }
+        this.maxFactor = max;
+    }
+
+    /**
+     * Attribue à chaque arête le premier profil correspondant (ordre de la
+     * liste) et échantillonne les profils.
+     *
+     * @throws IllegalArgumentException au-delà de 127 profils
+     */
+    public static SpeedProfiles build(RoadGraph graph, List<Profile> profiles) {
+        if (profiles.size() > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException("Trop de profils de vitesse: " + profiles.size());
+        }
+        float[] factors = new float[profiles.size() * STRIDE];
+        String[] names = new String[profiles.size()];
+        for (int p = 0; p < profiles.size(); p++) {
+            Profile profile = profiles.get(p);
+            names[p] = profile.name();
+            for (int b = 0; b < BUCKETS; b++) {
+                factors[p * STRIDE + b] = clamp(profile.valueAt(b * BUCKET_SECONDS));
+            }
+            factors[p * STRIDE + BUCKETS] = factors[p * STRIDE];
+        }
+
+        // Profil par arête (milieu de l'arête), recopié sur ses arcs
+        int[] sources = graph.getEdgeSources();
+        int[] targets = graph.getEdgeTargets();
+        double[] latitudes = graph.getLatitudes();
+        double[] longitudes = graph.getLongitudes();
+        byte[] edgeProfile = new byte[graph.getEdgeCount()];
+        Arrays.fill(edgeProfile, (byte) -1);
+        for (int e = 0; e < edgeProfile.length; e++) {
+            String roadType = graph.getRoadType(e);
+            double latitude = (latitudes[sources[e]] + latitudes[targets[e]]) / 2;
+            double longitude = (longitudes[sources[e]] + longitudes[targets[e]]) / 2;
+            for (int p = 0; p < profiles.size(); p++) {
+                if (profiles.get(p).matches(roadType, latitude, longitude)) {
+                    edgeProfile[e] = (byte) p;
+                    break;
+                }
+            }
+        }
+        int[] arcEdge = graph.getArcEdge();
+        byte[] arcProfile = new byte[arcEdge.length];
+        for (int arc = 0; arc < arcEdge.length; arc++) {
+            arcProfile[arc] = edgeProfile[arcEdge[arc]];
+        }
+        return new SpeedProfiles(graph, arcProfile, factors, names);
+    }
+
+    /**
+     * Temps de parcours de l'arc en partant à {@code secondOfDay}.
+     *
+     * @param baseSeconds Temps statique de l'arc (arcWeight)
+     * @param secondOfDay Instant d'entrée sur l'arc, en secondes depuis
+     *                    minuit (valeurs au-delà de 24 h acceptées)
+     */
+    public int travelTime(int arc, int baseSeconds, int secondOfDay) {
+        int profile = arcProfile[arc];
+        if (profile < 0 || baseSeconds == 0) {
+            return baseSeconds;
+        }
+        int t = secondOfDay % DAY_SECONDS;
+        int bucket = t / BUCKET_SECONDS;
+        int index = profile * STRIDE + bucket;
+        float ratio = (t - bucket * BUCKET_SECONDS) * (1.0f / BUCKET_SECONDS);
+        float factor = factors[index] + (factors[index + 1] - factors[index]) * ratio;
+        return (int) (baseSeconds / factor + 0.5f);
+    }
+
+    /**
+     * Facteur maximal tous profils confondus (≥ 1) : une borne inférieure
+     * statique divisée par ce facteur reste admissible.
+     */
+    public float getMaxFactor() {
+        return maxFactor;
+    }
+
+    public RoadGraph getGraph() {
+        return graph;
+    }
+
+    public int getProfileCount() {
+        return names.length;
+    }
+
+    /**
+     * Nombre d'arcs soumis à un profil.
+     */
+    public int getProfiledArcCount() {
+        int count = 0;
+        for (byte profile : arcProfile) {
+            if (profile >= 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static float clamp(float factor) {
+        return Math.max(MIN_FACTOR, Math.min(MAX_FACTOR, factor));
+    }
+}
@@ -0,0 +1,113 @@
+package com.enspy.tripplanning.routing.engine.timedep;
+
+import com.enspy.tripplanning.routing.engine.BidirectionalAStar;
+import com.enspy.tripplanning.routing.engine.IndexedDaryHeap;
+import com.enspy.tripplanning.routing.engine.SearchContext;
+import com.enspy.tripplanning.routing.graph.RoadGraph;
+import com.enspy.tripplanning.routing.model.RoadEdge;
+import com.enspy.tripplanning.routing.model.Route;
+
+import java.util.List;
+
+/**
+ * A* dépendant de l'heure de départ.
+ *
+ * Même boucle que l'A* du graphe résident, mais l'étiquette d'un nœud est
+ * son temps d'arrivée depuis le départ et le poids d'un arc est évalué à
+ * l'instant où on l'emprunte ({@link SpeedProfiles#travelTime}). Sous
+ * l'hypothèse FIFO, le premier passage à l'arrivée donne l'arrivée au plus
+ * tôt.
+ *
+ * HEURISTIQUE: les bornes statiques (ALT ou vol d'oiseau) sont divisées par
+ * le facteur maximal des profils, pour rester admissibles même si un profil
+ * dépasse la vitesse libre (heures creuses).
+ *
+ * Le chemin retourné porte, arête par arête, le temps réellement subi au
+ * passage ; son temps total est donc celui du départ demandé.
+ */
+public final class TimeDependentAStar {
+
+    private TimeDependentAStar() {
+    }
+
+    /**
+     * @param departureSecondOfDay Heure de départ, en secondes depuis minuit
+     * @param ctx                  Contexte de recherche (slot libre du thread)
+     * @return Route trouvée, ou null si aucun chemin
+     */
+    public static Route search(RoadGraph graph, SpeedProfiles profiles, int start, int end,
+            int departureSecondOfDay, BidirectionalAStar.Heuristic h, SearchContext ctx) {
+        int[] firstOut = graph.getFirstOut();
+        int[] arcHead = graph.getArcHead();
+        int[] arcWeight = graph.getArcWeight();
+        float heuristicScale = 1.0f / profiles.getMaxFactor();
+
+        IndexedDaryHeap openSet = ctx.heap();
+        ctx.label(start, 0, -1);
+        openSet.push(start, (int) (h.estimate(start, end) * heuristicScale));
+
+        int nodesExplored = 0;
+        while (!openSet.isEmpty()) {
+            int current = openSet.popMin();
+            ctx.settle(current);
+            nodesExplored++;
+
+            if (current == end) {
+                return reconstructPath(graph, ctx, start, end, nodesExplored);
+            }
+
+            ctx.countRelaxed(firstOut[current + 1] - firstOut[current]);
+            int elapsed = ctx.dist(current);
+            int clock = departureSecondOfDay + elapsed;
+            for (int arc = firstOut[current]; arc < firstOut[current + 1]; arc++) {
+                int neighbor = arcHead[arc];
+                if (ctx.isSettled(neighbor) || arcWeight[arc] >= RoadGraph.CLOSED_WEIGHT) {
+                    continue;
+                }
+                int arrival = elapsed + profiles.travelTime(arc, arcWeight[arc], clock);
+                if (!ctx.isReached(neighbor)) {
+                    ctx.label(neighbor, arrival, arc);
+                    openSet.push(neighbor, arrival + (int) (h.estimate(neighbor, end) * heuristicScale));
+                } else if (arrival < ctx.dist(neighbor)) {
+                    ctx.label(neighbor, arrival, arc);
+                    openSet.decreaseKey(neighbor, arrival + (int) (h.estimate(neighbor, end) * heuristicScale));
+                }
+            }
+        }
+        return null;
+    }
+
+    private static Route reconstructPath(RoadGraph graph, SearchContext ctx, int start, int end,
+            int nodesExplored) {
+        int length = 0;
+        int[] buffer = ctx.pathBuffer(64);
+        for (int v = end; v != start; v = graph.arcTail(ctx.parentArc(v))) {
+            if (length == buffer.length) {
+                buffer = ctx.pathBuffer(length + 1);
+            }
+            buffer[length++] = ctx.parentArc(v);
+        }
+        for (int i = 0, j = length - 1; i < j; i++, j--) {
+            int tmp = buffer[i];
+            buffer[i] = buffer[j];
+            buffer[j] = tmp;
+        }
+
+        Route route = graph.toRoute(start, end, buffer, length, nodesExplored);
+        if (!route.getFound()) {
+            return route;
+        }
+
+        // Temps subi sur chaque arête à l'heure de passage
+        List<RoadEdge> edges = route.getEdges();
+        int[] arcHead = graph.getArcHead();
+        int previous = 0;
+        for (int i = 0; i < length; i++) {
+            int arrival = ctx.dist(arcHead[buffer[i]]);
+            edges.get(i).setTravelTimeSeconds(arrival - previous);
+            previous = arrival;
+        }
+        route.setTotalTimeSeconds(ctx.dist(end));
+        return route;
+    }
+}
@@ -0,0 +1,259 @@
+package com.enspy.tripplanning.routing.engine.tour;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+/**
+ * Ordre de visite des étapes d'un itinéraire (TSP "ouvert") : départ et
+ * arrivée fixés, étapes intermédiaires dans l'ordre qui minimise le temps
+ * total.
+ *
+ * ENTRÉE: matrice des temps de parcours (secondes) entre les n points, le
+ * point 0 étant le départ et le point n-1 l'arrivée. La matrice peut être
+ * asymétrique (sens uniques) ; une valeur négative signifie "inaccessible"
+ * et coûte {@link #UNREACHABLE_COST}.
+ *
+ * RÉSOLUTION:
+ * - Jusqu'à {@link #EXACT_MAX_WAYPOINTS} étapes : programmation dynamique
+ * exacte (Held-Karp), O(2^k · k²).
+ * - Au-delà : recherche locale multi-départs (plus proche voisin puis
+ * départs aléatoires) améliorée par 2-opt et Or-opt jusqu'à optimum local
+ * ou épuisement du budget de temps. Les départs s'exécutent en parallèle.
+ */
+public final class OpenTourSolver {
+
+    public static final int EXACT_MAX_WAYPOINTS = 12;
+
+    /** Coût d'un trajet inaccessible : domine toute somme de temps réels */
+    public static final long UNREACHABLE_COST = 1_000_000_000L;
+
+    private OpenTourSolver() {
+    }
+
+    /**
+     * @param durations    Matrice n×n (n ≥ 2), départ = 0, arrivée = n-1
+     * @param timeBudgetMs Budget de la recherche locale (ignoré en exact)
+     * @return Ordre de visite des n points, commençant par 0 et finissant
+     *         par n-1
+     */
+    public static int[] solve(int[][] durations, long timeBudgetMs) {
+        int n = durations.length;
+        int waypoints = n - 2;
+        if (waypoints <= 1) {
+            return IntStream.range(0, n).toArray();
+        }
+        if (waypoints <= EXACT_MAX_WAYPOINTS) {
+            return solveExact(durations);
+        }
+
+        long deadline = System.nanoTime() + timeBudgetMs * 1_000_000L;
+        int starts = Math.max(2, Runtime.getRuntime().availableProcessors());
+        return IntStream.range(0, starts)
+                .parallel()
+                .mapToObj(seed -> improve(durations, seed == 0 ? nearestNeighbour(durations) : shuffled(n, seed),
+                        deadline))
+                .min((a, b) -> Long.compare(tourCost(durations, a), tourCost(durations, b)))
+                .orElseThrow();
+    }
+
+    /**
+     * Coût total d'un ordre de visite.
+     */
+    public static long tourCost(int[][] durations, int[] tour) {
+        long cost = 0;
+        for (int i = 0; i + 1 < tour.length; i++) {
+            cost += cost(durations, tour[i], tour[i + 1]);
+        }
+        return cost;
+    }
+
+    private static long cost(int[][] durations, int from, int to) {
+        int d = durations[from][to];
+        return d < 0 ? UNREACHABLE_COST : d;
+    }
+
+    /**
+     * Held-Karp : best[S][j] = coût minimal depuis le départ visitant
+     * exactement l'ensemble S d'étapes et finissant sur l'étape j.
+     */
+    private static int[] solveExact(int[][] durations) {
+        int n = durations.length;
+        int k = n - 2;
+        int full = (1 << k) - 1;
+        long[] best = new long[(1 << k) * k];
+        int[] parent = new int[(1 << k) * k];
+        Arrays.fill(best, Long.MAX_VALUE);
+
+        for (int j = 0; j < k; j++) {
+            best[(1 << j) * k + j] = cost(durations, 0, j + 1);
+            parent[(1 << j) * k + j] = -1;
+        }
+        for (int set = 1; set <= full; set++) {
+            for (int last = 0; last < k; last++) {
+                long current = best[set * k + last];
+                if ((set & (1 << last)) == 0 || current == Long.MAX_VALUE) {
+                    continue;
+                }
+                for (int next = 0; next < k; next++) {
+                    if ((set & (1 << next)) != 0) {
+                        continue;
+                    }
+                    int nextSet = set | (1 << next);
+                    long candidate = current + cost(durations, last + 1, next + 1);
+                    if (candidate < best[nextSet * k + next]) {
+                        best[nextSet * k + next] = candidate;
+                        parent[nextSet * k + next] = last;
+                    }
+                }
+            }
+        }
+
+        int last = 0;
+        long bestTotal = Long.MAX_VALUE;
+        for (int j = 0; j < k; j++) {
+            long total = best[full * k + j] + cost(durations, j + 1, n - 1);
+            if (total < bestTotal) {
+                bestTotal = total;
+                last = j;
+            }
+        }
+
+        int[] tour = new int[n];
+        tour[n - 1] = n - 1;
+        int set = full;
+        for (int i = k; i >= 1; i--) {
+            tour[i] = last + 1;
+            int previous = parent[set * k + last];
+            set &= ~(1 << last);
+            last = previous;
+        }
+        return tour;
+    }
+
+    private static int[] nearestNeighbour(int[][] durations) {
+        int n = durations.length;
+        int[] tour = new int[n];
+        boolean[] visited = new boolean[n];
+        tour[n - 1] = n - 1;
+        int current = 0;
+        for (int i = 1; i < n - 1; i++) {
+            int next = -1;
+            for (int candidate = 1; candidate < n - 1; candidate++) {
+                if (!visited[candidate] && (next < 0
+                        || cost(durations, current, candidate) < cost(durations, current, next))) {
+                    next = candidate;
+                }
+            }
+            visited[next] = true;
+            tour[i] = next;
+            current = next;
+        }
+        return tour;
+    }
+
+    private static int[] shuffled(int n, long seed) {
+        int[] tour = IntStream.range(0, n).toArray();
+        Random random = new Random(seed);
+        for (int i = n - 2; i > 1; i--) {
+            int j = 1 + random.nextInt(i);
+            int tmp = tour[i];
+            tour[i] = tour[j];
+            tour[j] = tmp;
+        }
+        return tour;
+    }
+
+    private static int[] improve(int[][] durations, int[] tour, long deadline) {
+        boolean improved = true;
+        while (improved && System.nanoTime() < deadline) {
+            improved = twoOpt(durations, tour, deadline);
+            improved |= orOpt(durations, tour);
+        }
+        return tour;
+    }
+
+    /**
+     * 2-opt asymétrique : inverser tour[i..j] inverse aussi le sens de tous
+     * ses arcs internes, dont le coût est cumulé au fil de j.
+     */
+    private static boolean twoOpt(int[][] durations, int[] tour, long deadline) {
+        int n = tour.length;
+        boolean improved = false;
+        for (int i = 1; i < n - 2; i++) {
+            if (System.nanoTime() >= deadline) {
+                return improved;
+            }
+            long forwardInside = 0;
+            long backwardInside = 0;
+            for (int j = i + 1; j < n - 1; j++) {
+                forwardInside += cost(durations, tour[j - 1], tour[j]);
+                backwardInside += cost(durations, tour[j], tour[j - 1]);
+                long before = cost(durations, tour[i - 1], tour[i]) + forwardInside
+                        + cost(durations, tour[j], tour[j + 1]);
+                long after = cost(durations, tour[i - 1], tour[j]) + backwardInside
+                        + cost(durations, tour[i], tour[j + 1]);
+                if (after < before) {
+                    for (int a = i, b = j; a < b; a++, b--) {
+                        int tmp = tour[a];
+                        tour[a] = tour[b];
+                        tour[b] = tmp;
+                    }
+                    improved = true;
+                    forwardInside = 0;
+                    backwardInside = 0;
+                    for (int m = i + 1; m <= j; m++) {
+                        forwardInside += cost(durations, tour[m - 1], tour[m]);
+                        backwardInside += cost(durations, tour[m], tour[m - 1]);
+                    }
+                }
+            }
+        }
+        return improved;
+    }
+
+    /**
+     * Or-opt : déplace un bloc de 1 à 3 étapes consécutives (sans l'inverser)
+     * entre deux autres points.
+     */
+    private static boolean orOpt(int[][] durations, int[] tour) {
+        int n = tour.length;
+        boolean improved = false;
+        for (int length = 1; length <= 3; length++) {
+            for (int i = 1; i + length < n; i++) {
+                int first = tour[i];
+                int last = tour[i + length - 1];
+                int prev = tour[i - 1];
+                int next = tour[i + length];
+                long removeGain = cost(durations, prev, first) + cost(durations, last, next)
+                        - cost(durations, prev, next);
+
+                // Insertion entre tour[p] et tour[p+1], hors du bloc
+                for (int p = 0; p < n - 1; p++) {
+                    if (p >= i - 1 && p < i + length) {
+                        continue;
+                    }
+                    long insertCost = cost(durations, tour[p], first) + cost(durations, last, tour[p + 1])
+                            - cost(durations, tour[p], tour[p + 1]);
+                    if (insertCost < removeGain) {
+                        moveBlock(tour, i, length, p);
+                        improved = true;
+                        break;
+                    }
+                }
+            }
+        }
+        return improved;
+    }
+
+    private static void moveBlock(int[] tour, int start, int length, int after) {
+        int[] block = Arrays.copyOfRange(tour, start, start + length);
+        if (after < start) {
+            System.arraycopy(tour, after + 1, tour, after + 1 + length, start - after - 1);
+            System.arraycopy(block, 0, tour, after + 1, length);
+        } else {
+            System.arraycopy(tour, start + length, tour, start, after - start - length + 1);
+            System.arraycopy(block, 0, tour, after - length + 1, length);
+        }
+    }
+}
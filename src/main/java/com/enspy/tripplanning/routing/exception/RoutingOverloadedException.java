@@ -0,0 +1,19 @@
+package com.enspy.tripplanning.routing.exception;
+
+/**
+ * Calcul refusé : la file d'attente des calculs d'itinéraires est pleine.
+ * Traduit en 503 avec un en-tête Retry-After.
+ */
+public class RoutingOverloadedException extends RuntimeException {
+
+    private final int retryAfterSeconds;
+
+    public RoutingOverloadedException(String message, int retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
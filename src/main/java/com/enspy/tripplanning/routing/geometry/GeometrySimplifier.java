@@ -0,0 +1,154 @@
+package com.enspy.tripplanning.routing.geometry;
+
+import java.util.Arrays;
+
+/**
+ * Simplification des géométries selon le niveau de zoom de la carte
+ * (Douglas-Peucker).
+ *
+ * Un point n'est conservé que s'il s'écarte de plus de la tolérance du
+ * segment qui le contourne ; la tolérance vaut {@link #TOLERANCE_PIXELS}
+ * pixel à l'échelle du zoom demandé (mètres par pixel Web Mercator à la
+ * latitude de la géométrie). Au zoom d'une vue d'ensemble, une route de
+ * plusieurs milliers de points se réduit à quelques dizaines, sans
+ * différence visible.
+ *
+ * Le calcul se fait sur des tableaux primitifs projetés en mètres
+ * (équirectangulaire locale), avec une pile explicite plutôt qu'une
+ * récursion.
+ */
+public final class GeometrySimplifier {
+
+    /** Écart maximal toléré, en pixels écran */
+    public static final double TOLERANCE_PIXELS = 1.0;
+    /** Zoom à partir duquel la géométrie complète est renvoyée */
+    public static final int MAX_SIMPLIFIED_ZOOM = 17;
+
+    private static final double EARTH_CIRCUMFERENCE_METERS = 40_075_016.686;
+    private static final double METERS_PER_DEGREE = EARTH_CIRCUMFERENCE_METERS / 360.0;
+
+    private GeometrySimplifier() {
+    }
+
+    /**
+     * Tolérance (mètres) correspondant au zoom à une latitude donnée.
+     */
+    public static double toleranceMeters(int zoom, double latitude) {
+        double metersPerPixel = EARTH_CIRCUMFERENCE_METERS * Math.cos(Math.toRadians(latitude)) / (256L << zoom);
+        return TOLERANCE_PIXELS * metersPerPixel;
+    }
+
+    /**
+     * Simplifie une polyline encodée pour l'affichage au zoom donné.
+     *
+     * @return Polyline simplifiée (même précision), ou la polyline d'origine
+     *         si elle ne peut pas être décodée ou si le zoom est assez grand
+     */
+    public static String simplify(String encoded, int zoom, int precision) {
+        if (encoded == null || encoded.isEmpty() || zoom >= MAX_SIMPLIFIED_ZOOM) {
+            return encoded;
+        }
+        zoom = Math.max(0, zoom);
+        double[] coordinates;
+        try {
+            coordinates = Polyline.decode(encoded, precision);
+        } catch (IllegalArgumentException e) {
+            return encoded;
+        }
+        int count = coordinates.length / 2;
+        if (count <= 2) {
+            return encoded;
+        }
+        double[] latitudes = new double[count];
+        double[] longitudes = new double[count];
+        for (int i = 0; i < count; i++) {
+            latitudes[i] = coordinates[2 * i];
+            longitudes[i] = coordinates[2 * i + 1];
+        }
+
+        double tolerance = toleranceMeters(zoom, latitudes[count / 2]);
+        int kept = simplify(latitudes, longitudes, count, tolerance);
+        return kept == count ? encoded : Polyline.encode(latitudes, longitudes, kept, precision);
+    }
+
+    /**
+     * Douglas-Peucker en place : les points conservés sont ramenés, dans
+     * l'ordre, en tête des tableaux.
+     *
+     * @return Nombre de points conservés
+     */
+    public static int simplify(double[] latitudes, double[] longitudes, int count, double toleranceMeters) {
+        if (count <= 2) {
+            return count;
+        }
+        // Projection locale en mètres (suffisante à l'échelle d'un itinéraire)
+        double cosLat = Math.cos(Math.toRadians(latitudes[count / 2]));
+        double[] x = new double[count];
+        double[] y = new double[count];
+        for (int i = 0; i < count; i++) {
+            x[i] = longitudes[i] * METERS_PER_DEGREE * cosLat;
+            y[i] = latitudes[i] * METERS_PER_DEGREE;
+        }
+
+        boolean[] keep = new boolean[count];
+        keep[0] = true;
+        keep[count - 1] = true;
+        double toleranceSquared = toleranceMeters * toleranceMeters;
+
+        int[] stack = new int[64];
+        int top = 0;
+        stack[top++] = 0;
+        stack[top++] = count - 1;
+        while (top > 0) {
+            int last = stack[--top];
+            int first = stack[--top];
+
+            double ax = x[first];
+            double ay = y[first];
+            double dx = x[last] - ax;
+            double dy = y[last] - ay;
+            double lengthSquared = dx * dx + dy * dy;
+
+            double maxDistance = -1;
+            int farthest = -1;
+            for (int i = first + 1; i < last; i++) {
+                double px = x[i] - ax;
+                double py = y[i] - ay;
+                double distance;
+                if (lengthSquared == 0) {
+                    distance = px * px + py * py;
+                } else {
+                    double t = Math.max(0, Math.min(1, (px * dx + py * dy) / lengthSquared));
+                    double ex = px - t * dx;
+                    double ey = py - t * dy;
+                    distance = ex * ex + ey * ey;
+                }
+                if (distance > maxDistance) {
+                    maxDistance = distance;
+                    farthest = i;
+                }
+            }
+
+            if (farthest >= 0 && maxDistance > toleranceSquared) {
+                keep[farthest] = true;
+                if (top + 4 > stack.length) {
+                    stack = Arrays.copyOf(stack, stack.length * 2);
+                }
+                stack[top++] = first;
+                stack[top++] = farthest;
+                stack[top++] = farthest;
+                stack[top++] = last;
+            }
+        }
+
+        int kept = 0;
+        for (int i = 0; i < count; i++) {
+            if (keep[i]) {
+                latitudes[kept] = latitudes[i];
+                longitudes[kept] = longitudes[i];
+                kept++;
+            }
+        }
+        return kept;
+    }
+}
@@ -0,0 +1,134 @@
+package com.enspy.tripplanning.routing.geometry;
+
+import com.enspy.tripplanning.routing.model.RoadNode;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Encodage Polyline (algorithme Google) des géométries d'itinéraire.
+ *
+ * Format unique des champs geometryEncoded : celui que renvoie OSRM
+ * (geometries=polyline, précision 5), désormais produit aussi par le moteur
+ * interne. Chaque coordonnée est arrondie à 10^-precision degré et codée par
+ * écart à la précédente (zigzag, blocs de 5 bits en ASCII 63..126) : 2 à 4
+ * caractères par valeur au lieu d'une vingtaine en texte décimal.
+ *
+ * COÛT: aucun formatage de nombre ; les caractères (ASCII) sont écrits dans
+ * un tampon d'octets réutilisé par thread, seule la String finale est allouée.
+ */
+public final class Polyline {
+
+    /** Précision d'OSRM (geometries=polyline) */
+    public static final int PRECISION = 5;
+
+    /** 7 caractères par valeur suffisent jusqu'à la précision 6 (écarts < 2^34) */
+    private static final int MAX_CHARS_PER_POINT = 14;
+
+    private static final ThreadLocal<byte[]> BUFFER = ThreadLocal.withInitial(() -> new byte[4096]);
+
+    private Polyline() {
+    }
+
+    /**
+     * Encode les nœuds d'un itinéraire à la précision {@link #PRECISION}.
+     */
+    public static String encode(List<RoadNode> nodes) {
+        int count = nodes.size();
+        double[] latitudes = new double[count];
+        double[] longitudes = new double[count];
+        for (int i = 0; i < count; i++) {
+            RoadNode node = nodes.get(i);
+            latitudes[i] = node.getLatitude();
+            longitudes[i] = node.getLongitude();
+        }
+        return encode(latitudes, longitudes, count, PRECISION);
+    }
+
+    /**
+     * @param count     Nombre de points valides dans les tableaux
+     * @param precision Nombre de décimales conservées (0 à 6)
+     */
+    public static String encode(double[] latitudes, double[] longitudes, int count, int precision) {
+        if (precision < 0 || precision > 6) {
+            throw new IllegalArgumentException("Précision polyline hors de [0, 6]: " + precision);
+        }
+        double factor = Math.pow(10, precision);
+        byte[] buffer = BUFFER.get();
+        int capacity = count * MAX_CHARS_PER_POINT;
+        if (buffer.length < capacity) {
+            buffer = new byte[capacity];
+            BUFFER.set(buffer);
+        }
+
+        int length = 0;
+        long previousLat = 0;
+        long previousLng = 0;
+        for (int i = 0; i < count; i++) {
+            long lat = Math.round(latitudes[i] * factor);
+            long lng = Math.round(longitudes[i] * factor);
+            length = encodeValue(buffer, length, lat - previousLat);
+            length = encodeValue(buffer, length, lng - previousLng);
+            previousLat = lat;
+            previousLng = lng;
+        }
+        // Caractères ASCII : copie directe dans une String compacte (Latin-1)
+        return new String(buffer, 0, length, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * @return Coordonnées entrelacées [lat0, lng0, lat1, lng1, ...]
+     * @throws IllegalArgumentException si la chaîne n'est pas une polyline
+     *                                  valide
+     */
+    public static double[] decode(String encoded, int precision) {
+        double factor = Math.pow(10, precision);
+        double[] coordinates = new double[Math.max(16, encoded.length())];
+        int count = 0;
+        long lat = 0;
+        long lng = 0;
+        int index = 0;
+        int length = encoded.length();
+        while (index < length) {
+            for (int component = 0; component < 2; component++) {
+                long result = 0;
+                int shift = 0;
+                int chunk;
+                do {
+                    if (index >= length || shift > 60) {
+                        throw new IllegalArgumentException("Polyline tronquée");
+                    }
+                    chunk = encoded.charAt(index++) - 63;
+                    if (chunk < 0 || chunk > 63) {
+                        throw new IllegalArgumentException("Caractère invalide dans la polyline");
+                    }
+                    result |= (long) (chunk & 0x1f) << shift;
+                    shift += 5;
+                } while (chunk >= 0x20);
+                long value = (result >>> 1) ^ -(result & 1);
+                if (component == 0) {
+                    lat += value;
+                } else {
+                    lng += value;
+                }
+            }
+            if (count + 2 > coordinates.length) {
+                coordinates = Arrays.copyOf(coordinates, coordinates.length * 2);
+            }
+            coordinates[count++] = lat / factor;
+            coordinates[count++] = lng / factor;
+        }
+        return Arrays.copyOf(coordinates, count);
+    }
+
+    private static int encodeValue(byte[] buffer, int position, long value) {
+        long bits = value < 0 ? ~(value << 1) : value << 1;
+        while (bits >= 0x20) {
+            buffer[position++] = (byte) ((0x20 | (bits & 0x1f)) + 63);
+            bits >>= 5;
+        }
+        buffer[position++] = (byte) (bits + 63);
+        return position;
+    }
+}
@@ -0,0 +1,331 @@
+package com.enspy.tripplanning.routing.graph;
+
+import java.util.Arrays;
+
+/**
+ * Index spatial en grille sur les nœuds routables d'un {@link RoadGraph}.
+ *
+ * STRUCTURE:
+ * =========
+ * - Grille régulière en degrés couvrant l'emprise des nœuds routables, la
+ * taille de cellule visant ~2 nœuds par cellule.
+ * - Nœuds et arêtes de chaque cellule au format CSR (cellNodeFirst /
+ * cellNodes, cellEdgeFirst / cellEdges). Une arête est inscrite dans toutes
+ * les cellules traversées par son segment.
+ * - Les distances sont calculées dans un plan local (équirectangulaire)
+ * centré sur le point recherché : erreur négligeable à l'échelle d'une
+ * recherche de voisinage.
+ *
+ * RECHERCHE: parcours par anneaux de cellules autour du point. Les cellules
+ * de l'anneau r sont à au moins (r - 1) × taille de cellule : la recherche
+ * s'arrête dès que cette borne dépasse la meilleure distance trouvée.
+ *
+ * Seuls les nœuds touchés par au moins une arête sont indexés : un point ne
+ * peut jamais être snappé sur un nœud isolé. L'index est immuable et peut
+ * être interrogé par plusieurs threads.
+ */
+public final class NodeSpatialIndex {
+
+    private static final double METERS_PER_DEGREE_LAT = 110_540.0;
+    private static final double METERS_PER_DEGREE_LON = 111_320.0;
+    private static final int MAX_CELLS = 1 << 22;
+
+    /**
+     * Projection d'un point sur l'arête la plus proche.
+     *
+     * @param edge           Indice de l'arête
+     * @param node           Extrémité de l'arête la plus proche du point projeté
+     * @param fraction       Position sur l'arête (0 = source, 1 = cible)
+     * @param latitude       Latitude du point projeté
+     * @param longitude      Longitude du point projeté
+     * @param distanceMeters Distance du point à l'arête
+     */
+    public record EdgeSnap(int edge, int node, double fraction, double latitude, double longitude,
+            double distanceMeters) {
+    }
+
+    private final RoadGraph graph;
+    private final double minLat;
+    private final double minLon;
+    private final double cellDegrees;
+    private final double cellMeters;
+    private final int rows;
+    private final int cols;
+
+    private final int[] cellNodeFirst;
+    private final int[] cellNodes;
+    private final int[] cellEdgeFirst;
+    private final int[] cellEdges;
+
+    private NodeSpatialIndex(RoadGraph graph, double minLat, double minLon, double cellDegrees,
+            double cellMeters, int rows, int cols, int[] cellNodeFirst, int[] cellNodes,
+            int[] cellEdgeFirst, int[] cellEdges) {
+        this.graph = graph;
+        this.minLat = minLat;
+        this.minLon = minLon;
+        this.cellDegrees = cellDegrees;
+        this.cellMeters = cellMeters;
+        this.rows = rows;
+        this.cols = cols;
+        this.cellNodeFirst = cellNodeFirst;
+        this.cellNodes = cellNodes;
+        this.cellEdgeFirst = cellEdgeFirst;
+        this.cellEdges = cellEdges;
+    }
+
+    /**
+     * Construit l'index des nœuds routables et des arêtes du graphe.
+     *
+     * COMPLEXITÉ: O(n + somme des cellules traversées par les arêtes)
+     */
+    public static NodeSpatialIndex build(RoadGraph graph) {
+        int n = graph.getNodeCount();
+        double[] lats = graph.getLatitudes();
+        double[] lons = graph.getLongitudes();
+
+        double minLat = Double.MAX_VALUE, maxLat = -Double.MAX_VALUE;
+        double minLon = Double.MAX_VALUE, maxLon = -Double.MAX_VALUE;
+        int routable = 0;
+        for (int v = 0; v < n; v++) {
+            if (!graph.isRoutable(v)) {
+                continue;
+            }
+            routable++;
+            minLat = Math.min(minLat, lats[v]);
+            maxLat = Math.max(maxLat, lats[v]);
+            minLon = Math.min(minLon, lons[v]);
+            maxLon = Math.max(maxLon, lons[v]);
+        }
+        if (routable == 0) {
+            minLat = maxLat = minLon = maxLon = 0.0;
+        }
+
+        double height = Math.max(maxLat - minLat, 1e-6);
+        double width = Math.max(maxLon - minLon, 1e-6);
+        double cellDegrees = Math.max(Math.sqrt(height * width / Math.max(1, routable / 2)), 1e-3);
+        int rows = (int) (height / cellDegrees) + 1;
+        int cols = (int) (width / cellDegrees) + 1;
+        while ((long) rows * cols > MAX_CELLS) {
+            cellDegrees *= 2;
+            rows = (int) (height / cellDegrees) + 1;
+            cols = (int) (width / cellDegrees) + 1;
+        }
+        // Côté le plus court d'une cellule (en longitude à la latitude extrême)
+        double maxAbsLat = Math.min(89.0, Math.max(Math.abs(minLat), Math.abs(maxLat)));
+        double cellMeters = cellDegrees * Math.min(METERS_PER_DEGREE_LAT,
+                METERS_PER_DEGREE_LON * Math.cos(Math.toRadians(maxAbsLat)));
+
+        int cellCount = rows * cols;
+
+        // Nœuds : tri par comptage sur la cellule
+        int[] nodeCell = new int[n];
+        int[] cellNodeFirst = new int[cellCount + 1];
+        for (int v = 0; v < n; v++) {
+            nodeCell[v] = graph.isRoutable(v)
+                    ? cellOf(lats[v], lons[v], minLat, minLon, cellDegrees, rows, cols)
+                    : -1;
+            if (nodeCell[v] >= 0) {
+                cellNodeFirst[nodeCell[v] + 1]++;
+            }
+        }
+        for (int c = 0; c < cellCount; c++) {
+            cellNodeFirst[c + 1] += cellNodeFirst[c];
+        }
+        int[] cellNodes = new int[routable];
+        int[] fill = Arrays.copyOf(cellNodeFirst, cellCount);
+        for (int v = 0; v < n; v++) {
+            if (nodeCell[v] >= 0) {
+                cellNodes[fill[nodeCell[v]]++] = v;
+            }
+        }
+
+        // Arêtes : (cellule, arête) pour chaque cellule traversée, puis tri
+        int[] edgeSources = graph.getEdgeSources();
+        int[] edgeTargets = graph.getEdgeTargets();
+        long[] pairs = new long[Math.max(16, graph.getEdgeCount() * 2)];
+        int pairCount = 0;
+        for (int e = 0; e < graph.getEdgeCount(); e++) {
+            double lat1 = lats[edgeSources[e]], lon1 = lons[edgeSources[e]];
+            double lat2 = lats[edgeTargets[e]], lon2 = lons[edgeTargets[e]];
+            int steps = (int) Math.ceil(Math.max(Math.abs(lat2 - lat1), Math.abs(lon2 - lon1)) / (cellDegrees / 2));
+            int previous = -1;
+            for (int i = 0; i <= steps; i++) {
+                double t = steps == 0 ? 0.0 : (double) i / steps;
+                int cell = cellOf(lat1 + t * (lat2 - lat1), lon1 + t * (lon2 - lon1),
+                        minLat, minLon, cellDegrees, rows, cols);
+                if (cell == previous) {
+                    continue;
+                }
+                previous = cell;
+                if (pairCount == pairs.length) {
+                    pairs = Arrays.copyOf(pairs, pairCount * 2);
+                }
+                pairs[pairCount++] = ((long) cell << 32) | e;
+            }
+        }
+        Arrays.sort(pairs, 0, pairCount);
+
+        int[] cellEdgeFirst = new int[cellCount + 1];
+        int[] cellEdges = new int[pairCount];
+        int edgeEntries = 0;
+        for (int i = 0; i < pairCount; i++) {
+            // Doublons possibles quand un segment ressort puis revient dans une cellule
+            if (i > 0 && pairs[i] == pairs[i - 1]) {
+                continue;
+            }
+            cellEdgeFirst[(int) (pairs[i] >>> 32) + 1]++;
+            cellEdges[edgeEntries++] = (int) pairs[i];
+        }
+        for (int c = 0; c < cellCount; c++) {
+            cellEdgeFirst[c + 1] += cellEdgeFirst[c];
+        }
+
+        return new NodeSpatialIndex(graph, minLat, minLon, cellDegrees, cellMeters, rows, cols,
+                cellNodeFirst, cellNodes, cellEdgeFirst, Arrays.copyOf(cellEdges, edgeEntries));
+    }
+
+    public RoadGraph getGraph() {
+        return graph;
+    }
+
+    /**
+     * Nœud routable le plus proche.
+     *
+     * @param maxDistanceMeters Distance maximale (≤ 0 : illimitée)
+     * @return Indice dense du nœud, ou -1 si aucun nœud dans le rayon
+     */
+    public int nearestNode(double latitude, double longitude, double maxDistanceMeters) {
+        double limit = maxDistanceMeters > 0 ? maxDistanceMeters : Double.MAX_VALUE;
+        double[] lats = graph.getLatitudes();
+        double[] lons = graph.getLongitudes();
+        double lonScale = METERS_PER_DEGREE_LON * Math.cos(Math.toRadians(latitude));
+        int row = clamp((int) Math.floor((latitude - minLat) / cellDegrees), rows);
+        int col = clamp((int) Math.floor((longitude - minLon) / cellDegrees), cols);
+
+        int best = -1;
+        double bestSquared = limit == Double.MAX_VALUE ? Double.MAX_VALUE : limit * limit;
+        int maxRing = Math.max(rows, cols);
+        for (int ring = 0; ring <= maxRing; ring++) {
+            double bound = Math.max(0, ring - 1) * cellMeters;
+            if (bound * bound > bestSquared) {
+                break;
+            }
+            for (int r = row - ring; r <= row + ring; r++) {
+                if (r < 0 || r >= rows) {
+                    continue;
+                }
+                boolean edgeRow = r == row - ring || r == row + ring;
+                for (int c = col - ring; c <= col + ring; c += edgeRow ? 1 : 2 * ring) {
+                    if (c >= 0 && c < cols) {
+                        int cell = r * cols + c;
+                        for (int i = cellNodeFirst[cell]; i < cellNodeFirst[cell + 1]; i++) {
+                            int v = cellNodes[i];
+                            double dy = (lats[v] - latitude) * METERS_PER_DEGREE_LAT;
+                            double dx = (lons[v] - longitude) * lonScale;
+                            double squared = dx * dx + dy * dy;
+                            if (squared <= bestSquared) {
+                                bestSquared = squared;
+                                best = v;
+                            }
+                        }
+                    }
+                    if (ring == 0) {
+                        break;
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Projection sur l'arête la plus proche (segment droit entre ses deux
+     * nœuds).
+     *
+     * @param maxDistanceMeters Distance maximale (≤ 0 : illimitée)
+     * @return Projection, ou null si aucune arête dans le rayon
+     */
+    public EdgeSnap nearestEdge(double latitude, double longitude, double maxDistanceMeters) {
+        double limit = maxDistanceMeters > 0 ? maxDistanceMeters : Double.MAX_VALUE;
+        double[] lats = graph.getLatitudes();
+        double[] lons = graph.getLongitudes();
+        int[] edgeSources = graph.getEdgeSources();
+        int[] edgeTargets = graph.getEdgeTargets();
+        double lonScale = METERS_PER_DEGREE_LON * Math.cos(Math.toRadians(latitude));
+        int row = clamp((int) Math.floor((latitude - minLat) / cellDegrees), rows);
+        int col = clamp((int) Math.floor((longitude - minLon) / cellDegrees), cols);
+
+        int best = -1;
+        double bestFraction = 0.0;
+        double bestSquared = limit == Double.MAX_VALUE ? Double.MAX_VALUE : limit * limit;
+        int maxRing = Math.max(rows, cols);
+        for (int ring = 0; ring <= maxRing; ring++) {
+            // Un segment peut couper le coin d'une cellule entre deux échantillons
+            // sans y être inscrit : marge d'une cellule supplémentaire
+            double bound = Math.max(0, ring - 2) * cellMeters;
+            if (bound * bound > bestSquared) {
+                break;
+            }
+            for (int r = row - ring; r <= row + ring; r++) {
+                if (r < 0 || r >= rows) {
+                    continue;
+                }
+                boolean edgeRow = r == row - ring || r == row + ring;
+                for (int c = col - ring; c <= col + ring; c += edgeRow ? 1 : 2 * ring) {
+                    if (c >= 0 && c < cols) {
+                        int cell = r * cols + c;
+                        for (int i = cellEdgeFirst[cell]; i < cellEdgeFirst[cell + 1]; i++) {
+                            int e = cellEdges[i];
+                            // Plan local centré sur le point recherché
+                            double ax = (lons[edgeSources[e]] - longitude) * lonScale;
+                            double ay = (lats[edgeSources[e]] - latitude) * METERS_PER_DEGREE_LAT;
+                            double bx = (lons[edgeTargets[e]] - longitude) * lonScale;
+                            double by = (lats[edgeTargets[e]] - latitude) * METERS_PER_DEGREE_LAT;
+                            double abx = bx - ax, aby = by - ay;
+                            double lengthSquared = abx * abx + aby * aby;
+                            double t = lengthSquared > 0
+                                    ? Math.max(0.0, Math.min(1.0, -(ax * abx + ay * aby) / lengthSquared))
+                                    : 0.0;
+                            double px = ax + t * abx, py = ay + t * aby;
+                            double squared = px * px + py * py;
+                            if (squared < bestSquared) {
+                                bestSquared = squared;
+                                best = e;
+                                bestFraction = t;
+                            }
+                        }
+                    }
+                    if (ring == 0) {
+                        break;
+                    }
+                }
+            }
+        }
+
+        if (best < 0) {
+            return null;
+        }
+        int source = edgeSources[best], target = edgeTargets[best];
+        return new EdgeSnap(best, bestFraction <= 0.5 ? source : target, bestFraction,
+                lats[source] + bestFraction * (lats[target] - lats[source]),
+                lons[source] + bestFraction * (lons[target] - lons[source]),
+                Math.sqrt(bestSquared));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("NodeSpatialIndex[cells=%dx%d, cell=%.4f°, nodes=%d, edgeEntries=%d]",
+                rows, cols, cellDegrees, cellNodes.length, cellEdges.length);
+    }
+
+    private static int cellOf(double lat, double lon, double minLat, double minLon, double cellDegrees,
+            int rows, int cols) {
+        int row = clamp((int) Math.floor((lat - minLat) / cellDegrees), rows);
+        int col = clamp((int) Math.floor((lon - minLon) / cellDegrees), cols);
+        return row * cols + col;
+    }
+
+    private static int clamp(int value, int size) {
+        return Math.max(0, Math.min(size - 1, value));
+    }
+}
@@ -0,0 +1,407 @@
+package com.enspy.tripplanning.routing.graph;
+
+import com.enspy.tripplanning.routing.model.RoadEdge;
+import com.enspy.tripplanning.routing.model.RoadNode;
+import com.enspy.tripplanning.routing.model.Route;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Graphe routier résident en mémoire au format CSR (Compressed Sparse Row).
+ *
+ * STRUCTURE:
+ * =========
+ * - Les nœuds sont renumérotés en indices denses 0..n-1 (ordre croissant des
+ * node_id de la base), ce qui permet d'utiliser des tableaux primitifs
+ * indexés par nœud au lieu de HashMap<Long, ...>.
+ * - Les arcs sortants du nœud u sont stockés contigus dans
+ * [firstOut[u], firstOut[u+1]) : arcHead donne la cible, arcWeight le poids
+ * (temps de parcours en secondes) et arcEdge l'arête (road_edges) d'origine.
+ * - Une route à double sens (one_way = false) produit deux arcs, une route à
+ * sens unique un seul.
+ * - Le graphe inverse (arcs entrants) est stocké de la même façon dans
+ * firstIn / inArcTail / inArcRef, inArcRef renvoyant à l'arc avant
+ * correspondant (donc au même poids).
+ *
+ * MÉMOIRE: ~ 8n (lat/lon) + 16m (arcs) octets au lieu de plusieurs centaines
+ * d'octets par RoadNode/RoadEdge dans une HashMap.
+ *
+ * Le graphe est immuable : un rechargement construit une nouvelle instance.
+ * Les tableaux exposés par les getters ne doivent jamais être modifiés.
+ *
+ * POIDS EFFECTIFS: seule exception, les surcharges temporaires (fermetures,
+ * ralentissements) remplacent d'un bloc le tableau arcWeight par une copie
+ * des poids de base modifiée ({@link #applyEdgeFactors}). Une recherche lit
+ * {@link #getArcWeight()} une fois au départ : elle voit toujours un jeu de
+ * poids cohérent, sans coût supplémentaire par arc.
+ *
+ * PROFILS: les poids de base sont ceux de la voiture. {@link #withProfile}
+ * donne une vue du même graphe pour un autre véhicule, qui partage tous les
+ * tableaux sauf les poids : les moteurs de recherche s'y appliquent sans
+ * modification.
+ */
+@Getter
+public final class RoadGraph {
+
+    /** node_id de la base, trié, indexé par indice dense */
+    private final long[] nodeIds;
+    private final double[] latitudes;
+    private final double[] longitudes;
+    /** Indice du nom du nœud dans {@link #names} (-1 si aucun) */
+    private final int[] nodeNameIds;
+
+    // Arêtes (une par ligne de road_edges)
+    private final long[] edgeIds;
+    private final long[] edgeOsmWayIds;
+    private final int[] edgeSources;
+    private final int[] edgeTargets;
+    private final double[] edgeDistancesMeters;
+    private final int[] edgeMaxSpeeds;
+    private final int[] edgeTravelTimes;
+    private final byte[] edgeRoadTypes;
+    private final int[] edgeNameIds;
+    private final boolean[] edgeOneWay;
+
+    // Graphe avant (CSR)
+    private final int[] firstOut;
+    private final int[] arcHead;
+    private final int[] arcEdge;
+    /** Poids effectifs (base + surcharges), remplacés en bloc */
+    private volatile int[] arcWeight;
+    /** Poids issus de road_edges (empreinte, instantané, landmarks) */
+    private final int[] baseArcWeight;
+    /** Version des poids effectifs (voir {@link #getWeightVersion()}) */
+    @Getter(AccessLevel.NONE)
+    private long weightVersion;
+    /** Facteurs par arête de la dernière surcharge (null = aucune) */
+    @Getter(AccessLevel.NONE)
+    private double[] edgeFactors;
+    /** Profil de véhicule des poids de base */
+    private final RoutingProfile profile;
+
+    // Graphe inverse (CSR)
+    private final int[] firstIn;
+    private final int[] inArcTail;
+    private final int[] inArcRef;
+
+    /**
+     * Poids d'un arc fermé (~11 jours) : les moteurs de recherche ne
+     * relâchent jamais un arc de ce poids, sans risque de débordement.
+     */
+    public static final int CLOSED_WEIGHT = 1_000_000;
+
+    /** Dictionnaire partagé des noms (nœuds et rues) */
+    private final String[] names;
+    /** Dictionnaire des types de route OSM */
+    private final String[] roadTypes;
+
+    /** Empreinte de la topologie et des poids (CRC32) */
+    private final long fingerprint;
+
+    RoadGraph(long[] nodeIds, double[] latitudes, double[] longitudes, int[] nodeNameIds,
+            long[] edgeIds, long[] edgeOsmWayIds, int[] edgeSources, int[] edgeTargets,
+            double[] edgeDistancesMeters, int[] edgeMaxSpeeds, int[] edgeTravelTimes,
+            byte[] edgeRoadTypes, int[] edgeNameIds, boolean[] edgeOneWay,
+            int[] firstOut, int[] arcHead, int[] arcEdge, int[] arcWeight,
+            int[] firstIn, int[] inArcTail, int[] inArcRef,
+            String[] names, String[] roadTypes, long fingerprint) {
+        this.nodeIds = nodeIds;
+        this.latitudes = latitudes;
+        this.longitudes = longitudes;
+        this.nodeNameIds = nodeNameIds;
+        this.edgeIds = edgeIds;
+        this.edgeOsmWayIds = edgeOsmWayIds;
+        this.edgeSources = edgeSources;
+        this.edgeTargets = edgeTargets;
+        this.edgeDistancesMeters = edgeDistancesMeters;
+        this.edgeMaxSpeeds = edgeMaxSpeeds;
+        this.edgeTravelTimes = edgeTravelTimes;
+        this.edgeRoadTypes = edgeRoadTypes;
+        this.edgeNameIds = edgeNameIds;
+        this.edgeOneWay = edgeOneWay;
+        this.firstOut = firstOut;
+        this.arcHead = arcHead;
+        this.arcEdge = arcEdge;
+        this.arcWeight = arcWeight;
+        this.baseArcWeight = arcWeight;
+        this.firstIn = firstIn;
+        this.inArcTail = inArcTail;
+        this.inArcRef = inArcRef;
+        this.names = names;
+        this.roadTypes = roadTypes;
+        this.fingerprint = fingerprint;
+        this.weightVersion = fingerprint;
+        this.profile = RoutingProfile.CAR;
+    }
+
+    private RoadGraph(RoadGraph topology, RoutingProfile profile, int[] arcWeight) {
+        this.nodeIds = topology.nodeIds;
+        this.latitudes = topology.latitudes;
+        this.longitudes = topology.longitudes;
+        this.nodeNameIds = topology.nodeNameIds;
+        this.edgeIds = topology.edgeIds;
+        this.edgeOsmWayIds = topology.edgeOsmWayIds;
+        this.edgeSources = topology.edgeSources;
+        this.edgeTargets = topology.edgeTargets;
+        this.edgeDistancesMeters = topology.edgeDistancesMeters;
+        this.edgeMaxSpeeds = topology.edgeMaxSpeeds;
+        this.edgeTravelTimes = topology.edgeTravelTimes;
+        this.edgeRoadTypes = topology.edgeRoadTypes;
+        this.edgeNameIds = topology.edgeNameIds;
+        this.edgeOneWay = topology.edgeOneWay;
+        this.firstOut = topology.firstOut;
+        this.arcHead = topology.arcHead;
+        this.arcEdge = topology.arcEdge;
+        this.arcWeight = arcWeight;
+        this.baseArcWeight = arcWeight;
+        this.firstIn = topology.firstIn;
+        this.inArcTail = topology.inArcTail;
+        this.inArcRef = topology.inArcRef;
+        this.names = topology.names;
+        this.roadTypes = topology.roadTypes;
+        this.fingerprint = topology.fingerprint ^ ((profile.ordinal() + 1L) * 0xC2B2AE3D27D4EB4FL);
+        this.weightVersion = this.fingerprint;
+        this.profile = profile;
+    }
+
+    /**
+     * Vue du graphe pour un autre profil de véhicule : mêmes nœuds, arêtes
+     * et arcs, poids de base recalculés par {@link RoutingProfile#weight}
+     * (jamais inférieurs aux poids de base de ce graphe). Les surcharges ne
+     * sont pas reprises : les appliquer à la vue avec
+     * {@link #applyEdgeFactors}.
+     *
+     * COMPLEXITÉ: O(m), un tableau d'entiers par arc.
+     */
+    public RoadGraph withProfile(RoutingProfile target) {
+        if (target == profile) {
+            return this;
+        }
+        int[] weights = new int[arcHead.length];
+        int[] edgeWeights = new int[edgeIds.length];
+        for (int e = 0; e < edgeWeights.length; e++) {
+            edgeWeights[e] = target.weight(getRoadType(e), edgeDistancesMeters[e], edgeTravelTimes[e]);
+        }
+        for (int arc = 0; arc < weights.length; arc++) {
+            weights[arc] = Math.max(baseArcWeight[arc], edgeWeights[arcEdge[arc]]);
+        }
+        return new RoadGraph(this, target, weights);
+    }
+
+    /**
+     * Remplace les poids effectifs par les poids de base multipliés, arête par
+     * arête, par {@code edgeFactors} (indice dense d'arête). Un facteur
+     * infini ferme l'arête ; les facteurs ≤ 1 sont ignorés, les surcharges ne
+     * font qu'allonger les temps (les bornes ALT restent admissibles).
+     *
+     * COMPLEXITÉ: O(m), une seule allocation.
+     *
+     * @param edgeFactors Facteurs par arête, ou null pour revenir aux poids
+     *                    de base
+     */
+    public synchronized void applyEdgeFactors(double[] edgeFactors) {
+        int[] weights = baseArcWeight;
+        if (edgeFactors != null) {
+            weights = Arrays.copyOf(baseArcWeight, baseArcWeight.length);
+            for (int arc = 0; arc < weights.length; arc++) {
+                double factor = edgeFactors[arcEdge[arc]];
+                if (factor > 1) {
+                    weights[arc] = (int) Math.min(CLOSED_WEIGHT, Math.ceil(Math.max(1, weights[arc]) * factor));
+                }
+            }
+        }
+        weightVersion = Arrays.equals(weights, baseArcWeight)
+                ? fingerprint
+                : fingerprint ^ (checksum(weights) * 0x9E3779B97F4A7C15L);
+        this.edgeFactors = edgeFactors;
+        arcWeight = weights;
+    }
+
+    /**
+     * @return Facteurs par arête de la dernière surcharge appliquée, ou null
+     */
+    public synchronized double[] getEdgeFactors() {
+        return edgeFactors;
+    }
+
+    /**
+     * Version des poids effectifs (clé des caches de chemins) : l'empreinte
+     * du graphe sur les poids de base, sinon une somme de contrôle des poids
+     * surchargés. Elle ne dépend que du contenu : deux instances qui
+     * appliquent les mêmes surcharges au même réseau ont la même version,
+     * d'un redémarrage ou d'une réplique à l'autre.
+     */
+    public synchronized long getWeightVersion() {
+        return weightVersion;
+    }
+
+    /** CRC32 des poids, étalé sur 64 bits avec leur nombre */
+    private static long checksum(int[] weights) {
+        CRC32 crc = new CRC32();
+        byte[] buffer = new byte[4];
+        for (int weight : weights) {
+            buffer[0] = (byte) weight;
+            buffer[1] = (byte) (weight >>> 8);
+            buffer[2] = (byte) (weight >>> 16);
+            buffer[3] = (byte) (weight >>> 24);
+            crc.update(buffer, 0, 4);
+        }
+        return crc.getValue() ^ ((long) weights.length << 32);
+    }
+
+    /**
+     * Indique si l'arc est fermé (surcharge ou route interdite au profil).
+     */
+    public boolean isClosed(int arc) {
+        return arcWeight[arc] >= CLOSED_WEIGHT;
+    }
+
+    public int getNodeCount() {
+        return nodeIds.length;
+    }
+
+    public int getEdgeCount() {
+        return edgeIds.length;
+    }
+
+    public int getArcCount() {
+        return arcHead.length;
+    }
+
+    /**
+     * Convertit un node_id de la base en indice dense.
+     *
+     * COMPLEXITÉ: O(log n) par recherche dichotomique, sans allocation.
+     *
+     * @param nodeId Identifiant road_nodes.node_id
+     * @return Indice dense, ou -1 si le nœud n'est pas dans le graphe
+     */
+    public int indexOf(long nodeId) {
+        int index = Arrays.binarySearch(nodeIds, nodeId);
+        return index >= 0 ? index : -1;
+    }
+
+    /**
+     * Indique si au moins une arête touche ce nœud (nœud "routable").
+     */
+    public boolean isRoutable(int node) {
+        return firstOut[node + 1] > firstOut[node] || firstIn[node + 1] > firstIn[node];
+    }
+
+    /**
+     * Nœud source de l'arc avant {@code arc}.
+     */
+    public int arcTail(int arc) {
+        int edge = arcEdge[arc];
+        // Arc dans le sens de l'arête → tail = source, sinon arc inverse → tail = target
+        return edgeTargets[edge] == arcHead[arc] ? edgeSources[edge] : edgeTargets[edge];
+    }
+
+    public String getNodeName(int node) {
+        int nameId = nodeNameIds[node];
+        return nameId >= 0 ? names[nameId] : null;
+    }
+
+    public String getStreetName(int edge) {
+        int nameId = edgeNameIds[edge];
+        return nameId >= 0 ? names[nameId] : null;
+    }
+
+    public String getRoadType(int edge) {
+        int type = edgeRoadTypes[edge];
+        return type >= 0 ? roadTypes[type] : null;
+    }
+
+    /**
+     * Matérialise un nœud sous forme d'entité (pour la réponse API).
+     */
+    public RoadNode toRoadNode(int node) {
+        return RoadNode.builder()
+                .nodeId(nodeIds[node])
+                .latitude(latitudes[node])
+                .longitude(longitudes[node])
+                .name(getNodeName(node))
+                .build();
+    }
+
+    /**
+     * Matérialise une arête sous forme d'entité (pour la réponse API).
+     */
+    public RoadEdge toRoadEdge(int edge) {
+        return RoadEdge.builder()
+                .edgeId(edgeIds[edge])
+                .osmWayId(edgeOsmWayIds[edge] != 0 ? edgeOsmWayIds[edge] : null)
+                .sourceNodeId(nodeIds[edgeSources[edge]])
+                .targetNodeId(nodeIds[edgeTargets[edge]])
+                .distanceMeters(edgeDistancesMeters[edge])
+                .distanceKm(edgeDistancesMeters[edge] / 1000.0)
+                .maxSpeedKmh(edgeMaxSpeeds[edge] > 0 ? edgeMaxSpeeds[edge] : null)
+                .travelTimeSeconds(edgeTravelTimes[edge])
+                .roadType(getRoadType(edge))
+                .streetName(getStreetName(edge))
+                .oneWay(edgeOneWay[edge])
+                .build();
+    }
+
+    /**
+     * Construit une {@link Route} à partir d'une suite d'arcs avant.
+     *
+     * @param start         Indice dense du nœud de départ
+     * @param end           Indice dense du nœud d'arrivée
+     * @param arcs          Arcs avant du chemin, dans l'ordre de parcours
+     * @param arcCount      Nombre d'arcs valides dans {@code arcs}
+     * @param nodesExplored Nombre de nœuds explorés par la recherche
+     * @return Route complète (found = true), ou found = false si le chemin
+     *         emprunte un arc fermé (aucun chemin ouvert)
+     */
+    public Route toRoute(int start, int end, int[] arcs, int arcCount, int nodesExplored) {
+        long unpackStart = System.nanoTime();
+        List<RoadNode> pathNodes = new ArrayList<>(arcCount + 1);
+        List<RoadEdge> pathEdges = new ArrayList<>(arcCount);
+        int[] weights = arcWeight;
+
+        pathNodes.add(toRoadNode(start));
+        for (int i = 0; i < arcCount; i++) {
+            int arc = arcs[i];
+            if (weights[arc] >= CLOSED_WEIGHT) {
+                return Route.builder()
+                        .startNode(toRoadNode(start))
+                        .endNode(toRoadNode(end))
+                        .found(false)
+                        .nodesExplored(nodesExplored)
+                        .errorMessage("Aucun chemin ouvert (route fermée ou interdite au profil " + profile.getLabel() + ")")
+                        .build();
+            }
+            RoadEdge edge = toRoadEdge(arcEdge[arc]);
+            // Temps effectif (surcharges comprises)
+            edge.setTravelTimeSeconds(weights[arc]);
+            pathEdges.add(edge);
+            pathNodes.add(toRoadNode(arcHead[arc]));
+        }
+
+        Route route = Route.builder()
+                .startNode(toRoadNode(start))
+                .endNode(toRoadNode(end))
+                .nodes(pathNodes)
+                .edges(pathEdges)
+                .found(true)
+                .nodesExplored(nodesExplored)
+                .build();
+
+        route.setTotalDistanceKm(route.calculateTotalDistance());
+        route.setTotalTimeSeconds(route.calculateTotalTime());
+        route.setUnpackTimeNanos(System.nanoTime() - unpackStart);
+        return route;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("RoadGraph[profile=%s, nodes=%d, edges=%d, arcs=%d, fingerprint=%016x]",
+                profile, getNodeCount(), getEdgeCount(), getArcCount(), fingerprint);
+    }
+}
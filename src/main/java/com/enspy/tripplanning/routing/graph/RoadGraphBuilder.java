@@ -0,0 +1,302 @@
+package com.enspy.tripplanning.routing.graph;
+
+import com.enspy.tripplanning.routing.model.RoadEdge;
+import com.enspy.tripplanning.routing.model.RoadNode;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Construit un {@link RoadGraph} CSR à partir de nœuds et d'arêtes bruts.
+ *
+ * Les données sont accumulées dans des tableaux primitifs extensibles puis
+ * compactées en une seule passe (tri par comptage des arcs par nœud source).
+ * Les arêtes dont une extrémité est inconnue sont ignorées.
+ *
+ * COMPLEXITÉ: O(n log n + m)
+ */
+@Slf4j
+public class RoadGraphBuilder {
+
+    private long[] nodeIds = new long[1024];
+    private double[] latitudes = new double[1024];
+    private double[] longitudes = new double[1024];
+    private int[] nodeNameIds = new int[1024];
+    private int nodeCount;
+
+    private long[] edgeIds = new long[1024];
+    private long[] edgeOsmWayIds = new long[1024];
+    private long[] edgeSourceIds = new long[1024];
+    private long[] edgeTargetIds = new long[1024];
+    private double[] edgeDistances = new double[1024];
+    private int[] edgeMaxSpeeds = new int[1024];
+    private int[] edgeTravelTimes = new int[1024];
+    private byte[] edgeRoadTypes = new byte[1024];
+    private int[] edgeNameIds = new int[1024];
+    private boolean[] edgeOneWay = new boolean[1024];
+    private int edgeCount;
+
+    private final Map<String, Integer> nameDictionary = new HashMap<>();
+    private final Map<String, Integer> roadTypeDictionary = new HashMap<>();
+
+    /**
+     * Construit le graphe directement depuis les entités R2DBC.
+     */
+    public static RoadGraph fromEntities(List<RoadNode> nodes, List<RoadEdge> edges) {
+        RoadGraphBuilder builder = new RoadGraphBuilder();
+        for (RoadNode node : nodes) {
+            if (node.getNodeId() == null || node.getLatitude() == null || node.getLongitude() == null) {
+                continue;
+            }
+            builder.addNode(node.getNodeId(), node.getLatitude(), node.getLongitude(), node.getName());
+        }
+        for (RoadEdge edge : edges) {
+            if (edge.getSourceNodeId() == null || edge.getTargetNodeId() == null) {
+                continue;
+            }
+            Integer travelTime = edge.getTravelTimeSeconds();
+            if (travelTime == null || travelTime <= 0) {
+                // Même règle que l'A* historique : calculer le temps si manquant
+                travelTime = edge.calculateTravelTime();
+            }
+            builder.addEdge(
+                    edge.getEdgeId() != null ? edge.getEdgeId() : 0L,
+                    edge.getOsmWayId() != null ? edge.getOsmWayId() : 0L,
+                    edge.getSourceNodeId(),
+                    edge.getTargetNodeId(),
+                    edge.getDistanceMetersOrCalculate(),
+                    edge.getMaxSpeedKmh() != null ? edge.getMaxSpeedKmh() : 0,
+                    travelTime,
+                    Boolean.TRUE.equals(edge.getOneWay()),
+                    edge.getRoadType(),
+                    edge.getStreetName());
+        }
+        return builder.build();
+    }
+
+    public RoadGraphBuilder addNode(long nodeId, double latitude, double longitude, String name) {
+        if (nodeCount == nodeIds.length) {
+            int capacity = nodeCount * 2;
+            nodeIds = Arrays.copyOf(nodeIds, capacity);
+            latitudes = Arrays.copyOf(latitudes, capacity);
+            longitudes = Arrays.copyOf(longitudes, capacity);
+            nodeNameIds = Arrays.copyOf(nodeNameIds, capacity);
+        }
+        nodeIds[nodeCount] = nodeId;
+        latitudes[nodeCount] = latitude;
+        longitudes[nodeCount] = longitude;
+        nodeNameIds[nodeCount] = intern(nameDictionary, name);
+        nodeCount++;
+        return this;
+    }
+
+    public RoadGraphBuilder addEdge(long edgeId, long osmWayId, long sourceNodeId, long targetNodeId,
+            double distanceMeters, int maxSpeedKmh, int travelTimeSeconds, boolean oneWay,
+            String roadType, String streetName) {
+        if (edgeCount == edgeIds.length) {
+            int capacity = edgeCount * 2;
+            edgeIds = Arrays.copyOf(edgeIds, capacity);
+            edgeOsmWayIds = Arrays.copyOf(edgeOsmWayIds, capacity);
+            edgeSourceIds = Arrays.copyOf(edgeSourceIds, capacity);
+            edgeTargetIds = Arrays.copyOf(edgeTargetIds, capacity);
+            edgeDistances = Arrays.copyOf(edgeDistances, capacity);
+            edgeMaxSpeeds = Arrays.copyOf(edgeMaxSpeeds, capacity);
+            edgeTravelTimes = Arrays.copyOf(edgeTravelTimes, capacity);
+            edgeRoadTypes = Arrays.copyOf(edgeRoadTypes, capacity);
+            edgeNameIds = Arrays.copyOf(edgeNameIds, capacity);
+            edgeOneWay = Arrays.copyOf(edgeOneWay, capacity);
+        }
+        int roadTypeId = intern(roadTypeDictionary, roadType);
+        if (roadTypeId > Byte.MAX_VALUE) {
+            throw new IllegalStateException("Trop de types de route distincts: " + roadTypeDictionary.size());
+        }
+        edgeIds[edgeCount] = edgeId;
+        edgeOsmWayIds[edgeCount] = osmWayId;
+        edgeSourceIds[edgeCount] = sourceNodeId;
+        edgeTargetIds[edgeCount] = targetNodeId;
+        edgeDistances[edgeCount] = distanceMeters;
+        edgeMaxSpeeds[edgeCount] = maxSpeedKmh;
+        edgeTravelTimes[edgeCount] = Math.max(0, travelTimeSeconds);
+        edgeRoadTypes[edgeCount] = (byte) roadTypeId;
+        edgeNameIds[edgeCount] = intern(nameDictionary, streetName);
+        edgeOneWay[edgeCount] = oneWay;
+        edgeCount++;
+        return this;
+    }
+
+    public RoadGraph build() {
+        // 1. Renumérotation dense : indice = rang du node_id trié (doublons retirés)
+        long[] sortedIds = Arrays.copyOf(nodeIds, nodeCount);
+        Arrays.sort(sortedIds);
+        int n = 0;
+        for (int i = 0; i < sortedIds.length; i++) {
+            if (i == 0 || sortedIds[i] != sortedIds[i - 1]) {
+                sortedIds[n++] = sortedIds[i];
+            }
+        }
+        long[] denseIds = Arrays.copyOf(sortedIds, n);
+
+        double[] lat = new double[n];
+        double[] lon = new double[n];
+        int[] nodeNames = new int[n];
+        for (int i = 0; i < nodeCount; i++) {
+            int dense = Arrays.binarySearch(denseIds, nodeIds[i]);
+            lat[dense] = latitudes[i];
+            lon[dense] = longitudes[i];
+            nodeNames[dense] = nodeNameIds[i];
+        }
+
+        // 2. Arêtes valides (extrémités connues)
+        int[] sources = new int[edgeCount];
+        int[] targets = new int[edgeCount];
+        int[] keep = new int[edgeCount];
+        int m = 0;
+        int skipped = 0;
+        for (int e = 0; e < edgeCount; e++) {
+            int s = Arrays.binarySearch(denseIds, edgeSourceIds[e]);
+            int t = Arrays.binarySearch(denseIds, edgeTargetIds[e]);
+            if (s < 0 || t < 0) {
+                skipped++;
+                continue;
+            }
+            sources[m] = s;
+            targets[m] = t;
+            keep[m] = e;
+            m++;
+        }
+        if (skipped > 0) {
+            log.warn("{} arêtes ignorées (nœud source ou cible absent)", skipped);
+        }
+
+        long[] eIds = new long[m];
+        long[] eOsm = new long[m];
+        double[] eDist = new double[m];
+        int[] eSpeed = new int[m];
+        int[] eTime = new int[m];
+        byte[] eType = new byte[m];
+        int[] eName = new int[m];
+        boolean[] eOneWay = new boolean[m];
+        for (int i = 0; i < m; i++) {
+            int e = keep[i];
+            eIds[i] = edgeIds[e];
+            eOsm[i] = edgeOsmWayIds[e];
+            eDist[i] = edgeDistances[e];
+            eSpeed[i] = edgeMaxSpeeds[e];
+            eTime[i] = edgeTravelTimes[e];
+            eType[i] = edgeRoadTypes[e];
+            eName[i] = edgeNameIds[e];
+            eOneWay[i] = edgeOneWay[e];
+        }
+        int[] eSrc = Arrays.copyOf(sources, m);
+        int[] eTgt = Arrays.copyOf(targets, m);
+
+        // Poids de base : profil voiture (routes interdites ou sans type fermées)
+        String[] roadTypes = toArray(roadTypeDictionary);
+        int[] eWeight = new int[m];
+        for (int i = 0; i < m; i++) {
+            eWeight[i] = RoutingProfile.CAR.weight(eType[i] >= 0 ? roadTypes[eType[i]] : null, eDist[i], eTime[i]);
+        }
+
+        // 3. CSR avant : comptage des degrés sortants puis placement
+        int[] firstOut = new int[n + 1];
+        for (int i = 0; i < m; i++) {
+            firstOut[eSrc[i] + 1]++;
+            if (!eOneWay[i]) {
+                firstOut[eTgt[i] + 1]++;
+            }
+        }
+        for (int v = 0; v < n; v++) {
+            firstOut[v + 1] += firstOut[v];
+        }
+        int arcCount = firstOut[n];
+        int[] arcHead = new int[arcCount];
+        int[] arcEdge = new int[arcCount];
+        int[] arcWeight = new int[arcCount];
+        int[] cursor = Arrays.copyOf(firstOut, n);
+        for (int i = 0; i < m; i++) {
+            int a = cursor[eSrc[i]]++;
+            arcHead[a] = eTgt[i];
+            arcEdge[a] = i;
+            arcWeight[a] = eWeight[i];
+            if (!eOneWay[i]) {
+                int r = cursor[eTgt[i]]++;
+                arcHead[r] = eSrc[i];
+                arcEdge[r] = i;
+                arcWeight[r] = eWeight[i];
+            }
+        }
+
+        // 4. CSR inverse : arcs entrants, référencés vers l'arc avant
+        int[] firstIn = new int[n + 1];
+        for (int a = 0; a < arcCount; a++) {
+            firstIn[arcHead[a] + 1]++;
+        }
+        for (int v = 0; v < n; v++) {
+            firstIn[v + 1] += firstIn[v];
+        }
+        int[] inArcTail = new int[arcCount];
+        int[] inArcRef = new int[arcCount];
+        cursor = Arrays.copyOf(firstIn, n);
+        for (int u = 0; u < n; u++) {
+            for (int a = firstOut[u]; a < firstOut[u + 1]; a++) {
+                int r = cursor[arcHead[a]]++;
+                inArcTail[r] = u;
+                inArcRef[r] = a;
+            }
+        }
+
+        String[] names = toArray(nameDictionary);
+
+        long fingerprint = fingerprint(denseIds, firstOut, arcHead, arcWeight);
+
+        RoadGraph graph = new RoadGraph(denseIds, lat, lon, nodeNames,
+                eIds, eOsm, eSrc, eTgt, eDist, eSpeed, eTime, eType, eName, eOneWay,
+                firstOut, arcHead, arcEdge, arcWeight,
+                firstIn, inArcTail, inArcRef,
+                names, roadTypes, fingerprint);
+        log.debug("Graphe CSR construit: {}", graph);
+        return graph;
+    }
+
+    private static int intern(Map<String, Integer> dictionary, String value) {
+        if (value == null) {
+            return -1;
+        }
+        return dictionary.computeIfAbsent(value, k -> dictionary.size());
+    }
+
+    private static String[] toArray(Map<String, Integer> dictionary) {
+        String[] values = new String[dictionary.size()];
+        dictionary.forEach((value, id) -> values[id] = value);
+        return values;
+    }
+
+    private static long fingerprint(long[] nodeIds, int[] firstOut, int[] arcHead, int[] arcWeight) {
+        CRC32 crc = new CRC32();
+        byte[] buffer = new byte[8];
+        for (long id : nodeIds) {
+            update(crc, buffer, id);
+        }
+        for (int v : firstOut) {
+            update(crc, buffer, v);
+        }
+        for (int v : arcHead) {
+            update(crc, buffer, v);
+        }
+        for (int v : arcWeight) {
+            update(crc, buffer, v);
+        }
+        return crc.getValue() ^ ((long) arcHead.length << 32);
+    }
+
+    private static void update(CRC32 crc, byte[] buffer, long value) {
+        for (int i = 0; i < 8; i++) {
+            buffer[i] = (byte) (value >>> (i * 8));
+        }
+        crc.update(buffer, 0, 8);
+    }
+}
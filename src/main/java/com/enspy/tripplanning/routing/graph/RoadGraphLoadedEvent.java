@@ -0,0 +1,11 @@
+package com.enspy.tripplanning.routing.graph;
+
+/**
+ * Événement publié lorsqu'un nouveau {@link RoadGraph} devient le graphe
+ * courant. Les structures dérivées (hiérarchies, index, tables) s'y
+ * abonnent pour se reconstruire.
+ *
+ * @param graph Graphe nouvellement chargé
+ */
+public record RoadGraphLoadedEvent(RoadGraph graph) {
+}
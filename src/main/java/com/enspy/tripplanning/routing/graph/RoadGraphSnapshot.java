@@ -0,0 +1,309 @@
+package com.enspy.tripplanning.routing.graph;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Instantané binaire d'un {@link RoadGraph}.
+ *
+ * Le graphe complet (coordonnées, arêtes, CSR avant/inverse, poids, types de
+ * route, dictionnaire des noms) est écrit tel quel dans un seul fichier. Au
+ * démarrage, le fichier est projeté par {@link FileChannel#map} puis chaque
+ * section est copiée en masse dans un tableau du tas : un chargement binaire
+ * rapide, sans requête de lignes PostGIS ni entité R2DBC. Le graphe relu vit
+ * ensuite dans le tas de la JVM comme un graphe chargé depuis la base ; le
+ * fichier n'est pas partagé en mémoire entre plusieurs JVM.
+ *
+ * VERSION DE LA BASE: l'en-tête porte la version des données source
+ * (road_nodes / road_edges) au moment du chargement. Un instantané écrit
+ * pour une autre version est ignoré : un import ou une modification du
+ * réseau n'est jamais masqué par un fichier périmé.
+ *
+ * FORMAT (little-endian):
+ * - en-tête de {@link #HEADER_SIZE} octets : MAGIC, VERSION, empreinte du
+ * graphe, n, m, nombre d'arcs, taille des dictionnaires, taille et CRC32 du
+ * contenu, version des données source,
+ * - contenu : tableaux primitifs dans l'ordre des champs de {@link RoadGraph}
+ * (chaque section alignée sur 8 octets), puis les dictionnaires (longueur +
+ * UTF-8).
+ *
+ * Un fichier d'une autre version ou dont le CRC ne correspond pas est ignoré.
+ */
+public final class RoadGraphSnapshot {
+
+    private static final int MAGIC = 0x52475331; // "RGS1"
+    private static final int VERSION = 3;
+    private static final int HEADER_SIZE = 64;
+
+    private RoadGraphSnapshot() {
+    }
+
+    /**
+     * @param sourceVersion Version des données source du graphe (voir
+     *                      RoadEdgeRepository#findNetworkVersion)
+     */
+    public static void write(RoadGraph graph, long sourceVersion, Path file) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+
+        byte[][] names = encode(graph.getNames());
+        byte[][] roadTypes = encode(graph.getRoadTypes());
+        long size = HEADER_SIZE + payloadSize(graph, names, roadTypes);
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Graphe trop volumineux pour un instantané: " + size + " octets");
+        }
+
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+            buffer.position(HEADER_SIZE);
+            putLongs(buffer, graph.getNodeIds());
+            putDoubles(buffer, graph.getLatitudes());
+            putDoubles(buffer, graph.getLongitudes());
+            putInts(buffer, graph.getNodeNameIds());
+
+            putLongs(buffer, graph.getEdgeIds());
+            putLongs(buffer, graph.getEdgeOsmWayIds());
+            putInts(buffer, graph.getEdgeSources());
+            putInts(buffer, graph.getEdgeTargets());
+            putDoubles(buffer, graph.getEdgeDistancesMeters());
+            putInts(buffer, graph.getEdgeMaxSpeeds());
+            putInts(buffer, graph.getEdgeTravelTimes());
+            putBytes(buffer, graph.getEdgeRoadTypes());
+            putInts(buffer, graph.getEdgeNameIds());
+            putBooleans(buffer, graph.getEdgeOneWay());
+
+            putInts(buffer, graph.getFirstOut());
+            putInts(buffer, graph.getArcHead());
+            putInts(buffer, graph.getArcEdge());
+            putInts(buffer, graph.getBaseArcWeight());
+            putInts(buffer, graph.getFirstIn());
+            putInts(buffer, graph.getInArcTail());
+            putInts(buffer, graph.getInArcRef());
+
+            putStrings(buffer, names);
+            putStrings(buffer, roadTypes);
+
+            long payloadSize = size - HEADER_SIZE;
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, VERSION);
+            buffer.putLong(8, graph.getFingerprint());
+            buffer.putInt(16, graph.getNodeCount());
+            buffer.putInt(20, graph.getEdgeCount());
+            buffer.putInt(24, graph.getArcCount());
+            buffer.putInt(28, names.length);
+            buffer.putInt(32, roadTypes.length);
+            buffer.putLong(40, payloadSize);
+            buffer.putLong(48, checksum(buffer, payloadSize));
+            buffer.putLong(56, sourceVersion);
+            buffer.force();
+        }
+        // Remplacement atomique : jamais de fichier à moitié écrit
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * @param sourceVersion Version actuelle des données source
+     * @return Graphe relu, ou null si le fichier est absent, d'une autre
+     *         version de format ou de données, ou corrompu
+     */
+    public static RoadGraph read(Path file, long sourceVersion) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE || size > Integer.MAX_VALUE) {
+                return null;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION
+                    || buffer.getLong(56) != sourceVersion) {
+                return null;
+            }
+            long fingerprint = buffer.getLong(8);
+            int n = buffer.getInt(16);
+            int m = buffer.getInt(20);
+            int arcCount = buffer.getInt(24);
+            int nameCount = buffer.getInt(28);
+            int roadTypeCount = buffer.getInt(32);
+            long payloadSize = buffer.getLong(40);
+            if (payloadSize != size - HEADER_SIZE || buffer.getLong(48) != checksum(buffer, payloadSize)) {
+                return null;
+            }
+
+            buffer.position(HEADER_SIZE);
+            long[] nodeIds = getLongs(buffer, n);
+            double[] latitudes = getDoubles(buffer, n);
+            double[] longitudes = getDoubles(buffer, n);
+            int[] nodeNameIds = getInts(buffer, n);
+
+            long[] edgeIds = getLongs(buffer, m);
+            long[] edgeOsmWayIds = getLongs(buffer, m);
+            int[] edgeSources = getInts(buffer, m);
+            int[] edgeTargets = getInts(buffer, m);
+            double[] edgeDistances = getDoubles(buffer, m);
+            int[] edgeMaxSpeeds = getInts(buffer, m);
+            int[] edgeTravelTimes = getInts(buffer, m);
+            byte[] edgeRoadTypes = getBytes(buffer, m);
+            int[] edgeNameIds = getInts(buffer, m);
+            boolean[] edgeOneWay = getBooleans(buffer, m);
+
+            int[] firstOut = getInts(buffer, n + 1);
+            int[] arcHead = getInts(buffer, arcCount);
+            int[] arcEdge = getInts(buffer, arcCount);
+            int[] arcWeight = getInts(buffer, arcCount);
+            int[] firstIn = getInts(buffer, n + 1);
+            int[] inArcTail = getInts(buffer, arcCount);
+            int[] inArcRef = getInts(buffer, arcCount);
+
+            String[] names = getStrings(buffer, nameCount);
+            String[] roadTypes = getStrings(buffer, roadTypeCount);
+
+            return new RoadGraph(nodeIds, latitudes, longitudes, nodeNameIds,
+                    edgeIds, edgeOsmWayIds, edgeSources, edgeTargets, edgeDistances, edgeMaxSpeeds,
+                    edgeTravelTimes, edgeRoadTypes, edgeNameIds, edgeOneWay,
+                    firstOut, arcHead, arcEdge, arcWeight,
+                    firstIn, inArcTail, inArcRef,
+                    names, roadTypes, fingerprint);
+        }
+    }
+
+    private static long payloadSize(RoadGraph graph, byte[][] names, byte[][] roadTypes) {
+        long n = graph.getNodeCount();
+        long m = graph.getEdgeCount();
+        long arcs = graph.getArcCount();
+        return aligned(8 * n) * 3 + aligned(4 * n)
+                + aligned(8 * m) * 3 + aligned(4 * m) * 5 + aligned(m) * 2
+                + aligned(4 * (n + 1)) * 2 + aligned(4 * arcs) * 5
+                + stringsSize(names) + stringsSize(roadTypes);
+    }
+
+    private static long stringsSize(byte[][] values) {
+        long size = 0;
+        for (byte[] value : values) {
+            size += 4 + value.length;
+        }
+        return aligned(size);
+    }
+
+    private static long aligned(long size) {
+        return (size + 7) & ~7L;
+    }
+
+    private static long checksum(ByteBuffer buffer, long payloadSize) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(HEADER_SIZE, (int) payloadSize));
+        return crc.getValue();
+    }
+
+    private static void align(ByteBuffer buffer) {
+        buffer.position((int) aligned(buffer.position()));
+    }
+
+    private static void putLongs(ByteBuffer buffer, long[] values) {
+        buffer.asLongBuffer().put(values);
+        buffer.position(buffer.position() + values.length * 8);
+    }
+
+    private static void putDoubles(ByteBuffer buffer, double[] values) {
+        buffer.asDoubleBuffer().put(values);
+        buffer.position(buffer.position() + values.length * 8);
+    }
+
+    private static void putInts(ByteBuffer buffer, int[] values) {
+        buffer.asIntBuffer().put(values);
+        buffer.position(buffer.position() + values.length * 4);
+        align(buffer);
+    }
+
+    private static void putBytes(ByteBuffer buffer, byte[] values) {
+        buffer.put(values);
+        align(buffer);
+    }
+
+    private static void putBooleans(ByteBuffer buffer, boolean[] values) {
+        for (boolean value : values) {
+            buffer.put((byte) (value ? 1 : 0));
+        }
+        align(buffer);
+    }
+
+    private static void putStrings(ByteBuffer buffer, byte[][] values) {
+        for (byte[] value : values) {
+            buffer.putInt(value.length);
+            buffer.put(value);
+        }
+        align(buffer);
+    }
+
+    private static long[] getLongs(ByteBuffer buffer, int length) {
+        long[] values = new long[length];
+        buffer.asLongBuffer().get(values);
+        buffer.position(buffer.position() + length * 8);
+        return values;
+    }
+
+    private static double[] getDoubles(ByteBuffer buffer, int length) {
+        double[] values = new double[length];
+        buffer.asDoubleBuffer().get(values);
+        buffer.position(buffer.position() + length * 8);
+        return values;
+    }
+
+    private static int[] getInts(ByteBuffer buffer, int length) {
+        int[] values = new int[length];
+        buffer.asIntBuffer().get(values);
+        buffer.position(buffer.position() + length * 4);
+        align(buffer);
+        return values;
+    }
+
+    private static byte[] getBytes(ByteBuffer buffer, int length) {
+        byte[] values = new byte[length];
+        buffer.get(values);
+        align(buffer);
+        return values;
+    }
+
+    private static boolean[] getBooleans(ByteBuffer buffer, int length) {
+        boolean[] values = new boolean[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = buffer.get() != 0;
+        }
+        align(buffer);
+        return values;
+    }
+
+    private static String[] getStrings(ByteBuffer buffer, int count) {
+        String[] values = new String[count];
+        for (int i = 0; i < count; i++) {
+            byte[] bytes = new byte[buffer.getInt()];
+            buffer.get(bytes);
+            values[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+        align(buffer);
+        return values;
+    }
+
+    private static byte[][] encode(String[] values) {
+        byte[][] encoded = new byte[values.length][];
+        for (int i = 0; i < values.length; i++) {
+            encoded[i] = values[i].getBytes(StandardCharsets.UTF_8);
+        }
+        return encoded;
+    }
+}
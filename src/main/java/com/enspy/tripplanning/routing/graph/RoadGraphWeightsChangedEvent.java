@@ -0,0 +1,12 @@
+package com.enspy.tripplanning.routing.graph;
+
+/**
+ * Événement publié lorsque les poids effectifs du graphe courant changent
+ * (surcharges appliquées ou expirées), sans changement de topologie. Les
+ * structures dépendant des poids (hiérarchie de contraction) s'y abonnent
+ * pour se repondérer.
+ *
+ * @param graph Graphe dont les poids ont changé
+ */
+public record RoadGraphWeightsChangedEvent(RoadGraph graph) {
+}
@@ -0,0 +1,141 @@
+package com.enspy.tripplanning.routing.graph;
+
+import com.enspy.tripplanning.routing.model.RoadEdge;
+import com.enspy.tripplanning.routing.model.RoadNode;
+import com.enspy.tripplanning.routing.model.Route;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+
+/**
+ * Encodage compact des chemins mis en cache (colonnes BYTEA).
+ *
+ * FORMAT: nombre d'identifiants (varint), puis pour chacun l'écart au
+ * précédent en zigzag + varint (7 bits par octet). Les identifiants d'un
+ * chemin étant voisins en base, la plupart des écarts tiennent sur 1 à 3
+ * octets au lieu d'une vingtaine en JSON.
+ *
+ * Le décodage reconstruit une {@link Route} complète depuis le graphe
+ * résident : nœuds par recherche dichotomique, arêtes par parcours des arcs
+ * sortants de chaque nœud.
+ */
+public final class RoutePathCodec {
+
+    private RoutePathCodec() {
+    }
+
+    public static byte[] encodeNodes(List<RoadNode> nodes) {
+        long[] ids = new long[nodes.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = nodes.get(i).getNodeId();
+        }
+        return encode(ids);
+    }
+
+    public static byte[] encodeEdges(List<RoadEdge> edges) {
+        long[] ids = new long[edges.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = edges.get(i).getEdgeId();
+        }
+        return encode(ids);
+    }
+
+    public static byte[] encode(long[] ids) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(ids.length * 2 + 5);
+        writeVarint(out, ids.length);
+        long previous = 0;
+        for (long id : ids) {
+            long delta = id - previous;
+            writeVarint(out, (delta << 1) ^ (delta >> 63));
+            previous = id;
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * @throws IllegalArgumentException si le contenu est tronqué
+     */
+    public static long[] decode(byte[] data) {
+        int[] position = { 0 };
+        long count = readVarint(data, position);
+        if (count < 0 || count > data.length) {
+            throw new IllegalArgumentException("Chemin encodé invalide");
+        }
+        long[] ids = new long[(int) count];
+        long previous = 0;
+        for (int i = 0; i < count; i++) {
+            long zigzag = readVarint(data, position);
+            previous += (zigzag >>> 1) ^ -(zigzag & 1);
+            ids[i] = previous;
+        }
+        return ids;
+    }
+
+    /**
+     * Reconstruit le chemin sur le graphe résident.
+     *
+     * @return Route complète, ou null si le chemin ne correspond plus au
+     *         graphe (nœud ou arête absent)
+     */
+    public static Route toRoute(RoadGraph graph, byte[] pathNodes, byte[] pathEdges, int nodesExplored) {
+        long[] nodeIds = decode(pathNodes);
+        long[] edgeIds = decode(pathEdges);
+        if (nodeIds.length == 0 || edgeIds.length != nodeIds.length - 1) {
+            return null;
+        }
+
+        int[] firstOut = graph.getFirstOut();
+        int[] arcHead = graph.getArcHead();
+        int[] arcEdge = graph.getArcEdge();
+        long[] graphEdgeIds = graph.getEdgeIds();
+
+        int[] arcs = new int[edgeIds.length];
+        int u = graph.indexOf(nodeIds[0]);
+        if (u < 0) {
+            return null;
+        }
+        int start = u;
+        for (int i = 0; i < edgeIds.length; i++) {
+            int v = graph.indexOf(nodeIds[i + 1]);
+            if (v < 0) {
+                return null;
+            }
+            int found = -1;
+            for (int arc = firstOut[u]; arc < firstOut[u + 1]; arc++) {
+                if (arcHead[arc] == v && graphEdgeIds[arcEdge[arc]] == edgeIds[i]) {
+                    found = arc;
+                    break;
+                }
+            }
+            if (found < 0) {
+                return null;
+            }
+            arcs[i] = found;
+            u = v;
+        }
+        return graph.toRoute(start, u, arcs, arcs.length, nodesExplored);
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarint(byte[] data, int[] position) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            if (position[0] >= data.length) {
+                throw new IllegalArgumentException("Chemin encodé tronqué");
+            }
+            byte b = data[position[0]++];
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Varint invalide");
+    }
+}
@@ -0,0 +1,81 @@
+package com.enspy.tripplanning.routing.graph;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Profils de véhicule du graphe résident.
+ *
+ * Un profil décide, à partir du type de route et des temps de road_edges,
+ * quelles arêtes sont praticables et en combien de temps. Tous les profils
+ * partagent la topologie CSR du graphe ({@link RoadGraph#withProfile}) : un
+ * profil ne coûte qu'un tableau de poids par arc, les arcs interdits y
+ * valant {@link RoadGraph#CLOSED_WEIGHT}.
+ *
+ * Les poids de base du graphe sont ceux de {@link #CAR}. Les autres profils
+ * interdisent au moins les mêmes routes et ne font que plafonner la
+ * vitesse : leurs temps ne sont jamais inférieurs à ceux de la voiture, si
+ * bien que les bornes ALT calculées sur les poids de base restent
+ * admissibles pour eux.
+ */
+public enum RoutingProfile {
+
+    /** Voiture : vitesses de road_edges */
+    CAR("voiture", Set.of("footway", "cycleway", "path", "steps", "pedestrian"), Map.of(), 0),
+
+    /** Poids lourd : pas de rues résidentielles apaisées ni de pistes, vitesses plafonnées */
+    TRUCK("poids lourd",
+            Set.of("footway", "cycleway", "path", "steps", "pedestrian", "living_street", "track"),
+            Map.of("motorway", 80, "trunk", 80, "primary", 70, "secondary", 60, "tertiary", 50),
+            40),
+
+    /** Deux-roues motorisé : mêmes routes que la voiture, vitesse plafonnée */
+    MOTORBIKE("moto", Set.of("footway", "cycleway", "path", "steps", "pedestrian"), Map.of(), 90);
+
+    private final String label;
+    private final Set<String> excludedRoadTypes;
+    private final Map<String, Integer> speedCaps;
+    private final int defaultSpeedCap;
+
+    RoutingProfile(String label, Set<String> excludedRoadTypes, Map<String, Integer> speedCaps,
+            int defaultSpeedCap) {
+        this.label = label;
+        this.excludedRoadTypes = excludedRoadTypes;
+        this.speedCaps = speedCaps;
+        this.defaultSpeedCap = defaultSpeedCap;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Indique si le profil peut emprunter ce type de route. Une arête sans
+     * type n'est praticable pour aucun profil, comme
+     * {@link com.enspy.tripplanning.routing.model.RoadEdge#isDrivable()}.
+     */
+    public boolean allows(String roadType) {
+        return roadType != null && !excludedRoadTypes.contains(roadType.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Temps de parcours d'une arête pour ce profil.
+     *
+     * @param baseSeconds Temps de road_edges (vitesse maximale de la route)
+     * @return Temps en secondes, jamais inférieur à {@code baseSeconds}, ou
+     *         {@link RoadGraph#CLOSED_WEIGHT} si la route est interdite ou
+     *         sans type
+     */
+    public int weight(String roadType, double distanceMeters, int baseSeconds) {
+        if (!allows(roadType)) {
+            return RoadGraph.CLOSED_WEIGHT;
+        }
+        int cap = speedCaps.getOrDefault(roadType.toLowerCase(Locale.ROOT), defaultSpeedCap);
+        if (cap <= 0 || distanceMeters <= 0) {
+            return baseSeconds;
+        }
+        int capped = (int) Math.ceil(distanceMeters / 1000.0 / cap * 3600);
+        return Math.min(RoadGraph.CLOSED_WEIGHT, Math.max(baseSeconds, capped));
+    }
+}
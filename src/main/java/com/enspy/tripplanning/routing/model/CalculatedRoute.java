@@ -23,6 +23,10 @@ public class CalculatedRoute {
     @Column("to_waypoint_id")
     private Long toWaypointId;
     
+    // Empreinte du graphe routier ayant produit le chemin
+    @Column("graph_version")
+    private Long graphVersion;
+    
     // Coordonnées
     @Column("from_latitude")
     private BigDecimal fromLatitude;
@@ -41,12 +45,12 @@ public class CalculatedRoute {
     @Builder.Default
     private RoutingAlgorithm algorithm = RoutingAlgorithm.ASTAR;
     
-    // Résultat
+    // Résultat (deltas varint, voir RoutePathCodec)
     @Column("path_nodes")
-    private String pathNodesJson;  // [123, 456, 789...]
+    private byte[] pathNodes;
     
     @Column("path_edges")
-    private String pathEdgesJson;  // [234, 567...]
+    private byte[] pathEdges;
     
     // path_geometry GEOMETRY(LineString) géré par PostGIS
     
@@ -0,0 +1,43 @@
+package com.enspy.tripplanning.routing.model;
+
+import lombok.*;
+import org.springframework.data.annotation.*;
+import org.springframework.data.relational.core.mapping.*;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Surcharge temporaire du temps de parcours d'une arête (ou de toutes les
+ * arêtes d'une voie OSM) : fermeture ou ralentissement, jusqu'à expiration.
+ */
+@Data @Builder @NoArgsConstructor @AllArgsConstructor
+@Table("edge_weight_overrides")
+public class EdgeWeightOverride {
+    @Id
+    @Column("override_id")
+    private UUID overrideId;
+
+    // Cible : une arête de road_edges, ou toutes celles d'une voie OSM
+    @Column("edge_id")
+    private Long edgeId;
+
+    @Column("osm_way_id")
+    private Long osmWayId;
+
+    // Fermeture complète, sinon temps de parcours multiplié par timeFactor (> 1)
+    @Column("closed")
+    @Builder.Default
+    private Boolean closed = false;
+
+    @Column("time_factor")
+    private Double timeFactor;
+
+    @Column("reason")
+    private String reason;
+
+    @Column("expires_at")
+    private LocalDateTime expiresAt;
+
+    @Column("created_at")
+    private LocalDateTime createdAt;
+}
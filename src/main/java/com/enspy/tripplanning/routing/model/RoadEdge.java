@@ -1,5 +1,6 @@
 package com.enspy.tripplanning.routing.model;
 
+import com.enspy.tripplanning.routing.graph.RoutingProfile;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -204,17 +205,22 @@ public class RoadEdge {
     /**
      * Vérifie si cette arête est praticable en voiture
      * Exclut les routes piétonnes, pistes cyclables, etc.
+     * (règles du profil {@link RoutingProfile#CAR})
      * 
      * @return true si praticable en voiture
      */
     public boolean isDrivable() {
-        if (roadType == null)
-            return false;
+        return isAccessible(RoutingProfile.CAR);
+    }
 
-        return !roadType.equalsIgnoreCase("footway") &&
-                !roadType.equalsIgnoreCase("cycleway") &&
-                !roadType.equalsIgnoreCase("path") &&
-                !roadType.equalsIgnoreCase("steps");
+    /**
+     * Vérifie si cette arête est praticable pour un profil de véhicule
+     * 
+     * @param profile Profil (voiture, poids lourd, moto)
+     * @return true si le type de route est connu et autorisé au profil
+     */
+    public boolean isAccessible(RoutingProfile profile) {
+        return profile.allows(roadType);
     }
 
     /**
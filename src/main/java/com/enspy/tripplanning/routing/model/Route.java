@@ -78,6 +78,42 @@ public class Route {
      */
     private Long computationTimeMs;
 
+    /**
+     * Moteur ayant calculé la route (null : inconnu ou externe)
+     */
+    private SearchAlgorithm algorithm;
+
+    /**
+     * Arcs examinés depuis les nœuds fixés
+     */
+    private Integer edgesRelaxed;
+
+    /**
+     * Insertions dans la file de priorité
+     */
+    private Integer heapPushes;
+
+    /**
+     * Diminutions de clé dans la file de priorité
+     */
+    private Integer heapDecreaseKeys;
+
+    /**
+     * Temps de snapping des points de départ/arrivée (ns)
+     */
+    private Long snapTimeNanos;
+
+    /**
+     * Temps d'attente des tuiles ou du sous-graphe lus en base (ns)
+     */
+    private Long subgraphLoadTimeNanos;
+
+    /**
+     * Temps de reconstruction du chemin : dépliage des raccourcis et
+     * matérialisation des nœuds/arêtes (ns)
+     */
+    private Long unpackTimeNanos;
+
     /**
      * Indique si un chemin a été trouvé
      */
@@ -230,6 +266,36 @@ public class Route {
         return min + " min";
     }
 
+    /**
+     * Cumule l'effort de recherche d'une étape (itinéraire calculé tronçon
+     * par tronçon) : temps de calcul, nœuds fixés, arcs examinés, opérations
+     * de tas et temps de snapping, de chargement et de reconstruction.
+     * L'algorithme est celui de la première étape qui en indique un.
+     *
+     * @param leg Étape à ajouter
+     */
+    public void addEffort(Route leg) {
+        computationTimeMs = sum(computationTimeMs, leg.computationTimeMs);
+        nodesExplored = sum(nodesExplored, leg.nodesExplored);
+        edgesRelaxed = sum(edgesRelaxed, leg.edgesRelaxed);
+        heapPushes = sum(heapPushes, leg.heapPushes);
+        heapDecreaseKeys = sum(heapDecreaseKeys, leg.heapDecreaseKeys);
+        snapTimeNanos = sum(snapTimeNanos, leg.snapTimeNanos);
+        subgraphLoadTimeNanos = sum(subgraphLoadTimeNanos, leg.subgraphLoadTimeNanos);
+        unpackTimeNanos = sum(unpackTimeNanos, leg.unpackTimeNanos);
+        if (algorithm == null) {
+            algorithm = leg.algorithm;
+        }
+    }
+
+    private static Integer sum(Integer a, Integer b) {
+        return a == null ? b : b == null ? a : Integer.valueOf(a + b);
+    }
+
+    private static Long sum(Long a, Long b) {
+        return a == null ? b : b == null ? a : Long.valueOf(a + b);
+    }
+
     /**
      * Vérifie si la route est valide
      * 
@@ -0,0 +1,35 @@
+package com.enspy.tripplanning.routing.model;
+
+/**
+ * Moteur ayant produit une {@link Route} : libellé des statistiques de la
+ * réponse et tag des métriques de recherche.
+ */
+public enum SearchAlgorithm {
+
+    ASTAR("astar", "A* (graphe résident)"),
+    BIDIRECTIONAL_ASTAR("astar-bidirectional", "A* bidirectionnelle (graphe résident)"),
+    TILED_ASTAR("astar-tiled", "A* par tuiles"),
+    SUBGRAPH_ASTAR("astar-subgraph", "A* sur sous-graphe"),
+    CH("ch", "Contraction Hierarchies"),
+    ALTERNATIVES("alternatives", "Alternatives par plateaux (Dijkstra avant/arrière)"),
+    TIME_DEPENDENT("astar-time-dependent", "A* dépendant de l'heure");
+
+    private final String tag;
+    private final String label;
+
+    SearchAlgorithm(String tag, String label) {
+        this.tag = tag;
+        this.label = label;
+    }
+
+    /**
+     * @return Valeur du tag "algorithm" des métriques
+     */
+    public String getTag() {
+        return tag;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+}
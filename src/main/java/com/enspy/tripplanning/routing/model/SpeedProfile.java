@@ -0,0 +1,53 @@
+package com.enspy.tripplanning.routing.model;
+
+import lombok.*;
+import org.springframework.data.annotation.*;
+import org.springframework.data.relational.core.mapping.*;
+
+/**
+ * Profil de vitesse horaire (voir
+ * {@link com.enspy.tripplanning.routing.engine.timedep.SpeedProfiles}).
+ *
+ * Le profil s'applique aux arêtes des types de route listés, dont le milieu
+ * tombe dans la zone (ville) si elle est renseignée. En cas de
+ * recouvrement, la plus petite priorité l'emporte.
+ */
+@Data @Builder @NoArgsConstructor @AllArgsConstructor
+@Table("speed_profiles")
+public class SpeedProfile {
+    @Id
+    @Column("profile_id")
+    private Integer profileId;
+
+    @Column("name")
+    private String name;
+
+    // Types de route OSM séparés par des virgules (vide = tous)
+    @Column("road_types")
+    private String roadTypes;
+
+    // Zone d'application (toutes nulles = tout le réseau)
+    @Column("min_latitude")
+    private Double minLatitude;
+
+    @Column("min_longitude")
+    private Double minLongitude;
+
+    @Column("max_latitude")
+    private Double maxLatitude;
+
+    @Column("max_longitude")
+    private Double maxLongitude;
+
+    // Facteurs de vitesse "HH:mm=facteur;..." (1 = vitesse libre)
+    @Column("breakpoints")
+    private String breakpoints;
+
+    @Column("priority")
+    @Builder.Default
+    private Integer priority = 100;
+
+    @Column("enabled")
+    @Builder.Default
+    private Boolean enabled = true;
+}
@@ -0,0 +1,180 @@
+package com.enspy.tripplanning.routing.osm;
+
+import crosby.binary.BinaryParser;
+import crosby.binary.Osmformat;
+import crosby.binary.file.BlockInputStream;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Lecture en flux d'un fichier OSM : PBF (.osm.pbf) ou XML (.osm, .osm.gz).
+ *
+ * Les éléments sont transmis un à un au {@link OsmHandler} sans être
+ * conservés : la mémoire ne dépend pas de la taille du fichier. Les
+ * relations sont ignorées.
+ */
+public final class OsmFileReader {
+
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private OsmFileReader() {
+    }
+
+    public static void read(Path file, OsmHandler handler) throws IOException {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE)) {
+            if (name.endsWith(".pbf")) {
+                new BlockInputStream(in, new PbfParser(handler)).process();
+            } else if (name.endsWith(".osm") || name.endsWith(".xml")) {
+                readXml(in, handler);
+            } else if (name.endsWith(".osm.gz")) {
+                readXml(new GZIPInputStream(in, BUFFER_SIZE), handler);
+            } else {
+                throw new IllegalArgumentException("Format OSM non supporté (.osm.pbf, .osm, .osm.gz): " + file);
+            }
+        }
+    }
+
+    /**
+     * Décodage des blocs PBF : coordonnées et références de nœuds sont
+     * codées en delta.
+     */
+    private static final class PbfParser extends BinaryParser {
+
+        private final OsmHandler handler;
+        private final Map<String, String> tags = new HashMap<>();
+        private long[] refs = new long[256];
+
+        private PbfParser(OsmHandler handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        protected void parseDense(Osmformat.DenseNodes nodes) {
+            if (!handler.wantsNodes()) {
+                return;
+            }
+            long id = 0, lat = 0, lon = 0;
+            for (int i = 0; i < nodes.getIdCount(); i++) {
+                id += nodes.getId(i);
+                lat += nodes.getLat(i);
+                lon += nodes.getLon(i);
+                handler.node(id, parseLat(lat), parseLon(lon));
+            }
+        }
+
+        @Override
+        protected void parseNodes(List<Osmformat.Node> nodes) {
+            if (!handler.wantsNodes()) {
+                return;
+            }
+            for (Osmformat.Node node : nodes) {
+                handler.node(node.getId(), parseLat(node.getLat()), parseLon(node.getLon()));
+            }
+        }
+
+        @Override
+        protected void parseWays(List<Osmformat.Way> ways) {
+            if (!handler.wantsWays()) {
+                return;
+            }
+            for (Osmformat.Way way : ways) {
+                tags.clear();
+                for (int i = 0; i < way.getKeysCount(); i++) {
+                    tags.put(getStringById(way.getKeys(i)), getStringById(way.getVals(i)));
+                }
+                int count = way.getRefsCount();
+                if (refs.length < count) {
+                    refs = new long[Math.max(count, refs.length * 2)];
+                }
+                long ref = 0;
+                for (int i = 0; i < count; i++) {
+                    ref += way.getRefs(i);
+                    refs[i] = ref;
+                }
+                handler.way(way.getId(), Arrays.copyOf(refs, count), tags);
+            }
+        }
+
+        @Override
+        protected void parseRelations(List<Osmformat.Relation> relations) {
+        }
+
+        @Override
+        protected void parse(Osmformat.HeaderBlock header) {
+        }
+
+        @Override
+        public void complete() {
+        }
+    }
+
+    private static void readXml(InputStream in, OsmHandler handler) throws IOException {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        try {
+            XMLStreamReader xml = factory.createXMLStreamReader(in);
+            Map<String, String> tags = new HashMap<>();
+            long[] refs = new long[256];
+            int refCount = 0;
+            long wayId = -1;
+            while (xml.hasNext()) {
+                int event = xml.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    switch (xml.getLocalName()) {
+                        case "node" -> {
+                            if (handler.wantsNodes()) {
+                                handler.node(Long.parseLong(xml.getAttributeValue(null, "id")),
+                                        Double.parseDouble(xml.getAttributeValue(null, "lat")),
+                                        Double.parseDouble(xml.getAttributeValue(null, "lon")));
+                            }
+                        }
+                        case "way" -> {
+                            wayId = Long.parseLong(xml.getAttributeValue(null, "id"));
+                            refCount = 0;
+                            tags.clear();
+                        }
+                        case "nd" -> {
+                            if (wayId >= 0) {
+                                if (refCount == refs.length) {
+                                    refs = Arrays.copyOf(refs, refCount * 2);
+                                }
+                                refs[refCount++] = Long.parseLong(xml.getAttributeValue(null, "ref"));
+                            }
+                        }
+                        case "tag" -> {
+                            if (wayId >= 0) {
+                                tags.put(xml.getAttributeValue(null, "k"), xml.getAttributeValue(null, "v"));
+                            }
+                        }
+                        default -> {
+                        }
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT && "way".equals(xml.getLocalName())) {
+                    if (handler.wantsWays()) {
+                        handler.way(wayId, Arrays.copyOf(refs, refCount), tags);
+                    }
+                    wayId = -1;
+                }
+            }
+            xml.close();
+        } catch (XMLStreamException e) {
+            throw new IOException("Fichier OSM XML invalide: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.enspy.tripplanning.routing.osm;
+
+import java.util.Map;
+
+/**
+ * Réception des éléments d'un fichier OSM lu en flux
+ * ({@link OsmFileReader}), dans l'ordre du fichier.
+ */
+public interface OsmHandler {
+
+    /**
+     * @return false pour que le lecteur ignore les nœuds (décodage des
+     *         seuls chemins)
+     */
+    default boolean wantsNodes() {
+        return true;
+    }
+
+    /**
+     * @return false pour que le lecteur ignore les chemins
+     */
+    default boolean wantsWays() {
+        return true;
+    }
+
+    default void node(long id, double latitude, double longitude) {
+    }
+
+    /**
+     * @param nodeRefs Identifiants OSM des nœuds du chemin, dans l'ordre
+     * @param tags     Tags du chemin (ne pas conserver : peut être réutilisé)
+     */
+    default void way(long id, long[] nodeRefs, Map<String, String> tags) {
+    }
+}
@@ -0,0 +1,120 @@
+package com.enspy.tripplanning.routing.osm;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Interprétation des tags highway d'un chemin OSM pour road_edges.
+ *
+ * Seules les routes carrossables sont retenues : les voies piétonnes et
+ * cyclables (footway, path, steps...) sont de toute façon exclues par tous
+ * les profils ({@link com.enspy.tripplanning.routing.graph.RoutingProfile}).
+ * Vitesses par défaut (hors maxspeed) adaptées au réseau camerounais.
+ */
+public final class OsmHighway {
+
+    /** Vitesse par défaut (km/h) des types de route importés */
+    private static final Map<String, Integer> DEFAULT_SPEEDS = Map.ofEntries(
+            Map.entry("motorway", 110),
+            Map.entry("motorway_link", 60),
+            Map.entry("trunk", 90),
+            Map.entry("trunk_link", 50),
+            Map.entry("primary", 80),
+            Map.entry("primary_link", 40),
+            Map.entry("secondary", 70),
+            Map.entry("secondary_link", 40),
+            Map.entry("tertiary", 50),
+            Map.entry("tertiary_link", 30),
+            Map.entry("unclassified", 40),
+            Map.entry("road", 40),
+            Map.entry("residential", 30),
+            Map.entry("living_street", 10),
+            Map.entry("service", 20),
+            Map.entry("track", 15));
+
+    private static final double KMH_PER_MPH = 1.609344;
+
+    private OsmHighway() {
+    }
+
+    /**
+     * @return Type de route (valeur du tag highway), ou null si le chemin
+     *         n'est pas une route carrossable ouverte
+     */
+    public static String roadType(Map<String, String> tags) {
+        String highway = tags.get("highway");
+        if (highway == null || !DEFAULT_SPEEDS.containsKey(highway)) {
+            return null;
+        }
+        String access = tags.get("motor_vehicle") != null ? tags.get("motor_vehicle") : tags.get("access");
+        if ("no".equals(access) || "private".equals(access)) {
+            return null;
+        }
+        return "track".equals(highway) && "no".equals(tags.get("motorcar")) ? null : highway;
+    }
+
+    /**
+     * Vitesse maximale : tag maxspeed ("50", "30 mph"), sinon vitesse par
+     * défaut du type. Les valeurs symboliques ("FR:urban", "none") prennent
+     * la vitesse par défaut.
+     */
+    public static int maxSpeedKmh(Map<String, String> tags, String roadType) {
+        int fallback = DEFAULT_SPEEDS.getOrDefault(roadType, 30);
+        String maxSpeed = tags.get("maxspeed");
+        if (maxSpeed == null) {
+            return fallback;
+        }
+        String value = maxSpeed.trim().toLowerCase(Locale.ROOT);
+        boolean mph = value.endsWith("mph");
+        if (mph) {
+            value = value.substring(0, value.length() - 3).trim();
+        } else if (value.endsWith("km/h")) {
+            value = value.substring(0, value.length() - 4).trim();
+        }
+        try {
+            double speed = Double.parseDouble(value);
+            if (speed <= 0) {
+                return fallback;
+            }
+            return (int) Math.round(mph ? speed * KMH_PER_MPH : speed);
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+
+    /**
+     * Sens de circulation du chemin.
+     *
+     * @return 0 = double sens, 1 = sens unique dans l'ordre des nœuds,
+     *         -1 = sens unique inverse (oneway=-1)
+     */
+    public static int oneWay(Map<String, String> tags, String roadType) {
+        String oneway = tags.get("oneway");
+        if (oneway != null) {
+            switch (oneway) {
+                case "yes", "true", "1":
+                    return 1;
+                case "-1", "reverse":
+                    return -1;
+                case "no", "false", "0":
+                    return 0;
+                default:
+                    break;
+            }
+        }
+        // Sens unique implicite : autoroutes et giratoires
+        if ("motorway".equals(roadType) || "motorway_link".equals(roadType)) {
+            return 1;
+        }
+        String junction = tags.get("junction");
+        return "roundabout".equals(junction) || "circular".equals(junction) ? 1 : 0;
+    }
+
+    /**
+     * Nom de la route : name, sinon référence (ref, ex. "N3").
+     */
+    public static String roadName(Map<String, String> tags) {
+        String name = tags.get("name");
+        return name != null ? name : tags.get("ref");
+    }
+}
@@ -0,0 +1,438 @@
+package com.enspy.tripplanning.routing.osm;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Import hors ligne d'un extrait OpenStreetMap dans road_nodes / road_edges,
+ * sans démarrer l'application.
+ *
+ * Trois lectures en flux du fichier (aucun ordre des éléments supposé) :
+ * 1. chemins : routes carrossables retenues ({@link OsmHighway}), recensement
+ * de leurs nœuds ; extrémités et nœuds partagés deviennent des nœuds du
+ * graphe (intersections),
+ * 2. nœuds : coordonnées des nœuds recensés, COPY des intersections dans
+ * road_nodes (node_id attribués 1, 2, ...),
+ * 3. chemins : découpage à chaque intersection, COPY des tronçons dans
+ * road_edges avec distance (somme des segments, nœuds de forme compris),
+ * vitesse, temps de parcours et géométrie.
+ *
+ * Mémoire : uniquement la table des nœuds routiers ({@link OsmNodeTable},
+ * ~35 octets par nœud) et les lots COPY en vol ; le reste du fichier n'est
+ * jamais conservé. Les index secondaires sont supprimés pendant le
+ * chargement puis recréés.
+ *
+ * USAGE (réseau existant remplacé, comme 02_cameroon_road_network.sql) :
+ * mvn -q compile exec:java
+ * -Dexec.mainClass=com.enspy.tripplanning.routing.osm.OsmImporter
+ * -Dexec.args="cameroon-latest.osm.pbf --url=jdbc:postgresql://localhost:5432/planning_map_db
+ * --user=postgres --replace"
+ * Options : --password (défaut : $PGPASSWORD), --jobs (connexions COPY),
+ * --batch-size (lignes par lot).
+ */
+@Slf4j
+public final class OsmImporter {
+
+    private static final String NODE_COPY = "COPY road_nodes (node_id, osm_id, latitude, longitude, node_type, geom)"
+            + " FROM STDIN";
+    private static final String EDGE_COPY = "COPY road_edges (source_node_id, target_node_id, distance_km,"
+            + " distance_meters, max_speed_kmh, road_type, road_name, one_way, travel_time_seconds, osm_way_id, geom)"
+            + " FROM STDIN";
+
+    private static final String[] TABLES = { "road_nodes", "road_edges" };
+
+    private final Path file;
+    private final String url;
+    private final Properties credentials = new Properties();
+    private final int jobs;
+    private final int batchSize;
+    private final boolean replace;
+
+    public OsmImporter(Path file, String url, String user, String password, int jobs, int batchSize,
+            boolean replace) {
+        this.file = file;
+        this.url = url;
+        this.credentials.setProperty("user", user);
+        if (password != null) {
+            this.credentials.setProperty("password", password);
+        }
+        this.jobs = Math.max(1, jobs);
+        this.batchSize = Math.max(1_000, batchSize);
+        this.replace = replace;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        Path file = null;
+        for (String arg : args) {
+            if (arg.startsWith("--")) {
+                int equals = arg.indexOf('=');
+                options.put(equals > 0 ? arg.substring(2, equals) : arg.substring(2),
+                        equals > 0 ? arg.substring(equals + 1) : "true");
+            } else {
+                file = Path.of(arg);
+            }
+        }
+        if (file == null || !Files.isRegularFile(file)) {
+            System.err.println("Usage: OsmImporter <extrait.osm.pbf|.osm|.osm.gz> [--url=jdbc:postgresql://...]"
+                    + " [--user=...] [--password=...] [--jobs=4] [--batch-size=50000] [--replace]");
+            System.exit(2);
+        }
+
+        new OsmImporter(file,
+                options.getOrDefault("url", "jdbc:postgresql://localhost:5432/planning_map_db"),
+                options.getOrDefault("user", "postgres"),
+                options.getOrDefault("password", System.getenv("PGPASSWORD")),
+                Integer.parseInt(options.getOrDefault("jobs",
+                        String.valueOf(Math.min(4, Runtime.getRuntime().availableProcessors())))),
+                Integer.parseInt(options.getOrDefault("batch-size", "50000")),
+                Boolean.parseBoolean(options.getOrDefault("replace", "false")))
+                .run();
+    }
+
+    public void run() throws Exception {
+        long startTime = System.currentTimeMillis();
+
+        // 1. Recensement des nœuds des routes retenues
+        OsmNodeTable nodes = new OsmNodeTable(1 << 20);
+        long[] ways = new long[1];
+        OsmFileReader.read(file, new OsmHandler() {
+            @Override
+            public boolean wantsNodes() {
+                return false;
+            }
+
+            @Override
+            public void way(long id, long[] nodeRefs, Map<String, String> tags) {
+                if (nodeRefs.length < 2 || OsmHighway.roadType(tags) == null) {
+                    return;
+                }
+                ways[0]++;
+                for (int i = 0; i < nodeRefs.length; i++) {
+                    nodes.markUse(nodeRefs[i], i == 0 || i == nodeRefs.length - 1);
+                }
+            }
+        });
+        nodes.freeze();
+        log.info("Passe 1/3 : {} routes, {} nœuds routiers ({} ms)", ways[0], nodes.size(),
+                System.currentTimeMillis() - startTime);
+
+        try (Connection admin = connect(); PgCopyLoader loader = new PgCopyLoader(this::connect, jobs)) {
+            List<String> indexes = prepareTables(admin);
+
+            // 2. Coordonnées, intersections -> road_nodes
+            long passStart = System.currentTimeMillis();
+            NodeWriter nodeWriter = new NodeWriter(nodes, loader);
+            OsmFileReader.read(file, nodeWriter);
+            nodeWriter.finish();
+            log.info("Passe 2/3 : {} nœuds du graphe chargés ({} ms)", nodeWriter.nextNodeId - 1,
+                    System.currentTimeMillis() - passStart);
+
+            // 3. Tronçons entre intersections -> road_edges
+            passStart = System.currentTimeMillis();
+            long rowsBefore = loader.getRowsLoaded();
+            EdgeWriter edgeWriter = new EdgeWriter(nodes, loader);
+            OsmFileReader.read(file, edgeWriter);
+            edgeWriter.finish();
+            log.info("Passe 3/3 : {} arêtes chargées, {} tronçons ignorés (nœuds hors extrait) ({} ms)",
+                    loader.getRowsLoaded() - rowsBefore, edgeWriter.skipped, System.currentTimeMillis() - passStart);
+
+            finishTables(admin, indexes);
+        }
+        log.info("✅ Import OSM terminé en {} s", (System.currentTimeMillis() - startTime) / 1000);
+    }
+
+    /**
+     * Vide le réseau (--replace) et supprime les index secondaires ; les clés
+     * primaires restent (contrôle de la clé étrangère des arêtes).
+     *
+     * Les node_id et edge_id étant réattribués, les données qui les
+     * référencent sont invalidées : cache calculated_routes vidé, surcharges
+     * edge_weight_overrides par arête supprimées (celles par voie OSM restent
+     * valables). speed_profiles ne désigne les arêtes que par type de route
+     * et zone : il est conservé.
+     *
+     * @return Définitions des index supprimés
+     */
+    private List<String> prepareTables(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            try (ResultSet existing = statement.executeQuery("SELECT EXISTS (SELECT 1 FROM road_nodes)")) {
+                existing.next();
+                if (existing.getBoolean(1) && !replace) {
+                    throw new IllegalStateException(
+                            "road_nodes n'est pas vide : relancer avec --replace pour remplacer le réseau");
+                }
+            }
+            statement.execute("TRUNCATE road_edges, road_nodes RESTART IDENTITY");
+            if (tableExists(statement, "calculated_routes")) {
+                statement.execute("TRUNCATE calculated_routes");
+            }
+            if (tableExists(statement, "edge_weight_overrides")) {
+                int deleted = statement.executeUpdate("DELETE FROM edge_weight_overrides WHERE edge_id IS NOT NULL");
+                if (deleted > 0) {
+                    log.warn("{} surcharge(s) par arête supprimée(s) : edge_id réattribués", deleted);
+                }
+            }
+
+            List<String> names = new ArrayList<>();
+            List<String> definitions = new ArrayList<>();
+            try (ResultSet rows = statement.executeQuery("SELECT indexname, indexdef FROM pg_indexes"
+                    + " WHERE schemaname = current_schema() AND tablename IN ('road_nodes', 'road_edges')"
+                    + " AND indexname NOT IN (SELECT conname FROM pg_constraint)")) {
+                while (rows.next()) {
+                    names.add(rows.getString(1));
+                    definitions.add(rows.getString(2));
+                }
+            }
+            for (String name : names) {
+                statement.execute("DROP INDEX " + name);
+            }
+            log.info("Réseau vidé, {} index secondaires suspendus pendant le chargement", names.size());
+            return definitions;
+        }
+    }
+
+    /** Table du schéma courant créée (migration appliquée) */
+    private static boolean tableExists(Statement statement, String table) throws SQLException {
+        try (ResultSet rows = statement.executeQuery("SELECT to_regclass('" + table + "') IS NOT NULL")) {
+            rows.next();
+            return rows.getBoolean(1);
+        }
+    }
+
+    private void finishTables(Connection connection, List<String> indexes) throws SQLException {
+        long startTime = System.currentTimeMillis();
+        try (Statement statement = connection.createStatement()) {
+            for (String definition : indexes) {
+                statement.execute(definition);
+            }
+            // node_id attribués par l'import : la séquence reprend après
+            statement.execute("SELECT setval(pg_get_serial_sequence('road_nodes', 'node_id'),"
+                    + " GREATEST(COALESCE(MAX(node_id), 0), 1)) FROM road_nodes");
+            for (String table : TABLES) {
+                statement.execute("ANALYZE " + table);
+            }
+        }
+        log.info("{} index recréés ({} ms)", indexes.size(), System.currentTimeMillis() - startTime);
+    }
+
+    private Connection connect() {
+        try {
+            return DriverManager.getConnection(url, credentials);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Connexion PostgreSQL impossible (" + url + "): " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Lots COPY d'une table : un nouveau lot part dès que le précédent est
+     * plein.
+     */
+    private abstract class BatchWriter implements OsmHandler {
+        private final PgCopyLoader loader;
+        private final String copySql;
+        protected PgCopyLoader.Batch batch;
+
+        BatchWriter(PgCopyLoader loader, String copySql) {
+            this.loader = loader;
+            this.copySql = copySql;
+            this.batch = new PgCopyLoader.Batch(copySql);
+        }
+
+        protected void rowWritten() {
+            if (batch.rowCount() >= batchSize) {
+                submit();
+                batch = new PgCopyLoader.Batch(copySql);
+            }
+        }
+
+        private void submit() {
+            try {
+                loader.submit(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Import interrompu", e);
+            }
+        }
+
+        /** Envoie le dernier lot et attend la fin du chargement de la table */
+        void finish() throws InterruptedException {
+            submit();
+            loader.flush();
+        }
+    }
+
+    private final class NodeWriter extends BatchWriter {
+        private final OsmNodeTable nodes;
+        private final StringBuilder point = new StringBuilder(64);
+        private int nextNodeId = 1;
+
+        NodeWriter(OsmNodeTable nodes, PgCopyLoader loader) {
+            super(loader, NODE_COPY);
+            this.nodes = nodes;
+        }
+
+        @Override
+        public boolean wantsWays() {
+            return false;
+        }
+
+        @Override
+        public void node(long id, double latitude, double longitude) {
+            int slot = nodes.find(id);
+            if (slot < 0) {
+                return;
+            }
+            nodes.setCoordinates(slot, latitude, longitude);
+            if (!nodes.isJunction(slot)) {
+                return;
+            }
+            int nodeId = nextNodeId++;
+            nodes.setNodeId(slot, nodeId);
+
+            point.setLength(0);
+            point.append("SRID=4326;POINT(");
+            appendCoordinate(point, nodes.longitude(slot)).append(' ');
+            appendCoordinate(point, nodes.latitude(slot)).append(')');
+
+            batch.raw(Integer.toString(nodeId)).raw(Long.toString(id))
+                    .raw(appendCoordinate(new StringBuilder(12), nodes.latitude(slot)))
+                    .raw(appendCoordinate(new StringBuilder(12), nodes.longitude(slot)))
+                    .value("junction").raw(point);
+            batch.endRow();
+            rowWritten();
+        }
+    }
+
+    private final class EdgeWriter extends BatchWriter {
+        private final OsmNodeTable nodes;
+        private final StringBuilder line = new StringBuilder(1024);
+        /** Nœuds (positions dans la table) du tronçon en cours */
+        private int[] path = new int[256];
+        private long skipped;
+
+        EdgeWriter(OsmNodeTable nodes, PgCopyLoader loader) {
+            super(loader, EDGE_COPY);
+            this.nodes = nodes;
+        }
+
+        @Override
+        public boolean wantsNodes() {
+            return false;
+        }
+
+        @Override
+        public void way(long wayId, long[] nodeRefs, Map<String, String> tags) {
+            String roadType = OsmHighway.roadType(tags);
+            if (nodeRefs.length < 2 || roadType == null) {
+                return;
+            }
+            int direction = OsmHighway.oneWay(tags, roadType);
+            int speedKmh = OsmHighway.maxSpeedKmh(tags, roadType);
+            String roadName = OsmHighway.roadName(tags);
+
+            int length = 0;
+            double meters = 0;
+            for (long ref : nodeRefs) {
+                int slot = nodes.find(ref);
+                if (slot < 0 || !nodes.hasCoordinates(slot)) {
+                    // Nœud hors de l'extrait : le tronçon en cours est abandonné
+                    if (length > 0) {
+                        skipped++;
+                    }
+                    length = 0;
+                    meters = 0;
+                    continue;
+                }
+                if (length > 0) {
+                    int previous = path[length - 1];
+                    meters += haversineMeters(nodes.latitude(previous), nodes.longitude(previous),
+                            nodes.latitude(slot), nodes.longitude(slot));
+                    if (length == path.length) {
+                        path = Arrays.copyOf(path, length * 2);
+                    }
+                    path[length++] = slot;
+                }
+                if (nodes.isJunction(slot)) {
+                    if (length > 1 && path[0] != slot) {
+                        writeEdge(wayId, length, meters, direction, speedKmh, roadType, roadName);
+                    }
+                    path[0] = slot;
+                    length = 1;
+                    meters = 0;
+                }
+            }
+        }
+
+        private void writeEdge(long wayId, int length, double meters, int direction, int speedKmh,
+                String roadType, String roadName) {
+            boolean reversed = direction < 0;
+            int source = path[reversed ? length - 1 : 0];
+            int target = path[reversed ? 0 : length - 1];
+
+            line.setLength(0);
+            line.append("SRID=4326;LINESTRING(");
+            for (int i = 0; i < length; i++) {
+                int slot = path[reversed ? length - 1 - i : i];
+                if (i > 0) {
+                    line.append(',');
+                }
+                appendCoordinate(line, nodes.longitude(slot)).append(' ');
+                appendCoordinate(line, nodes.latitude(slot));
+            }
+            line.append(')');
+
+            int travelTimeSeconds = (int) Math.ceil(meters / 1000.0 / speedKmh * 3600);
+            batch.raw(Integer.toString(nodes.nodeId(source))).raw(Integer.toString(nodes.nodeId(target)))
+                    .raw(Double.toString(Math.round(meters) / 1000.0))
+                    .raw(Double.toString(meters))
+                    .raw(Integer.toString(speedKmh))
+                    .value(roadType).value(roadName)
+                    .raw(direction != 0 ? "t" : "f")
+                    .raw(Integer.toString(travelTimeSeconds))
+                    .raw(Long.toString(wayId))
+                    .raw(line);
+            batch.endRow();
+            rowWritten();
+        }
+    }
+
+    /**
+     * Coordonnée à 7 décimales (précision OSM), sans notation scientifique.
+     */
+    private static StringBuilder appendCoordinate(StringBuilder builder, double degrees) {
+        long fixed = Math.round(degrees * 1e7);
+        if (fixed < 0) {
+            builder.append('-');
+            fixed = -fixed;
+        }
+        builder.append(fixed / 10_000_000).append('.');
+        String decimals = Long.toString(fixed % 10_000_000);
+        for (int i = decimals.length(); i < 7; i++) {
+            builder.append('0');
+        }
+        return builder.append(decimals);
+    }
+
+    static double haversineMeters(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                        * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 6_371_000.0 * 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    }
+}
@@ -0,0 +1,137 @@
+package com.enspy.tripplanning.routing.osm;
+
+import java.util.Arrays;
+
+/**
+ * Nœuds OSM des routes retenues, en tableaux primitifs (adressage ouvert,
+ * sondage linéaire) : environ 35 octets par nœud, contre plus de 100 pour
+ * une HashMap d'objets.
+ *
+ * Pour chaque nœud : nombre de chemins qui l'utilisent (plafonné à 2 :
+ * intersection), coordonnées en 1e-7 degré et node_id attribué dans
+ * road_nodes (0 = pas un nœud du graphe).
+ */
+final class OsmNodeTable {
+
+    private static final double LOAD_FACTOR = 0.6;
+    private static final double COORDINATE_SCALE = 1e7;
+    /** Marque d'un nœud sans coordonnées (absent de l'extrait) */
+    private static final int NO_COORDINATE = Integer.MIN_VALUE;
+
+    private long[] keys;
+    private byte[] uses;
+    private int[] latitudes;
+    private int[] longitudes;
+    private int[] nodeIds;
+    private int size;
+    private int mask;
+
+    OsmNodeTable(int expectedNodes) {
+        int capacity = Integer.highestOneBit(Math.max(16, (int) (expectedNodes / LOAD_FACTOR)) - 1) << 1;
+        allocate(capacity);
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        uses = new byte[capacity];
+        mask = capacity - 1;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Enregistre une utilisation du nœud par un chemin ; une extrémité de
+     * chemin compte comme une intersection.
+     */
+    void markUse(long osmId, boolean endpoint) {
+        if (size + 1 > keys.length * LOAD_FACTOR) {
+            grow();
+        }
+        int slot = slot(osmId);
+        if (keys[slot] == 0) {
+            keys[slot] = osmId;
+            size++;
+        }
+        uses[slot] = (byte) (endpoint ? 2 : Math.min(2, uses[slot] + 1));
+    }
+
+    /**
+     * Fin du recensement des chemins : alloue les coordonnées et node_id.
+     */
+    void freeze() {
+        latitudes = new int[keys.length];
+        longitudes = new int[keys.length];
+        Arrays.fill(latitudes, NO_COORDINATE);
+        nodeIds = new int[keys.length];
+    }
+
+    /**
+     * @return Position du nœud, ou -1 s'il n'appartient à aucune route retenue
+     */
+    int find(long osmId) {
+        int slot = slot(osmId);
+        return keys[slot] == osmId ? slot : -1;
+    }
+
+    boolean isJunction(int slot) {
+        return uses[slot] >= 2;
+    }
+
+    void setCoordinates(int slot, double latitude, double longitude) {
+        latitudes[slot] = (int) Math.round(latitude * COORDINATE_SCALE);
+        longitudes[slot] = (int) Math.round(longitude * COORDINATE_SCALE);
+    }
+
+    boolean hasCoordinates(int slot) {
+        return latitudes[slot] != NO_COORDINATE;
+    }
+
+    double latitude(int slot) {
+        return latitudes[slot] / COORDINATE_SCALE;
+    }
+
+    double longitude(int slot) {
+        return longitudes[slot] / COORDINATE_SCALE;
+    }
+
+    void setNodeId(int slot, int nodeId) {
+        nodeIds[slot] = nodeId;
+    }
+
+    int nodeId(int slot) {
+        return nodeIds[slot];
+    }
+
+    private int slot(long osmId) {
+        int slot = hash(osmId) & mask;
+        while (keys[slot] != 0 && keys[slot] != osmId) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        byte[] oldUses = uses;
+        allocate(oldKeys.length * 2);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int slot = slot(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                uses[slot] = oldUses[i];
+            }
+        }
+    }
+
+    /** Mélange des bits (finaliseur de MurmurHash3) : les identifiants OSM sont très groupés */
+    private static int hash(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return (int) key;
+    }
+}
@@ -0,0 +1,189 @@
+package com.enspy.tripplanning.routing.osm;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Chargement en masse par COPY ... FROM STDIN (format texte), en lots
+ * envoyés en parallèle sur plusieurs connexions.
+ *
+ * - Chaque lot est une transaction : un lot en échec n'en annule aucun
+ * autre, mais arrête l'import (l'erreur remonte au prochain appel).
+ * - Au plus 2 lots en attente par connexion : le lecteur OSM est freiné
+ * plutôt que d'accumuler les lignes en mémoire.
+ * - {@link #flush()} attend la fin des lots envoyés (barrière entre
+ * road_nodes et road_edges, à cause de la clé étrangère).
+ */
+@Slf4j
+final class PgCopyLoader implements AutoCloseable {
+
+    private final ExecutorService workers;
+    private final BlockingQueue<Connection> connections;
+    private final int maxPending;
+    private final Semaphore pending;
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private final AtomicLong rowsLoaded = new AtomicLong();
+
+    /**
+     * @param connectionFactory Ouverture d'une connexion JDBC PostgreSQL
+     * @param parallelism       Nombre de connexions (lots simultanés)
+     */
+    PgCopyLoader(Supplier<Connection> connectionFactory, int parallelism) {
+        this.workers = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "osm-copy");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.connections = new ArrayBlockingQueue<>(parallelism);
+        for (int i = 0; i < parallelism; i++) {
+            connections.add(connectionFactory.get());
+        }
+        this.maxPending = parallelism * 2;
+        this.pending = new Semaphore(maxPending);
+    }
+
+    /**
+     * Lot de lignes au format texte de COPY, pour une table donnée.
+     */
+    static final class Batch {
+        private final String copySql;
+        private final StringBuilder rows = new StringBuilder(1 << 16);
+        private int rowCount;
+        private boolean rowStarted;
+
+        Batch(String copySql) {
+            this.copySql = copySql;
+        }
+
+        int rowCount() {
+            return rowCount;
+        }
+
+        /** Valeur d'une colonne ; null = NULL */
+        Batch value(Object value) {
+            separate();
+            if (value == null) {
+                rows.append("\\N");
+            } else {
+                escape(value.toString());
+            }
+            return this;
+        }
+
+        /** Colonne sans échappement (nombres, géométrie EWKT) */
+        Batch raw(CharSequence value) {
+            separate();
+            rows.append(value);
+            return this;
+        }
+
+        void endRow() {
+            rows.append('\n');
+            rowCount++;
+            rowStarted = false;
+        }
+
+        private void separate() {
+            if (rowStarted) {
+                rows.append('\t');
+            }
+            rowStarted = true;
+        }
+
+        private void escape(String value) {
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '\\' -> rows.append("\\\\");
+                    case '\t' -> rows.append("\\t");
+                    case '\n' -> rows.append("\\n");
+                    case '\r' -> rows.append("\\r");
+                    default -> rows.append(c);
+                }
+            }
+        }
+    }
+
+    /**
+     * Envoie le lot ; bloque tant que trop de lots sont en attente.
+     */
+    void submit(Batch batch) throws InterruptedException {
+        checkFailure();
+        if (batch.rowCount == 0) {
+            return;
+        }
+        pending.acquire();
+        byte[] data = batch.rows.toString().getBytes(StandardCharsets.UTF_8);
+        workers.execute(() -> {
+            try {
+                copy(batch.copySql, data, batch.rowCount);
+            } catch (Throwable e) {
+                failure.compareAndSet(null, e);
+            } finally {
+                pending.release();
+            }
+        });
+    }
+
+    private void copy(String copySql, byte[] data, int rowCount) throws Exception {
+        if (failure.get() != null) {
+            return;
+        }
+        Connection connection = connections.take();
+        try {
+            CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+            copyManager.copyIn(copySql, new ByteArrayInputStream(data));
+            rowsLoaded.addAndGet(rowCount);
+        } finally {
+            connections.add(connection);
+        }
+    }
+
+    /**
+     * Attend la fin de tous les lots envoyés.
+     */
+    void flush() throws InterruptedException {
+        pending.acquire(maxPending);
+        pending.release(maxPending);
+        checkFailure();
+    }
+
+    long getRowsLoaded() {
+        return rowsLoaded.get();
+    }
+
+    private void checkFailure() {
+        Throwable error = failure.get();
+        if (error != null) {
+            throw new IllegalStateException("Échec du chargement COPY: " + error.getMessage(), error);
+        }
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        workers.shutdown();
+        workers.awaitTermination(1, TimeUnit.MINUTES);
+        for (Connection connection : connections) {
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                log.warn("Fermeture de connexion: {}", e.getMessage());
+            }
+        }
+    }
+}
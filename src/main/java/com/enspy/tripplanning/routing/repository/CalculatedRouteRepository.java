@@ -15,6 +15,7 @@ public interface CalculatedRouteRepository extends R2dbcRepository<CalculatedRou
                         SELECT * FROM calculated_routes
                         WHERE from_waypoint_id = :from
                           AND to_waypoint_id = :to
+                          AND graph_version = :graphVersion
                           AND is_cached = TRUE
                           AND cache_expires_at > NOW()
                         ORDER BY created_at DESC
@@ -22,7 +23,8 @@ public interface CalculatedRouteRepository extends R2dbcRepository<CalculatedRou
                         """)
         Mono<CalculatedRoute> findCachedRoute(
                         @Param("from") Long fromWaypointId,
-                        @Param("to") Long toWaypointId);
+                        @Param("to") Long toWaypointId,
+                        @Param("graphVersion") Long graphVersion);
 
         @Query("UPDATE calculated_routes SET is_cached = FALSE WHERE trip_id = :tripId")
         Mono<Void> invalidateCacheForTrip(@Param("tripId") UUID tripId);
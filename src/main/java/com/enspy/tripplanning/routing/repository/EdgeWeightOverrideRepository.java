@@ -0,0 +1,19 @@
+package com.enspy.tripplanning.routing.repository;
+
+import com.enspy.tripplanning.routing.model.EdgeWeightOverride;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import java.util.UUID;
+
+@Repository
+public interface EdgeWeightOverrideRepository extends R2dbcRepository<EdgeWeightOverride, UUID> {
+
+        @Query("SELECT * FROM edge_weight_overrides WHERE expires_at > NOW() ORDER BY expires_at")
+        Flux<EdgeWeightOverride> findActive();
+
+        @Query("DELETE FROM edge_weight_overrides WHERE expires_at <= NOW()")
+        Mono<Long> deleteExpired();
+}
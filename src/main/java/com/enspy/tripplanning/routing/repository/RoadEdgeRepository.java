@@ -182,6 +182,30 @@ public interface RoadEdgeRepository extends R2dbcRepository<RoadEdge, Long> {
         @Query("SELECT SUM(distance_meters) / 1000.0 FROM road_edges")
         Mono<Double> calculateTotalNetworkLength();
 
+        /**
+         * Version du réseau routier : somme des hachages de toutes les lignes
+         * de road_nodes et road_edges (colonnes utilisées par le graphe
+         * résident), combinée aux nombres de lignes.
+         * 
+         * Toute insertion, suppression ou modification change la version,
+         * même sans mise à jour de updated_at (aucun trigger sur ces tables).
+         * Un seul parcours de chaque table, sans transfert de lignes.
+         * 
+         * @return Version sur 64 bits
+         */
+        @Query("""
+                        SELECT hashtextextended(concat_ws(':', n.row_count, n.row_hash, e.row_count, e.row_hash), 0)
+                        FROM (SELECT COUNT(*) AS row_count,
+                                     COALESCE(SUM(hashtext(concat_ws(',', node_id, latitude, longitude, name))), 0) AS row_hash
+                              FROM road_nodes) n,
+                             (SELECT COUNT(*) AS row_count,
+                                     COALESCE(SUM(hashtext(concat_ws(',', edge_id, osm_way_id, source_node_id, target_node_id,
+                                             distance_km, distance_meters, max_speed_kmh, travel_time_seconds,
+                                             road_type, road_name, one_way))), 0) AS row_hash
+                              FROM road_edges) e
+                        """)
+        Mono<Long> findNetworkVersion();
+
         /**
          * Trouve les arêtes avec une vitesse minimale.
          * Utile pour calculer des routes "rapides" uniquement.
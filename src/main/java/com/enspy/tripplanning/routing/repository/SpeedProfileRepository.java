@@ -0,0 +1,14 @@
+package com.enspy.tripplanning.routing.repository;
+
+import com.enspy.tripplanning.routing.model.SpeedProfile;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+@Repository
+public interface SpeedProfileRepository extends R2dbcRepository<SpeedProfile, Integer> {
+
+        @Query("SELECT * FROM speed_profiles WHERE enabled = TRUE ORDER BY priority, profile_id")
+        Flux<SpeedProfile> findActiveByPriority();
+}
@@ -1,17 +1,27 @@
 package com.enspy.tripplanning.routing.service;
 
+import com.enspy.tripplanning.routing.engine.BidirectionalAStar;
+import com.enspy.tripplanning.routing.engine.IndexedDaryHeap;
+import com.enspy.tripplanning.routing.engine.SearchContext;
+import com.enspy.tripplanning.routing.engine.SearchContextPool;
+import com.enspy.tripplanning.routing.engine.SearchEffort;
+import com.enspy.tripplanning.routing.engine.TiledAStar;
+import com.enspy.tripplanning.routing.engine.alt.LandmarkTable;
+import com.enspy.tripplanning.routing.exception.RoutingOverloadedException;
+import com.enspy.tripplanning.routing.graph.RoadGraph;
 import com.enspy.tripplanning.routing.model.RoadEdge;
 import com.enspy.tripplanning.routing.model.RoadNode;
 import com.enspy.tripplanning.routing.model.Route;
-import com.enspy.tripplanning.routing.repository.RoadEdgeRepository;
+import com.enspy.tripplanning.routing.model.SearchAlgorithm;
 import com.enspy.tripplanning.routing.repository.RoadNodeRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
 
 import java.util.*;
+import java.util.concurrent.Callable;
 
 /**
  * Implémentation de l'algorithme A* pour le calcul de plus court chemin.
@@ -45,6 +55,19 @@ import java.util.*;
  * - Trajet 100-500 km : 100-500 ms
  * - Trajet > 500 km : 500-2000 ms
  * 
+ * GRAPHE RÉSIDENT:
+ * Lorsque le {@link RoadGraph} est chargé (voir {@link RoadGraphService}),
+ * la recherche s'effectue directement sur les tableaux CSR en mémoire, sans
+ * aucune requête PostGIS. Tant que le graphe n'est pas prêt (ou s'il n'est
+ * pas préchargé, quand le réseau ne tient pas en mémoire), la recherche
+ * parcourt des tuiles chargées à la demande, sans bloquer de thread (voir
+ * {@link TiledAStar}).
+ * 
+ * HEURISTIQUE ALT:
+ * Dès que {@link LandmarkService} a préparé les tables de landmarks, h(v)
+ * devient la meilleure borne de l'inégalité triangulaire sur les landmarks,
+ * bien plus serrée que distance / 130 km/h sur un réseau lent.
+ * 
  * @author Thomas Djotio Ndié
  * @version 1.0
  * @since 2024-12-15
@@ -55,8 +78,12 @@ import java.util.*;
 public class AStarService {
 
     private final RoadNodeRepository nodeRepository;
-    private final RoadEdgeRepository edgeRepository;
     private final RoutingOptimizationService optimizationService;
+    private final RoadGraphService graphService;
+    private final LandmarkService landmarkService;
+    private final SubgraphTileCache tileCache;
+    private final RoutingExecutor routingExecutor;
+    private final RoutingMetrics routingMetrics;
 
     /**
      * Vitesse maximale théorique pour l'heuristique (km/h)
@@ -64,6 +91,19 @@ public class AStarService {
      */
     private static final double MAX_SPEED_KMH = 130.0;
 
+    /**
+     * Recherche bidirectionnelle sur le graphe résident
+     */
+    @Value("${application.routing.astar.bidirectional:true}")
+    private boolean bidirectional;
+
+    /**
+     * Distance à vol d'oiseau (km) au-delà de laquelle les deux recherches
+     * s'exécutent sur deux cœurs (0 = jamais)
+     */
+    @Value("${application.routing.astar.parallel-min-distance-km:300}")
+    private double parallelMinDistanceKm;
+
     /**
      * Calcule le plus court chemin entre deux nœuds en utilisant A*.
      * 
@@ -94,6 +134,22 @@ public class AStarService {
      */
     public Mono<Route> calculateShortestPath(Long startNodeId, Long endNodeId,
             com.enspy.tripplanning.routing.model.Subgraph subgraph) {
+        return calculateShortestPath(startNodeId, endNodeId, subgraph, null);
+    }
+
+    /**
+     * @param bidirectional Force (true) ou désactive (false) la recherche
+     *                      bidirectionnelle sur le graphe résident ; null pour
+     *                      suivre application.routing.astar.bidirectional
+     */
+    public Mono<Route> calculateShortestPath(Long startNodeId, Long endNodeId,
+            com.enspy.tripplanning.routing.model.Subgraph subgraph, Boolean bidirectional) {
+        RoadGraph graph = graphService.getGraph();
+        if (graph != null) {
+            return calculateOnGraph(graph, startNodeId, endNodeId,
+                    bidirectional != null ? bidirectional : this.bidirectional);
+        }
+
         long startTime = System.currentTimeMillis();
 
         log.debug("Calcul A* : {} → {}", startNodeId, endNodeId);
@@ -101,27 +157,73 @@ public class AStarService {
         return Mono.zip(
                 nodeRepository.findById(startNodeId),
                 nodeRepository.findById(endNodeId))
-                .publishOn(Schedulers.boundedElastic())
                 .flatMap(tuple -> {
                     RoadNode start = tuple.getT1();
                     RoadNode end = tuple.getT2();
 
-                    // Exécuter A* (avec ou sans sous-graphe)
-                    Route route = executeAStar(start, end, subgraph);
+                    // Sous-graphe fourni, sinon recherche sur les tuiles chargées à la demande
+                    Mono<Route> search = subgraph != null
+                            ? routingExecutor.submit(() -> executeAStar(start, end, subgraph))
+                            : executeTiled(start, end);
+
+                    return search.map(route -> {
+                        long computationTime = System.currentTimeMillis() - startTime;
+                        route.setComputationTimeMs(computationTime);
+                        if (route.getAlgorithm() == null) {
+                            route.setAlgorithm(SearchAlgorithm.SUBGRAPH_ASTAR);
+                        }
+                        routingMetrics.record(route);
+
+                        log.info("A* terminé en {}ms - Chemin trouvé: {}, Distance: {} km, Nœuds explorés: {}",
+                                computationTime, route.getFound(), route.getTotalDistanceKm(),
+                                route.getNodesExplored());
+                        return route;
+                    });
+                })
+                .switchIfEmpty(Mono.just(Route.builder()
+                        .found(false)
+                        .errorMessage("Nœud de départ ou d'arrivée introuvable")
+                        .build()))
+                .onErrorResume(error -> !(error instanceof RoutingOverloadedException), error -> {
+                    log.error("Erreur lors du calcul A*", error);
+                    return Mono.just(Route.builder()
+                            .found(false)
+                            .errorMessage("Erreur: " + error.getMessage())
+                            .build());
+                });
+    }
+
+    /**
+     * Calcule le plus court chemin sur le graphe résident en mémoire.
+     */
+    private Mono<Route> calculateOnGraph(RoadGraph graph, Long startNodeId, Long endNodeId, boolean bidirectional) {
+        long startTime = System.currentTimeMillis();
+
+        int start = graph.indexOf(startNodeId);
+        int end = graph.indexOf(endNodeId);
+        if (start < 0 || end < 0) {
+            return Mono.just(Route.builder()
+                    .found(false)
+                    .errorMessage("Nœud de départ ou d'arrivée introuvable")
+                    .build());
+        }
 
+        log.debug("Calcul A* (graphe résident) : {} → {}", startNodeId, endNodeId);
+
+        LandmarkTable landmarks = landmarkService.getTable(graph);
+        return routingExecutor.submit(() -> bidirectional
+                ? executeBidirectional(graph, start, end, landmarks, isLongDistance(graph, start, end))
+                : executeOnGraph(graph, start, end, landmarks))
+                .map(route -> {
                     long computationTime = System.currentTimeMillis() - startTime;
                     route.setComputationTimeMs(computationTime);
+                    routingMetrics.record(route);
 
                     log.info("A* terminé en {}ms - Chemin trouvé: {}, Distance: {} km, Nœuds explorés: {}",
                             computationTime, route.getFound(), route.getTotalDistanceKm(), route.getNodesExplored());
-
-                    return Mono.just(route);
+                    return route;
                 })
-                .switchIfEmpty(Mono.just(Route.builder()
-                        .found(false)
-                        .errorMessage("Nœud de départ ou d'arrivée introuvable")
-                        .build()))
-                .onErrorResume(error -> {
+                .onErrorResume(error -> !(error instanceof RoutingOverloadedException), error -> {
                     log.error("Erreur lors du calcul A*", error);
                     return Mono.just(Route.builder()
                             .found(false)
@@ -130,8 +232,54 @@ public class AStarService {
                 });
     }
 
+    /**
+     * A* sans graphe résident : les tuiles sont lues à la demande dans
+     * {@link SubgraphTileCache}, au fur et à mesure que la frontière les
+     * atteint.
+     *
+     * Chaque tronçon de recherche est un calcul du {@link RoutingExecutor}.
+     * Lorsqu'une tuile manque, la recherche est suspendue ({@link TiledAStar})
+     * et reprend par un nouveau calcul à l'arrivée de la tuile : aucun
+     * thread ne reste bloqué sur une requête.
+     */
+    private Mono<Route> executeTiled(RoadNode start, RoadNode end) {
+        TiledAStar search = new TiledAStar(start, end,
+                node -> tileCache.tileKey(node.getLatitude(), node.getLongitude()),
+                tileCache::getCachedTile,
+                this::heuristic);
+        // Temps cumulé d'attente des tuiles (les reprises ne se chevauchent pas)
+        long[] loadNanos = new long[1];
+        return resume(search, loadNanos, search::run)
+                .doOnNext(route -> {
+                    route.setSubgraphLoadTimeNanos(loadNanos[0]);
+                    log.debug("A* par tuiles: {} tuiles parcourues", search.getTileCount());
+                });
+    }
+
+    private Mono<Route> resume(TiledAStar search, long[] loadNanos, Callable<Long> step) {
+        return routingExecutor.submit(step)
+                .flatMap(missing -> {
+                    if (missing == TiledAStar.DONE) {
+                        return Mono.just(search.toRoute());
+                    }
+                    return tileCache.getTile(missing)
+                            .timed()
+                            .flatMap(tile -> {
+                                loadNanos[0] += tile.elapsed().toNanos();
+                                return resume(search, loadNanos, () -> {
+                                    search.addTile(missing, tile.get());
+                                    return search.run();
+                                });
+                            });
+                });
+    }
+
     /**
      * Charge une portion du graphe en mémoire.
+     *
+     * Le sous-graphe est assemblé à partir des tuiles de
+     * {@link SubgraphTileCache} : seules les tuiles absentes du cache sont
+     * lues dans PostGIS.
      */
     public Mono<com.enspy.tripplanning.routing.model.Subgraph> fetchSubgraph(Double minLat, Double minLon,
             Double maxLat, Double maxLon) {
@@ -143,38 +291,141 @@ public class AStarService {
         Double fMaxLat = maxLat + margin;
         Double fMaxLon = maxLon + margin;
 
-        log.info("Chargement du sous-graphe en mémoire [{}, {}] -> [{}, {}]", fMinLat, fMinLon, fMaxLat, fMaxLon);
+        log.debug("Sous-graphe demandé [{}, {}] -> [{}, {}]", fMinLat, fMinLon, fMaxLat, fMaxLon);
 
-        return edgeRepository.findEdgesInBoundingBox(fMinLat, fMinLon, fMaxLat, fMaxLon)
-                .collectList()
-                .flatMap(edges -> {
-                    // Collecter tous les IDs de nœuds référencés par les arêtes
-                    java.util.Set<Long> nodeIds = new java.util.HashSet<>();
-                    for (RoadEdge edge : edges) {
-                        nodeIds.add(edge.getSourceNodeId());
-                        nodeIds.add(edge.getTargetNodeId());
-                    }
+        return tileCache.getSubgraph(fMinLat, fMinLon, fMaxLat, fMaxLon);
+    }
 
-                    // Charger aussi les nœuds qui sont dans la bbox (même sans arêtes)
-                    // pour s'assurer que les points de snapping sont présents
-                    return nodeRepository.findNodesInBoundingBox(fMinLat, fMinLon, fMaxLat, fMaxLon)
-                            .collectList()
-                            .flatMap(nodesInBox -> {
-                                for (RoadNode node : nodesInBox) {
-                                    nodeIds.add(node.getNodeId());
-                                }
-
-                                // Charger tous les nœuds par ID
-                                return nodeRepository.findAllById(nodeIds).collectList()
-                                        .map(allNodes -> {
-                                            com.enspy.tripplanning.routing.model.Subgraph subgraph = new com.enspy.tripplanning.routing.model.Subgraph();
-                                            subgraph.index(allNodes, edges);
-                                            log.info("Sous-graphe indexé: {} nœuds, {} arêtes", allNodes.size(),
-                                                    edges.size());
-                                            return subgraph;
-                                        });
-                            });
-                });
+    /**
+     * A* sur le graphe CSR, sans allocation dans la boucle principale :
+     * - g et prédécesseurs dans les tableaux du {@link SearchContext} du thread
+     * (remis à zéro en O(1) par numéro de version),
+     * - openSet = tas 4-aire indexé avec decrease-key (un nœud n'y figure
+     * qu'une fois),
+     * - closedSet = marque "fixé" du contexte.
+     *
+     * @param landmarks Tables ALT (heuristique par landmarks), ou null pour
+     *                  l'heuristique distance / vitesse_max
+     */
+    public Route executeOnGraph(RoadGraph graph, int start, int end, LandmarkTable landmarks) {
+        int[] firstOut = graph.getFirstOut();
+        int[] arcHead = graph.getArcHead();
+        int[] arcWeight = graph.getArcWeight();
+
+        SearchContext ctx = SearchContextPool.acquire(graph.getNodeCount(), 0);
+        IndexedDaryHeap openSet = ctx.heap();
+
+        ctx.label(start, 0, -1);
+        openSet.push(start, heuristicSeconds(graph, landmarks, start, end));
+
+        int nodesExplored = 0;
+
+        while (!openSet.isEmpty()) {
+            int current = openSet.popMin();
+            ctx.settle(current);
+            nodesExplored++;
+
+            if (current == end) {
+                Route route = reconstructPath(graph, ctx, start, end, nodesExplored);
+                route.setAlgorithm(SearchAlgorithm.ASTAR);
+                return SearchEffort.record(route, ctx);
+            }
+
+            ctx.countRelaxed(firstOut[current + 1] - firstOut[current]);
+            int gCurrent = ctx.dist(current);
+            for (int arc = firstOut[current]; arc < firstOut[current + 1]; arc++) {
+                int neighbor = arcHead[arc];
+                if (ctx.isSettled(neighbor) || arcWeight[arc] >= RoadGraph.CLOSED_WEIGHT)
+                    continue;
+
+                int tentativeG = gCurrent + arcWeight[arc];
+                if (!ctx.isReached(neighbor)) {
+                    ctx.label(neighbor, tentativeG, arc);
+                    openSet.push(neighbor, tentativeG + heuristicSeconds(graph, landmarks, neighbor, end));
+                } else if (tentativeG < ctx.dist(neighbor)) {
+                    ctx.label(neighbor, tentativeG, arc);
+                    openSet.decreaseKey(neighbor, tentativeG + heuristicSeconds(graph, landmarks, neighbor, end));
+                }
+            }
+        }
+
+        log.warn("❌ Aucun chemin trouvé entre {} et {} après exploration de {} nœuds",
+                graph.getNodeName(start), graph.getNodeName(end), nodesExplored);
+
+        return SearchEffort.record(Route.builder()
+                .startNode(graph.toRoadNode(start))
+                .endNode(graph.toRoadNode(end))
+                .found(false)
+                .nodesExplored(nodesExplored)
+                .algorithm(SearchAlgorithm.ASTAR)
+                .errorMessage("Aucun chemin trouvé")
+                .build(), ctx);
+    }
+
+    /**
+     * A* bidirectionnelle sur le graphe CSR (voir {@link BidirectionalAStar}) :
+     * la recherche arrière parcourt le graphe inverse, les sens uniques sont
+     * donc respectés. Explore environ deux fois moins de nœuds sur les longs
+     * trajets.
+     *
+     * @param parallel true pour confier la recherche arrière à un second
+     *                 thread du {@link RoutingExecutor}, dans la voie du
+     *                 calcul en cours
+     */
+    public Route executeBidirectional(RoadGraph graph, int start, int end, LandmarkTable landmarks,
+            boolean parallel) {
+        SearchContext forward = SearchContextPool.acquire(graph.getNodeCount(), 0);
+        SearchContext backward = SearchContextPool.acquire(graph.getNodeCount(), 1);
+        BidirectionalAStar.Heuristic heuristic = (from, to) -> heuristicSeconds(graph, landmarks, from, to);
+
+        Route route = parallel
+                ? BidirectionalAStar.searchParallel(graph, start, end, heuristic, forward, backward,
+                        routingExecutor::fork)
+                : BidirectionalAStar.search(graph, start, end, heuristic, forward, backward);
+        if (route == null) {
+            log.warn("❌ Aucun chemin trouvé entre {} et {} (recherche bidirectionnelle)",
+                    graph.getNodeName(start), graph.getNodeName(end));
+
+            route = Route.builder()
+                    .startNode(graph.toRoadNode(start))
+                    .endNode(graph.toRoadNode(end))
+                    .found(false)
+                    .errorMessage("Aucun chemin trouvé")
+                    .build();
+        }
+        route.setAlgorithm(SearchAlgorithm.BIDIRECTIONAL_ASTAR);
+        return SearchEffort.record(route, forward, backward);
+    }
+
+    private boolean isLongDistance(RoadGraph graph, int start, int end) {
+        return parallelMinDistanceKm > 0 && calculateHaversine(
+                graph.getLatitudes()[start], graph.getLongitudes()[start],
+                graph.getLatitudes()[end], graph.getLongitudes()[end]) >= parallelMinDistanceKm;
+    }
+
+    /**
+     * Reconstruit le chemin depuis les arcs prédécesseurs du contexte : chaque
+     * nœud connaît directement l'arc par lequel il a été atteint (plus de
+     * parcours linéaire des listes de voisins).
+     */
+    private Route reconstructPath(RoadGraph graph, SearchContext ctx, int start, int end, int nodesExplored) {
+        int length = 0;
+        int[] buffer = ctx.pathBuffer(64);
+        for (int v = end; v != start; v = graph.arcTail(ctx.parentArc(v))) {
+            if (length == buffer.length) {
+                buffer = ctx.pathBuffer(length + 1);
+            }
+            buffer[length++] = ctx.parentArc(v);
+        }
+
+        // Les arcs ont été collectés de l'arrivée vers le départ
+        for (int i = 0, j = length - 1; i < j; i++, j--) {
+            int tmp = buffer[i];
+            buffer[i] = buffer[j];
+            buffer[j] = tmp;
+        }
+
+        return graph.toRoute(start, end, buffer, length, nodesExplored);
     }
 
     private Route executeAStar(RoadNode start, RoadNode end, com.enspy.tripplanning.routing.model.Subgraph subgraph) {
@@ -199,12 +450,7 @@ public class AStarService {
             nodesExplored++;
             closedSet.add(currentId);
 
-            RoadNode currentNode;
-            if (subgraph != null) {
-                currentNode = subgraph.getNode(currentId);
-            } else {
-                currentNode = nodeRepository.findById(currentId).block();
-            }
+            RoadNode currentNode = subgraph.getNode(currentId);
 
             if (currentNode == null) {
                 log.warn("Nœud {} non trouvé dans le graphe/sous-graphe", currentId);
@@ -219,12 +465,7 @@ public class AStarService {
             }
 
             // Récupérer les voisins
-            List<RoadEdge> neighborEdges;
-            if (subgraph != null) {
-                neighborEdges = subgraph.getNeighbors(currentId);
-            } else {
-                neighborEdges = edgeRepository.findNeighborEdges(currentId).collectList().block();
-            }
+            List<RoadEdge> neighborEdges = subgraph.getNeighbors(currentId);
 
             if (neighborEdges == null || neighborEdges.isEmpty()) {
                 log.debug("   ↳ Aucun voisin pour le nœud {}", currentId);
@@ -265,8 +506,7 @@ public class AStarService {
                     cameFrom.put(neighborId, currentId);
                     g.put(neighborId, tentativeG);
 
-                    RoadNode neighborNode = (subgraph != null) ? subgraph.getNode(neighborId)
-                            : nodeRepository.findById(neighborId).block();
+                    RoadNode neighborNode = subgraph.getNode(neighborId);
                     if (neighborNode != null) {
                         double fScore = tentativeG + heuristic(neighborNode, end);
                         f.put(neighborId, fScore);
@@ -315,6 +555,26 @@ public class AStarService {
         return timeHours * 3600;
     }
 
+    /**
+     * Heuristique h(v) sur le graphe résident.
+     *
+     * - ALT (tables de landmarks disponibles) : max des bornes de l'inégalité
+     * triangulaire, toujours admissible et cohérente.
+     * - Sinon : mêmes hypothèses que ci-dessus, arrondie à la seconde
+     * inférieure pour des clés entières. Sur le réseau camerounais, où
+     * certains temps de parcours supposent plus de 130 km/h à vol d'oiseau,
+     * cette borne n'est pas strictement admissible.
+     */
+    int heuristicSeconds(RoadGraph graph, LandmarkTable landmarks, int node, int goal) {
+        if (landmarks != null) {
+            return landmarks.lowerBound(node, goal);
+        }
+        double distanceKm = calculateHaversine(
+                graph.getLatitudes()[node], graph.getLongitudes()[node],
+                graph.getLatitudes()[goal], graph.getLongitudes()[goal]);
+        return (int) (distanceKm / MAX_SPEED_KMH * 3600);
+    }
+
     /**
      * Formule de Haversine pour calculer la distance entre deux points GPS.
      */
@@ -359,28 +619,19 @@ public class AStarService {
         while (cameFrom.containsKey(current)) {
             Long previous = cameFrom.get(current);
 
-            // Trouver l'arête (depuis le sous-graphe ou la DB)
-            RoadEdge edge;
-            if (subgraph != null) {
-                Long finalPrevious = previous;
-                Long finalCurrent = current;
-                edge = subgraph.getNeighbors(previous).stream()
-                        .filter(e -> getNeighborId(e, finalPrevious).equals(finalCurrent))
-                        .findFirst()
-                        .orElse(null);
-            } else {
-                edge = edgeRepository
-                        .findBySourceNodeIdAndTargetNodeId(previous, current)
-                        .switchIfEmpty(edgeRepository.findBySourceNodeIdAndTargetNodeId(current, previous))
-                        .block();
-            }
+            // Trouver l'arête dans le sous-graphe
+            Long finalPrevious = previous;
+            Long finalCurrent = current;
+            RoadEdge edge = subgraph.getNeighbors(previous).stream()
+                    .filter(e -> getNeighborId(e, finalPrevious).equals(finalCurrent))
+                    .findFirst()
+                    .orElse(null);
 
             if (edge != null) {
                 pathEdges.add(0, edge);
             }
 
-            RoadNode prevNode = (subgraph != null) ? subgraph.getNode(previous)
-                    : nodeRepository.findById(previous).block();
+            RoadNode prevNode = subgraph.getNode(previous);
             if (prevNode != null) {
                 pathNodes.add(0, prevNode);
             }
@@ -0,0 +1,127 @@
+package com.enspy.tripplanning.routing.service;
+
+import com.enspy.tripplanning.routing.engine.alternative.AlternativeRoutes;
+import com.enspy.tripplanning.routing.graph.RoadGraph;
+import com.enspy.tripplanning.routing.graph.RoutingProfile;
+import com.enspy.tripplanning.routing.model.RoadEdge;
+import com.enspy.tripplanning.routing.model.Route;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.geo.Point;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Itinéraires alternatifs calculés sur le graphe résident
+ * ({@link AlternativeRoutes}) : plusieurs options réellement différentes
+ * pour le coût d'une seule recherche, sans appel externe.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AlternativeRouteService {
+
+    private final RoadGraphService graphService;
+    private final SnappingService snappingService;
+    private final RoutingProfileService profileService;
+    private final RoutingExecutor routingExecutor;
+    private final RoutingMetrics routingMetrics;
+
+    @Value("${application.routing.alternatives.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * Nombre maximal d'itinéraires, plus court compris
+     */
+    @Value("${application.routing.alternatives.max-routes:3}")
+    private int maxRoutes;
+
+    /**
+     * Allongement maximal d'une alternative par rapport au plus court
+     */
+    @Value("${application.routing.alternatives.max-stretch:0.25}")
+    private double maxStretch;
+
+    /**
+     * Part maximale d'une alternative commune aux itinéraires déjà retenus
+     */
+    @Value("${application.routing.alternatives.max-sharing:0.6}")
+    private double maxSharing;
+
+    /**
+     * @param profile Profil de véhicule (null = voiture)
+     * @return Itinéraires du plus court au plus long ; vide si le graphe
+     *         résident du profil n'est pas prêt, si la fonction est
+     *         désactivée ou si aucun chemin n'existe
+     */
+    public Mono<List<Route>> computeAlternatives(Point start, Point end, RoutingProfile profile) {
+        RoadGraph base = graphService.getGraph();
+        RoadGraph graph = profileService.getGraph(profile);
+        if (!enabled || graph == null) {
+            return Mono.just(List.of());
+        }
+
+        return snappingService.snapToIndices(base, List.of(start, end))
+                .timed()
+                .flatMap(snapped -> routingExecutor.submit(() -> {
+                    int[] nodes = snapped.get();
+                    if (nodes[0] < 0 || nodes[1] < 0) {
+                        return List.<Route>of();
+                    }
+                    long startTime = System.currentTimeMillis();
+                    List<Route> routes = AlternativeRoutes.search(graph, nodes[0], nodes[1],
+                            maxRoutes, maxStretch, maxSharing);
+                    long computationTime = System.currentTimeMillis() - startTime;
+                    long snapNanos = snapped.elapsed().toNanos();
+                    routes.forEach(route -> {
+                        route.setComputationTimeMs(computationTime);
+                        route.setSnapTimeNanos(snapNanos);
+                    });
+                    // Une seule recherche pour tous les itinéraires
+                    if (!routes.isEmpty()) {
+                        routingMetrics.record(routes.get(0));
+                    }
+                    log.info("{} itinéraire(s) alternatif(s) calculé(s) en {}ms", routes.size(), computationTime);
+                    return routes;
+                }));
+    }
+
+    /**
+     * Itinéraires suffisamment différents d'un itinéraire calculé ailleurs
+     * (heure de départ donnée...) : même seuil de partage que la recherche.
+     *
+     * @param reference Itinéraire présenté comme optimal
+     * @return Itinéraires dont la part commune avec {@code reference}, en
+     *         distance, ne dépasse pas max-sharing
+     */
+    public List<Route> distinctFrom(Route reference, List<Route> routes) {
+        if (reference == null || !reference.isValid()) {
+            return routes;
+        }
+        Set<Long> referenceEdges = new HashSet<>();
+        for (RoadEdge edge : reference.getEdges()) {
+            referenceEdges.add(edge.getEdgeId());
+        }
+        return routes.stream()
+                .filter(route -> route.isValid() && sharing(route, referenceEdges) <= maxSharing)
+                .toList();
+    }
+
+    private static double sharing(Route route, Set<Long> referenceEdges) {
+        double total = 0;
+        double shared = 0;
+        for (RoadEdge edge : route.getEdges()) {
+            double meters = edge.getDistanceMetersOrCalculate();
+            total += meters;
+            if (referenceEdges.contains(edge.getEdgeId())) {
+                shared += meters;
+            }
+        }
+        return total > 0 ? shared / total : 1.0;
+    }
+}
@@ -0,0 +1,135 @@
+package com.enspy.tripplanning.routing.service;
+
+import com.enspy.tripplanning.routing.dto.BatchRoutePairDTO;
+import com.enspy.tripplanning.routing.dto.BatchRouteRequest;
+import com.enspy.tripplanning.routing.dto.BatchRouteResultDTO;
+import com.enspy.tripplanning.routing.geometry.Polyline;
+import com.enspy.tripplanning.routing.graph.RoadGraph;
+import com.enspy.tripplanning.routing.model.RoadNode;
+import com.enspy.tripplanning.routing.model.Route;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.geo.Point;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Calcul d'itinéraires par lot (flottes, planification nocturne).
+ *
+ * DÉROULEMENT:
+ * 1. Snapping de toutes les origines et destinations en un seul lot
+ * ({@link SnappingService}).
+ * 2. Dédoublonnage : les couples qui tombent sur les mêmes nœuds
+ * (départ, arrivée) ne sont calculés qu'une fois.
+ * 3. Calcul des couples distincts avec au plus
+ * application.routing.batch.concurrency calculs simultanés ; un nouveau
+ * calcul ne démarre que lorsque le client a consommé les résultats
+ * précédents (contre-pression du flux). Les couples déjà calculés sur la
+ * même version du graphe sont relus depuis le cache
+ * ({@link CalculatedRouteService}).
+ * 4. Chaque résultat est émis dès qu'il est prêt, pour tous les couples
+ * qui le partagent.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BatchRoutingService {
+
+    private final RoadGraphService graphService;
+    private final SnappingService snappingService;
+    private final CalculatedRouteService calculatedRouteService;
+
+    /**
+     * Nombre maximal de calculs simultanés (0 = nombre de cœurs)
+     */
+    @Value("${application.routing.batch.concurrency:0}")
+    private int concurrency;
+
+    /**
+     * @param request Couples origine/destination
+     * @return Un résultat par couple, dans l'ordre de fin de calcul
+     */
+    public Flux<BatchRouteResultDTO> calculateBatch(BatchRouteRequest request) {
+        RoadGraph graph = graphService.getGraph();
+        if (graph == null) {
+            return Flux.error(new IllegalStateException("Graphe routier non chargé"));
+        }
+
+        List<BatchRoutePairDTO> pairs = request.getPairs();
+        boolean includeGeometry = Boolean.TRUE.equals(request.getIncludeGeometry());
+        List<Point> points = new ArrayList<>(pairs.size() * 2);
+        for (BatchRoutePairDTO pair : pairs) {
+            points.add(new Point(pair.getStartLongitude(), pair.getStartLatitude()));
+            points.add(new Point(pair.getEndLongitude(), pair.getEndLatitude()));
+        }
+        int parallelism = concurrency > 0 ? concurrency : Runtime.getRuntime().availableProcessors();
+        long startTime = System.currentTimeMillis();
+
+        return snappingService.snapToIndices(graph, points)
+                .flatMapMany(nodes -> {
+                    // (départ << 32 | arrivée) → positions des couples concernés
+                    Map<Long, List<Integer>> distinct = new LinkedHashMap<>();
+                    List<BatchRouteResultDTO> unsnapped = new ArrayList<>();
+                    for (int i = 0; i < pairs.size(); i++) {
+                        int start = nodes[2 * i];
+                        int end = nodes[2 * i + 1];
+                        if (start < 0 || end < 0) {
+                            unsnapped.add(BatchRouteResultDTO.builder()
+                                    .index(i)
+                                    .id(pairs.get(i).getId())
+                                    .found(false)
+                                    .errorMessage("Point de départ ou d'arrivée hors du réseau routier")
+                                    .build());
+                            continue;
+                        }
+                        distinct.computeIfAbsent(((long) start << 32) | end, key -> new ArrayList<>()).add(i);
+                    }
+                    log.info("Lot de {} couples : {} calculs distincts, {} hors réseau",
+                            pairs.size(), distinct.size(), unsnapped.size());
+
+                    Flux<BatchRouteResultDTO> computed = Flux.fromIterable(distinct.entrySet())
+                            .flatMap(entry -> {
+                                long key = entry.getKey();
+                                long startNodeId = graph.getNodeIds()[(int) (key >>> 32)];
+                                long endNodeId = graph.getNodeIds()[(int) key];
+                                return calculatedRouteService.getOrCalculateRoute(startNodeId, endNodeId, null)
+                                        .flatMapIterable(route -> toResults(route, startNodeId, endNodeId,
+                                                entry.getValue(), pairs, includeGeometry));
+                            }, parallelism);
+
+                    return Flux.concat(Flux.fromIterable(unsnapped), computed);
+                })
+                .doOnComplete(() -> log.info("Lot de {} couples calculé en {}ms",
+                        pairs.size(), System.currentTimeMillis() - startTime))
+                // Voie par lot : les requêtes interactives restent prioritaires
+                .contextWrite(RoutingExecutor.batchLane());
+    }
+
+    private List<BatchRouteResultDTO> toResults(Route route, long startNodeId, long endNodeId,
+            List<Integer> indices, List<BatchRoutePairDTO> pairs, boolean includeGeometry) {
+        boolean found = Boolean.TRUE.equals(route.getFound());
+        String geometry = found && includeGeometry ? Polyline.encode(route.getNodes()) : null;
+
+        List<BatchRouteResultDTO> results = new ArrayList<>(indices.size());
+        for (int index : indices) {
+            results.add(BatchRouteResultDTO.builder()
+                    .index(index)
+                    .id(pairs.get(index).getId())
+                    .found(found)
+                    .errorMessage(found ? null : route.getErrorMessage())
+                    .startNodeId(startNodeId)
+                    .endNodeId(endNodeId)
+                    .totalDistanceKm(found ? route.getTotalDistanceKm() : null)
+                    .totalTimeSeconds(found ? route.getTotalTimeSeconds() : null)
+                    .geometryEncoded(geometry)
+                    .build());
+        }
+        return results;
+    }
+}
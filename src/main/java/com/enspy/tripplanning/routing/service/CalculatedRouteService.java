@@ -1,11 +1,12 @@
 package com.enspy.tripplanning.routing.service;
 
+import com.enspy.tripplanning.routing.graph.RoadGraph;
+import com.enspy.tripplanning.routing.graph.RoutePathCodec;
 import com.enspy.tripplanning.routing.model.CalculatedRoute;
 import com.enspy.tripplanning.routing.model.Route;
 import com.enspy.tripplanning.routing.repository.CalculatedRouteRepository;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
 
@@ -31,6 +32,11 @@ import java.util.UUID;
  * 2. Si hit ET valide → retourner
  * 3. Si miss → calculer A* → sauver cache
  * 
+ * 💾 STOCKAGE: clé = nœuds snappés + version du graphe ; chemin en deltas
+ * varint (BYTEA), reconstruit depuis le graphe résident au hit.
+ * 
+ * 🔌 UTILISÉ PAR: {@link BatchRoutingService} (couples point à point).
+ * 
  * ================================================================
  * @author Thomas Djotio Ndié
  * @since 2024-12-18
@@ -38,89 +44,115 @@ import java.util.UUID;
  */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class CalculatedRouteService {
 
     private final CalculatedRouteRepository calculatedRouteRepository;
-    private final AStarService aStarService;
-    private final ObjectMapper objectMapper;
+    private final RoutingEngineService routingEngineService;
+    private final RoadGraphService graphService;
+
+    /**
+     * Durée de validité des routes en cache (heures)
+     */
+    private final int cacheDurationHours;
+
+    public CalculatedRouteService(
+            CalculatedRouteRepository calculatedRouteRepository,
+            RoutingEngineService routingEngineService,
+            RoadGraphService graphService,
+            @Value("${application.routing.cache-duration-hours:24}") int cacheDurationHours) {
+        this.calculatedRouteRepository = calculatedRouteRepository;
+        this.routingEngineService = routingEngineService;
+        this.graphService = graphService;
+        this.cacheDurationHours = cacheDurationHours;
+    }
 
     /**
      * Récupère route depuis cache OU calcule si absente
      * 
+     * Clé du cache : paire de nœuds snappés + version des poids du graphe
+     * résident. Sans graphe résident, le cache est ignoré : les chemins en
+     * cache se reconstruisent à partir de lui.
+     * 
      * @param fromNodeId Nœud départ
      * @param toNodeId Nœud arrivée
      * @param tripId ID voyage (optionnel)
      * @return Route calculée
      */
     public Mono<Route> getOrCalculateRoute(Long fromNodeId, Long toNodeId, UUID tripId) {
+        RoadGraph graph = graphService.getGraph();
+        if (graph == null) {
+            return routingEngineService.calculateShortestPath(fromNodeId, toNodeId);
+        }
+        long graphVersion = graph.getWeightVersion();
         log.debug("🔍 Recherche route en cache: {} → {}", fromNodeId, toNodeId);
 
         return calculatedRouteRepository
-            .findCachedRoute(fromNodeId, toNodeId)
+            .findCachedRoute(fromNodeId, toNodeId, graphVersion)
             .filter(CalculatedRoute::isCacheValid)
-            .flatMap(this::deserializeRoute)
-            .doOnNext(route -> log.info("✓ Route trouvée en cache (gain: {}ms évités)", 
+            .flatMap(cached -> deserializeRoute(graph, cached))
+            .doOnNext(route -> log.debug("✓ Route trouvée en cache (gain: {}ms évités)", 
                 route.getComputationTimeMs()))
             .switchIfEmpty(Mono.defer(() -> {
-                log.info("⚠ Cache miss - Calcul A* nécessaire");
+                log.debug("⚠ Cache miss - Calcul {} nécessaire", routingEngineService.getActiveAlgorithm());
                 
-                return aStarService.calculateShortestPath(fromNodeId, toNodeId)
-                    .flatMap(route -> saveToCache(route, tripId, fromNodeId, toNodeId)
+                return routingEngineService.calculateShortestPath(fromNodeId, toNodeId)
+                    .flatMap(route -> saveToCache(route, tripId, fromNodeId, toNodeId, graphVersion)
                         .thenReturn(route));
             }));
     }
 
     /**
-     * Sauvegarde route en cache
+     * Sauvegarde route en cache (chemin encodé par {@link RoutePathCodec})
      */
-    private Mono<CalculatedRoute> saveToCache(Route route, UUID tripId, Long fromNodeId, Long toNodeId) {
-        try {
-            String pathNodesJson = objectMapper.writeValueAsString(
-                route.getNodes().stream().map(n -> n.getNodeId()).toList()
-            );
-            
-            String pathEdgesJson = objectMapper.writeValueAsString(
-                route.getEdges().stream().map(e -> e.getEdgeId()).toList()
-            );
-
-            CalculatedRoute cached = CalculatedRoute.builder()
-                .tripId(tripId)
-                .fromWaypointId(fromNodeId)
-                .toWaypointId(toNodeId)
-                .algorithm(CalculatedRoute.RoutingAlgorithm.ASTAR)
-                .pathNodesJson(pathNodesJson)
-                .pathEdgesJson(pathEdgesJson)
-                .totalDistanceMeters(BigDecimal.valueOf(route.getTotalDistanceKm() * 1000))
-                .totalDurationSeconds(BigDecimal.valueOf(route.getTotalTimeSeconds()))
-                .computationTimeMs(route.getComputationTimeMs().intValue())
-                .nodesExplored(route.getNodesExplored())
-                .isCached(true)
-                .build();
-
-            cached.setCacheExpiration(24); // 24 heures
-
-            return calculatedRouteRepository.save(cached)
-                .doOnSuccess(c -> log.info("✓ Route sauvée en cache (ID: {})", c.getRouteId()));
-        } catch (Exception e) {
-            log.error("❌ Erreur sérialisation route pour cache", e);
+    private Mono<CalculatedRoute> saveToCache(Route route, UUID tripId, Long fromNodeId, Long toNodeId,
+            long graphVersion) {
+        if (!route.isValid()) {
             return Mono.empty();
         }
+        CalculatedRoute cached = CalculatedRoute.builder()
+            .tripId(tripId)
+            .fromWaypointId(fromNodeId)
+            .toWaypointId(toNodeId)
+            .graphVersion(graphVersion)
+            .algorithm(routingEngineService.getActiveAlgorithm())
+            .pathNodes(RoutePathCodec.encodeNodes(route.getNodes()))
+            .pathEdges(RoutePathCodec.encodeEdges(route.getEdges()))
+            .totalDistanceMeters(BigDecimal.valueOf(route.getTotalDistanceKm() * 1000))
+            .totalDurationSeconds(BigDecimal.valueOf(route.getTotalTimeSeconds()))
+            .computationTimeMs(route.getComputationTimeMs() != null ? route.getComputationTimeMs().intValue() : null)
+            .nodesExplored(route.getNodesExplored())
+            .isCached(true)
+            .build();
+
+        cached.setCacheExpiration(cacheDurationHours);
+
+        return calculatedRouteRepository.save(cached)
+            .doOnSuccess(c -> log.debug("✓ Route sauvée en cache (ID: {}, {} + {} octets)", c.getRouteId(),
+                c.getPathNodes().length, c.getPathEdges().length))
+            .onErrorResume(e -> {
+                log.error("❌ Erreur d'écriture de la route en cache", e);
+                return Mono.empty();
+            });
     }
 
     /**
-     * Désérialise route depuis cache
+     * Reconstruit la route complète depuis le graphe résident ; vide si le
+     * chemin ne correspond plus au graphe (traité comme un cache miss)
      */
-    private Mono<Route> deserializeRoute(CalculatedRoute cached) {
-        // TODO: Reconstruire Route depuis pathNodesJson + pathEdgesJson
-        // Pour l'instant, retourner route basique
-        return Mono.just(Route.builder()
-            .totalDistanceKm(cached.getTotalDistanceMeters().doubleValue() / 1000.0)
-            .totalTimeSeconds(cached.getTotalDurationSeconds().intValue())
-            .found(true)
-            .nodesExplored(cached.getNodesExplored())
-            .computationTimeMs(cached.getComputationTimeMs().longValue())
-            .build());
+    private Mono<Route> deserializeRoute(RoadGraph graph, CalculatedRoute cached) {
+        Route route;
+        try {
+            route = RoutePathCodec.toRoute(graph, cached.getPathNodes(), cached.getPathEdges(),
+                cached.getNodesExplored() != null ? cached.getNodesExplored() : 0);
+        } catch (IllegalArgumentException e) {
+            log.warn("Entrée de cache illisible {}: {}", cached.getRouteId(), e.getMessage());
+            return Mono.empty();
+        }
+        if (route == null) {
+            return Mono.empty();
+        }
+        route.setComputationTimeMs(cached.getComputationTimeMs() != null ? cached.getComputationTimeMs().longValue() : 0L);
+        return Mono.just(route);
     }
 
     /**
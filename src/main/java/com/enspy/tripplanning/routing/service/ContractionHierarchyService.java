@@ -0,0 +1,176 @@
+package com.enspy.tripplanning.routing.service;
+
+import com.enspy.tripplanning.routing.engine.ch.ContractionHierarchy;
+import com.enspy.tripplanning.routing.engine.ch.ContractionHierarchyBuilder;
+import com.enspy.tripplanning.routing.engine.ch.ContractionHierarchyQuery;
+import com.enspy.tripplanning.routing.exception.RoutingOverloadedException;
+import com.enspy.tripplanning.routing.graph.RoadGraph;
+import com.enspy.tripplanning.routing.graph.RoadGraphLoadedEvent;
+import com.enspy.tripplanning.routing.graph.RoadGraphWeightsChangedEvent;
+import com.enspy.tripplanning.routing.model.CalculatedRoute;
+import com.enspy.tripplanning.routing.model.Route;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Requêtes de plus court chemin par Contraction Hierarchies.
+ *
+ * La hiérarchie est construite en arrière-plan à chaque chargement du
+ * graphe résident ({@link RoadGraphLoadedEvent}) lorsque
+ * application.routing.algorithm = CH. Elle n'est utilisée que si elle
+ * correspond au graphe courant : pendant une reconstruction, les requêtes
+ * retombent sur A*.
+ *
+ * SURCHARGES: à chaque changement des poids effectifs
+ * ({@link RoadGraphWeightsChangedEvent}), la hiérarchie courante est
+ * d'abord repondérée en quelques millisecondes
+ * ({@link ContractionHierarchy#customize}), puis recontractée en
+ * arrière-plan sur les nouveaux poids pour retrouver des chemins exacts.
+ * Entre les deux, la hiérarchie repondérée n'est servie à personne : les
+ * itinéraires retombent sur A* et les matrices sur Dijkstra un-vers-plusieurs,
+ * tous deux exacts.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ContractionHierarchyService {
+
+    private final RoadGraphService graphService;
+    private final RoutingExecutor routingExecutor;
+    private final RoutingMetrics routingMetrics;
+
+    @Value("${application.routing.algorithm:ASTAR}")
+    private CalculatedRoute.RoutingAlgorithm algorithm;
+
+    private volatile ContractionHierarchy hierarchy;
+
+    /** Une seule contraction à la fois ; les changements suivants sont rattrapés à la fin */
+    private final AtomicBoolean contracting = new AtomicBoolean();
+
+    @EventListener
+    public void onGraphLoaded(RoadGraphLoadedEvent event) {
+        if (algorithm != CalculatedRoute.RoutingAlgorithm.CH) {
+            return;
+        }
+        contract(event.graph());
+    }
+
+    @EventListener
+    public void onWeightsChanged(RoadGraphWeightsChangedEvent event) {
+        RoadGraph graph = event.graph();
+        ContractionHierarchy current = hierarchy;
+        if (algorithm != CalculatedRoute.RoutingAlgorithm.CH || current == null || current.getGraph() != graph) {
+            return;
+        }
+        long startTime = System.currentTimeMillis();
+        this.hierarchy = current.customize(graph.getArcWeight());
+        log.info("Hiérarchie de contraction repondérée en {}ms", System.currentTimeMillis() - startTime);
+        contract(graph);
+    }
+
+    /**
+     * Contraction en arrière-plan sur les poids effectifs courants ; si les
+     * poids ont changé entre-temps, le résultat est repondéré puis une
+     * nouvelle contraction est lancée.
+     */
+    private void contract(RoadGraph graph) {
+        if (!contracting.compareAndSet(false, true)) {
+            return;
+        }
+        int[] weights = graph.getArcWeight();
+        Mono.fromCallable(() -> new ContractionHierarchyBuilder(graph, weights).build())
+                .subscribeOn(Schedulers.boundedElastic())
+                .subscribe(
+                        built -> {
+                            contracting.set(false);
+                            RoadGraph current = graphService.getGraph();
+                            if (current != graph) {
+                                // Graphe rechargé pendant la contraction
+                                if (current != null) {
+                                    contract(current);
+                                }
+                                return;
+                            }
+                            int[] latest = graph.getArcWeight();
+                            if (latest == weights) {
+                                this.hierarchy = built;
+                                return;
+                            }
+                            this.hierarchy = built.customize(latest);
+                            contract(graph);
+                        },
+                        error -> {
+                            contracting.set(false);
+                            log.error("Échec de la construction de la hiérarchie de contraction: {}",
+                                    error.getMessage());
+                        });
+    }
+
+    public boolean isEnabled() {
+        return algorithm == CalculatedRoute.RoutingAlgorithm.CH;
+    }
+
+    /**
+     * @return true si la hiérarchie courante correspond au graphe résident et
+     *         à ses poids effectifs (chemins exacts)
+     */
+    public boolean isReady() {
+        ContractionHierarchy current = hierarchy;
+        return current != null && current.getGraph() == graphService.getGraph() && current.isExact();
+    }
+
+    /**
+     * @return Hiérarchie exacte du graphe résident, ou null si elle n'est pas
+     *         prête ou attend sa recontraction après une surcharge (les
+     *         appelants se replient alors sur Dijkstra)
+     */
+    public ContractionHierarchy getHierarchy() {
+        ContractionHierarchy current = hierarchy;
+        return current != null && current.getGraph() == graphService.getGraph() && current.isExact()
+                ? current : null;
+    }
+
+    /**
+     * Calcule le plus court chemin entre deux nœuds (identifiants road_nodes).
+     * Le graphe doit être prêt ({@link #isReady()}).
+     */
+    public Mono<Route> calculateShortestPath(Long startNodeId, Long endNodeId) {
+        ContractionHierarchy ch = hierarchy;
+        long startTime = System.currentTimeMillis();
+
+        RoadGraph graph = ch.getGraph();
+        int start = graph.indexOf(startNodeId);
+        int end = graph.indexOf(endNodeId);
+        if (start < 0 || end < 0) {
+            return Mono.just(Route.builder()
+                    .found(false)
+                    .errorMessage("Nœud de départ ou d'arrivée introuvable")
+                    .build());
+        }
+
+        return routingExecutor.submit(() -> ContractionHierarchyQuery.shortestPath(ch, start, end))
+                .map(route -> {
+                    long computationTime = System.currentTimeMillis() - startTime;
+                    route.setComputationTimeMs(computationTime);
+                    routingMetrics.record(route);
+
+                    log.info("CH terminé en {}ms - Chemin trouvé: {}, Distance: {} km, Nœuds explorés: {}",
+                            computationTime, route.getFound(), route.getTotalDistanceKm(), route.getNodesExplored());
+                    return route;
+                })
+                .onErrorResume(error -> !(error instanceof RoutingOverloadedException), error -> {
+                    log.error("Erreur lors du calcul CH", error);
+                    return Mono.just(Route.builder()
+                            .found(false)
+                            .errorMessage("Erreur: " + error.getMessage())
+                            .build());
+                });
+    }
+}
@@ -0,0 +1,267 @@
+package com.enspy.tripplanning.routing.service;
+
+import com.enspy.tripplanning.routing.dto.EdgeWeightOverrideRequest;
+import com.enspy.tripplanning.routing.graph.RoadGraph;
+import com.enspy.tripplanning.routing.graph.RoadGraphLoadedEvent;
+import com.enspy.tripplanning.routing.graph.RoadGraphWeightsChangedEvent;
+import com.enspy.tripplanning.routing.model.EdgeWeightOverride;
+import com.enspy.tripplanning.routing.repository.EdgeWeightOverrideRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Fermetures et ralentissements temporaires (table edge_weight_overrides).
+ *
+ * Les surcharges actives sont appliquées au graphe résident sous forme de
+ * poids effectifs ({@link RoadGraph#applyEdgeFactors}) : toutes les
+ * recherches (A*, alternatives, isochrones, matrices) en tiennent compte
+ * dès la requête suivante, sans recharger road_edges. Chaque application
+ * publie un {@link RoadGraphWeightsChangedEvent} (repondération de la
+ * hiérarchie de contraction).
+ *
+ * Les surcharges sont relues à chaque création ou suppression, au
+ * chargement du graphe, à l'expiration de la plus proche, et toutes les
+ * {@code poll-interval-seconds} : une surcharge créée sur une instance
+ * atteint ainsi toutes les autres. Des poids inchangés ne sont pas
+ * réappliqués.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EdgeWeightOverrideService {
+
+    private final EdgeWeightOverrideRepository overrideRepository;
+    private final RoadGraphService graphService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Durée de validité par défaut d'une surcharge
+     */
+    @Value("${application.routing.overrides.default-duration-minutes:240}")
+    private int defaultDurationMinutes;
+
+    /**
+     * Période de relecture de la table (0 = désactivée)
+     */
+    @Value("${application.routing.overrides.poll-interval-seconds:30}")
+    private long pollIntervalSeconds;
+
+    /** Réapplication programmée à la prochaine expiration */
+    private volatile Disposable expiryTimer;
+
+    /** Relecture périodique de la table */
+    private Disposable poller;
+
+    @PostConstruct
+    void startPolling() {
+        if (pollIntervalSeconds <= 0) {
+            return;
+        }
+        Duration period = Duration.ofSeconds(pollIntervalSeconds);
+        poller = Flux.interval(period, period)
+                .onBackpressureDrop()
+                .concatMap(tick -> refresh()
+                        .onErrorResume(error -> {
+                            log.warn("Échec de la relecture des surcharges de poids: {}", error.getMessage());
+                            return Mono.empty();
+                        }))
+                .subscribe();
+    }
+
+    @PreDestroy
+    void stopPolling() {
+        if (poller != null) {
+            poller.dispose();
+        }
+        Disposable timer = expiryTimer;
+        if (timer != null) {
+            timer.dispose();
+        }
+    }
+
+    @EventListener
+    public void onGraphLoaded(RoadGraphLoadedEvent event) {
+        refresh().subscribe(
+                count -> {
+                },
+                error -> log.error("Échec de l'application des surcharges de poids: {}", error.getMessage()));
+    }
+
+    /**
+     * Enregistre une surcharge par arête et par voie OSM, puis l'applique.
+     *
+     * @return Surcharges créées
+     */
+    public Flux<EdgeWeightOverride> create(EdgeWeightOverrideRequest request) {
+        boolean closed = Boolean.TRUE.equals(request.getClosed());
+        if (!closed && (request.getTimeFactor() == null || request.getTimeFactor() <= 1)) {
+            return Flux.error(new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Indiquer closed = true ou un timeFactor supérieur à 1"));
+        }
+        int minutes = request.getDurationMinutes() != null ? request.getDurationMinutes() : defaultDurationMinutes;
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plusMinutes(minutes);
+
+        List<EdgeWeightOverride> overrides = new ArrayList<>();
+        if (request.getEdgeIds() != null) {
+            request.getEdgeIds().forEach(edgeId -> overrides.add(EdgeWeightOverride.builder()
+                    .edgeId(edgeId)
+                    .closed(closed)
+                    .timeFactor(closed ? null : request.getTimeFactor())
+                    .reason(request.getReason())
+                    .expiresAt(expiresAt)
+                    .createdAt(now)
+                    .build()));
+        }
+        if (request.getOsmWayIds() != null) {
+            request.getOsmWayIds().forEach(wayId -> overrides.add(EdgeWeightOverride.builder()
+                    .osmWayId(wayId)
+                    .closed(closed)
+                    .timeFactor(closed ? null : request.getTimeFactor())
+                    .reason(request.getReason())
+                    .expiresAt(expiresAt)
+                    .createdAt(now)
+                    .build()));
+        }
+        if (overrides.isEmpty()) {
+            return Flux.error(new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Au moins une arête ou une voie OSM est requise"));
+        }
+
+        log.info("Surcharge de {} cible(s) jusqu'à {} ({}): {}", overrides.size(), expiresAt,
+                closed ? "fermeture" : "temps ×" + request.getTimeFactor(), request.getReason());
+        return overrideRepository.saveAll(overrides)
+                .collectList()
+                .flatMapMany(saved -> refresh().thenMany(Flux.fromIterable(saved)));
+    }
+
+    public Flux<EdgeWeightOverride> findActive() {
+        return overrideRepository.findActive();
+    }
+
+    /**
+     * Supprime une surcharge avant son expiration.
+     */
+    public Mono<Void> delete(UUID overrideId) {
+        return overrideRepository.findById(overrideId)
+                .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND,
+                        "Surcharge introuvable: " + overrideId)))
+                .flatMap(overrideRepository::delete)
+                .then(refresh())
+                .then();
+    }
+
+    /**
+     * Relit les surcharges actives et les applique au graphe courant.
+     *
+     * @return Nombre de surcharges actives
+     */
+    public Mono<Integer> refresh() {
+        RoadGraph graph = graphService.getGraph();
+        if (graph == null) {
+            return Mono.just(0);
+        }
+        return overrideRepository.deleteExpired()
+                .thenMany(overrideRepository.findActive())
+                .collectList()
+                .publishOn(Schedulers.boundedElastic())
+                .map(active -> {
+                    apply(graph, active);
+                    scheduleExpiry(active);
+                    return active.size();
+                });
+    }
+
+    private void apply(RoadGraph graph, List<EdgeWeightOverride> active) {
+        if (active.isEmpty()) {
+            if (graph.getArcWeight() != graph.getBaseArcWeight()) {
+                graph.applyEdgeFactors(null);
+                eventPublisher.publishEvent(new RoadGraphWeightsChangedEvent(graph));
+                log.info("Surcharges expirées : poids de base rétablis");
+            }
+            return;
+        }
+
+        Map<Long, Double> byEdge = new HashMap<>();
+        Map<Long, Double> byWay = new HashMap<>();
+        for (EdgeWeightOverride override : active) {
+            double factor = Boolean.TRUE.equals(override.getClosed()) ? Double.POSITIVE_INFINITY
+                    : override.getTimeFactor() != null ? override.getTimeFactor() : 1.0;
+            if (factor <= 1) {
+                log.warn("Surcharge {} ignorée : facteur {} ≤ 1", override.getOverrideId(), factor);
+                continue;
+            }
+            if (override.getEdgeId() != null) {
+                byEdge.merge(override.getEdgeId(), factor, Math::max);
+            }
+            if (override.getOsmWayId() != null) {
+                byWay.merge(override.getOsmWayId(), factor, Math::max);
+            }
+        }
+
+        long[] edgeIds = graph.getEdgeIds();
+        long[] wayIds = graph.getEdgeOsmWayIds();
+        double[] factors = new double[edgeIds.length];
+        int affected = 0;
+        for (int e = 0; e < edgeIds.length; e++) {
+            double factor = Math.max(byEdge.getOrDefault(edgeIds[e], 1.0),
+                    wayIds[e] != 0 ? byWay.getOrDefault(wayIds[e], 1.0) : 1.0);
+            factors[e] = factor;
+            if (factor > 1) {
+                affected++;
+            }
+        }
+
+        if (Arrays.equals(factors, graph.getEdgeFactors())) {
+            return;
+        }
+        long startTime = System.currentTimeMillis();
+        graph.applyEdgeFactors(factors);
+        log.info("{} surcharge(s) active(s) appliquée(s) à {} arêtes en {}ms", active.size(), affected,
+                System.currentTimeMillis() - startTime);
+        eventPublisher.publishEvent(new RoadGraphWeightsChangedEvent(graph));
+    }
+
+    private void scheduleExpiry(List<EdgeWeightOverride> active) {
+        Disposable previous = expiryTimer;
+        if (previous != null) {
+            previous.dispose();
+        }
+        LocalDateTime next = active.stream()
+                .map(EdgeWeightOverride::getExpiresAt)
+                .min(LocalDateTime::compareTo)
+                .orElse(null);
+        if (next == null) {
+            expiryTimer = null;
+            return;
+        }
+        Duration delay = Duration.between(LocalDateTime.now(), next);
+        expiryTimer = Mono.delay(delay.isNegative() ? Duration.ZERO : delay.plusSeconds(1))
+                .flatMap(tick -> refresh())
+                .subscribe(
+                        count -> {
+                        },
+                        error -> log.error("Échec de l'expiration des surcharges de poids: {}", error.getMessage()));
+    }
+}
@@ -0,0 +1,115 @@
+package com.enspy.tripplanning.routing.service;
+
+import com.enspy.tripplanning.routing.dto.IsochroneDTO;
+import com.enspy.tripplanning.routing.dto.IsochroneResponse;
+import com.enspy.tripplanning.routing.engine.isochrone.IsochroneContour;
+import com.enspy.tripplanning.routing.engine.isochrone.IsochroneSearch;
+import com.enspy.tripplanning.routing.graph.RoadGraph;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Isochrones : zones atteignables depuis un point en un temps donné.
+ *
+ * DÉROULEMENT:
+ * 1. Snapping du point sur le graphe résident.
+ * 2. Un seul Dijkstra borné par le plus grand budget
+ * ({@link IsochroneSearch}), sur les tampons réutilisés du thread.
+ * 3. Une grille des temps commune ({@link IsochroneContour}), puis un
+ * contour MultiPolygon par budget.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class IsochroneService {
+
+    private final RoadGraphService graphService;
+    private final SnappingService snappingService;
+    private final RoutingExecutor routingExecutor;
+
+    /**
+     * Taille des cellules de la grille des contours (mètres)
+     */
+    @Value("${application.routing.isochrone.cell-size-meters:300}")
+    private double cellSizeMeters;
+
+    /**
+     * Budget maximal accepté (minutes)
+     */
+    @Value("${application.routing.isochrone.max-minutes:240}")
+    private int maxMinutes;
+
+    /**
+     * @param minutes Budgets demandés (minutes)
+     */
+    public Mono<IsochroneResponse> computeIsochrones(double latitude, double longitude, List<Integer> minutes) {
+        RoadGraph graph = graphService.getGraph();
+        if (graph == null) {
+            return Mono.error(new IllegalStateException("Graphe routier non chargé"));
+        }
+        List<Integer> budgets = minutes.stream().distinct().sorted().toList();
+        if (budgets.isEmpty() || budgets.get(0) <= 0 || budgets.get(budgets.size() - 1) > maxMinutes) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Budgets attendus entre 1 et " + maxMinutes + " minutes"));
+        }
+        long startTime = System.currentTimeMillis();
+
+        return snappingService.snap(graph, latitude, longitude)
+                .flatMap(center -> routingExecutor.submit(() -> {
+                    int source = graph.indexOf(center.getNodeId());
+                    if (source < 0) {
+                        throw new IllegalStateException("Nœud " + center.getNodeId() + " absent du graphe résident");
+                    }
+                    int maxSeconds = budgets.get(budgets.size() - 1) * 60;
+                    IsochroneSearch.Result reached = IsochroneSearch.search(graph, source, maxSeconds);
+                    IsochroneContour contour = IsochroneContour.build(graph, reached, cellSizeMeters, maxSeconds);
+
+                    List<IsochroneDTO> isochrones = new ArrayList<>(budgets.size());
+                    for (int budget : budgets) {
+                        isochrones.add(IsochroneDTO.builder()
+                                .minutes(budget)
+                                .reachableNodes(countWithin(reached, budget * 60))
+                                .type("MultiPolygon")
+                                .coordinates(contour.polygons(budget * 60))
+                                .build());
+                    }
+
+                    long computationTime = System.currentTimeMillis() - startTime;
+                    log.info("Isochrones {} min depuis le nœud {} en {}ms ({} nœuds atteints)",
+                            budgets, center.getNodeId(), computationTime, reached.count());
+
+                    return IsochroneResponse.builder()
+                            .centerNodeId(center.getNodeId())
+                            .latitude(center.getLatitude())
+                            .longitude(center.getLongitude())
+                            .isochrones(isochrones)
+                            .computationTimeMs(computationTime)
+                            .build();
+                }));
+    }
+
+    /**
+     * Les nœuds sont fixés par temps croissant : recherche dichotomique.
+     */
+    private static int countWithin(IsochroneSearch.Result reached, int seconds) {
+        int low = 0;
+        int high = reached.count();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (reached.seconds()[mid] <= seconds) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,168 @@
+package com.enspy.tripplanning.routing.service;
+
+import com.enspy.tripplanning.routing.engine.alt.LandmarkTable;
+import com.enspy.tripplanning.routing.engine.alt.LandmarkTableBuilder;
+import com.enspy.tripplanning.routing.engine.alt.LandmarkTableStore;
+import com.enspy.tripplanning.routing.graph.RoadGraph;
+import com.enspy.tripplanning.routing.graph.RoadGraphLoadedEvent;
+import com.enspy.tripplanning.routing.model.Route;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Gestion des landmarks ALT pour l'heuristique A*.
+ *
+ * À chaque chargement du graphe résident :
+ * 1. relit les tables depuis le disque si l'empreinte du graphe correspond,
+ * 2. sinon les recalcule (graines = {@link RoutingOptimizationService#getMajorCities()},
+ * complétées par farthest-point) puis les enregistre,
+ * 3. si application.routing.alt.report-gain, journalise le gain en nœuds
+ * explorés sur des paires de grandes villes (diagnostic : une cinquantaine
+ * de recherches A* au démarrage).
+ *
+ * Tant que les tables ne sont pas prêtes, A* garde l'heuristique
+ * distance / vitesse_max.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LandmarkService {
+
+    // AStarService dépend de ce service : il est récupéré à la demande
+    private final ObjectProvider<AStarService> aStarServiceProvider;
+
+    @Value("${application.routing.alt.enabled:true}")
+    private boolean enabled;
+
+    @Value("${application.routing.alt.landmarks:8}")
+    private int landmarkCount;
+
+    @Value("${application.routing.alt.directory:./data/landmarks}")
+    private String directory;
+
+    @Value("${application.routing.alt.report-gain:false}")
+    private boolean reportGain;
+
+    private volatile LandmarkTable table;
+
+    @EventListener
+    public void onGraphLoaded(RoadGraphLoadedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        RoadGraph graph = event.graph();
+        Mono.fromCallable(() -> loadOrCompute(graph))
+                .subscribeOn(Schedulers.boundedElastic())
+                .subscribe(
+                        loaded -> {
+                            this.table = loaded;
+                            if (reportGain) {
+                                reportGain(loaded);
+                            }
+                        },
+                        error -> log.error("Échec de la préparation des landmarks ALT: {}", error.getMessage()));
+    }
+
+    /**
+     * @return Tables ALT du graphe donné, ou null si elles ne sont pas prêtes
+     */
+    public LandmarkTable getTable(RoadGraph graph) {
+        LandmarkTable current = table;
+        return current != null && current.getGraph() == graph ? current : null;
+    }
+
+    private LandmarkTable loadOrCompute(RoadGraph graph) throws Exception {
+        Path file = Path.of(directory, LandmarkTableStore.fileName(graph, landmarkCount));
+
+        try {
+            LandmarkTable stored = LandmarkTableStore.read(graph, file);
+            if (stored != null) {
+                log.info("Tables ALT relues depuis {}: {}", file, stored);
+                return stored;
+            }
+        } catch (Exception e) {
+            log.warn("Tables ALT illisibles ({}), recalcul: {}", file, e.getMessage());
+        }
+
+        List<RoutingOptimizationService.CityCenter> cities = RoutingOptimizationService.getMajorCities();
+        int[] seeds = new int[cities.size()];
+        for (int i = 0; i < seeds.length; i++) {
+            seeds[i] = nearestRoutableNode(graph, cities.get(i).lat(), cities.get(i).lon());
+        }
+
+        LandmarkTable computed = LandmarkTableBuilder.build(graph, seeds, landmarkCount);
+        try {
+            LandmarkTableStore.write(computed, file);
+            log.info("Tables ALT enregistrées dans {}", file);
+        } catch (Exception e) {
+            log.warn("Impossible d'enregistrer les tables ALT dans {}: {}", file, e.getMessage());
+        }
+        return computed;
+    }
+
+    /**
+     * Nœud routable le plus proche (distance équirectangulaire, suffisante
+     * pour choisir une graine).
+     */
+    private int nearestRoutableNode(RoadGraph graph, double lat, double lon) {
+        double[] latitudes = graph.getLatitudes();
+        double[] longitudes = graph.getLongitudes();
+        double cosLat = Math.cos(Math.toRadians(lat));
+        int best = -1;
+        double bestDist = Double.MAX_VALUE;
+        for (int v = 0; v < graph.getNodeCount(); v++) {
+            if (!graph.isRoutable(v)) {
+                continue;
+            }
+            double dLat = latitudes[v] - lat;
+            double dLon = (longitudes[v] - lon) * cosLat;
+            double d = dLat * dLat + dLon * dLon;
+            if (d < bestDist) {
+                bestDist = d;
+                best = v;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Compare les nœuds explorés par A* (heuristique vitesse_max vs ALT) sur
+     * les paires de grandes villes.
+     */
+    private void reportGain(LandmarkTable loaded) {
+        RoadGraph graph = loaded.getGraph();
+        AStarService aStarService = aStarServiceProvider.getObject();
+        List<RoutingOptimizationService.CityCenter> cities = RoutingOptimizationService.getMajorCities();
+
+        long classic = 0;
+        long alt = 0;
+        int pairs = 0;
+        for (int i = 0; i < cities.size(); i++) {
+            for (int j = i + 1; j < cities.size(); j++) {
+                int s = nearestRoutableNode(graph, cities.get(i).lat(), cities.get(i).lon());
+                int t = nearestRoutableNode(graph, cities.get(j).lat(), cities.get(j).lon());
+                if (s < 0 || t < 0 || s == t) {
+                    continue;
+                }
+                Route withoutAlt = aStarService.executeOnGraph(graph, s, t, null);
+                Route withAlt = aStarService.executeOnGraph(graph, s, t, loaded);
+                classic += withoutAlt.getNodesExplored();
+                alt += withAlt.getNodesExplored();
+                pairs++;
+            }
+        }
+        if (pairs > 0) {
+            log.info("ALT: {} nœuds explorés au lieu de {} sur {} paires de villes ({}% de réduction)",
+                    alt, classic, pairs, classic == 0 ? 0 : Math.round(100.0 * (classic - alt) / classic));
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.enspy.tripplanning.routing.service;
+
+/**
+ * Disjoncteur du client OSRM.
+ *
+ * ÉTATS:
+ * - FERMÉ : les appels passent ; après {@code failureThreshold} échecs
+ * consécutifs, le disjoncteur s'ouvre.
+ * - OUVERT : aucun appel pendant {@code openDurationMs}, le repli local
+ * répond directement.
+ * - SEMI-OUVERT : à l'expiration, un seul appel d'essai passe ; son succès
+ * referme le disjoncteur, son échec le rouvre.
+ */
+final class OsrmCircuitBreaker {
+
+    enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openDurationMs;
+
+    private int consecutiveFailures;
+    private long openedAt;
+    private State state = State.CLOSED;
+    private boolean probeInFlight;
+
+    OsrmCircuitBreaker(int failureThreshold, long openDurationMs) {
+        this.failureThreshold = failureThreshold;
+        this.openDurationMs = openDurationMs;
+    }
+
+    /**
+     * @return true si l'appel peut être tenté
+     */
+    synchronized boolean tryAcquire() {
+        if (state == State.OPEN && System.currentTimeMillis() - openedAt >= openDurationMs) {
+            state = State.HALF_OPEN;
+        }
+        return switch (state) {
+            case CLOSED -> true;
+            case OPEN -> false;
+            case HALF_OPEN -> {
+                if (probeInFlight) {
+                    yield false;
+                }
+                probeInFlight = true;
+                yield true;
+            }
+        };
+    }
+
+    synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        state = State.CLOSED;
+        probeInFlight = false;
+    }
+
+    synchronized void onFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = System.currentTimeMillis();
+        }
+        probeInFlight = false;
+    }
+
+    /**
+     * Appel abandonné sans verdict (annulation) : libère l'essai éventuel.
+     */
+    synchronized void onCancel() {
+        probeInFlight = false;
+    }
+
+    synchronized State getState() {
+        return state;
+    }
+}
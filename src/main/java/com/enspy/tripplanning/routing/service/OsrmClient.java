@@ -0,0 +1,205 @@
+package com.enspy.tripplanning.routing.service;
+
+import com.enspy.tripplanning.routing.dto.osrm.OsrmResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.netty.channel.ChannelOption;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Client HTTP dédié au serveur OSRM.
+ *
+ * - Un seul WebClient, sur un pool de connexions keep-alive dimensionné
+ * (osrm.pool.*), au lieu d'un client construit à chaque appel.
+ * - Délai maximal par appel (osrm.timeout-ms), requête de couverture comprise.
+ * - Requêtes "couvertes" (hedging) : si la réponse tarde au-delà du
+ * percentile osrm.hedge.percentile des latences récentes, une seconde
+ * requête identique est envoyée et la première réponse l'emporte.
+ * - Disjoncteur ({@link OsrmCircuitBreaker}) : après une série d'échecs, les
+ * appels échouent immédiatement par {@link CircuitOpenException}, que
+ * l'appelant traite par son repli local.
+ *
+ * MÉTRIQUES: routing.osrm.latency, routing.osrm.requests (tag
+ * outcome=success|failure|rejected), routing.osrm.hedged et
+ * routing.osrm.circuit.open.
+ */
+@Slf4j
+@Component
+public class OsrmClient {
+
+    /** Latences conservées pour le percentile de couverture */
+    private static final int LATENCY_WINDOW = 256;
+    /** Échantillons requis avant de couvrir les requêtes */
+    private static final int MIN_SAMPLES = 20;
+
+    private final WebClient webClient;
+    private final OsrmCircuitBreaker circuitBreaker;
+    private final Duration timeout;
+    private final boolean hedgeEnabled;
+    private final double hedgePercentile;
+    private final long hedgeMinDelayMs;
+
+    private final Timer latency;
+    private final Counter successes;
+    private final Counter failures;
+    private final Counter rejections;
+    private final Counter hedges;
+
+    /** Fenêtre circulaire des latences des appels réussis (ms) ; accès sous verrou */
+    private final long[] latencies = new long[LATENCY_WINDOW];
+    private int latencyCount;
+    private int latencyNext;
+
+    /**
+     * Circuit ouvert : OSRM n'est pas appelé.
+     */
+    public static class CircuitOpenException extends RuntimeException {
+        public CircuitOpenException() {
+            super("Disjoncteur OSRM ouvert");
+        }
+    }
+
+    public OsrmClient(WebClient.Builder webClientBuilder,
+            MeterRegistry meterRegistry,
+            @Value("${osrm.url:http://router.project-osrm.org}") String osrmUrl,
+            @Value("${osrm.pool.max-connections:64}") int maxConnections,
+            @Value("${osrm.pool.max-idle-ms:30000}") long maxIdleMs,
+            @Value("${osrm.connect-timeout-ms:2000}") int connectTimeoutMs,
+            @Value("${osrm.timeout-ms:5000}") long timeoutMs,
+            @Value("${osrm.hedge.enabled:true}") boolean hedgeEnabled,
+            @Value("${osrm.hedge.percentile:0.95}") double hedgePercentile,
+            @Value("${osrm.hedge.min-delay-ms:150}") long hedgeMinDelayMs,
+            @Value("${osrm.circuit-breaker.failure-threshold:5}") int failureThreshold,
+            @Value("${osrm.circuit-breaker.open-duration-ms:30000}") long openDurationMs) {
+        ConnectionProvider provider = ConnectionProvider.builder("osrm")
+                .maxConnections(maxConnections)
+                .pendingAcquireTimeout(Duration.ofMillis(timeoutMs))
+                .maxIdleTime(Duration.ofMillis(maxIdleMs))
+                .evictInBackground(Duration.ofMillis(maxIdleMs))
+                .build();
+        HttpClient httpClient = HttpClient.create(provider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs)
+                .responseTimeout(Duration.ofMillis(timeoutMs))
+                .compress(true)
+                .keepAlive(true);
+
+        this.webClient = webClientBuilder
+                .baseUrl(osrmUrl)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+        this.circuitBreaker = new OsrmCircuitBreaker(failureThreshold, openDurationMs);
+        this.timeout = Duration.ofMillis(timeoutMs);
+        this.hedgeEnabled = hedgeEnabled;
+        this.hedgePercentile = hedgePercentile;
+        this.hedgeMinDelayMs = hedgeMinDelayMs;
+
+        this.latency = Timer.builder("routing.osrm.latency")
+                .description("Latence des appels OSRM réussis").register(meterRegistry);
+        this.successes = Counter.builder("routing.osrm.requests").tag("outcome", "success")
+                .description("Appels OSRM réussis").register(meterRegistry);
+        this.failures = Counter.builder("routing.osrm.requests").tag("outcome", "failure")
+                .description("Appels OSRM en échec (erreur ou délai dépassé)").register(meterRegistry);
+        this.rejections = Counter.builder("routing.osrm.requests").tag("outcome", "rejected")
+                .description("Appels non tentés, disjoncteur ouvert").register(meterRegistry);
+        this.hedges = Counter.builder("routing.osrm.hedged")
+                .description("Requêtes OSRM doublées (hedging)").register(meterRegistry);
+        Gauge.builder("routing.osrm.circuit.open", circuitBreaker,
+                breaker -> breaker.getState() == OsrmCircuitBreaker.State.CLOSED ? 0 : 1)
+                .description("Disjoncteur OSRM ouvert (1) ou fermé (0)").register(meterRegistry);
+    }
+
+    /**
+     * Appelle le service route d'OSRM.
+     *
+     * @param path Chemin relatif à osrm.url, paramètres compris
+     * @return Réponse OSRM, ou {@link CircuitOpenException} / erreur de
+     *         transport si OSRM est indisponible
+     */
+    public Mono<OsrmResponse> get(String path) {
+        return Mono.defer(() -> {
+            if (!circuitBreaker.tryAcquire()) {
+                rejections.increment();
+                return Mono.error(new CircuitOpenException());
+            }
+            long startTime = System.nanoTime();
+            return hedged(path)
+                    .timeout(timeout)
+                    .doOnSuccess(response -> {
+                        long elapsed = System.nanoTime() - startTime;
+                        latency.record(Duration.ofNanos(elapsed));
+                        recordLatency(elapsed / 1_000_000);
+                        successes.increment();
+                        circuitBreaker.onSuccess();
+                    })
+                    .doOnError(error -> {
+                        failures.increment();
+                        if (isServerSide(error)) {
+                            circuitBreaker.onFailure();
+                        } else {
+                            // Requête refusée (4xx) : OSRM répond, le circuit reste fermé
+                            circuitBreaker.onSuccess();
+                        }
+                        log.warn("Appel OSRM en échec ({}): {}", circuitBreaker.getState(), error.toString());
+                    })
+                    .doOnCancel(circuitBreaker::onCancel);
+        });
+    }
+
+    private Mono<OsrmResponse> hedged(String path) {
+        Mono<OsrmResponse> primary = call(path);
+        long delay = hedgeDelayMs();
+        if (delay < 0) {
+            return primary;
+        }
+        Mono<OsrmResponse> backup = Mono.delay(Duration.ofMillis(delay))
+                .doOnNext(tick -> hedges.increment())
+                .then(call(path));
+        // Premier signal : une erreur rapide n'entraîne pas de seconde requête,
+        // sinon la première réponse gagne et l'autre requête est annulée
+        return Mono.firstWithSignal(primary, backup);
+    }
+
+    private Mono<OsrmResponse> call(String path) {
+        return webClient.get()
+                .uri(path)
+                .retrieve()
+                .bodyToMono(OsrmResponse.class);
+    }
+
+    /**
+     * @return Délai avant la requête de couverture, ou -1 (pas de couverture)
+     */
+    private synchronized long hedgeDelayMs() {
+        if (!hedgeEnabled || latencyCount < MIN_SAMPLES) {
+            return -1;
+        }
+        long[] sorted = Arrays.copyOf(latencies, latencyCount);
+        Arrays.sort(sorted);
+        int rank = (int) Math.min(latencyCount - 1, Math.ceil(hedgePercentile * latencyCount) - 1);
+        long delay = Math.max(hedgeMinDelayMs, sorted[Math.max(0, rank)]);
+        return delay < timeout.toMillis() ? delay : -1;
+    }
+
+    private synchronized void recordLatency(long millis) {
+        latencies[latencyNext] = millis;
+        latencyNext = (latencyNext + 1) % LATENCY_WINDOW;
+        latencyCount = Math.min(latencyCount + 1, LATENCY_WINDOW);
+    }
+
+    private static boolean isServerSide(Throwable error) {
+        return !(error instanceof WebClientResponseException response && response.getStatusCode().is4xxClientError());
+    }
+}
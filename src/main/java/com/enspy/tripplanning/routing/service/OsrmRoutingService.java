@@ -1,62 +1,119 @@
 package com.enspy.tripplanning.routing.service;
 
 import com.enspy.tripplanning.routing.dto.RouteResponse;
-import com.enspy.tripplanning.routing.dto.RouteSegmentDTO;
-import com.enspy.tripplanning.routing.dto.osrm.OsrmLeg;
+import com.enspy.tripplanning.routing.dto.RouteStatisticsDTO;
 import com.enspy.tripplanning.routing.dto.osrm.OsrmResponse;
 import com.enspy.tripplanning.routing.dto.osrm.OsrmRoute;
+import com.enspy.tripplanning.routing.geometry.Polyline;
+import com.enspy.tripplanning.routing.model.RoadNode;
+import com.enspy.tripplanning.routing.model.Route;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.geo.Point;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
 
+/**
+ * Itinéraires calculés par OSRM ({@link OsrmClient}).
+ *
+ * REPLI: si OSRM est indisponible (disjoncteur ouvert, délai dépassé,
+ * erreur), l'itinéraire est calculé par le moteur interne
+ * ({@link AStarService}) sur le graphe routier, avec une réponse de même
+ * forme (géométrie Polyline comprise).
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class OsrmRoutingService {
 
-    private final WebClient.Builder webClientBuilder;
+    /**
+     * Seuls la géométrie complète, la distance et la durée sont exploitées :
+     * ni étapes, ni annotations, ni alternatives.
+     */
+    private static final String ROUTE_OPTIONS = "?overview=full&geometries=polyline&steps=false&annotations=false&alternatives=false";
 
-    @Value("${osrm.url:http://router.project-osrm.org}")
-    private String osrmUrl;
+    private final OsrmClient osrmClient;
+    private final AStarService aStarService;
+    private final SnappingService snappingService;
+    private final RoadGraphService graphService;
 
     public Mono<RouteResponse> calculateRoute(Point start, Point end, List<Point> waypoints) {
-        StringBuilder coordinatesBuilder = new StringBuilder();
-
-        // Start
-        coordinatesBuilder.append(start.getX()).append(",").append(start.getY());
+        List<Point> points = new ArrayList<>();
+        points.add(start);
+        if (waypoints != null) {
+            points.addAll(waypoints);
+        }
+        points.add(end);
 
-        // Waypoints
-        if (waypoints != null && !waypoints.isEmpty()) {
-            for (Point wp : waypoints) {
-                coordinatesBuilder.append(";").append(wp.getX()).append(",").append(wp.getY());
+        StringBuilder path = new StringBuilder("/route/v1/driving/");
+        for (int i = 0; i < points.size(); i++) {
+            if (i > 0) {
+                path.append(';');
             }
+            path.append(points.get(i).getX()).append(',').append(points.get(i).getY());
         }
+        path.append(ROUTE_OPTIONS);
 
-        // End
-        coordinatesBuilder.append(";").append(end.getX()).append(",").append(end.getY());
-
-        String coordinates = coordinatesBuilder.toString();
-
-        String url = String.format("%s/route/v1/driving/%s?overview=full&geometries=polyline&steps=true",
-                osrmUrl, coordinates);
+        log.debug("Calling OSRM: {}", path);
 
-        log.debug("Calling OSRM: {}", url);
+        return osrmClient.get(path.toString())
+                .map(osrmResponse -> mapToRouteResponse(osrmResponse, start, end))
+                .onErrorResume(error -> {
+                    log.warn("OSRM indisponible ({}), repli sur le moteur interne", error.getMessage());
+                    return calculateLocally(points);
+                });
+    }
 
-        return webClientBuilder.build()
-                .get()
-                .uri(url)
-                .retrieve()
-                .bodyToMono(OsrmResponse.class)
-                .map(osrmResponse -> mapToRouteResponse(osrmResponse, start, end));
+    /**
+     * Repli : A* interne, tronçon par tronçon entre les points snappés.
+     */
+    private Mono<RouteResponse> calculateLocally(List<Point> points) {
+        long startTime = System.currentTimeMillis();
+        return snappingService.snapAll(graphService.getGraph(), points)
+                .flatMap(nodes -> Flux.range(0, nodes.size() - 1)
+                        .concatMap(i -> aStarService.calculateShortestPath(
+                                nodes.get(i).getNodeId(), nodes.get(i + 1).getNodeId()))
+                        .collectList())
+                .map(legs -> {
+                    if (legs.stream().anyMatch(leg -> !leg.isValid())) {
+                        return RouteResponse.builder()
+                                .found(false)
+                                .errorMessage("Aucun chemin trouvé par le moteur interne")
+                                .build();
+                    }
+                    double distanceKm = 0;
+                    int timeSeconds = 0;
+                    Route effort = new Route();
+                    List<RoadNode> geometry = new ArrayList<>();
+                    for (Route leg : legs) {
+                        distanceKm += leg.getTotalDistanceKm();
+                        timeSeconds += leg.getTotalTimeSeconds();
+                        effort.addEffort(leg);
+                        // Jonction des tronçons : le premier nœud répète le dernier du précédent
+                        geometry.addAll(geometry.isEmpty() ? leg.getNodes() : leg.getNodes().subList(1, leg.getNodes().size()));
+                    }
+                    return RouteResponse.builder()
+                            .found(true)
+                            .totalDistanceKm(distanceKm)
+                            .totalTimeSeconds(timeSeconds)
+                            .formattedTime(formatTime(timeSeconds))
+                            .geometryEncoded(Polyline.encode(geometry))
+                            .segments(new ArrayList<>())
+                            .instructions(new ArrayList<>())
+                            .statistics(RouteStatisticsDTO.builder()
+                                    .nodesExplored(effort.getNodesExplored())
+                                    .edgesRelaxed(effort.getEdgesRelaxed())
+                                    .heapPushes(effort.getHeapPushes())
+                                    .heapDecreaseKeys(effort.getHeapDecreaseKeys())
+                                    .computationTimeMs(System.currentTimeMillis() - startTime)
+                                    .algorithm("A* interne (repli OSRM)")
+                                    .build())
+                            .build();
+                });
     }
 
     private RouteResponse mapToRouteResponse(OsrmResponse osrmResponse, Point start, Point end) {
@@ -76,32 +133,14 @@ public class OsrmRoutingService {
         // Format time
         String formattedTime = formatTime(timeSeconds);
 
-        // Map segments/instructions (simplified for now)
-        List<RouteSegmentDTO> segments = new ArrayList<>();
-        List<String> instructions = new ArrayList<>();
-
-        // We could iterate over legs/steps to build detailed instructions
-        if (osrmRoute.getLegs() != null) {
-            for (OsrmLeg leg : osrmRoute.getLegs()) {
-                if (leg.getSteps() != null) {
-                    // Mapping simple instructions if available
-                    leg.getSteps().forEach(step -> {
-                        // Extract name or maneuver if possible (requires more complex DTO mapping for
-                        // step)
-                        // For now, we trust the geometry is enough for display
-                    });
-                }
-            }
-        }
-
         return RouteResponse.builder()
                 .found(true)
                 .totalDistanceKm(distanceKm)
                 .totalTimeSeconds(timeSeconds)
                 .formattedTime(formattedTime)
                 .geometryEncoded(osrmRoute.getGeometry())
-                .segments(segments) // Empty segments for now, frontend mainly needs geometry
-                .instructions(instructions)
+                .segments(new ArrayList<>()) // La géométrie suffit à l'affichage
+                .instructions(new ArrayList<>())
                 .build();
     }
 
@@ -0,0 +1,170 @@
+package com.enspy.tripplanning.routing.service;
+
+import com.enspy.tripplanning.routing.graph.RoadGraph;
+import com.enspy.tripplanning.routing.graph.RoadGraphBuilder;
+import com.enspy.tripplanning.routing.graph.RoadGraphLoadedEvent;
+import com.enspy.tripplanning.routing.graph.RoadGraphSnapshot;
+import com.enspy.tripplanning.routing.repository.RoadEdgeRepository;
+import com.enspy.tripplanning.routing.repository.RoadNodeRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.file.Path;
+
+/**
+ * Détient le graphe routier résident ({@link RoadGraph}).
+ *
+ * Le réseau complet (road_nodes / road_edges) est chargé une seule fois au
+ * démarrage puis compacté au format CSR. Les moteurs de calcul (A*) lisent
+ * ensuite le graphe directement en mémoire : plus aucun aller-retour
+ * PostGIS par requête d'itinéraire.
+ *
+ * Tant que le graphe n'est pas prêt (démarrage, base indisponible),
+ * {@link #getGraph()} retourne null et les services retombent sur le
+ * chargement historique par sous-graphe.
+ *
+ * INSTANTANÉ (application.routing.graph.snapshot): chaque graphe chargé
+ * depuis la base est aussi écrit dans un fichier binaire
+ * ({@link RoadGraphSnapshot}), avec la version du réseau
+ * ({@link RoadEdgeRepository#findNetworkVersion}). Au démarrage suivant, si
+ * la base est toujours à cette version, le fichier est relu en quelques
+ * centaines de millisecondes au lieu de matérialiser toutes les entités
+ * R2DBC ; sinon (import OSM, modification du réseau) le graphe est
+ * rechargé depuis la base. {@link #reload()} repart toujours de la base et
+ * rafraîchit l'instantané.
+ *
+ * Chaque nouveau graphe est annoncé par un {@link RoadGraphLoadedEvent}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RoadGraphService implements CommandLineRunner {
+
+    private final RoadNodeRepository nodeRepository;
+    private final RoadEdgeRepository edgeRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${application.routing.graph.preload:true}")
+    private boolean preload;
+
+    @Value("${application.routing.graph.snapshot.enabled:true}")
+    private boolean snapshotEnabled;
+
+    @Value("${application.routing.graph.snapshot.path:./data/graph/road-graph.bin}")
+    private String snapshotPath;
+
+    private volatile RoadGraph graph;
+
+    @Override
+    public void run(String... args) {
+        if (!preload) {
+            log.info("Préchargement du graphe routier désactivé");
+            return;
+        }
+        networkVersion()
+                .flatMap(version -> loadSnapshot(version).switchIfEmpty(Mono.defer(() -> load(version))))
+                .subscribe(
+                g -> {
+                },
+                error -> log.error("Échec du chargement du graphe routier en mémoire: {}", error.getMessage()));
+    }
+
+    /**
+     * (Re)charge le graphe complet depuis la base puis remplace atomiquement
+     * l'instance courante.
+     */
+    public Mono<RoadGraph> reload() {
+        return networkVersion().flatMap(this::load);
+    }
+
+    /**
+     * Version du réseau en base, lue avant les lignes : un instantané n'est
+     * jamais associé à une version plus récente que son contenu.
+     */
+    private Mono<Long> networkVersion() {
+        if (!snapshotEnabled) {
+            return Mono.just(0L);
+        }
+        return edgeRepository.findNetworkVersion().defaultIfEmpty(0L);
+    }
+
+    private Mono<RoadGraph> load(long networkVersion) {
+        long startTime = System.currentTimeMillis();
+        log.info("Chargement du graphe routier en mémoire...");
+
+        return Mono.zip(
+                nodeRepository.findAll().collectList(),
+                edgeRepository.findAll().collectList())
+                .publishOn(Schedulers.boundedElastic())
+                .map(tuple -> RoadGraphBuilder.fromEntities(tuple.getT1(), tuple.getT2()))
+                .doOnNext(loaded -> {
+                    publish(loaded, startTime);
+                    writeSnapshot(loaded, networkVersion);
+                });
+    }
+
+    /**
+     * Charge le graphe depuis l'instantané binaire.
+     *
+     * @param networkVersion Version actuelle du réseau en base
+     * @return Graphe relu, ou vide si l'instantané est désactivé, absent,
+     *         invalide ou écrit pour une autre version du réseau
+     */
+    public Mono<RoadGraph> loadSnapshot(long networkVersion) {
+        if (!snapshotEnabled) {
+            return Mono.empty();
+        }
+        long startTime = System.currentTimeMillis();
+        Path file = Path.of(snapshotPath);
+
+        return Mono.fromCallable(() -> RoadGraphSnapshot.read(file, networkVersion))
+                .subscribeOn(Schedulers.boundedElastic())
+                .doOnNext(loaded -> {
+                    log.info("Graphe routier relu depuis {}", file);
+                    publish(loaded, startTime);
+                })
+                .switchIfEmpty(Mono.fromRunnable(() ->
+                        log.info("Instantané du graphe absent ou périmé ({}), chargement depuis la base", file)))
+                .onErrorResume(error -> {
+                    log.warn("Instantané du graphe illisible ({}), chargement depuis la base: {}",
+                            file, error.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private void publish(RoadGraph loaded, long startTime) {
+        this.graph = loaded;
+        log.info("Graphe routier prêt en {}ms: {}", System.currentTimeMillis() - startTime, loaded);
+        eventPublisher.publishEvent(new RoadGraphLoadedEvent(loaded));
+    }
+
+    private void writeSnapshot(RoadGraph loaded, long networkVersion) {
+        if (!snapshotEnabled) {
+            return;
+        }
+        Path file = Path.of(snapshotPath);
+        try {
+            RoadGraphSnapshot.write(loaded, networkVersion, file);
+            log.info("Instantané du graphe enregistré dans {}", file);
+        } catch (Exception e) {
+            log.warn("Impossible d'enregistrer l'instantané du graphe dans {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * @return Graphe courant, ou null s'il n'est pas encore chargé
+     */
+    public RoadGraph getGraph() {
+        return graph;
+    }
+
+    public boolean isReady() {
+        return graph != null;
+    }
+}
@@ -1,22 +1,28 @@
 package com.enspy.tripplanning.routing.service;
 
+import com.enspy.tripplanning.poi.entity.Poi;
 import com.enspy.tripplanning.routing.dto.*;
+import com.enspy.tripplanning.routing.engine.tour.OpenTourSolver;
+import com.enspy.tripplanning.routing.exception.RoutingOverloadedException;
+import com.enspy.tripplanning.routing.geometry.GeometrySimplifier;
+import com.enspy.tripplanning.routing.geometry.Polyline;
+import com.enspy.tripplanning.routing.graph.RoutingProfile;
 import com.enspy.tripplanning.routing.model.RoadEdge;
 import com.enspy.tripplanning.routing.model.RoadNode;
 import com.enspy.tripplanning.routing.model.Route;
-import com.enspy.tripplanning.routing.repository.RoadEdgeRepository;
-import com.enspy.tripplanning.routing.repository.RoadNodeRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
 import org.springframework.data.geo.Point;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Locale;
-import java.util.Objects;
+import java.util.Optional;
 
 /**
  * Service principal de calcul d'itinéraires.
@@ -37,11 +43,19 @@ import java.util.Objects;
 @RequiredArgsConstructor
 public class RouteCalculatorService {
 
-    private final RoadNodeRepository nodeRepository;
-    private final RoadEdgeRepository edgeRepository;
-    private final AStarService aStarService;
     private final com.enspy.tripplanning.poi.repository.PoiRepository poiRepository;
     private final OsrmRoutingService osrmRoutingService;
+    private final TravelTimeMatrixService matrixService;
+    private final AlternativeRouteService alternativeRouteService;
+    private final TimeDependentRoutingService timeDependentRoutingService;
+    private final RoutingProfileService profileService;
+
+    /**
+     * Budget de la recherche locale quand l'ordre des POIs est optimisé
+     * au-delà de la résolution exacte (ms)
+     */
+    @Value("${application.routing.waypoints.optimization-budget-ms:200}")
+    private long orderOptimizationBudgetMs;
 
     /**
      * Calcule un itinéraire à partir d'une requête utilisateur.
@@ -61,7 +75,32 @@ public class RouteCalculatorService {
                 request.getEndLatitude(), request.getEndLongitude(),
                 request.getWaypointPoiIds() != null ? request.getWaypointPoiIds().size() : 0);
 
-        return performRouteCalculation(request);
+        Mono<MultiRouteResponse> response = performRouteCalculation(request);
+        if (request.getZoom() == null) {
+            return response;
+        }
+        return response.doOnNext(multi -> simplifyGeometries(multi, request.getZoom()));
+    }
+
+    /**
+     * Remplace les géométries par leur version simplifiée pour le zoom de la
+     * carte ({@link GeometrySimplifier}).
+     */
+    private void simplifyGeometries(MultiRouteResponse response, int zoom) {
+        List<RouteResponse> routes = new ArrayList<>();
+        if (response.getCustomRoute() != null) {
+            routes.add(response.getCustomRoute());
+        }
+        // Sans waypoints, route optimale et personnalisée sont la même instance
+        if (response.getOptimalRoute() != null && response.getOptimalRoute() != response.getCustomRoute()) {
+            routes.add(response.getOptimalRoute());
+        }
+        if (response.getAlternativeRoutes() != null) {
+            routes.addAll(response.getAlternativeRoutes());
+        }
+        for (RouteResponse route : routes) {
+            route.setGeometryEncoded(GeometrySimplifier.simplify(route.getGeometryEncoded(), zoom, Polyline.PRECISION));
+        }
     }
 
     private Mono<MultiRouteResponse> performRouteCalculation(RouteRequest request) {
@@ -72,45 +111,106 @@ public class RouteCalculatorService {
         org.springframework.data.geo.Point end = new org.springframework.data.geo.Point(request.getEndLongitude(),
                 request.getEndLatitude());
 
-        // Récupérer les coordonnées des POIs pour la route personnalisée
-        Mono<List<org.springframework.data.geo.Point>> waypointsMono;
+        // Récupérer les POIs (dans l'ordre demandé, ou optimisé) pour la route personnalisée
+        Mono<List<Poi>> poisMono;
 
         if (request.getWaypointPoiIds() != null && !request.getWaypointPoiIds().isEmpty()) {
-            waypointsMono = Flux.fromIterable(request.getWaypointPoiIds())
-                    .flatMap(poiId -> poiRepository.findById(poiId))
-                    .map(poi -> new org.springframework.data.geo.Point(
-                            poi.getLongitude() != null ? poi.getLongitude().doubleValue() : 0.0,
-                            poi.getLatitude() != null ? poi.getLatitude().doubleValue() : 0.0))
-                    .collectList();
+            poisMono = Flux.fromIterable(request.getWaypointPoiIds())
+                    .flatMapSequential(poiId -> poiRepository.findById(poiId))
+                    .collectList()
+                    .flatMap(pois -> optimizeWaypointOrder(request, pois));
         } else {
-            waypointsMono = Mono.just(java.util.Collections.emptyList());
+            poisMono = Mono.just(java.util.Collections.emptyList());
         }
 
-        return waypointsMono.flatMap(waypoints -> {
-            // 1. Calcul Route OPTIMALE (Directe sans waypoints)
-            log.info("🟢 Appel OSRM pour route OPTIMALE (Directe)");
-            Mono<RouteResponse> optimalRouteMono = osrmRoutingService.calculateRoute(start, end, null);
+        return poisMono.flatMap(pois -> {
+            List<org.springframework.data.geo.Point> waypoints = pois.stream()
+                    .map(poi -> new org.springframework.data.geo.Point(
+                            poi.getLongitude() != null ? poi.getLongitude().doubleValue() : 0.0,
+                            poi.getLatitude() != null ? poi.getLatitude().doubleValue() : 0.0))
+                    .toList();
+
+            // OSRM ne connaît que la voiture : les autres profils sont calculés
+            // sur le graphe résident
+            RoutingProfile profile = request.getProfile() != null ? request.getProfile() : RoutingProfile.CAR;
+            boolean residentOnly = profile != RoutingProfile.CAR;
+
+            // 1. Itinéraires du trajet direct, en une recherche sur le graphe
+            // résident : le plus court et ses alternatives
+            Mono<List<Route>> nativeRoutesMono = alternativeRouteService
+                    .computeAlternatives(start, end, profile)
+                    .onErrorResume(error -> {
+                        log.warn("Itinéraires alternatifs indisponibles: {}", error.getMessage());
+                        return Mono.just(List.of());
+                    });
 
-            // 2. Calcul Route PERSONNALISÉE (Avec waypoints)
-            log.info("🔵 Appel OSRM pour route PERSONNALISÉE avec {} waypoints", waypoints.size());
-            // Si pas de waypoints, la route personnalisée est techniquement identique à
-            // l'optimale
-            // mais on fait l'appel pour avoir la cohérence
-            Mono<RouteResponse> customRouteMono = osrmRoutingService.calculateRoute(start, end, waypoints);
+            // 2. Route OPTIMALE (directe) : selon l'heure de départ si elle est
+            // donnée, sinon le plus court des itinéraires natifs ; OSRM (ou le
+            // graphe du profil) si le graphe résident ne répond pas.
+            // Les alternatives sont toujours comparées à la route optimale
+            // effectivement présentée, jamais écartées par position.
+            Mono<RouteResponse> fallbackMono = residentOnly
+                    ? calculateProfileRoute(profile, List.of(start, end), request)
+                    : Mono.defer(() -> {
+                        log.info("🟢 Appel OSRM pour route OPTIMALE (Directe)");
+                        return osrmRoutingService.calculateRoute(start, end, null);
+                    });
+            Mono<Optional<Route>> timedRouteMono = request.getDepartureTime() == null
+                    ? Mono.just(Optional.empty())
+                    : timeDependentRoutingService
+                            .calculateRoute(start, end, request.getDepartureTime(), profile)
+                            .map(Optional::of)
+                            .defaultIfEmpty(Optional.empty());
+
+            Mono<Tuple2<RouteResponse, List<RouteResponse>>> directMono = Mono
+                    .zip(timedRouteMono, nativeRoutesMono)
+                    .flatMap(tuple -> {
+                        List<Route> nativeRoutes = tuple.getT2();
+                        if (tuple.getT1().isPresent()) {
+                            Route timed = tuple.getT1().get();
+                            return Mono.just(Tuples.of(buildTimeDependentResponse(timed, request),
+                                    toResponses(alternativeRouteService.distinctFrom(timed, nativeRoutes), request)));
+                        }
+                        if (!nativeRoutes.isEmpty() && nativeRoutes.get(0).isValid()) {
+                            return Mono.just(Tuples.of(buildResponse(nativeRoutes.get(0), request),
+                                    toResponses(nativeRoutes.subList(1, nativeRoutes.size()), request)));
+                        }
+                        return fallbackMono.map(optimal -> Tuples.of(optimal, List.<RouteResponse>of()));
+                    })
+                    .cache();
+            Mono<RouteResponse> optimalRouteMono = directMono.map(Tuple2::getT1);
+
+            // 3. Route PERSONNALISÉE (avec waypoints) : sans waypoints, elle est
+            // identique à la route directe
+            Mono<RouteResponse> customRouteMono;
+            if (waypoints.isEmpty()) {
+                customRouteMono = optimalRouteMono;
+            } else if (residentOnly) {
+                List<Point> points = new ArrayList<>(waypoints.size() + 2);
+                points.add(start);
+                points.addAll(waypoints);
+                points.add(end);
+                customRouteMono = calculateProfileRoute(profile, points, request);
+            } else {
+                log.info("🔵 Appel OSRM pour route PERSONNALISÉE avec {} waypoints", waypoints.size());
+                customRouteMono = osrmRoutingService.calculateRoute(start, end, waypoints);
+            }
 
-            return Mono.zip(customRouteMono, optimalRouteMono)
+            return Mono.zip(customRouteMono, directMono)
                     .map(tuple -> {
                         RouteResponse custom = tuple.getT1();
-                        RouteResponse optimal = tuple.getT2();
+                        RouteResponse optimal = tuple.getT2().getT1();
+                        custom.setWaypointPoiIds(pois.stream().map(Poi::getPoiId).toList());
 
                         return MultiRouteResponse.builder()
                                 .found(custom.getFound() || optimal.getFound())
                                 .customRoute(custom)
                                 .optimalRoute(optimal)
+                                .alternativeRoutes(tuple.getT2().getT2())
                                 .build();
                     });
         })
-                .onErrorResume(error -> {
+                .onErrorResume(error -> !(error instanceof RoutingOverloadedException), error -> {
                     log.error("Erreur lors du calcul OSRM", error);
                     return Mono.just(MultiRouteResponse.builder()
                             .found(false)
@@ -119,183 +219,67 @@ public class RouteCalculatorService {
                 });
     }
 
-    private Mono<double[]> getBoundingBox(RouteRequest request) {
-        // Commencer avec les points de départ et d'arrivée
-        double minLat = Math.min(request.getStartLatitude(), request.getEndLatitude());
-        double maxLat = Math.max(request.getStartLatitude(), request.getEndLatitude());
-        double minLon = Math.min(request.getStartLongitude(), request.getEndLongitude());
-        double maxLon = Math.max(request.getStartLongitude(), request.getEndLongitude());
-
-        if (request.getWaypointPoiIds() == null || request.getWaypointPoiIds().isEmpty()) {
-            double padding = 0.5; // Increased from 0.1 to 0.5 for Cameroon sparse network
-            return Mono.just(new double[] {
-                    minLat - padding,
-                    minLon - padding,
-                    maxLat + padding,
-                    maxLon + padding
-            });
-        }
-
-        // Inclure les POIs dans le bounding box
-        return Flux.fromIterable(request.getWaypointPoiIds())
-                .flatMap(poiRepository::findById)
-                .reduce(new double[] { minLat, minLon, maxLat, maxLon }, (box, poi) -> {
-                    box[0] = Math.min(box[0], poi.getLatitude().doubleValue());
-                    box[1] = Math.min(box[1], poi.getLongitude().doubleValue());
-                    box[2] = Math.max(box[2], poi.getLatitude().doubleValue());
-                    box[3] = Math.max(box[3], poi.getLongitude().doubleValue());
-                    return box;
-                })
-                .map(box -> {
-                    // Ajouter un "padding" de 0.5 degré (~55km) pour permettre des détours
-                    // Augmenté car le réseau national camerounais est peu dense
-                    double padding = 0.5;
-                    return new double[] {
-                            box[0] - padding,
-                            box[1] - padding,
-                            box[2] + padding,
-                            box[3] + padding
-                    };
-                });
+    private List<RouteResponse> toResponses(List<Route> routes, RouteRequest request) {
+        return routes.stream().map(route -> buildResponse(route, request)).toList();
     }
 
-    private Mono<RouteResponse> calculateCustomRoute(RouteRequest request,
-            com.enspy.tripplanning.routing.model.Subgraph subgraph) {
-        if (request.getWaypointPoiIds() == null || request.getWaypointPoiIds().isEmpty()) {
-            return calculateSimpleRoute(request, subgraph);
-        }
-        // ÉTAPE: Récupérer les POIs pour les waypoints
-        return Flux.fromIterable(request.getWaypointPoiIds())
-                .flatMap(poiRepository::findById)
-                .collectList()
-                .flatMap(pois -> {
-                    // S'assurer que les POIs sont dans l'ordre demandé
-                    List<com.enspy.tripplanning.poi.entity.Poi> orderedPois = request.getWaypointPoiIds().stream()
-                            .map(id -> pois.stream().filter(p -> p.getPoiId().equals(id)).findFirst().orElse(null))
-                            .filter(Objects::nonNull)
-                            .toList();
-
-                    // Construire la liste des points de passage: Start -> POI1 -> POI2 -> ... ->
-                    // End
-                    List<Mono<RoadNode>> nodeMonos = new ArrayList<>();
-                    nodeMonos.add(snapToNearestNode(request.getStartLatitude(), request.getStartLongitude())
-                            .doOnNext(node -> log.info("🏁 Start node snapped to: {} (id: {})", node.getName(),
-                                    node.getNodeId())));
-
-                    for (int i = 0; i < orderedPois.size(); i++) {
-                        com.enspy.tripplanning.poi.entity.Poi poi = orderedPois.get(i);
-                        int index = i;
-                        nodeMonos.add(
-                                snapToNearestNode(poi.getLatitude().doubleValue(), poi.getLongitude().doubleValue())
-                                        .doOnNext(node -> log.info("📍 Waypoint {} ({}) snapped to: {} (id: {})",
-                                                index + 1, poi.getName(), node.getName(), node.getNodeId())));
-                    }
-
-                    nodeMonos.add(snapToNearestNode(request.getEndLatitude(), request.getEndLongitude())
-                            .doOnNext(node -> log.info("🏁 End node snapped to: {} (id: {})", node.getName(),
-                                    node.getNodeId())));
-
-                    return Flux.fromIterable(nodeMonos)
-                            .concatMap(m -> m)
-                            .collectList()
-                            .doOnNext(list -> log.info("Successfully snapped {} of {} requested points", list.size(),
-                                    nodeMonos.size()));
-                })
-                .flatMap(roadNodes -> {
-                    // Calculer les segments entre chaque paire de nœuds consécutifs
-                    List<Mono<Route>> routeMonos = new ArrayList<>();
-                    for (int i = 0; i < roadNodes.size() - 1; i++) {
-                        routeMonos.add(aStarService.calculateShortestPath(roadNodes.get(i).getNodeId(),
-                                roadNodes.get(i + 1).getNodeId(), subgraph));
+    /**
+     * Itinéraire d'un profil autre que la voiture, par étapes sur le graphe
+     * résident du profil ({@link RoutingProfileService}).
+     */
+    private Mono<RouteResponse> calculateProfileRoute(RoutingProfile profile, List<Point> points,
+            RouteRequest request) {
+        return profileService.calculateLegs(profile, points)
+                .map(legs -> {
+                    RouteResponse response = mergeRoutes(legs, request);
+                    if (response.getStatistics() != null) {
+                        response.getStatistics().setAlgorithm("A* bidirectionnel (profil " + profile.getLabel() + ")");
                     }
-
-                    return Mono.zip(routeMonos, routes -> {
-                        List<Route> routeSegments = new ArrayList<>();
-                        for (Object r : routes) {
-                            routeSegments.add((Route) r);
-                        }
-                        return routeSegments;
-                    });
+                    return response;
                 })
-                .flatMap(segments -> enrichRouteSegments(segments)
-                        .map(enrichedSegments -> mergeRoutes(enrichedSegments, request)));
+                .defaultIfEmpty(RouteResponse.builder()
+                        .found(false)
+                        .errorMessage("Profil " + profile.getLabel() + " indisponible : graphe routier non chargé")
+                        .build());
     }
 
-    private Mono<List<Route>> enrichRouteSegments(List<Route> segments) {
-        List<Long> allNodeIds = segments.stream()
-                .flatMap(r -> r.getNodes().stream())
-                .map(RoadNode::getNodeId)
-                .distinct()
-                .toList();
-
-        List<Long> allEdgeIds = segments.stream()
-                .flatMap(r -> r.getEdges().stream())
-                .map(RoadEdge::getEdgeId)
-                .distinct()
-                .toList();
-
-        return Mono.zip(
-                nodeRepository.findAllById(allNodeIds).collectList(),
-                edgeRepository.findAllById(allEdgeIds).collectList()).map(tuple -> {
-                    java.util.Map<Long, RoadNode> nodeMap = tuple.getT1().stream()
-                            .collect(java.util.stream.Collectors.toMap(RoadNode::getNodeId, n -> n));
-                    java.util.Map<Long, RoadEdge> edgeMap = tuple.getT2().stream()
-                            .collect(java.util.stream.Collectors.toMap(RoadEdge::getEdgeId, e -> e));
-
-                    for (Route r : segments) {
-                        // Enrich Nodes
-                        List<RoadNode> nodes = r.getNodes();
-                        for (int i = 0; i < nodes.size(); i++) {
-                            RoadNode enriched = nodeMap.get(nodes.get(i).getNodeId());
-                            if (enriched != null)
-                                nodes.set(i, enriched);
-                        }
-
-                        // Enrich Edges
-                        List<RoadEdge> edges = r.getEdges();
-                        for (int i = 0; i < edges.size(); i++) {
-                            RoadEdge enriched = edgeMap.get(edges.get(i).getEdgeId());
-                            if (enriched != null)
-                                edges.set(i, enriched);
-                        }
-
-                        if (r.getStartNode() != null)
-                            r.setStartNode(nodeMap.get(r.getStartNode().getNodeId()));
-                        if (r.getEndNode() != null)
-                            r.setEndNode(nodeMap.get(r.getEndNode().getNodeId()));
+    /**
+     * Réordonne les POIs quand {@link RouteRequest#getOptimizeOrder()} est
+     * demandé : matrice des temps de parcours entre départ, POIs et arrivée
+     * (une seule passe sur le graphe), puis ordre de visite le plus court
+     * avec départ et arrivée fixes ({@link OpenTourSolver}).
+     *
+     * Si la matrice ne peut pas être calculée (graphe non chargé...), l'ordre
+     * demandé est conservé.
+     */
+    private Mono<List<Poi>> optimizeWaypointOrder(RouteRequest request, List<Poi> pois) {
+        if (!Boolean.TRUE.equals(request.getOptimizeOrder()) || pois.size() < 2) {
+            return Mono.just(pois);
+        }
 
-                        // Recalculate metrics based on enriched edges
-                        r.setTotalDistanceKm(r.calculateTotalDistance());
-                        r.setTotalTimeSeconds(r.calculateTotalTime());
+        List<MatrixPointDTO> points = new ArrayList<>(pois.size() + 2);
+        points.add(new MatrixPointDTO(request.getStartLatitude(), request.getStartLongitude()));
+        for (Poi poi : pois) {
+            points.add(new MatrixPointDTO(poi.getLatitude().doubleValue(), poi.getLongitude().doubleValue()));
+        }
+        points.add(new MatrixPointDTO(request.getEndLatitude(), request.getEndLongitude()));
+
+        return matrixService.computeDurations(points)
+                .map(durations -> {
+                    int[] tour = OpenTourSolver.solve(durations, orderOptimizationBudgetMs);
+                    List<Poi> ordered = new ArrayList<>(pois.size());
+                    for (int i = 1; i < tour.length - 1; i++) {
+                        ordered.add(pois.get(tour[i] - 1));
                     }
-                    return segments;
-                });
-    }
-
-    private Mono<RouteResponse> calculateSimpleRoute(RouteRequest request,
-            com.enspy.tripplanning.routing.model.Subgraph subgraph) {
-        log.info("📍 Starting simple route calculation: ({}, {}) -> ({}, {})",
-                request.getStartLatitude(), request.getStartLongitude(),
-                request.getEndLatitude(), request.getEndLongitude());
-
-        return Mono.zip(
-                snapToNearestNode(request.getStartLatitude(), request.getStartLongitude()),
-                snapToNearestNode(request.getEndLatitude(), request.getEndLongitude()))
-                .flatMap(tuple -> {
-                    RoadNode startNode = tuple.getT1();
-                    RoadNode endNode = tuple.getT2();
-
-                    log.info("✅ Nodes snapped: {} -> {}", startNode.getName(), endNode.getName());
-
-                    return aStarService.calculateShortestPath(startNode.getNodeId(), endNode.getNodeId(), subgraph)
-                            .flatMap(route -> {
-                                if (!route.getFound()) {
-                                    log.warn("❌ A* failed to find path between {} and {}", startNode.getName(),
-                                            endNode.getName());
-                                }
-                                return enrichRouteSegments(List.of(route));
-                            })
-                            .map(enrichedList -> buildResponse(enrichedList.get(0), request));
+                    log.info("🔀 Ordre des {} POIs optimisé : {} s au lieu de {} s", pois.size(),
+                            OpenTourSolver.tourCost(durations, tour),
+                            OpenTourSolver.tourCost(durations, java.util.stream.IntStream.range(0, tour.length).toArray()));
+                    return ordered;
+                })
+                .onErrorResume(error -> !(error instanceof RoutingOverloadedException), error -> {
+                    log.warn("Optimisation de l'ordre des POIs impossible, ordre demandé conservé: {}",
+                            error.getMessage());
+                    return Mono.just(pois);
                 });
     }
 
@@ -313,15 +297,13 @@ public class RouteCalculatorService {
         int totalTime = 0;
         List<RoadNode> allNodes = new ArrayList<>();
         List<RoadEdge> allEdges = new ArrayList<>();
-        long totalExplored = 0;
-        long totalCompTime = 0;
+        Route effort = new Route();
 
         for (int i = 0; i < rawSegments.size(); i++) {
             Route r = rawSegments.get(i);
             totalDist += r.getTotalDistanceKm();
             totalTime += r.getTotalTimeSeconds();
-            totalExplored += r.getNodesExplored();
-            totalCompTime += r.getComputationTimeMs();
+            effort.addEffort(r);
 
             // Ajouter les nœuds (éviter les doublons aux jonctions)
             if (i == 0) {
@@ -343,35 +325,12 @@ public class RouteCalculatorService {
                 .edges(allEdges)
                 .totalDistanceKm(totalDist)
                 .totalTimeSeconds(totalTime)
-                .nodesExplored((int) totalExplored)
-                .computationTimeMs(totalCompTime)
                 .build();
+        mergedRoute.addEffort(effort);
 
         return buildResponse(mergedRoute, request);
     }
 
-    /**
-     * Trouve le nœud du graphe le plus proche d'une coordonnée GPS.
-     * 
-     * C'est l'opération de "snapping" qui projette un point GPS
-     * sur le réseau routier.
-     * 
-     * TECHNIQUE: Utilise l'index spatial PostGIS pour trouver
-     * le nœud le plus proche en O(log V) avec l'index R-Tree.
-     * 
-     * @param latitude  Latitude GPS
-     * @param longitude Longitude GPS
-     * @return Nœud le plus proche
-     */
-    private Mono<RoadNode> snapToNearestNode(Double latitude, Double longitude) {
-        return nodeRepository.findNearestNode(latitude, longitude)
-                .switchIfEmpty(Mono.error(new RuntimeException(
-                        String.format("Aucun nœud trouvé près de (%.4f, %.4f)", latitude, longitude))))
-                .doOnNext(node -> log.debug("Point (%.4f, %.4f) snappé sur nœud {} (distance: %.2f km)",
-                        latitude, longitude, node.getName(),
-                        calculateDistance(latitude, longitude, node.getLatitude(), node.getLongitude())));
-    }
-
     /**
      * Construit la réponse enrichie à partir de la route calculée.
      * 
@@ -401,22 +360,7 @@ public class RouteCalculatorService {
         List<String> instructions = route.getNavigationInstructions();
 
         // Statistiques
-        RouteStatisticsDTO stats = RouteStatisticsDTO.builder()
-                .nodesExplored(route.getNodesExplored())
-                .computationTimeMs(route.getComputationTimeMs())
-                .algorithm("A* avec heuristique euclidienne")
-                .build();
-
-        // Construire la géométrie encodée (JSON Array [[lat, lng], ...])
-        StringBuilder geomBuilder = new StringBuilder("[");
-        List<RoadNode> nodesData = route.getNodes();
-        for (int i = 0; i < nodesData.size(); i++) {
-            RoadNode node = nodesData.get(i);
-            geomBuilder.append(String.format(Locale.US, "[%.6f,%.6f]", node.getLatitude(), node.getLongitude()));
-            if (i < nodesData.size() - 1)
-                geomBuilder.append(",");
-        }
-        geomBuilder.append("]");
+        RouteStatisticsDTO stats = buildStatistics(route);
 
         return RouteResponse.builder()
                 .found(true)
@@ -429,10 +373,43 @@ public class RouteCalculatorService {
                 .segmentCount(route.getSegmentCount())
                 .instructions(instructions)
                 .statistics(stats)
-                .geometryEncoded(geomBuilder.toString())
+                .geometryEncoded(Polyline.encode(route.getNodes()))
                 .build();
     }
 
+    /**
+     * Statistiques de la réponse : effort de recherche mesuré par le moteur
+     * ({@link Route#getAlgorithm()}, compteurs et temps par phase).
+     */
+    private RouteStatisticsDTO buildStatistics(Route route) {
+        return RouteStatisticsDTO.builder()
+                .nodesExplored(route.getNodesExplored())
+                .edgesRelaxed(route.getEdgesRelaxed())
+                .heapPushes(route.getHeapPushes())
+                .heapDecreaseKeys(route.getHeapDecreaseKeys())
+                .computationTimeMs(route.getComputationTimeMs())
+                .snapTimeMs(toMillis(route.getSnapTimeNanos()))
+                .subgraphLoadTimeMs(toMillis(route.getSubgraphLoadTimeNanos()))
+                .unpackTimeMs(toMillis(route.getUnpackTimeNanos()))
+                .algorithm(route.getAlgorithm() != null ? route.getAlgorithm().getLabel() : "A*")
+                .build();
+    }
+
+    private static Double toMillis(Long nanos) {
+        return nanos != null ? Math.round(nanos / 1_000.0) / 1_000.0 : null;
+    }
+
+    /**
+     * Réponse d'un itinéraire calculé pour une heure de départ : durées des
+     * segments et durée totale à l'heure de passage.
+     */
+    private RouteResponse buildTimeDependentResponse(Route route, RouteRequest request) {
+        RouteResponse response = buildResponse(route, request);
+        response.getStatistics().setAlgorithm("A* dépendant de l'heure (départ "
+                + request.getDepartureTime().toLocalTime().withNano(0) + ")");
+        return response;
+    }
+
     /**
      * Construit un DTO de point à partir d'un nœud.
      * 
@@ -504,28 +481,4 @@ public class RouteCalculatorService {
                 distanceKm,
                 timeMin);
     }
-
-    /**
-     * Calcule la distance euclidienne entre deux points GPS.
-     * 
-     * @param lat1 Latitude point 1
-     * @param lon1 Longitude point 1
-     * @param lat2 Latitude point 2
-     * @param lon2 Longitude point 2
-     * @return Distance en kilomètres
-     */
-    private double calculateDistance(double lat1, double lon1, double lat2, double lon2) {
-        final double EARTH_RADIUS_KM = 6371.0;
-
-        double lat1Rad = Math.toRadians(lat1);
-        double lat2Rad = Math.toRadians(lat2);
-        double lon1Rad = Math.toRadians(lon1);
-        double lon2Rad = Math.toRadians(lon2);
-
-        double angle = Math.acos(
-                Math.sin(lat1Rad) * Math.sin(lat2Rad) +
-                        Math.cos(lat1Rad) * Math.cos(lat2Rad) * Math.cos(lon2Rad - lon1Rad));
-
-        return EARTH_RADIUS_KM * angle;
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,53 @@
+package com.enspy.tripplanning.routing.service;
+
+import com.enspy.tripplanning.routing.model.CalculatedRoute;
+import com.enspy.tripplanning.routing.model.Route;
+import com.enspy.tripplanning.routing.model.Subgraph;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+/**
+ * Point d'entrée unique des calculs de plus court chemin point à point.
+ *
+ * Choisit le moteur selon application.routing.algorithm :
+ * - CH : Contraction Hierarchies dès que la hiérarchie est prête,
+ * - sinon (ou en attendant) : A* ({@link AStarService}).
+ */
+@Service
+@RequiredArgsConstructor
+public class RoutingEngineService {
+
+    private final AStarService aStarService;
+    private final ContractionHierarchyService chService;
+
+    public Mono<Route> calculateShortestPath(Long startNodeId, Long endNodeId) {
+        return calculateShortestPath(startNodeId, endNodeId, null);
+    }
+
+    /**
+     * @param subgraph Sous-graphe pré-chargé, utilisé uniquement par le repli A*
+     */
+    public Mono<Route> calculateShortestPath(Long startNodeId, Long endNodeId, Subgraph subgraph) {
+        return calculateShortestPath(startNodeId, endNodeId, subgraph, null);
+    }
+
+    /**
+     * @param bidirectional Choix A* bidirectionnelle pour cette requête (null =
+     *                      configuration), ignoré lorsque CH répond
+     */
+    public Mono<Route> calculateShortestPath(Long startNodeId, Long endNodeId, Subgraph subgraph,
+            Boolean bidirectional) {
+        if (chService.isReady()) {
+            return chService.calculateShortestPath(startNodeId, endNodeId);
+        }
+        return aStarService.calculateShortestPath(startNodeId, endNodeId, subgraph, bidirectional);
+    }
+
+    /**
+     * Algorithme effectivement utilisé pour les prochaines requêtes.
+     */
+    public CalculatedRoute.RoutingAlgorithm getActiveAlgorithm() {
+        return chService.isReady() ? CalculatedRoute.RoutingAlgorithm.CH : CalculatedRoute.RoutingAlgorithm.ASTAR;
+    }
+}
@@ -0,0 +1,292 @@
+package com.enspy.tripplanning.routing.service;
+
+import com.enspy.tripplanning.routing.exception.RoutingOverloadedException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Pool dédié aux recherches sur le graphe résident (A*, CH, alternatives,
+ * isochrones...).
+ *
+ * - Autant de threads que de cœurs : les recherches sont purement CPU, et
+ * chaque thread garde ses contextes de recherche
+ * ({@link com.enspy.tripplanning.routing.engine.SearchContextPool}).
+ * - Deux voies, chacune avec sa file bornée : {@link Lane#INTERACTIVE}
+ * (requêtes utilisateur) et {@link Lane#BATCH} (lots, planifications
+ * complètes). Quand les deux attendent, les threads servent
+ * application.routing.executor.interactive-weight calculs interactifs pour
+ * un calcul par lot : un lot ne peut ni affamer les utilisateurs ni être
+ * affamé.
+ * - File pleine : refus immédiat ({@link RoutingOverloadedException}, 503
+ * avec Retry-After) plutôt qu'une attente sans fin.
+ *
+ * La voie est lue dans le contexte Reactor ({@link #batchLane()}) : les
+ * appelants par lot l'indiquent une fois en bout de chaîne, sans changer
+ * les signatures des services traversés.
+ *
+ * Un calcul en cours peut confier une partie de son travail à un autre
+ * thread du pool ({@link #fork}) : la tâche passe par la même voie et le
+ * même crédit, le pool reste la seule source de threads de calcul.
+ */
+@Slf4j
+@Service
+public class RoutingExecutor {
+
+    /**
+     * Voie de priorité d'un calcul.
+     */
+    public enum Lane {
+        INTERACTIVE, BATCH
+    }
+
+    /**
+     * Nombre de threads de calcul (0 = nombre de cœurs)
+     */
+    private final int threads;
+
+    /**
+     * Calculs en attente par voie au-delà desquels les suivants sont refusés
+     */
+    private final int queueCapacity;
+
+    /**
+     * Calculs interactifs servis pour un calcul par lot
+     */
+    private final int interactiveWeight;
+
+    /**
+     * Délai conseillé au client après un refus (secondes)
+     */
+    private final int retryAfterSeconds;
+
+    /**
+     * Étapes d'un même itinéraire calculées en parallèle
+     */
+    private final int maxParallelLegs;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    private final ArrayDeque<Task> interactiveQueue = new ArrayDeque<>();
+    private final ArrayDeque<Task> batchQueue = new ArrayDeque<>();
+    /** Calculs interactifs encore servis avant de céder la place à un lot */
+    private int interactiveCredit;
+    private boolean running;
+    private Thread[] workers;
+
+    private final AtomicLong rejected = new AtomicLong();
+
+    /** Voie du calcul exécuté par le thread courant (null hors du pool) */
+    private static final ThreadLocal<Lane> CURRENT_LANE = new ThreadLocal<>();
+
+    /**
+     * Calcul en attente ; annulé si l'abonné se désabonne avant son tour.
+     */
+    private static final class Task {
+        private final Lane lane;
+        private final Runnable body;
+        private volatile boolean cancelled;
+
+        private Task(Lane lane, Runnable body) {
+            this.lane = lane;
+            this.body = body;
+        }
+    }
+
+    public RoutingExecutor(
+            @Value("${application.routing.executor.threads:0}") int threads,
+            @Value("${application.routing.executor.queue-capacity:256}") int queueCapacity,
+            @Value("${application.routing.executor.interactive-weight:4}") int interactiveWeight,
+            @Value("${application.routing.executor.retry-after-seconds:2}") int retryAfterSeconds,
+            @Value("${application.routing.executor.max-parallel-legs:4}") int maxParallelLegs) {
+        this.threads = threads;
+        this.queueCapacity = queueCapacity;
+        this.interactiveWeight = interactiveWeight;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.maxParallelLegs = maxParallelLegs;
+    }
+
+    @PostConstruct
+    void start() {
+        int count = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        interactiveCredit = Math.max(1, interactiveWeight);
+        running = true;
+        workers = new Thread[count];
+        for (int i = 0; i < count; i++) {
+            workers[i] = new Thread(this::work, "routing-" + i);
+            workers[i].setDaemon(true);
+            workers[i].start();
+        }
+        log.info("Pool de calcul d'itinéraires : {} threads, {} calculs en attente par voie", count, queueCapacity);
+    }
+
+    @PreDestroy
+    void stop() {
+        lock.lock();
+        try {
+            running = false;
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Contexte Reactor plaçant les calculs de la chaîne sur la voie par lot.
+     */
+    public static Context batchLane() {
+        return Context.of(Lane.class, Lane.BATCH);
+    }
+
+    /**
+     * Exécute {@code task} sur le pool, dans la voie du contexte de
+     * l'abonné (interactive par défaut).
+     *
+     * @return Résultat du calcul, ou erreur {@link RoutingOverloadedException}
+     *         si la file de la voie est pleine
+     */
+    public <T> Mono<T> submit(Callable<T> task) {
+        return Mono.deferContextual(context -> {
+            Lane lane = context.getOrDefault(Lane.class, Lane.INTERACTIVE);
+            return Mono.<T>create(sink -> {
+                Task queued = new Task(lane, () -> {
+                    try {
+                        sink.success(task.call());
+                    } catch (Throwable error) {
+                        sink.error(error);
+                    }
+                });
+                if (!offer(queued, false)) {
+                    rejected.incrementAndGet();
+                    sink.error(new RoutingOverloadedException(
+                            "Calculs d'itinéraires saturés, réessayer dans " + retryAfterSeconds + " s",
+                            retryAfterSeconds));
+                    return;
+                }
+                sink.onCancel(() -> queued.cancelled = true);
+            });
+        });
+    }
+
+    /**
+     * Exécute {@code task} sur un autre thread du pool, dans la voie du
+     * calcul en cours (interactive hors du pool). La tâche passe en tête de
+     * sa file, le calcul qui l'a créée étant déjà admis, et consomme le
+     * crédit de la voie comme tout calcul.
+     *
+     * L'appelant ne doit pas attendre une tâche qui n'a pas démarré : elle
+     * peut rester en file tant que tous les threads sont occupés.
+     *
+     * @return false si la file de la voie est pleine (tâche non exécutée)
+     */
+    public boolean fork(Runnable task) {
+        Lane lane = CURRENT_LANE.get();
+        return offer(new Task(lane != null ? lane : Lane.INTERACTIVE, task), true);
+    }
+
+    private boolean offer(Task task, boolean first) {
+        lock.lock();
+        try {
+            ArrayDeque<Task> queue = task.lane == Lane.BATCH ? batchQueue : interactiveQueue;
+            if (queue.size() >= queueCapacity) {
+                return false;
+            }
+            if (first) {
+                queue.addFirst(task);
+            } else {
+                queue.addLast(task);
+            }
+            available.signal();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Prochain calcul : interactif tant qu'il reste du crédit, sinon un lot
+     * (le crédit est alors rechargé). Une voie vide cède toujours la place.
+     */
+    private Task take() throws InterruptedException {
+        lock.lock();
+        try {
+            while (running && interactiveQueue.isEmpty() && batchQueue.isEmpty()) {
+                available.await();
+            }
+            if (!running) {
+                return null;
+            }
+            if (!interactiveQueue.isEmpty() && (interactiveCredit > 0 || batchQueue.isEmpty())) {
+                if (interactiveCredit > 0) {
+                    interactiveCredit--;
+                }
+                return interactiveQueue.pollFirst();
+            }
+            interactiveCredit = Math.max(1, interactiveWeight);
+            return batchQueue.pollFirst();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void work() {
+        while (true) {
+            Task task;
+            try {
+                task = take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (task == null) {
+                return;
+            }
+            if (!task.cancelled) {
+                CURRENT_LANE.set(task.lane);
+                try {
+                    task.body.run();
+                } catch (RuntimeException error) {
+                    log.error("Calcul délégué en échec", error);
+                } finally {
+                    CURRENT_LANE.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * @return Calculs en attente dans la voie
+     */
+    public int getQueued(Lane lane) {
+        lock.lock();
+        try {
+            return lane == Lane.BATCH ? batchQueue.size() : interactiveQueue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return Nombre de calculs refusés depuis le démarrage
+     */
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    /**
+     * @return Nombre maximal d'étapes d'un itinéraire soumises en même temps
+     */
+    public int getMaxParallelLegs() {
+        return Math.max(1, maxParallelLegs);
+    }
+}
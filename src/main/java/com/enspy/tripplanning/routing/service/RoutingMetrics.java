@@ -0,0 +1,115 @@
+package com.enspy.tripplanning.routing.service;
+
+import com.enspy.tripplanning.routing.model.Route;
+import com.enspy.tripplanning.routing.model.SearchAlgorithm;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Effort des recherches d'itinéraires, exporté sur /actuator/prometheus.
+ *
+ * Chaque recherche locale enregistre sa durée, ses nœuds fixés, arcs
+ * examinés, opérations de tas et les temps de snapping, de chargement des
+ * tuiles et de reconstruction du chemin ({@link Route}). Tags :
+ * algorithm ({@link SearchAlgorithm#getTag()}) et distance (tranche de
+ * longueur de l'itinéraire, "none" sans chemin), pour comparer les moteurs
+ * à trajet comparable.
+ *
+ * MÉTRIQUES: routing.search.duration (histogramme), routing.search.snap,
+ * routing.search.subgraph.load, routing.search.unpack,
+ * routing.search.nodes.settled, routing.search.edges.relaxed,
+ * routing.search.heap.pushes et routing.search.heap.decrease.keys
+ * (percentiles 50/95/99).
+ */
+@Component
+public class RoutingMetrics {
+
+    /** Bornes supérieures des tranches de distance (km) */
+    private static final int[] DISTANCE_BANDS_KM = { 10, 50, 200 };
+
+    private final MeterRegistry meterRegistry;
+
+    public RoutingMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Enregistre l'effort d'une recherche ; sans effet si le moteur est
+     * inconnu (itinéraire externe). Une mesure absente (pas de snapping, pas
+     * de tuiles lues...) n'est pas enregistrée.
+     */
+    public void record(Route route) {
+        if (route == null || route.getAlgorithm() == null) {
+            return;
+        }
+        Tags tags = Tags.of("algorithm", route.getAlgorithm().getTag(), "distance", distanceBand(route));
+
+        if (route.getComputationTimeMs() != null) {
+            Timer.builder("routing.search.duration")
+                    .description("Durée d'une recherche d'itinéraire")
+                    .tags(tags)
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofMillis(1))
+                    .maximumExpectedValue(Duration.ofSeconds(30))
+                    .register(meterRegistry)
+                    .record(route.getComputationTimeMs(), TimeUnit.MILLISECONDS);
+        }
+        recordNanos("routing.search.snap", "Snapping des points de départ et d'arrivée", tags,
+                route.getSnapTimeNanos());
+        recordNanos("routing.search.subgraph.load", "Attente des tuiles lues en base", tags,
+                route.getSubgraphLoadTimeNanos());
+        recordNanos("routing.search.unpack", "Reconstruction du chemin", tags, route.getUnpackTimeNanos());
+        recordCount("routing.search.nodes.settled", "Nœuds fixés par recherche", tags, route.getNodesExplored());
+        recordCount("routing.search.edges.relaxed", "Arcs examinés par recherche", tags, route.getEdgesRelaxed());
+        recordCount("routing.search.heap.pushes", "Insertions dans la file de priorité", tags,
+                route.getHeapPushes());
+        recordCount("routing.search.heap.decrease.keys", "Diminutions de clé dans la file de priorité", tags,
+                route.getHeapDecreaseKeys());
+    }
+
+    private void recordNanos(String name, String description, Tags tags, Long nanos) {
+        if (nanos == null) {
+            return;
+        }
+        Timer.builder(name)
+                .description(description)
+                .tags(tags)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void recordCount(String name, String description, Tags tags, Integer count) {
+        if (count == null) {
+            return;
+        }
+        DistributionSummary.builder(name)
+                .description(description)
+                .tags(tags)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry)
+                .record(count);
+    }
+
+    private static String distanceBand(Route route) {
+        if (!Boolean.TRUE.equals(route.getFound()) || route.getTotalDistanceKm() == null) {
+            return "none";
+        }
+        double km = route.getTotalDistanceKm();
+        int lower = 0;
+        for (int upper : DISTANCE_BANDS_KM) {
+            if (km < upper) {
+                return lower + "-" + upper + "km";
+            }
+            lower = upper;
+        }
+        return lower + "km+";
+    }
+}
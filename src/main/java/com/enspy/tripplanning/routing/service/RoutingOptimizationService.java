@@ -77,6 +77,13 @@ public class RoutingOptimizationService implements CommandLineRunner {
         return true;
     }
 
-    private record CityCenter(String name, double lat, double lon) {
+    /**
+     * Villes majeures (graines des landmarks ALT, paires de référence).
+     */
+    public static List<CityCenter> getMajorCities() {
+        return MAJOR_CITIES;
+    }
+
+    public record CityCenter(String name, double lat, double lon) {
     }
 }
\ No newline at end of file
@@ -0,0 +1,144 @@
+package com.enspy.tripplanning.routing.service;
+
+import com.enspy.tripplanning.routing.engine.alt.LandmarkTable;
+import com.enspy.tripplanning.routing.graph.RoadGraph;
+import com.enspy.tripplanning.routing.graph.RoadGraphLoadedEvent;
+import com.enspy.tripplanning.routing.graph.RoadGraphWeightsChangedEvent;
+import com.enspy.tripplanning.routing.graph.RoutingProfile;
+import com.enspy.tripplanning.routing.model.Route;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.geo.Point;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Itinéraires par profil de véhicule (voiture, poids lourd, moto).
+ *
+ * À chaque chargement du graphe résident, une vue par profil autre que la
+ * voiture est dérivée ({@link RoadGraph#withProfile}) : même topologie, un
+ * tableau de poids par profil. Les surcharges (fermetures, ralentissements)
+ * du graphe de base y sont recopiées à chaque changement.
+ *
+ * Le snapping et les landmarks ALT sont ceux du graphe de base : les indices
+ * de nœuds sont communs et les poids d'un profil ne sont jamais inférieurs à
+ * ceux de la voiture.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RoutingProfileService {
+
+    private final RoadGraphService graphService;
+    private final SnappingService snappingService;
+    private final LandmarkService landmarkService;
+    private final AStarService aStarService;
+    private final RoutingExecutor routingExecutor;
+    private final RoutingMetrics routingMetrics;
+
+    /** Vues du graphe de base {@link #viewsBase}, par profil */
+    private volatile Map<RoutingProfile, RoadGraph> views = Map.of();
+    private volatile RoadGraph viewsBase;
+
+    @EventListener
+    public void onGraphLoaded(RoadGraphLoadedEvent event) {
+        RoadGraph graph = event.graph();
+        Mono.fromRunnable(() -> buildViews(graph))
+                .subscribeOn(Schedulers.boundedElastic())
+                .subscribe(
+                        done -> {
+                        },
+                        error -> log.error("Échec de la préparation des profils de véhicule: {}", error.getMessage()));
+    }
+
+    @EventListener
+    public synchronized void onWeightsChanged(RoadGraphWeightsChangedEvent event) {
+        if (event.graph() != viewsBase) {
+            return;
+        }
+        double[] factors = event.graph().getEdgeFactors();
+        views.values().forEach(view -> view.applyEdgeFactors(factors));
+    }
+
+    private synchronized void buildViews(RoadGraph graph) {
+        long startTime = System.currentTimeMillis();
+        double[] factors = graph.getEdgeFactors();
+        Map<RoutingProfile, RoadGraph> built = new EnumMap<>(RoutingProfile.class);
+        for (RoutingProfile profile : RoutingProfile.values()) {
+            if (profile == graph.getProfile()) {
+                continue;
+            }
+            RoadGraph view = graph.withProfile(profile);
+            if (factors != null) {
+                view.applyEdgeFactors(factors);
+            }
+            built.put(profile, view);
+        }
+        this.views = built;
+        this.viewsBase = graph;
+        log.info("{} profil(s) de véhicule dérivé(s) du graphe en {}ms ({} Mo)", built.size(),
+                System.currentTimeMillis() - startTime, built.size() * 4L * graph.getArcCount() / (1024 * 1024));
+    }
+
+    /**
+     * @param profile Profil demandé (null = voiture)
+     * @return Graphe résident du profil, ou null s'il n'est pas prêt
+     */
+    public RoadGraph getGraph(RoutingProfile profile) {
+        RoadGraph base = graphService.getGraph();
+        if (base == null || profile == null || profile == base.getProfile()) {
+            return base;
+        }
+        return viewsBase == base ? views.get(profile) : null;
+    }
+
+    /**
+     * Itinéraire passant par {@code points} dans l'ordre, un A* par étape sur
+     * le graphe du profil.
+     *
+     * @return Une route par étape ; vide si le graphe du profil n'est pas prêt
+     */
+    public Mono<List<Route>> calculateLegs(RoutingProfile profile, List<Point> points) {
+        RoadGraph base = graphService.getGraph();
+        RoadGraph graph = getGraph(profile);
+        if (graph == null) {
+            return Mono.empty();
+        }
+        LandmarkTable landmarks = landmarkService.getTable(base);
+
+        return snappingService.snapToIndices(base, points)
+                .timed()
+                .flatMap(snapped -> {
+                    int[] nodes = snapped.get();
+                    // Snapping commun à toutes les étapes, compté sur la première
+                    long snapNanos = snapped.elapsed().toNanos();
+                    return Flux.range(0, nodes.length - 1)
+                            .flatMapSequential(i -> nodes[i] < 0 || nodes[i + 1] < 0
+                                    ? Mono.just(Route.builder()
+                                            .found(false)
+                                            .errorMessage("Point hors du réseau routier")
+                                            .build())
+                                    : routingExecutor.submit(() -> {
+                                        long startTime = System.currentTimeMillis();
+                                        Route leg = aStarService.executeBidirectional(graph, nodes[i], nodes[i + 1],
+                                                landmarks, false);
+                                        leg.setComputationTimeMs(System.currentTimeMillis() - startTime);
+                                        if (i == 0) {
+                                            leg.setSnapTimeNanos(snapNanos);
+                                        }
+                                        routingMetrics.record(leg);
+                                        return leg;
+                                    }), routingExecutor.getMaxParallelLegs())
+                            .collectList();
+                })
+                .doOnNext(legs -> log.info("Itinéraire {} en {} étape(s) calculé sur le graphe résident",
+                        graph.getProfile().getLabel(), legs.size()));
+    }
+}
@@ -0,0 +1,143 @@
+package com.enspy.tripplanning.routing.service;
+
+import com.enspy.tripplanning.routing.graph.NodeSpatialIndex;
+import com.enspy.tripplanning.routing.graph.RoadGraph;
+import com.enspy.tripplanning.routing.graph.RoadGraphLoadedEvent;
+import com.enspy.tripplanning.routing.model.RoadNode;
+import com.enspy.tripplanning.routing.repository.RoadNodeRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.geo.Point;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * "Snapping" des coordonnées GPS sur le réseau routier.
+ *
+ * Dès que le graphe résident est chargé, un {@link NodeSpatialIndex} est
+ * construit : un lot entier de points est alors snappé en mémoire, en
+ * quelques microsecondes par point, sans aucune requête PostGIS. Tant que
+ * l'index n'est pas prêt, chaque point passe par
+ * {@link RoadNodeRepository#findNearestNode}.
+ *
+ * OPTIONS (application.routing.snap):
+ * - max-distance-meters : au-delà, le point n'est pas snappé (0 = illimité),
+ * - to-edge : projeter le point sur la route la plus proche puis retenir
+ * l'extrémité la plus proche du point projeté, plutôt que le nœud le plus
+ * proche à vol d'oiseau (qui peut appartenir à une autre route).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SnappingService {
+
+    private final RoadNodeRepository nodeRepository;
+
+    @Value("${application.routing.snap.max-distance-meters:0}")
+    private double maxDistanceMeters;
+
+    @Value("${application.routing.snap.to-edge:false}")
+    private boolean toEdge;
+
+    private volatile NodeSpatialIndex index;
+
+    @EventListener
+    public void onGraphLoaded(RoadGraphLoadedEvent event) {
+        RoadGraph graph = event.graph();
+        Mono.fromCallable(() -> NodeSpatialIndex.build(graph))
+                .subscribeOn(Schedulers.boundedElastic())
+                .subscribe(
+                        built -> {
+                            this.index = built;
+                            log.info("Index spatial prêt: {}", built);
+                        },
+                        error -> log.error("Échec de la construction de l'index spatial: {}", error.getMessage()));
+    }
+
+    /**
+     * @return Index du graphe donné, ou null s'il n'est pas prêt
+     */
+    public NodeSpatialIndex getIndex(RoadGraph graph) {
+        NodeSpatialIndex current = index;
+        return current != null && current.getGraph() == graph ? current : null;
+    }
+
+    /**
+     * Snappe un lot de points sur le graphe donné.
+     *
+     * @return Indices denses des nœuds (-1 si aucun nœud dans le rayon)
+     */
+    public Mono<int[]> snapToIndices(RoadGraph graph, List<Point> points) {
+        NodeSpatialIndex current = getIndex(graph);
+        if (current != null) {
+            return Mono.fromCallable(() -> {
+                int[] nodes = new int[points.size()];
+                for (int i = 0; i < nodes.length; i++) {
+                    nodes[i] = snap(current, points.get(i));
+                }
+                return nodes;
+            });
+        }
+
+        return Flux.fromIterable(points)
+                .flatMapSequential(point -> nodeRepository.findNearestNode(point.getY(), point.getX())
+                        .map(node -> graph.indexOf(node.getNodeId()))
+                        .defaultIfEmpty(-1), 16)
+                .collectList()
+                .map(indices -> indices.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    /**
+     * Snappe un lot de points et retourne les nœuds correspondants, dans
+     * l'ordre des points.
+     *
+     * @param graph Graphe résident (null : requêtes PostGIS)
+     * @return Nœuds snappés ; erreur si un point ne peut pas être snappé
+     */
+    public Mono<List<RoadNode>> snapAll(RoadGraph graph, List<Point> points) {
+        if (graph == null || getIndex(graph) == null) {
+            return Flux.fromIterable(points)
+                    .flatMapSequential(point -> nodeRepository.findNearestNode(point.getY(), point.getX())
+                            .switchIfEmpty(Mono.error(noNodeNear(point))), 16)
+                    .collectList();
+        }
+
+        return snapToIndices(graph, points).flatMap(nodes -> {
+            List<RoadNode> snapped = new ArrayList<>(nodes.length);
+            for (int i = 0; i < nodes.length; i++) {
+                if (nodes[i] < 0) {
+                    return Mono.error(noNodeNear(points.get(i)));
+                }
+                snapped.add(graph.toRoadNode(nodes[i]));
+            }
+            return Mono.just(snapped);
+        });
+    }
+
+    /**
+     * Snappe un point isolé (voir {@link #snapAll}).
+     */
+    public Mono<RoadNode> snap(RoadGraph graph, double latitude, double longitude) {
+        return snapAll(graph, List.of(new Point(longitude, latitude))).map(nodes -> nodes.get(0));
+    }
+
+    private int snap(NodeSpatialIndex current, Point point) {
+        if (toEdge) {
+            NodeSpatialIndex.EdgeSnap edgeSnap = current.nearestEdge(point.getY(), point.getX(), maxDistanceMeters);
+            return edgeSnap != null ? edgeSnap.node() : -1;
+        }
+        return current.nearestNode(point.getY(), point.getX(), maxDistanceMeters);
+    }
+
+    private static RuntimeException noNodeNear(Point point) {
+        return new RuntimeException(
+                String.format("Aucun nœud trouvé près de (%.4f, %.4f)", point.getY(), point.getX()));
+    }
+}
@@ -0,0 +1,275 @@
+package com.enspy.tripplanning.routing.service;
+
+import com.enspy.tripplanning.routing.model.RoadEdge;
+import com.enspy.tripplanning.routing.model.RoadNode;
+import com.enspy.tripplanning.routing.model.Subgraph;
+import com.enspy.tripplanning.routing.repository.RoadEdgeRepository;
+import com.enspy.tripplanning.routing.repository.RoadNodeRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache LRU des portions du graphe routier, découpées en tuiles
+ * géographiques fixes (application.routing.subgraph-cache.tile-size-degrees).
+ *
+ * Le sous-graphe d'une requête est l'union des tuiles qui couvrent sa zone :
+ * seules les tuiles absentes sont lues dans PostGIS, une seule fois même si
+ * plusieurs requêtes les demandent en même temps. Les requêtes répétées sur
+ * une même région (Yaoundé, Douala...) ne touchent plus la base.
+ *
+ * ÉVICTION: la taille mémoire de chaque tuile est estimée en octets ; au-delà
+ * de application.routing.subgraph-cache.max-bytes, les tuiles les moins
+ * récemment utilisées sont retirées.
+ *
+ * MÉTRIQUES: routing.subgraph.tiles.requests (tag result=hit|miss),
+ * routing.subgraph.tiles.evictions, routing.subgraph.tiles.bytes et
+ * routing.subgraph.tiles.count.
+ */
+@Slf4j
+@Service
+public class SubgraphTileCache {
+
+    /** Estimation de l'empreinte d'un RoadNode (objet, boxing, entrée de map) */
+    private static final long NODE_BYTES = 160;
+    /** Estimation de l'empreinte d'un RoadEdge hors nom de rue */
+    private static final long EDGE_BYTES = 240;
+
+    private final RoadNodeRepository nodeRepository;
+    private final RoadEdgeRepository edgeRepository;
+
+    private final double tileSize;
+    private final long maxBytes;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    /** Tuiles chargées, ordre d'accès (LRU) ; accès sous verrou */
+    private final LinkedHashMap<Long, Tile> tiles = new LinkedHashMap<>(64, 0.75f, true);
+    private long bytes;
+
+    /** Chargements en cours, partagés entre requêtes simultanées */
+    private final Map<Long, Mono<Tile>> loading = new ConcurrentHashMap<>();
+
+    /**
+     * Contenu d'une tuile : arêtes qui la touchent et nœuds associés, déjà
+     * indexés.
+     */
+    private record Tile(Subgraph subgraph, long bytes) {
+    }
+
+    public SubgraphTileCache(RoadNodeRepository nodeRepository,
+            RoadEdgeRepository edgeRepository,
+            MeterRegistry meterRegistry,
+            @Value("${application.routing.subgraph-cache.tile-size-degrees:0.25}") double tileSize,
+            @Value("${application.routing.subgraph-cache.max-bytes:268435456}") long maxBytes) {
+        this.nodeRepository = nodeRepository;
+        this.edgeRepository = edgeRepository;
+        this.tileSize = tileSize;
+        this.maxBytes = maxBytes;
+
+        this.hits = Counter.builder("routing.subgraph.tiles.requests").tag("result", "hit")
+                .description("Tuiles servies depuis le cache").register(meterRegistry);
+        this.misses = Counter.builder("routing.subgraph.tiles.requests").tag("result", "miss")
+                .description("Tuiles lues dans PostGIS").register(meterRegistry);
+        this.evictions = Counter.builder("routing.subgraph.tiles.evictions")
+                .description("Tuiles retirées du cache (LRU)").register(meterRegistry);
+        Gauge.builder("routing.subgraph.tiles.bytes", this, SubgraphTileCache::getBytes)
+                .description("Mémoire estimée des tuiles en cache").baseUnit("bytes").register(meterRegistry);
+        Gauge.builder("routing.subgraph.tiles.count", this, SubgraphTileCache::getTileCount)
+                .description("Nombre de tuiles en cache").register(meterRegistry);
+    }
+
+    /**
+     * Sous-graphe couvrant la zone donnée (union des tuiles).
+     */
+    public Mono<Subgraph> getSubgraph(double minLat, double minLon, double maxLat, double maxLon) {
+        int minRow = row(minLat);
+        int maxRow = row(maxLat);
+        int minCol = column(minLon);
+        int maxCol = column(maxLon);
+
+        List<Long> keys = new ArrayList<>((maxRow - minRow + 1) * (maxCol - minCol + 1));
+        for (int r = minRow; r <= maxRow; r++) {
+            for (int c = minCol; c <= maxCol; c++) {
+                keys.add(key(r, c));
+            }
+        }
+
+        return Flux.fromIterable(keys)
+                .flatMap(this::loadOrGet, 4)
+                .collectList()
+                .map(this::merge);
+    }
+
+    /**
+     * Clé de la tuile contenant un point.
+     */
+    public long tileKey(double latitude, double longitude) {
+        return key(row(latitude), column(longitude));
+    }
+
+    /**
+     * @return Tuile déjà en cache, ou null (aucune requête n'est lancée)
+     */
+    public Subgraph getCachedTile(long key) {
+        Tile cached;
+        synchronized (this) {
+            cached = tiles.get(key);
+        }
+        if (cached == null) {
+            return null;
+        }
+        hits.increment();
+        return cached.subgraph();
+    }
+
+    /**
+     * Tuile indexée, lue dans PostGIS si elle n'est pas en cache.
+     */
+    public Mono<Subgraph> getTile(long key) {
+        return loadOrGet(key).map(Tile::subgraph);
+    }
+
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    public synchronized int getTileCount() {
+        return tiles.size();
+    }
+
+    /**
+     * Vide le cache (réimport du réseau routier).
+     */
+    public synchronized void invalidateAll() {
+        tiles.clear();
+        bytes = 0;
+    }
+
+    private Mono<Tile> loadOrGet(long key) {
+        Tile cached;
+        synchronized (this) {
+            cached = tiles.get(key);
+        }
+        if (cached != null) {
+            hits.increment();
+            return Mono.just(cached);
+        }
+
+        return loading.computeIfAbsent(key, k -> {
+            misses.increment();
+            return loadTile(k)
+                    .doOnNext(tile -> store(k, tile))
+                    .doFinally(signal -> loading.remove(k))
+                    .cache();
+        });
+    }
+
+    private Mono<Tile> loadTile(long key) {
+        double minLat = (key >> 32) * tileSize;
+        double minLon = (int) key * tileSize;
+        double maxLat = minLat + tileSize;
+        double maxLon = minLon + tileSize;
+
+        return Mono.zip(
+                edgeRepository.findEdgesInBoundingBox(minLat, minLon, maxLat, maxLon).collectList(),
+                nodeRepository.findNodesInBoundingBox(minLat, minLon, maxLat, maxLon).collectList())
+                .flatMap(tuple -> {
+                    List<RoadEdge> edges = tuple.getT1();
+                    List<RoadNode> nodesInBox = tuple.getT2();
+
+                    // Extrémités d'arêtes situées hors de la tuile
+                    Set<Long> nodeIds = new HashSet<>();
+                    for (RoadEdge edge : edges) {
+                        nodeIds.add(edge.getSourceNodeId());
+                        nodeIds.add(edge.getTargetNodeId());
+                    }
+                    for (RoadNode node : nodesInBox) {
+                        nodeIds.remove(node.getNodeId());
+                    }
+
+                    return nodeRepository.findAllById(nodeIds).collectList()
+                            .map(outside -> {
+                                List<RoadNode> nodes = new ArrayList<>(nodesInBox.size() + outside.size());
+                                nodes.addAll(nodesInBox);
+                                nodes.addAll(outside);
+                                Subgraph subgraph = new Subgraph();
+                                subgraph.index(nodes, edges);
+                                return new Tile(subgraph, estimateBytes(nodes, edges));
+                            });
+                });
+    }
+
+    private synchronized void store(long key, Tile tile) {
+        Tile previous = tiles.put(key, tile);
+        bytes += tile.bytes() - (previous != null ? previous.bytes() : 0);
+
+        Iterator<Tile> lru = tiles.values().iterator();
+        while (bytes > maxBytes && tiles.size() > 1 && lru.hasNext()) {
+            Tile evicted = lru.next();
+            if (evicted == tile) {
+                continue;
+            }
+            lru.remove();
+            bytes -= evicted.bytes();
+            evictions.increment();
+        }
+    }
+
+    private Subgraph merge(List<Tile> parts) {
+        Map<Long, RoadNode> nodes = new HashMap<>();
+        Map<Long, RoadEdge> edges = new HashMap<>();
+        for (Tile tile : parts) {
+            nodes.putAll(tile.subgraph().getNodes());
+            // Une arête à cheval sur deux tuiles figure dans les deux
+            for (List<RoadEdge> adjacent : tile.subgraph().getNeighbors().values()) {
+                for (RoadEdge edge : adjacent) {
+                    edges.putIfAbsent(edge.getEdgeId(), edge);
+                }
+            }
+        }
+
+        Subgraph subgraph = new Subgraph();
+        subgraph.index(new ArrayList<>(nodes.values()), new ArrayList<>(edges.values()));
+        log.debug("Sous-graphe assemblé depuis {} tuiles: {} nœuds, {} arêtes",
+                parts.size(), nodes.size(), edges.size());
+        return subgraph;
+    }
+
+    private static long estimateBytes(List<RoadNode> nodes, List<RoadEdge> edges) {
+        long total = nodes.size() * NODE_BYTES;
+        for (RoadEdge edge : edges) {
+            total += EDGE_BYTES + (edge.getStreetName() != null ? 2L * edge.getStreetName().length() : 0);
+        }
+        return total;
+    }
+
+    private int row(double latitude) {
+        return (int) Math.floor(latitude / tileSize);
+    }
+
+    private int column(double longitude) {
+        return (int) Math.floor(longitude / tileSize);
+    }
+
+    private static long key(int row, int column) {
+        return ((long) row << 32) | (column & 0xFFFFFFFFL);
+    }
+}
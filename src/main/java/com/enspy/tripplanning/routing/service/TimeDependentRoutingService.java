@@ -0,0 +1,162 @@
+package com.enspy.tripplanning.routing.service;
+
+import com.enspy.tripplanning.routing.engine.BidirectionalAStar;
+import com.enspy.tripplanning.routing.engine.SearchContext;
+import com.enspy.tripplanning.routing.engine.SearchContextPool;
+import com.enspy.tripplanning.routing.engine.SearchEffort;
+import com.enspy.tripplanning.routing.engine.alt.LandmarkTable;
+import com.enspy.tripplanning.routing.engine.timedep.SpeedProfiles;
+import com.enspy.tripplanning.routing.engine.timedep.TimeDependentAStar;
+import com.enspy.tripplanning.routing.graph.RoadGraph;
+import com.enspy.tripplanning.routing.graph.RoadGraphLoadedEvent;
+import com.enspy.tripplanning.routing.graph.RoutingProfile;
+import com.enspy.tripplanning.routing.model.Route;
+import com.enspy.tripplanning.routing.model.SearchAlgorithm;
+import com.enspy.tripplanning.routing.model.SpeedProfile;
+import com.enspy.tripplanning.routing.repository.SpeedProfileRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.geo.Point;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Itinéraires selon l'heure de départ.
+ *
+ * À chaque chargement du graphe résident, les profils de la table
+ * speed_profiles sont attribués aux arcs ({@link SpeedProfiles}). Une
+ * requête avec heure de départ est ensuite résolue par
+ * {@link TimeDependentAStar} : à Douala, un trajet à 7 h n'a plus la durée
+ * du même trajet à 3 h.
+ *
+ * L'heure de départ est l'heure locale (pas de fuseau). Tant que le graphe
+ * ou les profils ne sont pas prêts, {@link #calculateRoute} ne répond rien
+ * et l'appelant garde son calcul statique.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TimeDependentRoutingService {
+
+    private final RoadGraphService graphService;
+    private final SnappingService snappingService;
+    private final LandmarkService landmarkService;
+    private final AStarService aStarService;
+    private final RoutingProfileService profileService;
+    private final RoutingExecutor routingExecutor;
+    private final RoutingMetrics routingMetrics;
+    private final SpeedProfileRepository profileRepository;
+
+    @Value("${application.routing.time-dependent.enabled:true}")
+    private boolean enabled;
+
+    private volatile SpeedProfiles profiles;
+
+    @EventListener
+    public void onGraphLoaded(RoadGraphLoadedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        RoadGraph graph = event.graph();
+        profileRepository.findActiveByPriority()
+                .collectList()
+                .publishOn(Schedulers.boundedElastic())
+                .map(rows -> SpeedProfiles.build(graph, toProfiles(rows)))
+                .subscribe(
+                        built -> {
+                            this.profiles = built;
+                            log.info("{} profil(s) de vitesse horaires appliqués à {} arcs",
+                                    built.getProfileCount(), built.getProfiledArcCount());
+                        },
+                        error -> log.error("Échec du chargement des profils de vitesse: {}", error.getMessage()));
+    }
+
+    /**
+     * @return Profils du graphe donné, ou null s'ils ne sont pas prêts
+     */
+    public SpeedProfiles getProfiles(RoadGraph graph) {
+        SpeedProfiles current = profiles;
+        return current != null && current.getGraph() == graph ? current : null;
+    }
+
+    /**
+     * Chemin d'arrivée au plus tôt en partant à {@code departureTime}. Les
+     * profils horaires s'appliquent aux poids du profil de véhicule (mêmes
+     * arcs).
+     *
+     * @param profile Profil de véhicule (null = voiture)
+     * @return Route dont les temps sont ceux de l'heure de passage ; vide si
+     *         la fonction est désactivée, si le graphe ou les profils ne sont
+     *         pas prêts, ou si aucun chemin n'existe
+     */
+    public Mono<Route> calculateRoute(Point start, Point end, LocalDateTime departureTime,
+            RoutingProfile profile) {
+        RoadGraph base = graphService.getGraph();
+        RoadGraph graph = profileService.getGraph(profile);
+        SpeedProfiles current = base != null ? getProfiles(base) : null;
+        if (!enabled || current == null || graph == null) {
+            return Mono.empty();
+        }
+        int departure = departureTime.toLocalTime().toSecondOfDay();
+        LandmarkTable landmarks = landmarkService.getTable(base);
+
+        return snappingService.snapToIndices(base, List.of(start, end))
+                .timed()
+                .flatMap(snapped -> routingExecutor.submit(() -> {
+                    int[] nodes = snapped.get();
+                    if (nodes[0] < 0 || nodes[1] < 0) {
+                        return null;
+                    }
+                    long startTime = System.currentTimeMillis();
+                    SearchContext ctx = SearchContextPool.acquire(graph.getNodeCount(), 0);
+                    BidirectionalAStar.Heuristic heuristic = (from, to) -> aStarService.heuristicSeconds(graph,
+                            landmarks, from, to);
+                    Route route = TimeDependentAStar.search(graph, current, nodes[0], nodes[1], departure,
+                            heuristic, ctx);
+                    if (route == null) {
+                        return null;
+                    }
+                    route.setComputationTimeMs(System.currentTimeMillis() - startTime);
+                    route.setAlgorithm(SearchAlgorithm.TIME_DEPENDENT);
+                    route.setSnapTimeNanos(snapped.elapsed().toNanos());
+                    routingMetrics.record(SearchEffort.record(route, ctx));
+                    log.info("A* dépendant de l'heure ({}) en {}ms - {} s, {} nœuds explorés",
+                            departureTime.toLocalTime(), route.getComputationTimeMs(),
+                            route.getTotalTimeSeconds(), route.getNodesExplored());
+                    return route;
+                }));
+    }
+
+    private static List<SpeedProfiles.Profile> toProfiles(List<SpeedProfile> rows) {
+        List<SpeedProfiles.Profile> result = new ArrayList<>(rows.size());
+        for (SpeedProfile row : rows) {
+            try {
+                Set<String> roadTypes = row.getRoadTypes() == null ? Set.of()
+                        : Arrays.stream(row.getRoadTypes().split(","))
+                                .map(type -> type.trim().toLowerCase(Locale.ROOT))
+                                .filter(type -> !type.isEmpty())
+                                .collect(Collectors.toSet());
+                double[] zone = row.getMinLatitude() == null || row.getMinLongitude() == null
+                        || row.getMaxLatitude() == null || row.getMaxLongitude() == null
+                                ? null
+                                : new double[] { row.getMinLatitude(), row.getMinLongitude(),
+                                        row.getMaxLatitude(), row.getMaxLongitude() };
+                result.add(SpeedProfiles.Profile.parse(row.getName(), roadTypes, zone, row.getBreakpoints()));
+            } catch (RuntimeException e) {
+                log.warn("Profil de vitesse '{}' ignoré: {}", row.getName(), e.getMessage());
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,196 @@
+package com.enspy.tripplanning.routing.service;
+
+import com.enspy.tripplanning.routing.dto.MatrixPointDTO;
+import com.enspy.tripplanning.routing.dto.MatrixRequest;
+import com.enspy.tripplanning.routing.dto.MatrixRowDTO;
+import com.enspy.tripplanning.routing.engine.OneToManyDijkstra;
+import com.enspy.tripplanning.routing.engine.ch.ContractionHierarchy;
+import com.enspy.tripplanning.routing.engine.ch.ContractionHierarchyMatrix;
+import com.enspy.tripplanning.routing.graph.RoadGraph;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.geo.Point;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Matrices de temps de parcours N×M sur le graphe résident.
+ *
+ * ALGORITHME:
+ * - Hiérarchie de contraction prête : algorithme des buckets
+ * ({@link ContractionHierarchyMatrix}), une recherche arrière par
+ * destination puis une recherche avant montante par source.
+ * - Sinon : un Dijkstra un-vers-plusieurs par source
+ * ({@link OneToManyDijkstra}), arrêté dès que toutes les destinations sont
+ * fixées.
+ *
+ * Les lignes sont indépendantes : chacune est un calcul du
+ * {@link RoutingExecutor}, dans la voie par lot, avec au plus
+ * application.routing.matrix.parallelism lignes soumises à la fois. Elles
+ * sont émises dès qu'elles sont prêtes ; file pleine : refus en 503.
+ */
+@Slf4j
+@Service
+public class TravelTimeMatrixService {
+
+    private final RoadGraphService graphService;
+    private final ContractionHierarchyService chService;
+    private final SnappingService snappingService;
+    private final RoutingExecutor routingExecutor;
+
+    /**
+     * Lignes soumises en même temps au pool de calcul (0 = nombre de cœurs)
+     */
+    private final int parallelism;
+
+    public TravelTimeMatrixService(
+            RoadGraphService graphService,
+            ContractionHierarchyService chService,
+            SnappingService snappingService,
+            RoutingExecutor routingExecutor,
+            @Value("${application.routing.matrix.parallelism:0}") int parallelism) {
+        this.graphService = graphService;
+        this.chService = chService;
+        this.snappingService = snappingService;
+        this.routingExecutor = routingExecutor;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Calcul d'une ligne : source → destinations distinctes triées.
+     */
+    @FunctionalInterface
+    private interface RowEngine {
+        void row(int source, int[] durations, double[] distancesMeters);
+    }
+
+    /**
+     * Calcule la matrice demandée et émet une {@link MatrixRowDTO} par source.
+     *
+     * @param request Sources et destinations (destinations absentes : matrice
+     *                carrée sur les sources)
+     * @return Lignes de la matrice, dans l'ordre de fin de calcul
+     */
+    public Flux<MatrixRowDTO> computeMatrix(MatrixRequest request) {
+        RoadGraph graph = graphService.getGraph();
+        if (graph == null) {
+            return Flux.error(new IllegalStateException("Graphe routier non chargé"));
+        }
+
+        List<MatrixPointDTO> sources = request.getSources();
+        List<MatrixPointDTO> destinations = request.getDestinations() != null && !request.getDestinations().isEmpty()
+                ? request.getDestinations()
+                : sources;
+        long startTime = System.currentTimeMillis();
+
+        return Mono.zip(snap(graph, sources), snap(graph, destinations))
+                .flatMapMany(tuple -> computeRows(graph, tuple.getT1(), tuple.getT2()))
+                .map(row -> toDto(graph, row))
+                .doOnComplete(() -> log.info("Matrice {}×{} calculée en {}ms",
+                        sources.size(), destinations.size(), System.currentTimeMillis() - startTime));
+    }
+
+    /**
+     * Matrice carrée des temps de parcours entre les points donnés (ordre
+     * d'optimisation des étapes, par exemple).
+     *
+     * @return durées[i][j] en secondes, {@link OneToManyDijkstra#UNREACHABLE}
+     *         si inaccessible ou point non snappé
+     */
+    public Mono<int[][]> computeDurations(List<MatrixPointDTO> points) {
+        RoadGraph graph = graphService.getGraph();
+        if (graph == null) {
+            return Mono.error(new IllegalStateException("Graphe routier non chargé"));
+        }
+
+        return snap(graph, points)
+                .flatMapMany(nodes -> computeRows(graph, nodes, nodes))
+                .reduceWith(() -> new int[points.size()][], (matrix, row) -> {
+                    matrix[row.index()] = row.durations();
+                    return matrix;
+                });
+    }
+
+    /**
+     * Ligne brute, par colonne demandée.
+     */
+    private record MatrixRow(int index, int source, int[] durations, double[] distancesMeters) {
+    }
+
+    private Flux<MatrixRow> computeRows(RoadGraph graph, int[] sources, int[] destinations) {
+        int[] sortedTargets = IntStream.of(destinations).filter(node -> node >= 0).distinct().sorted().toArray();
+        int[] columns = new int[destinations.length];
+        for (int j = 0; j < destinations.length; j++) {
+            columns[j] = destinations[j] >= 0 ? Arrays.binarySearch(sortedTargets, destinations[j]) : -1;
+        }
+
+        int concurrency = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        return routingExecutor.submit(() -> prepareEngine(graph, sortedTargets))
+                .flatMapMany(engine -> Flux.range(0, sources.length)
+                        .flatMap(i -> routingExecutor.submit(
+                                () -> computeRow(engine, i, sources[i], sortedTargets.length, columns)),
+                                concurrency))
+                // Voie par lot : les itinéraires interactifs restent prioritaires
+                .contextWrite(RoutingExecutor.batchLane());
+    }
+
+    private RowEngine prepareEngine(RoadGraph graph, int[] sortedTargets) {
+        ContractionHierarchy ch = chService.getHierarchy();
+        if (ch != null && ch.getGraph() == graph) {
+            ContractionHierarchyMatrix matrix = ContractionHierarchyMatrix.prepare(ch, sortedTargets);
+            return matrix::row;
+        }
+        return (source, durations, distancesMeters) -> OneToManyDijkstra.row(graph, source, sortedTargets,
+                durations, distancesMeters);
+    }
+
+    private MatrixRow computeRow(RowEngine engine, int index, int source, int targetCount, int[] columns) {
+        int[] durations = new int[columns.length];
+        double[] distancesMeters = new double[columns.length];
+        Arrays.fill(durations, OneToManyDijkstra.UNREACHABLE);
+        if (source < 0) {
+            return new MatrixRow(index, source, durations, distancesMeters);
+        }
+
+        int[] rowDurations = new int[targetCount];
+        double[] rowMeters = new double[targetCount];
+        engine.row(source, rowDurations, rowMeters);
+
+        for (int j = 0; j < columns.length; j++) {
+            if (columns[j] >= 0) {
+                durations[j] = rowDurations[columns[j]];
+                distancesMeters[j] = rowMeters[columns[j]];
+            }
+        }
+        return new MatrixRow(index, source, durations, distancesMeters);
+    }
+
+    private static MatrixRowDTO toDto(RoadGraph graph, MatrixRow row) {
+        List<Integer> durations = new ArrayList<>(row.durations().length);
+        List<Double> distances = new ArrayList<>(row.durations().length);
+        for (int j = 0; j < row.durations().length; j++) {
+            boolean reachable = row.durations()[j] != OneToManyDijkstra.UNREACHABLE;
+            durations.add(reachable ? row.durations()[j] : null);
+            distances.add(reachable ? row.distancesMeters()[j] / 1000.0 : null);
+        }
+
+        return MatrixRowDTO.builder()
+                .sourceIndex(row.index())
+                .sourceNodeId(row.source() >= 0 ? graph.getNodeIds()[row.source()] : null)
+                .durationsSeconds(durations)
+                .distancesKm(distances)
+                .build();
+    }
+
+    private Mono<int[]> snap(RoadGraph graph, List<MatrixPointDTO> points) {
+        return snappingService.snapToIndices(graph, points.stream()
+                .map(point -> new Point(point.getLongitude(), point.getLatitude()))
+                .toList());
+    }
+}
@@ -0,0 +1,25 @@
+-- ================================================================
+-- Migration V10: Surcharges temporaires des temps de parcours
+-- ================================================================
+-- Fermetures (inondations, travaux) et ralentissements (contrôles, incidents)
+-- appliqués au graphe résident sans modifier road_edges, jusqu'à expiration.
+
+CREATE TABLE IF NOT EXISTS edge_weight_overrides (
+    override_id UUID PRIMARY KEY DEFAULT uuid_generate_v4(),
+
+    -- Cible : une arête ou toute une voie OSM
+    edge_id BIGINT,
+    osm_way_id BIGINT,
+
+    closed BOOLEAN NOT NULL DEFAULT FALSE,
+    time_factor DOUBLE PRECISION,
+    reason VARCHAR(255),
+
+    expires_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT chk_override_target CHECK (edge_id IS NOT NULL OR osm_way_id IS NOT NULL),
+    CONSTRAINT chk_override_effect CHECK (closed OR time_factor > 1)
+);
+
+CREATE INDEX IF NOT EXISTS idx_edge_weight_overrides_expiration ON edge_weight_overrides (expires_at);
@@ -0,0 +1,54 @@
+-- ================================================================
+-- Migration V7: Cache compact des itinéraires calculés
+-- ================================================================
+-- Chemins stockés en binaire (BYTEA) : identifiants de nœuds et d'arêtes
+-- encodés en deltas varint (RoutePathCodec), clé = paire de nœuds snappés
+-- + version (empreinte) du graphe routier. Le contenu n'est qu'un cache :
+-- la table est recréée.
+
+DROP TABLE IF EXISTS calculated_routes CASCADE;
+
+CREATE TABLE calculated_routes (
+    route_id UUID PRIMARY KEY DEFAULT uuid_generate_v4(),
+    trip_id UUID REFERENCES trips(trip_id) ON DELETE CASCADE,
+
+    -- Clé du cache
+    from_waypoint_id BIGINT NOT NULL,
+    to_waypoint_id BIGINT NOT NULL,
+    graph_version BIGINT NOT NULL,
+
+    -- Coordonnées
+    from_latitude DECIMAL(10, 8),
+    from_longitude DECIMAL(11, 8),
+    to_latitude DECIMAL(10, 8),
+    to_longitude DECIMAL(11, 8),
+
+    algorithm VARCHAR(20) DEFAULT 'ASTAR',
+
+    -- Résultat (deltas varint)
+    path_nodes BYTEA NOT NULL,
+    path_edges BYTEA NOT NULL,
+    total_distance_meters DECIMAL(12, 2),
+    total_duration_seconds DECIMAL(10, 2),
+
+    -- Détails
+    detailed_instructions TEXT,
+    toll_roads TEXT,
+    total_toll_cost DECIMAL(10, 2) DEFAULT 0,
+
+    -- Performance
+    computation_time_ms INT,
+    nodes_explored INT,
+
+    -- Cache
+    is_cached BOOLEAN DEFAULT TRUE,
+    cache_expires_at TIMESTAMP,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_calculated_routes_lookup
+    ON calculated_routes (from_waypoint_id, to_waypoint_id, graph_version, created_at DESC)
+    WHERE is_cached = TRUE;
+CREATE INDEX idx_calculated_routes_trip ON calculated_routes (trip_id);
+CREATE INDEX idx_calculated_routes_expiration ON calculated_routes (cache_expires_at);
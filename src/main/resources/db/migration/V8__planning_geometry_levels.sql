@@ -0,0 +1,8 @@
+-- ================================================================
+-- Migration V8: Géométries simplifiées précalculées des items de planning
+-- ================================================================
+-- JSON {"<zoom>": "<polyline simplifiée>"} pour les zooms 6, 9 et 12,
+-- servis par GET /api/v1/planning/local/{id}/items?zoom=...
+
+ALTER TABLE planning_items ADD COLUMN IF NOT EXISTS route_geom_levels TEXT;
+ALTER TABLE planning_items ADD COLUMN IF NOT EXISTS optimal_route_geom_levels TEXT;
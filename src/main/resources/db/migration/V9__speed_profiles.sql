@@ -0,0 +1,40 @@
+-- ================================================================
+-- Migration V9: Profils de vitesse horaires (routage selon l'heure de départ)
+-- ================================================================
+-- Un profil donne un facteur de vitesse (1 = vitesse libre) par heure de la
+-- journée, interpolé linéairement entre les points de rupture. Il s'applique
+-- aux arêtes des types de route listés dont le milieu est dans la zone.
+
+CREATE TABLE IF NOT EXISTS speed_profiles (
+    profile_id SERIAL PRIMARY KEY,
+    name VARCHAR(100) NOT NULL UNIQUE,
+
+    -- Sélection des arêtes
+    road_types TEXT,
+    min_latitude DOUBLE PRECISION,
+    min_longitude DOUBLE PRECISION,
+    max_latitude DOUBLE PRECISION,
+    max_longitude DOUBLE PRECISION,
+
+    -- "HH:mm=facteur;HH:mm=facteur;..."
+    breakpoints TEXT NOT NULL,
+
+    priority INT NOT NULL DEFAULT 100,
+    enabled BOOLEAN NOT NULL DEFAULT TRUE,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Heures de pointe urbaines (Douala, Yaoundé) et trafic de nuit interurbain
+INSERT INTO speed_profiles (name, road_types, min_latitude, min_longitude, max_latitude, max_longitude, breakpoints, priority)
+VALUES
+    ('douala-urbain', 'trunk,primary,secondary,tertiary,residential,unclassified',
+     3.95, 9.62, 4.15, 9.82,
+     '05:30=1.0;07:00=0.5;09:30=0.65;12:00=0.7;14:00=0.75;16:30=0.55;18:30=0.45;20:30=0.75;22:00=1.0', 10),
+    ('yaounde-urbain', 'trunk,primary,secondary,tertiary,residential,unclassified',
+     3.78, 11.44, 3.97, 11.58,
+     '05:30=1.0;07:00=0.55;09:00=0.7;12:00=0.7;14:00=0.8;16:30=0.6;18:30=0.5;20:00=0.8;22:00=1.0', 10),
+    ('interurbain-nuit', 'motorway,trunk,primary',
+     NULL, NULL, NULL, NULL,
+     '05:00=0.85;06:30=1.0;18:00=1.0;19:30=0.8;23:00=0.75', 100)
+ON CONFLICT (name) DO NOTHING;
@@ -0,0 +1,77 @@
+package com.enspy.tripplanning.planning.service;
+
+import com.enspy.tripplanning.planning.entity.PlanningItem;
+import com.enspy.tripplanning.routing.geometry.GeometrySimplifier;
+import com.enspy.tripplanning.routing.geometry.Polyline;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RouteOptimizationServiceTest {
+
+    private static final double METERS_PER_DEGREE = 40_075_016.686 / 360.0;
+    /** Écart toléré en plus : arrondi du polyline à 1e-5 degré */
+    private static final double ROUNDING_METERS = 1.5;
+
+    /** Seule la sélection des géométries est testée : aucune dépendance */
+    private final RouteOptimizationService service = new RouteOptimizationService(null, null, null, null, null);
+
+    @Test
+    void geometryAtZoomStaysWithinTheZoomTolerance() throws Exception {
+        // Tracé sinueux d'environ 40 km, oscillations de 200 m
+        int count = 2000;
+        double[] latitudes = new double[count];
+        double[] longitudes = new double[count];
+        for (int i = 0; i < count; i++) {
+            latitudes[i] = 3.8 + i * 0.0002 + Math.sin(i / 15.0) * 0.0018;
+            longitudes[i] = 11.5 + i * 0.0001;
+        }
+        String geometry = Polyline.encode(latitudes, longitudes, count, Polyline.PRECISION);
+        Map<String, String> levels = new LinkedHashMap<>();
+        for (int zoom : new int[] { 6, 9, 12 }) {
+            levels.put(String.valueOf(zoom), GeometrySimplifier.simplify(geometry, zoom, Polyline.PRECISION));
+        }
+        String levelsJson = new ObjectMapper().writeValueAsString(levels);
+
+        for (int zoom = 4; zoom <= GeometrySimplifier.MAX_SIMPLIFIED_ZOOM; zoom++) {
+            PlanningItem item = PlanningItem.builder().routeGeom(geometry).routeGeomLevelsJson(levelsJson).build();
+
+            String atZoom = service.withZoom(item, zoom).getRouteGeom();
+
+            double[] path = Polyline.decode(atZoom, Polyline.PRECISION);
+            double tolerance = GeometrySimplifier.toleranceMeters(zoom, latitudes[count / 2]) + ROUNDING_METERS;
+            double cosLat = Math.cos(Math.toRadians(latitudes[count / 2]));
+            for (int i = 0; i < count; i++) {
+                assertTrue(distanceToPath(latitudes[i], longitudes[i], path, cosLat) <= tolerance,
+                        "zoom " + zoom + ", point " + i);
+            }
+            if (zoom == 11) {
+                // Niveau précalculé plus fin que demandé, pas plus grossier
+                assertEquals(levels.get("12"), atZoom);
+            }
+        }
+    }
+
+    /** Distance (m) d'un point au tracé décodé [lat, lon, lat, lon...] */
+    private static double distanceToPath(double lat, double lon, double[] path, double cosLat) {
+        double px = lon * METERS_PER_DEGREE * cosLat;
+        double py = lat * METERS_PER_DEGREE;
+        double best = Double.MAX_VALUE;
+        for (int i = 0; i + 3 < path.length; i += 2) {
+            double ax = path[i + 1] * METERS_PER_DEGREE * cosLat;
+            double ay = path[i] * METERS_PER_DEGREE;
+            double dx = path[i + 3] * METERS_PER_DEGREE * cosLat - ax;
+            double dy = path[i + 2] * METERS_PER_DEGREE - ay;
+            double lengthSquared = dx * dx + dy * dy;
+            double t = lengthSquared == 0 ? 0
+                    : Math.max(0, Math.min(1, ((px - ax) * dx + (py - ay) * dy) / lengthSquared));
+            best = Math.min(best, Math.hypot(px - ax - t * dx, py - ay - t * dy));
+        }
+        return best;
+    }
+}
@@ -0,0 +1,86 @@
+package com.enspy.tripplanning.routing.engine;
+
+import com.enspy.tripplanning.routing.graph.RoadGraph;
+import com.enspy.tripplanning.routing.graph.RoadGraphFixtures;
+import com.enspy.tripplanning.routing.model.Route;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class BidirectionalAStarTest {
+
+    private final RoadGraph graph = RoadGraphFixtures.grid(40, 51, 0.3);
+    /** Temps minimal à 130 km/h à vol d'oiseau : admissible sur la grille */
+    private final BidirectionalAStar.Heuristic heuristic = (from, to) -> (int) (haversineKm(from, to) / 130 * 3600);
+    private final ExecutorService pool = Executors.newSingleThreadExecutor();
+
+    @AfterEach
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void sequentialSearchMatchesReferenceDijkstra() {
+        assertMatchesReference((start, end) -> BidirectionalAStar.search(graph, start, end, heuristic,
+                SearchContextPool.acquire(graph.getNodeCount(), 0),
+                SearchContextPool.acquire(graph.getNodeCount(), 1)));
+    }
+
+    @Test
+    void parallelSearchMatchesReferenceDijkstra() {
+        assertMatchesReference((start, end) -> parallel(start, end, pool));
+    }
+
+    @Test
+    void parallelSearchConcludesAloneWhenBackwardHalfNeverStarts() {
+        // Pool saturé : la moitié arrière reste en file (ou est refusée)
+        assertMatchesReference((start, end) -> parallel(start, end, task -> {
+        }));
+    }
+
+    private Route parallel(int start, int end, Executor executor) {
+        return BidirectionalAStar.searchParallel(graph, start, end, heuristic,
+                SearchContextPool.acquire(graph.getNodeCount(), 0),
+                SearchContextPool.acquire(graph.getNodeCount(), 1), executor);
+    }
+
+    private interface Search {
+        Route run(int start, int end);
+    }
+
+    private void assertMatchesReference(Search search) {
+        Random random = new Random(52);
+        for (int query = 0; query < 80; query++) {
+            int start = random.nextInt(graph.getNodeCount());
+            int end = random.nextInt(graph.getNodeCount());
+            long expected = RoadGraphFixtures.dijkstra(graph, start)[end];
+
+            Route route = search.run(start, end);
+
+            if (expected == Long.MAX_VALUE) {
+                assertNull(route, "requête " + query);
+                continue;
+            }
+            assertEquals(expected, (long) route.getTotalTimeSeconds(), "requête " + query);
+            assertEquals(route.getEdges().size() + 1, route.getNodes().size());
+        }
+    }
+
+    private double haversineKm(int from, int to) {
+        double lat1 = graph.getLatitudes()[from];
+        double lat2 = graph.getLatitudes()[to];
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(graph.getLongitudes()[to] - graph.getLongitudes()[from]);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 6371 * 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    }
+}
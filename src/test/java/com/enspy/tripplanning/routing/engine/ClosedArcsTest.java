@@ -0,0 +1,119 @@
+package com.enspy.tripplanning.routing.engine;
+
+import com.enspy.tripplanning.routing.engine.alternative.AlternativeRoutes;
+import com.enspy.tripplanning.routing.engine.ch.ContractionHierarchy;
+import com.enspy.tripplanning.routing.engine.ch.ContractionHierarchyBuilder;
+import com.enspy.tripplanning.routing.engine.ch.ContractionHierarchyMatrix;
+import com.enspy.tripplanning.routing.engine.ch.ContractionHierarchyQuery;
+import com.enspy.tripplanning.routing.engine.isochrone.IsochroneSearch;
+import com.enspy.tripplanning.routing.graph.RoadGraph;
+import com.enspy.tripplanning.routing.graph.RoadGraphFixtures;
+import com.enspy.tripplanning.routing.model.RoadEdge;
+import com.enspy.tripplanning.routing.model.Route;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Arêtes fermées par surcharge : aucun moteur ne les emprunte, les nœuds
+ * qu'elles seules desservaient deviennent inaccessibles.
+ */
+class ClosedArcsTest {
+
+    private final RoadGraph graph = RoadGraphFixtures.grid(25, 81, 0.2);
+    private final Set<Long> closedEdges = new HashSet<>();
+    private final Random random = new Random(82);
+
+    ClosedArcsTest() {
+        double[] factors = new double[graph.getEdgeIds().length];
+        Arrays.fill(factors, 1.0);
+        for (int e = 0; e < factors.length; e++) {
+            if (random.nextDouble() < 0.25) {
+                factors[e] = Double.POSITIVE_INFINITY;
+                closedEdges.add(graph.getEdgeIds()[e]);
+            }
+        }
+        graph.applyEdgeFactors(factors);
+    }
+
+    @Test
+    void pointToPointEnginesAvoidClosedArcs() {
+        ContractionHierarchy ch = new ContractionHierarchyBuilder(graph).build();
+        int unreachable = 0;
+        for (int query = 0; query < 60; query++) {
+            int start = random.nextInt(graph.getNodeCount());
+            int end = random.nextInt(graph.getNodeCount());
+            long expected = RoadGraphFixtures.dijkstra(graph, start)[end];
+
+            Route bidirectional = BidirectionalAStar.search(graph, start, end, (from, to) -> 0,
+                    SearchContextPool.acquire(graph.getNodeCount(), 0),
+                    SearchContextPool.acquire(graph.getNodeCount(), 1));
+            Route contracted = ContractionHierarchyQuery.shortestPath(ch, start, end);
+            List<Route> alternatives = AlternativeRoutes.search(graph, start, end, 3, 0.25, 0.6);
+
+            if (expected == Long.MAX_VALUE) {
+                unreachable++;
+                assertNull(bidirectional, "requête " + query);
+                assertFalse(contracted.getFound(), "requête " + query);
+                assertTrue(alternatives.isEmpty(), "requête " + query);
+                continue;
+            }
+            assertEquals(expected, (long) bidirectional.getTotalTimeSeconds(), "requête " + query);
+            assertEquals(expected, (long) contracted.getTotalTimeSeconds(), "requête " + query);
+            assertEquals(expected, (long) alternatives.get(0).getTotalTimeSeconds(), "requête " + query);
+            assertOpen(bidirectional);
+            assertOpen(contracted);
+            alternatives.forEach(this::assertOpen);
+        }
+        assertTrue(unreachable > 0);
+    }
+
+    @Test
+    void matricesAndIsochronesAvoidClosedArcs() {
+        ContractionHierarchy ch = new ContractionHierarchyBuilder(graph).build();
+        int[] targets = random.ints(0, graph.getNodeCount()).distinct().limit(25).sorted().toArray();
+        ContractionHierarchyMatrix matrix = ContractionHierarchyMatrix.prepare(ch, targets);
+        int[] durations = new int[targets.length];
+        int[] contracted = new int[targets.length];
+        double[] meters = new double[targets.length];
+
+        for (int source = 0; source < graph.getNodeCount(); source += 41) {
+            long[] expected = RoadGraphFixtures.dijkstra(graph, source);
+
+            OneToManyDijkstra.row(graph, source, targets, durations, meters);
+            matrix.row(source, contracted, meters);
+
+            for (int i = 0; i < targets.length; i++) {
+                long reference = expected[targets[i]];
+                int duration = reference == Long.MAX_VALUE ? OneToManyDijkstra.UNREACHABLE : (int) reference;
+                assertEquals(duration, durations[i], source + " → " + targets[i]);
+                assertEquals(duration, contracted[i], source + " → " + targets[i]);
+            }
+
+            IsochroneSearch.Result ball = IsochroneSearch.search(graph, source, 600);
+            int inside = 0;
+            for (long seconds : expected) {
+                inside += seconds <= 600 ? 1 : 0;
+            }
+            assertEquals(inside, ball.count(), "source " + source);
+            for (int i = 0; i < ball.count(); i++) {
+                assertEquals(expected[ball.nodes()[i]], ball.seconds()[i], "source " + source);
+            }
+        }
+    }
+
+    private void assertOpen(Route route) {
+        for (RoadEdge edge : route.getEdges()) {
+            assertFalse(closedEdges.contains(edge.getEdgeId()), "arête fermée " + edge.getEdgeId());
+        }
+    }
+}
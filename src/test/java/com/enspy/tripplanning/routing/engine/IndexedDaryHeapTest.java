@@ -0,0 +1,58 @@
+package com.enspy.tripplanning.routing.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IndexedDaryHeapTest {
+
+    @Test
+    void popsInKeyOrderAfterRandomPushesAndDecreases() {
+        int capacity = 2_000;
+        IndexedDaryHeap heap = new IndexedDaryHeap(capacity);
+        int[] expectedKeys = new int[capacity];
+        Random random = new Random(5);
+
+        for (int round = 0; round < 3; round++) {
+            heap.clear();
+            for (int node = 0; node < capacity; node++) {
+                expectedKeys[node] = random.nextInt(1_000_000);
+                heap.push(node, expectedKeys[node]);
+            }
+            for (int i = 0; i < capacity; i++) {
+                int node = random.nextInt(capacity);
+                int key = random.nextInt(expectedKeys[node] + 1);
+                expectedKeys[node] = key;
+                heap.decreaseKey(node, key);
+            }
+
+            int previous = Integer.MIN_VALUE;
+            while (!heap.isEmpty()) {
+                int key = heap.peekKey();
+                int node = heap.popMin();
+                assertEquals(expectedKeys[node], key);
+                assertTrue(key >= previous);
+                assertFalse(heap.contains(node));
+                previous = key;
+            }
+        }
+    }
+
+    @Test
+    void pushOrDecreaseKeepsTheSmallestKey() {
+        IndexedDaryHeap heap = new IndexedDaryHeap(4);
+
+        assertTrue(heap.pushOrDecrease(2, 50));
+        assertFalse(heap.pushOrDecrease(2, 70));
+        assertFalse(heap.pushOrDecrease(2, 30));
+        heap.push(1, 40);
+
+        assertEquals(2, heap.popMin());
+        assertEquals(1, heap.popMin());
+        assertTrue(heap.isEmpty());
+    }
+}
@@ -0,0 +1,38 @@
+package com.enspy.tripplanning.routing.engine;
+
+import com.enspy.tripplanning.routing.graph.RoadGraph;
+import com.enspy.tripplanning.routing.graph.RoadGraphFixtures;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OneToManyDijkstraTest {
+
+    @Test
+    void rowsMatchReferenceDijkstra() {
+        RoadGraph graph = RoadGraphFixtures.grid(30, 61, 0.3);
+        int[] targets = sortedTargets(graph.getNodeCount(), 25, new Random(62));
+        int[] durations = new int[targets.length];
+        double[] meters = new double[targets.length];
+
+        for (int source = 0; source < graph.getNodeCount(); source += 37) {
+            long[] expected = RoadGraphFixtures.dijkstra(graph, source);
+
+            OneToManyDijkstra.row(graph, source, targets, durations, meters);
+
+            for (int i = 0; i < targets.length; i++) {
+                long reference = expected[targets[i]];
+                assertEquals(reference == Long.MAX_VALUE ? OneToManyDijkstra.UNREACHABLE : reference,
+                        durations[i], source + " → " + targets[i]);
+                assertTrue(durations[i] <= 0 || meters[i] > 0);
+            }
+        }
+    }
+
+    private static int[] sortedTargets(int nodeCount, int count, Random random) {
+        return random.ints(0, nodeCount).distinct().limit(count).sorted().toArray();
+    }
+}
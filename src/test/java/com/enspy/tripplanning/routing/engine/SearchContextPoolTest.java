@@ -0,0 +1,55 @@
+package com.enspy.tripplanning.routing.engine;
+
+import com.enspy.tripplanning.routing.graph.RoadGraph;
+import com.enspy.tripplanning.routing.graph.RoadGraphFixtures;
+import com.enspy.tripplanning.routing.model.Route;
+import com.enspy.tripplanning.routing.service.AStarService;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SearchContextPoolTest {
+
+    @Test
+    void contextIsReusedAndResetBetweenSearches() {
+        SearchContext first = SearchContextPool.acquire(100, 0);
+        first.label(7, 42, 3);
+        first.settle(7);
+
+        SearchContext second = SearchContextPool.acquire(50, 0);
+
+        assertSame(first, second);
+        assertFalse(second.isReached(7));
+        assertFalse(second.isSettled(7));
+        assertEquals(0, second.relaxedCount());
+        assertTrue(second.heap().isEmpty());
+    }
+
+    @Test
+    void reusedContextsGiveReferenceDistancesAcrossGraphs() {
+        AStarService aStar = new AStarService(null, null, null, null, null, null, null);
+        RoadGraph large = RoadGraphFixtures.grid(40, 21, 0.2);
+        RoadGraph small = RoadGraphFixtures.grid(15, 22, 0.2);
+        Random random = new Random(23);
+
+        // Alternance des graphes : le même contexte sert aux deux tailles
+        for (int query = 0; query < 60; query++) {
+            RoadGraph graph = query % 2 == 0 ? large : small;
+            int start = random.nextInt(graph.getNodeCount());
+            int end = random.nextInt(graph.getNodeCount());
+            long expected = RoadGraphFixtures.dijkstra(graph, start)[end];
+
+            Route route = aStar.executeOnGraph(graph, start, end, null);
+
+            assertEquals(expected != Long.MAX_VALUE, route.getFound(), "requête " + query);
+            if (route.getFound()) {
+                assertEquals(expected, (long) route.getTotalTimeSeconds(), "requête " + query);
+            }
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.enspy.tripplanning.routing.engine;
+
+import com.enspy.tripplanning.routing.graph.RoadGraph;
+import com.enspy.tripplanning.routing.graph.RoadGraphBuilder;
+import com.enspy.tripplanning.routing.graph.RoadGraphFixtures;
+import com.enspy.tripplanning.routing.model.RoadEdge;
+import com.enspy.tripplanning.routing.model.RoadNode;
+import com.enspy.tripplanning.routing.model.Route;
+import com.enspy.tripplanning.routing.model.Subgraph;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TiledAStarTest {
+
+    private static final int SIDE = 20;
+    /** Tuiles de 0,05° : 16 tuiles sur la grille */
+    private static final double TILE = 0.05;
+
+    private final List<RoadNode> nodes = new ArrayList<>();
+    private final List<RoadEdge> edges = new ArrayList<>();
+    private final RoadGraph graph;
+
+    TiledAStarTest() {
+        Random random = new Random(121);
+        for (int i = 0; i < SIDE * SIDE; i++) {
+            nodes.add(RoadNode.builder().nodeId(RoadGraphFixtures.nodeId(i))
+                    .latitude(3.80 + (i / SIDE) * 0.01 + random.nextDouble() * 0.002)
+                    .longitude(11.45 + (i % SIDE) * 0.01 + random.nextDouble() * 0.002).build());
+        }
+        long edgeId = 1;
+        for (int i = 0; i < nodes.size(); i++) {
+            int[] neighbors = {i % SIDE < SIDE - 1 ? i + 1 : -1, i + SIDE < nodes.size() ? i + SIDE : -1};
+            for (int j : neighbors) {
+                if (j < 0 || random.nextDouble() < 0.15) {
+                    continue;
+                }
+                double meters = meters(nodes.get(i), nodes.get(j));
+                boolean reversed = random.nextBoolean();
+                edges.add(RoadEdge.builder().edgeId(edgeId++)
+                        .sourceNodeId(nodes.get(reversed ? j : i).getNodeId())
+                        .targetNodeId(nodes.get(reversed ? i : j).getNodeId())
+                        .distanceMeters(meters).roadType("primary").maxSpeedKmh(90)
+                        .travelTimeSeconds((int) Math.ceil(meters / 1000.0 / 90 * 3600 * (1 + random.nextDouble())))
+                        .oneWay(random.nextDouble() < 0.3).build());
+            }
+        }
+        graph = RoadGraphBuilder.fromEntities(nodes, edges);
+    }
+
+    @Test
+    void suspendedSearchMatchesReferenceDijkstra() {
+        Map<Long, Subgraph> tiles = tiles();
+        Random random = new Random(122);
+        for (int pair = 0; pair < 40; pair++) {
+            RoadNode start = nodes.get(random.nextInt(nodes.size()));
+            RoadNode end = nodes.get(random.nextInt(nodes.size()));
+
+            Set<Long> loaded = new HashSet<>();
+            TiledAStar search = new TiledAStar(start, end, TiledAStarTest::tileOf, key -> null,
+                    (node, goal) -> meters(node, goal) / 1000.0 / 130 * 3600);
+            for (long missing = search.run(); missing != TiledAStar.DONE; missing = search.run()) {
+                // Chaque tuile n'est demandée qu'une fois
+                assertTrue(loaded.add(missing), "tuile redemandée " + missing);
+                search.addTile(missing, tiles.getOrDefault(missing, empty()));
+            }
+            Route route = search.toRoute();
+
+            long expected = RoadGraphFixtures.dijkstra(graph, graph.indexOf(start.getNodeId()))
+                    [graph.indexOf(end.getNodeId())];
+            assertEquals(expected != Long.MAX_VALUE, route.getFound(), "couple " + pair);
+            if (route.getFound()) {
+                assertEquals(expected, (long) route.getTotalTimeSeconds(), "couple " + pair);
+                assertEquals(start.getNodeId(), route.getNodes().get(0).getNodeId());
+                assertEquals(end.getNodeId(), route.getNodes().get(route.getNodes().size() - 1).getNodeId());
+            }
+            assertEquals(loaded.size(), search.getTileCount());
+        }
+    }
+
+    @Test
+    void cachedTilesAreUsedWithoutSuspending() {
+        Map<Long, Subgraph> tiles = tiles();
+        RoadNode start = nodes.get(0);
+        RoadNode end = nodes.get(nodes.size() - 1);
+
+        TiledAStar search = new TiledAStar(start, end, TiledAStarTest::tileOf,
+                key -> tiles.getOrDefault(key, empty()), (node, goal) -> 0.0);
+
+        assertEquals(TiledAStar.DONE, search.run());
+        long expected = RoadGraphFixtures.dijkstra(graph, graph.indexOf(start.getNodeId()))
+                [graph.indexOf(end.getNodeId())];
+        Route route = search.toRoute();
+        assertEquals(expected != Long.MAX_VALUE, route.getFound());
+        if (route.getFound()) {
+            assertEquals(expected, (long) route.getTotalTimeSeconds());
+        }
+    }
+
+    /**
+     * Découpage équivalent à {@code SubgraphTileCache} : arêtes touchant la
+     * tuile et toutes leurs extrémités.
+     */
+    private Map<Long, Subgraph> tiles() {
+        Map<Long, RoadNode> byId = new HashMap<>();
+        for (RoadNode node : nodes) {
+            byId.put(node.getNodeId(), node);
+        }
+        Map<Long, Set<RoadEdge>> tileEdges = new HashMap<>();
+        for (RoadEdge edge : edges) {
+            tileEdges.computeIfAbsent(tileOf(byId.get(edge.getSourceNodeId())), k -> new HashSet<>()).add(edge);
+            tileEdges.computeIfAbsent(tileOf(byId.get(edge.getTargetNodeId())), k -> new HashSet<>()).add(edge);
+        }
+        Map<Long, Subgraph> tiles = new HashMap<>();
+        tileEdges.forEach((key, touching) -> {
+            Set<RoadNode> endpoints = new HashSet<>();
+            for (RoadEdge edge : touching) {
+                endpoints.add(byId.get(edge.getSourceNodeId()));
+                endpoints.add(byId.get(edge.getTargetNodeId()));
+            }
+            Subgraph tile = new Subgraph();
+            tile.index(new ArrayList<>(endpoints), new ArrayList<>(touching));
+            tiles.put(key, tile);
+        });
+        return tiles;
+    }
+
+    private static Subgraph empty() {
+        Subgraph tile = new Subgraph();
+        tile.index(List.of(), List.of());
+        return tile;
+    }
+
+    private static long tileOf(RoadNode node) {
+        long row = (long) Math.floor(node.getLatitude() / TILE);
+        long column = (long) Math.floor(node.getLongitude() / TILE);
+        return (row << 32) | (column & 0xFFFFFFFFL);
+    }
+
+    private static double meters(RoadNode a, RoadNode b) {
+        double dLat = Math.toRadians(b.getLatitude() - a.getLatitude());
+        double dLon = Math.toRadians(b.getLongitude() - a.getLongitude());
+        double h = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(a.getLatitude())) * Math.cos(Math.toRadians(b.getLatitude()))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 6_371_000 * 2 * Math.atan2(Math.sqrt(h), Math.sqrt(1 - h));
+    }
+}
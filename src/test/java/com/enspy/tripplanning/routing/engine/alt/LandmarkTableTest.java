@@ -0,0 +1,77 @@
+package com.enspy.tripplanning.routing.engine.alt;
+
+import com.enspy.tripplanning.routing.graph.RoadGraph;
+import com.enspy.tripplanning.routing.graph.RoadGraphFixtures;
+import com.enspy.tripplanning.routing.model.Route;
+import com.enspy.tripplanning.routing.service.AStarService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LandmarkTableTest {
+
+    private final RoadGraph graph = RoadGraphFixtures.grid(35, 41, 0.3);
+    private final LandmarkTable table = LandmarkTableBuilder.build(graph, new int[]{0, -1, 600}, 8);
+
+    @Test
+    void lowerBoundsNeverExceedReferenceDistances() {
+        Random random = new Random(42);
+        for (int i = 0; i < 40; i++) {
+            int source = random.nextInt(graph.getNodeCount());
+            long[] dist = RoadGraphFixtures.dijkstra(graph, source);
+            for (int target = 0; target < graph.getNodeCount(); target++) {
+                if (dist[target] != Long.MAX_VALUE) {
+                    assertTrue(table.lowerBound(source, target) <= dist[target], source + " → " + target);
+                }
+            }
+        }
+    }
+
+    @Test
+    void altSearchMatchesReferenceDijkstraWithLessEffort() {
+        AStarService aStar = new AStarService(null, null, null, null, null, null, null);
+        Random random = new Random(43);
+        long exploredAlt = 0;
+        long exploredPlain = 0;
+
+        for (int query = 0; query < 80; query++) {
+            int start = random.nextInt(graph.getNodeCount());
+            int end = random.nextInt(graph.getNodeCount());
+            long expected = RoadGraphFixtures.dijkstra(graph, start)[end];
+
+            Route alt = aStar.executeOnGraph(graph, start, end, table);
+            Route plain = aStar.executeOnGraph(graph, start, end, null);
+
+            assertEquals(expected != Long.MAX_VALUE, alt.getFound(), "requête " + query);
+            if (alt.getFound()) {
+                assertEquals(expected, (long) alt.getTotalTimeSeconds(), "requête " + query);
+                exploredAlt += alt.getNodesExplored();
+                exploredPlain += plain.getNodesExplored();
+            }
+        }
+        assertTrue(exploredAlt < exploredPlain, exploredAlt + " ≥ " + exploredPlain);
+    }
+
+    @Test
+    void storedTableIsReadBackOnlyForTheSameGraph(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve(LandmarkTableStore.fileName(graph, table.getLandmarkCount()));
+
+        LandmarkTableStore.write(table, file);
+        LandmarkTable read = LandmarkTableStore.read(graph, file);
+
+        assertNotNull(read);
+        assertArrayEquals(table.getLandmarks(), read.getLandmarks());
+        assertArrayEquals(table.getFromLandmark(), read.getFromLandmark());
+        assertArrayEquals(table.getToLandmark(), read.getToLandmark());
+        assertNull(LandmarkTableStore.read(RoadGraphFixtures.grid(35, 44, 0.3), file));
+    }
+}
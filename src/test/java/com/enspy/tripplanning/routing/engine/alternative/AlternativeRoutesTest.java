@@ -0,0 +1,74 @@
+package com.enspy.tripplanning.routing.engine.alternative;
+
+import com.enspy.tripplanning.routing.graph.RoadGraph;
+import com.enspy.tripplanning.routing.graph.RoadGraphFixtures;
+import com.enspy.tripplanning.routing.model.RoadEdge;
+import com.enspy.tripplanning.routing.model.Route;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AlternativeRoutesTest {
+
+    private static final double MAX_STRETCH = 0.25;
+    private static final double MAX_SHARING = 0.6;
+
+    private final RoadGraph graph = RoadGraphFixtures.grid(30, 141, 0.2);
+
+    @Test
+    void firstRouteIsOptimalAndAlternativesRespectStretchAndSharing() {
+        Random random = new Random(142);
+        int withAlternatives = 0;
+        for (int pair = 0; pair < 40; pair++) {
+            int start = random.nextInt(graph.getNodeCount());
+            int end = random.nextInt(graph.getNodeCount());
+            long shortest = RoadGraphFixtures.dijkstra(graph, start)[end];
+
+            List<Route> routes = AlternativeRoutes.search(graph, start, end, 3, MAX_STRETCH, MAX_SHARING);
+
+            if (shortest == Long.MAX_VALUE) {
+                assertTrue(routes.isEmpty(), "couple " + pair);
+                continue;
+            }
+            assertTrue(!routes.isEmpty() && routes.size() <= 3, "couple " + pair);
+            assertEquals(shortest, (long) routes.get(0).getTotalTimeSeconds(), "couple " + pair);
+            if (routes.size() > 1) {
+                withAlternatives++;
+            }
+
+            Set<Long> retained = new HashSet<>();
+            int previousTime = 0;
+            for (Route route : routes) {
+                assertEquals(graph.getNodeIds()[start], route.getStartNode().getNodeId(), "couple " + pair);
+                assertEquals(graph.getNodeIds()[end], route.getEndNode().getNodeId(), "couple " + pair);
+                assertTrue(route.getTotalTimeSeconds() <= Math.floor(shortest * (1 + MAX_STRETCH)), "couple " + pair);
+                assertTrue(route.getTotalTimeSeconds() >= previousTime, "ordre croissant, couple " + pair);
+                previousTime = route.getTotalTimeSeconds();
+
+                double shared = 0;
+                for (RoadEdge edge : route.getEdges()) {
+                    if (retained.contains(edge.getEdgeId())) {
+                        shared += edge.getTravelTimeSeconds();
+                    }
+                }
+                assertTrue(shared <= MAX_SHARING * route.getTotalTimeSeconds() + 1e-9, "partage, couple " + pair);
+                route.getEdges().forEach(edge -> retained.add(edge.getEdgeId()));
+            }
+        }
+        assertTrue(withAlternatives > 0);
+    }
+
+    @Test
+    void sameStartAndEndGivesOneEmptyRoute() {
+        List<Route> routes = AlternativeRoutes.search(graph, 7, 7, 3, MAX_STRETCH, MAX_SHARING);
+
+        assertEquals(1, routes.size());
+        assertEquals(0, (int) routes.get(0).getTotalTimeSeconds());
+    }
+}
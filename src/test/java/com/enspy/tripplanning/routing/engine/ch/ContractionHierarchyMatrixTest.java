@@ -0,0 +1,37 @@
+package com.enspy.tripplanning.routing.engine.ch;
+
+import com.enspy.tripplanning.routing.engine.OneToManyDijkstra;
+import com.enspy.tripplanning.routing.graph.RoadGraph;
+import com.enspy.tripplanning.routing.graph.RoadGraphFixtures;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ContractionHierarchyMatrixTest {
+
+    @Test
+    void bucketRowsMatchReferenceDijkstra() {
+        RoadGraph graph = RoadGraphFixtures.grid(30, 71, 0.3);
+        ContractionHierarchy ch = new ContractionHierarchyBuilder(graph).build();
+        int[] targets = new Random(72).ints(0, graph.getNodeCount()).distinct().limit(30).sorted().toArray();
+        ContractionHierarchyMatrix matrix = ContractionHierarchyMatrix.prepare(ch, targets);
+        int[] durations = new int[targets.length];
+        double[] meters = new double[targets.length];
+
+        for (int source = 0; source < graph.getNodeCount(); source += 29) {
+            long[] expected = RoadGraphFixtures.dijkstra(graph, source);
+
+            matrix.row(source, durations, meters);
+
+            for (int i = 0; i < targets.length; i++) {
+                long reference = expected[targets[i]];
+                assertEquals(reference == Long.MAX_VALUE ? OneToManyDijkstra.UNREACHABLE : reference,
+                        durations[i], source + " → " + targets[i]);
+                assertTrue(durations[i] <= 0 || meters[i] > 0);
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.enspy.tripplanning.routing.engine.ch;
+
+import com.enspy.tripplanning.routing.graph.RoadGraph;
+import com.enspy.tripplanning.routing.graph.RoadGraphFixtures;
+import com.enspy.tripplanning.routing.model.Route;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ContractionHierarchyQueryTest {
+
+    @Test
+    void queriesMatchReferenceDijkstra() {
+        RoadGraph graph = RoadGraphFixtures.grid(30, 31, 0.3);
+        ContractionHierarchy ch = new ContractionHierarchyBuilder(graph).build();
+        Random random = new Random(32);
+
+        for (int query = 0; query < 150; query++) {
+            int start = random.nextInt(graph.getNodeCount());
+            int end = query == 0 ? start : random.nextInt(graph.getNodeCount());
+            long expected = RoadGraphFixtures.dijkstra(graph, start)[end];
+
+            Route route = ContractionHierarchyQuery.shortestPath(ch, start, end);
+
+            assertEquals(expected != Long.MAX_VALUE, route.getFound(), "requête " + query);
+            if (route.getFound()) {
+                assertEquals(expected, (long) route.getTotalTimeSeconds(), "requête " + query);
+                // Chemin entièrement déplié en arêtes du graphe
+                assertEquals(route.getEdges().size() + 1, route.getNodes().size());
+                assertEquals(graph.getNodeIds()[end], route.getNodes().get(route.getNodes().size() - 1).getNodeId());
+            }
+        }
+    }
+
+    @Test
+    void shortcutsOnlyAddArcs() {
+        RoadGraph graph = RoadGraphFixtures.grid(20, 33, 0.1);
+
+        ContractionHierarchy ch = new ContractionHierarchyBuilder(graph).build();
+
+        assertTrue(ch.getArcCount() >= graph.getArcCount());
+        assertTrue(ch.isExact());
+    }
+}
@@ -0,0 +1,84 @@
+package com.enspy.tripplanning.routing.engine.isochrone;
+
+import com.enspy.tripplanning.routing.graph.RoadGraph;
+import com.enspy.tripplanning.routing.graph.RoadGraphFixtures;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IsochroneSearchTest {
+
+    private final RoadGraph graph = RoadGraphFixtures.grid(30, 131, 0.3);
+
+    @Test
+    void reachedNodesAreExactlyTheReferenceBall() {
+        Random random = new Random(132);
+        for (int query = 0; query < 10; query++) {
+            int source = random.nextInt(graph.getNodeCount());
+            int budget = 60 + random.nextInt(600);
+            long[] reference = RoadGraphFixtures.dijkstra(graph, source);
+
+            IsochroneSearch.Result result = IsochroneSearch.search(graph, source, budget);
+
+            Set<Integer> reached = new HashSet<>();
+            for (int i = 0; i < result.count(); i++) {
+                int node = result.nodes()[i];
+                assertTrue(reached.add(node), "nœud répété " + node);
+                assertEquals(reference[node], result.seconds()[i], "nœud " + node);
+                if (i > 0) {
+                    assertTrue(result.seconds()[i - 1] <= result.seconds()[i], "ordre croissant");
+                }
+            }
+            for (int node = 0; node < graph.getNodeCount(); node++) {
+                assertEquals(reference[node] <= budget, reached.contains(node), "nœud " + node);
+            }
+        }
+    }
+
+    @Test
+    void contourContainsEveryReachedNode() {
+        int source = graph.getNodeCount() / 2;
+        int budget = 300;
+        IsochroneSearch.Result result = IsochroneSearch.search(graph, source, budget);
+
+        List<List<List<double[]>>> polygons = IsochroneContour.build(graph, result, 100, budget).polygons(budget);
+
+        assertFalse(polygons.isEmpty());
+        for (int i = 0; i < result.count(); i++) {
+            int node = result.nodes()[i];
+            double lat = graph.getLatitudes()[node];
+            double lon = graph.getLongitudes()[node];
+            boolean inside = false;
+            for (List<List<double[]>> polygon : polygons) {
+                if (contains(polygon.get(0), lon, lat)) {
+                    boolean inHole = false;
+                    for (List<double[]> hole : polygon.subList(1, polygon.size())) {
+                        inHole |= contains(hole, lon, lat);
+                    }
+                    inside |= !inHole;
+                }
+            }
+            assertTrue(inside, "nœud " + node + " hors du contour");
+        }
+    }
+
+    /** Point dans un anneau [longitude, latitude] (lancer de rayon) */
+    private static boolean contains(List<double[]> ring, double x, double y) {
+        boolean inside = false;
+        for (int i = 0, j = ring.size() - 1; i < ring.size(); j = i++) {
+            double[] a = ring.get(i);
+            double[] b = ring.get(j);
+            if ((a[1] > y) != (b[1] > y) && x < (b[0] - a[0]) * (y - a[1]) / (b[1] - a[1]) + a[0]) {
+                inside = !inside;
+            }
+        }
+        return inside;
+    }
+}
@@ -0,0 +1,129 @@
+package com.enspy.tripplanning.routing.engine.timedep;
+
+import com.enspy.tripplanning.routing.engine.SearchContextPool;
+import com.enspy.tripplanning.routing.engine.alt.LandmarkTable;
+import com.enspy.tripplanning.routing.engine.alt.LandmarkTableBuilder;
+import com.enspy.tripplanning.routing.graph.RoadGraph;
+import com.enspy.tripplanning.routing.graph.RoadGraphFixtures;
+import com.enspy.tripplanning.routing.model.RoadEdge;
+import com.enspy.tripplanning.routing.model.Route;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimeDependentAStarTest {
+
+    private final RoadGraph graph = RoadGraphFixtures.grid(30, 191, 0.3);
+
+    /** Pointes du matin et du soir sur les grands axes, heures creuses plus rapides en ville */
+    private final SpeedProfiles profiles = SpeedProfiles.build(graph, List.of(
+            SpeedProfiles.Profile.parse("axes", Set.of("primary", "secondary"), null,
+                    "05:00=1.1;07:00=1;08:00=0.5;10:00=0.9;17:00=0.8;18:30=0.55;21:00=1"),
+            SpeedProfiles.Profile.parse("centre", Set.of(), new double[]{3.80, 11.45, 3.95, 11.60},
+                    "00:00=1.2;07:00=0.7;19:00=0.7;22:00=1.2")));
+
+    @Test
+    void earliestArrivalMatchesTimeDependentDijkstra() {
+        LandmarkTable landmarks = LandmarkTableBuilder.build(graph, new int[]{0}, 4);
+        Random random = new Random(192);
+        for (int query = 0; query < 60; query++) {
+            int start = random.nextInt(graph.getNodeCount());
+            int end = random.nextInt(graph.getNodeCount());
+            int departure = random.nextInt(SpeedProfiles.DAY_SECONDS);
+            long expected = timeDependentDijkstra(start, departure)[end];
+
+            Route route = TimeDependentAStar.search(graph, profiles, start, end, departure,
+                    landmarks::lowerBound, SearchContextPool.acquire(graph.getNodeCount(), 0));
+
+            if (expected == Long.MAX_VALUE) {
+                assertNull(route, "requête " + query);
+                continue;
+            }
+            assertEquals(expected, (long) route.getTotalTimeSeconds(), "requête " + query);
+            // Temps subis arête par arête : leur somme est le temps total
+            int sum = 0;
+            for (RoadEdge edge : route.getEdges()) {
+                sum += edge.getTravelTimeSeconds();
+            }
+            assertEquals(route.getTotalTimeSeconds(), sum, "requête " + query);
+        }
+    }
+
+    @Test
+    void withoutProfilesTimesAreStatic() {
+        SpeedProfiles none = SpeedProfiles.build(graph, List.of());
+        Random random = new Random(193);
+        for (int query = 0; query < 20; query++) {
+            int start = random.nextInt(graph.getNodeCount());
+            int end = random.nextInt(graph.getNodeCount());
+            long expected = RoadGraphFixtures.dijkstra(graph, start)[end];
+
+            Route route = TimeDependentAStar.search(graph, none, start, end, random.nextInt(86_400),
+                    (from, to) -> 0, SearchContextPool.acquire(graph.getNodeCount(), 0));
+
+            assertEquals(expected == Long.MAX_VALUE, route == null, "requête " + query);
+            if (route != null) {
+                assertEquals(expected, (long) route.getTotalTimeSeconds(), "requête " + query);
+            }
+        }
+        assertEquals(0, none.getProfiledArcCount());
+    }
+
+    @Test
+    void travelTimeFollowsTheInterpolatedFactor() {
+        RoadGraph single = RoadGraphFixtures.grid(2, 194, 0);
+        SpeedProfiles rush = SpeedProfiles.build(single, List.of(
+                SpeedProfiles.Profile.parse("pointe", Set.of(), null, "07:00=1;08:00=0.5;09:00=1")));
+
+        assertEquals(rush.getProfiledArcCount(), single.getArcCount());
+        assertEquals(100, rush.travelTime(0, 100, 7 * 3600));
+        assertEquals(200, rush.travelTime(0, 100, 8 * 3600));
+        // A mi-chemin entre 07:00 et 08:00 : facteur 0,75
+        assertEquals(133, rush.travelTime(0, 100, 7 * 3600 + 1800));
+        // Lendemain, même heure
+        assertEquals(200, rush.travelTime(0, 100, 8 * 3600 + SpeedProfiles.DAY_SECONDS));
+        assertTrue(rush.getMaxFactor() >= 1);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> SpeedProfiles.Profile.parse("x", Set.of(), null, "08:00=1;07:00=0.5"));
+        assertThrows(IllegalArgumentException.class,
+                () -> SpeedProfiles.Profile.parse("x", Set.of(), null, "0800=1"));
+    }
+
+    /** Dijkstra de référence, poids évalués à l'heure d'entrée sur l'arc */
+    private long[] timeDependentDijkstra(int source, int departure) {
+        int[] firstOut = graph.getFirstOut();
+        int[] arcHead = graph.getArcHead();
+        int[] arcWeight = graph.getArcWeight();
+        long[] arrival = new long[graph.getNodeCount()];
+        Arrays.fill(arrival, Long.MAX_VALUE);
+        arrival[source] = 0;
+        PriorityQueue<long[]> queue = new PriorityQueue<>((a, b) -> Long.compare(a[0], b[0]));
+        queue.add(new long[]{0, source});
+        while (!queue.isEmpty()) {
+            long[] entry = queue.poll();
+            int node = (int) entry[1];
+            if (entry[0] > arrival[node]) {
+                continue;
+            }
+            for (int arc = firstOut[node]; arc < firstOut[node + 1]; arc++) {
+                long candidate = arrival[node]
+                        + profiles.travelTime(arc, arcWeight[arc], departure + (int) arrival[node]);
+                if (candidate < arrival[arcHead[arc]]) {
+                    arrival[arcHead[arc]] = candidate;
+                    queue.add(new long[]{candidate, arcHead[arc]});
+                }
+            }
+        }
+        return arrival;
+    }
+}
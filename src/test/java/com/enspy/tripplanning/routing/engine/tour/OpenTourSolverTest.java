@@ -0,0 +1,108 @@
+package com.enspy.tripplanning.routing.engine.tour;
+
+import com.enspy.tripplanning.routing.graph.RoadGraph;
+import com.enspy.tripplanning.routing.graph.RoadGraphFixtures;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OpenTourSolverTest {
+
+    private final RoadGraph graph = RoadGraphFixtures.grid(25, 81, 0.3);
+
+    @Test
+    void exactOrderMatchesBruteForceOnRoadDurations() {
+        int[][] durations = roadDurations(9, new Random(82));
+
+        int[] tour = OpenTourSolver.solve(durations, 0);
+
+        assertValidTour(tour, durations.length);
+        int[] waypoints = IntStream.range(1, durations.length - 1).toArray();
+        assertEquals(bestCost(durations, waypoints, 0), OpenTourSolver.tourCost(durations, tour));
+    }
+
+    @Test
+    void localSearchImprovesOnGivenOrderForManyWaypoints() {
+        int[][] durations = roadDurations(OpenTourSolver.EXACT_MAX_WAYPOINTS + 10, new Random(83));
+
+        int[] tour = OpenTourSolver.solve(durations, 200);
+
+        assertValidTour(tour, durations.length);
+        int[] given = IntStream.range(0, durations.length).toArray();
+        assertTrue(OpenTourSolver.tourCost(durations, tour) <= OpenTourSolver.tourCost(durations, given));
+    }
+
+    @Test
+    void unreachableLegIsAvoidedWhenPossible() {
+        int[][] durations = {
+                {0, -1, 10, 50},
+                {10, 0, 10, 10},
+                {10, 10, 0, -1},
+                {0, 0, 0, 0}};
+
+        assertArrayEquals(new int[]{0, 2, 1, 3}, OpenTourSolver.solve(durations, 0));
+    }
+
+    /** Temps de la Dijkstra de référence entre des nœuds accessibles les uns des autres */
+    private int[][] roadDurations(int points, Random random) {
+        int[] nodes = new int[points];
+        long[][] rows = new long[points][];
+        int found = 0;
+        while (found < points) {
+            int candidate = random.nextInt(graph.getNodeCount());
+            long[] row = RoadGraphFixtures.dijkstra(graph, candidate);
+            boolean connected = true;
+            for (int i = 0; i < found; i++) {
+                connected &= row[nodes[i]] != Long.MAX_VALUE && rows[i][candidate] != Long.MAX_VALUE;
+            }
+            if (connected) {
+                nodes[found] = candidate;
+                rows[found++] = row;
+            }
+        }
+        int[][] durations = new int[points][points];
+        for (int i = 0; i < points; i++) {
+            for (int j = 0; j < points; j++) {
+                durations[i][j] = (int) rows[i][nodes[j]];
+            }
+        }
+        return durations;
+    }
+
+    /** Coût minimal sur toutes les permutations des étapes */
+    private static long bestCost(int[][] durations, int[] waypoints, int fixed) {
+        if (fixed == waypoints.length) {
+            int[] tour = new int[waypoints.length + 2];
+            System.arraycopy(waypoints, 0, tour, 1, waypoints.length);
+            tour[tour.length - 1] = durations.length - 1;
+            return OpenTourSolver.tourCost(durations, tour);
+        }
+        long best = Long.MAX_VALUE;
+        for (int i = fixed; i < waypoints.length; i++) {
+            swap(waypoints, fixed, i);
+            best = Math.min(best, bestCost(durations, waypoints, fixed + 1));
+            swap(waypoints, fixed, i);
+        }
+        return best;
+    }
+
+    private static void swap(int[] values, int i, int j) {
+        int tmp = values[i];
+        values[i] = values[j];
+        values[j] = tmp;
+    }
+
+    private static void assertValidTour(int[] tour, int points) {
+        assertEquals(0, tour[0]);
+        assertEquals(points - 1, tour[points - 1]);
+        int[] sorted = tour.clone();
+        Arrays.sort(sorted);
+        assertArrayEquals(IntStream.range(0, points).toArray(), sorted);
+    }
+}
@@ -0,0 +1,100 @@
+package com.enspy.tripplanning.routing.geometry;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GeometrySimplifierTest {
+
+    private static final double METERS_PER_DEGREE = 40_075_016.686 / 360.0;
+
+    @Test
+    void droppedPointsStayWithinTolerance() {
+        Random random = new Random(181);
+        for (int trial = 0; trial < 20; trial++) {
+            int count = 500 + random.nextInt(1500);
+            double[] latitudes = new double[count];
+            double[] longitudes = new double[count];
+            double lat = 3.8;
+            double lon = 11.5;
+            for (int i = 0; i < count; i++) {
+                lat += (random.nextDouble() - 0.3) * 0.001;
+                lon += (random.nextDouble() - 0.4) * 0.001;
+                latitudes[i] = lat;
+                longitudes[i] = lon;
+            }
+            double[] originalLat = latitudes.clone();
+            double[] originalLon = longitudes.clone();
+            double tolerance = 5 + random.nextDouble() * 200;
+
+            int kept = GeometrySimplifier.simplify(latitudes, longitudes, count, tolerance);
+
+            assertTrue(kept >= 2 && kept < count);
+            assertEquals(originalLat[0], latitudes[0]);
+            assertEquals(originalLat[count - 1], latitudes[kept - 1]);
+            assertEquals(originalLon[count - 1], longitudes[kept - 1]);
+            double cosLat = Math.cos(Math.toRadians(originalLat[count / 2]));
+            for (int i = 0; i < count; i++) {
+                assertTrue(distanceToPath(originalLat[i], originalLon[i], latitudes, longitudes, kept, cosLat)
+                        <= tolerance + 1e-6, "point " + i);
+            }
+        }
+    }
+
+    @Test
+    void encodedGeometryShrinksAtLowZoomOnly() {
+        int count = 400;
+        double[] latitudes = new double[count];
+        double[] longitudes = new double[count];
+        for (int i = 0; i < count; i++) {
+            latitudes[i] = 3.8 + i * 0.0005;
+            longitudes[i] = 11.5 + Math.sin(i / 10.0) * 0.0005;
+        }
+        String encoded = Polyline.encode(latitudes, longitudes, count, Polyline.PRECISION);
+
+        String overview = GeometrySimplifier.simplify(encoded, 10, Polyline.PRECISION);
+        String street = GeometrySimplifier.simplify(encoded, 16, Polyline.PRECISION);
+
+        assertTrue(overview.length() < street.length());
+        assertTrue(street.length() <= encoded.length());
+        assertSame(encoded, GeometrySimplifier.simplify(encoded, GeometrySimplifier.MAX_SIMPLIFIED_ZOOM,
+                Polyline.PRECISION));
+        assertSame("invalide", GeometrySimplifier.simplify("invalide", 10, Polyline.PRECISION));
+        double[] decoded = Polyline.decode(overview, Polyline.PRECISION);
+        assertEquals(latitudes[0], decoded[0], 1e-5);
+        assertEquals(latitudes[count - 1], decoded[decoded.length - 2], 1e-5);
+    }
+
+    @Test
+    void toleranceHalvesAtEachZoomLevel() {
+        for (int zoom = 0; zoom < GeometrySimplifier.MAX_SIMPLIFIED_ZOOM; zoom++) {
+            assertEquals(GeometrySimplifier.toleranceMeters(zoom, 3.8) / 2,
+                    GeometrySimplifier.toleranceMeters(zoom + 1, 3.8), 1e-9);
+        }
+        // Environ 1,19 m par pixel au zoom 17 à l'équateur
+        assertEquals(1.19, GeometrySimplifier.toleranceMeters(17, 0), 0.01);
+    }
+
+    /** Distance (m) d'un point à la ligne brisée, même projection que le simplificateur */
+    private static double distanceToPath(double lat, double lon, double[] latitudes, double[] longitudes, int count,
+            double cosLat) {
+        double px = lon * METERS_PER_DEGREE * cosLat;
+        double py = lat * METERS_PER_DEGREE;
+        double best = Double.MAX_VALUE;
+        for (int i = 0; i + 1 < count; i++) {
+            double ax = longitudes[i] * METERS_PER_DEGREE * cosLat;
+            double ay = latitudes[i] * METERS_PER_DEGREE;
+            double dx = longitudes[i + 1] * METERS_PER_DEGREE * cosLat - ax;
+            double dy = latitudes[i + 1] * METERS_PER_DEGREE - ay;
+            double lengthSquared = dx * dx + dy * dy;
+            double t = lengthSquared == 0 ? 0
+                    : Math.max(0, Math.min(1, ((px - ax) * dx + (py - ay) * dy) / lengthSquared));
+            best = Math.min(best, Math.hypot(px - ax - t * dx, py - ay - t * dy));
+        }
+        return best;
+    }
+}
@@ -0,0 +1,62 @@
+package com.enspy.tripplanning.routing.geometry;
+
+import com.enspy.tripplanning.routing.model.RoadNode;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PolylineTest {
+
+    @Test
+    void matchesTheReferenceExample() {
+        // Exemple de la documentation de l'algorithme
+        List<RoadNode> nodes = List.of(
+                RoadNode.builder().latitude(38.5).longitude(-120.2).build(),
+                RoadNode.builder().latitude(40.7).longitude(-120.95).build(),
+                RoadNode.builder().latitude(43.252).longitude(-126.453).build());
+
+        String encoded = Polyline.encode(nodes);
+
+        assertEquals("_p~iF~ps|U_ulLnnqC_mqNvxq`@", encoded);
+        double[] decoded = Polyline.decode(encoded, Polyline.PRECISION);
+        assertEquals(6, decoded.length);
+        assertEquals(43.252, decoded[4], 1e-9);
+        assertEquals(-126.453, decoded[5], 1e-9);
+    }
+
+    @Test
+    void roundTripKeepsCoordinatesToThePrecision() {
+        Random random = new Random(171);
+        for (int precision = 0; precision <= 6; precision++) {
+            int count = 2000;
+            double[] latitudes = new double[count];
+            double[] longitudes = new double[count];
+            for (int i = 0; i < count; i++) {
+                latitudes[i] = -90 + random.nextDouble() * 180;
+                longitudes[i] = -180 + random.nextDouble() * 360;
+            }
+
+            double[] decoded = Polyline.decode(Polyline.encode(latitudes, longitudes, count, precision), precision);
+
+            assertEquals(2 * count, decoded.length);
+            double step = 0.5 / Math.pow(10, precision) + 1e-12;
+            for (int i = 0; i < count; i++) {
+                assertEquals(latitudes[i], decoded[2 * i], step);
+                assertEquals(longitudes[i], decoded[2 * i + 1], step);
+            }
+        }
+        assertEquals("", Polyline.encode(new double[0], new double[0], 0, Polyline.PRECISION));
+    }
+
+    @Test
+    void invalidInputIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> Polyline.decode("_p~iF~ps|U_", Polyline.PRECISION));
+        assertThrows(IllegalArgumentException.class, () -> Polyline.decode("_p~iF ps|U", Polyline.PRECISION));
+        assertThrows(IllegalArgumentException.class,
+                () -> Polyline.encode(new double[1], new double[1], 1, 7));
+    }
+}
@@ -0,0 +1,74 @@
+package com.enspy.tripplanning.routing.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NodeSpatialIndexTest {
+
+    private static final double METERS_PER_DEGREE_LAT = 110_540.0;
+    private static final double METERS_PER_DEGREE_LON = 111_320.0;
+
+    private final RoadGraph graph = RoadGraphFixtures.grid(30, 91, 0.2);
+    private final NodeSpatialIndex index = NodeSpatialIndex.build(graph);
+
+    @Test
+    void nearestNodeMatchesLinearScan() {
+        Random random = new Random(92);
+        for (int query = 0; query < 300; query++) {
+            // Points dans l'emprise du réseau et jusqu'à ~10 km autour
+            double latitude = 3.70 + random.nextDouble() * 0.5;
+            double longitude = 11.35 + random.nextDouble() * 0.5;
+
+            int nearest = index.nearestNode(latitude, longitude, 0);
+
+            assertEquals(closestDistance(latitude, longitude), distance(nearest, latitude, longitude), 1e-6,
+                    "requête " + query);
+        }
+    }
+
+    @Test
+    void nearestEdgeIsNeverFartherThanNearestNode() {
+        Random random = new Random(93);
+        for (int query = 0; query < 300; query++) {
+            double latitude = 3.80 + random.nextDouble() * 0.3;
+            double longitude = 11.45 + random.nextDouble() * 0.3;
+
+            NodeSpatialIndex.EdgeSnap snap = index.nearestEdge(latitude, longitude, 0);
+
+            assertNotNull(snap);
+            double toEdge = snap.distanceMeters();
+            assertTrue(toEdge <= closestDistance(latitude, longitude) + 1e-6, "requête " + query);
+            int[] ends = {graph.getEdgeSources()[snap.edge()], graph.getEdgeTargets()[snap.edge()]};
+            assertTrue(snap.node() == ends[0] || snap.node() == ends[1]);
+        }
+    }
+
+    @Test
+    void radiusLimitsTheSearch() {
+        assertEquals(-1, index.nearestNode(2.0, 9.0, 1_000));
+        assertNull(index.nearestEdge(2.0, 9.0, 1_000));
+    }
+
+    private double closestDistance(double latitude, double longitude) {
+        double best = Double.MAX_VALUE;
+        for (int v = 0; v < graph.getNodeCount(); v++) {
+            if (graph.isRoutable(v)) {
+                best = Math.min(best, distance(v, latitude, longitude));
+            }
+        }
+        return best;
+    }
+
+    private double distance(int node, double latitude, double longitude) {
+        double dy = (graph.getLatitudes()[node] - latitude) * METERS_PER_DEGREE_LAT;
+        double dx = (graph.getLongitudes()[node] - longitude) * METERS_PER_DEGREE_LON
+                * Math.cos(Math.toRadians(latitude));
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+}
@@ -0,0 +1,58 @@
+package com.enspy.tripplanning.routing.graph;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RoadGraphBuilderTest {
+
+    @Test
+    void buildsForwardAndReverseArcsFromEdges() {
+        RoadGraph graph = new RoadGraphBuilder()
+                .addNode(30, 3.86, 11.50, "C")
+                .addNode(10, 3.84, 11.50, "A")
+                .addNode(20, 3.85, 11.50, "B")
+                .addEdge(1, 0, 10, 20, 1100, 50, 80, false, "primary", "Rue 1")
+                .addEdge(2, 0, 20, 30, 1100, 50, 90, true, "primary", "Rue 2")
+                .addEdge(3, 0, 20, 99, 1100, 50, 90, false, "primary", "Nœud absent")
+                .build();
+
+        // Indices denses dans l'ordre des node_id, arête vers un nœud inconnu ignorée
+        assertEquals(3, graph.getNodeCount());
+        assertEquals(2, graph.getEdgeCount());
+        assertEquals(0, graph.indexOf(10));
+        assertEquals(2, graph.indexOf(30));
+        assertEquals(-1, graph.indexOf(99));
+        assertEquals("B", graph.getNodeName(1));
+
+        // Double sens : deux arcs, sens unique : un seul
+        assertEquals(3, graph.getArcCount());
+        int[] firstOut = graph.getFirstOut();
+        assertEquals(1, firstOut[1] - firstOut[0]);
+        assertEquals(2, firstOut[2] - firstOut[1]);
+        assertEquals(0, firstOut[3] - firstOut[2]);
+
+        // Chaque arc entrant renvoie à l'arc avant de même tête
+        for (int v = 0; v < graph.getNodeCount(); v++) {
+            for (int r = graph.getFirstIn()[v]; r < graph.getFirstIn()[v + 1]; r++) {
+                int arc = graph.getInArcRef()[r];
+                assertEquals(v, graph.getArcHead()[arc]);
+                assertEquals(graph.getInArcTail()[r], graph.arcTail(arc));
+            }
+        }
+    }
+
+    @Test
+    void fingerprintDependsOnWeights() {
+        RoadGraph graph = RoadGraphFixtures.grid(20, 1, 0.2);
+        RoadGraph same = RoadGraphFixtures.grid(20, 1, 0.2);
+        RoadGraph other = RoadGraphFixtures.grid(20, 2, 0.2);
+
+        assertEquals(graph.getFingerprint(), same.getFingerprint());
+        assertNotEquals(graph.getFingerprint(), other.getFingerprint());
+        assertEquals(400, graph.getNodeCount());
+        assertTrue(graph.getArcCount() > graph.getEdgeCount());
+    }
+}
@@ -0,0 +1,119 @@
+package com.enspy.tripplanning.routing.graph;
+
+import java.util.Arrays;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+/**
+ * Graphes synthétiques et Dijkstra de référence pour les tests du moteur de
+ * routage.
+ *
+ * Le graphe est une grille légèrement perturbée autour de Yaoundé : arêtes
+ * horizontales, verticales et diagonales, temps de parcours aléatoires au
+ * moins égaux à la distance à 110 km/h, une partie des routes à sens unique.
+ * Même graine = même graphe.
+ */
+public final class RoadGraphFixtures {
+
+    /** Types de route praticables par tous les profils, avec leur vitesse */
+    private static final String[] ROAD_TYPES = {"motorway", "primary", "secondary", "tertiary"};
+    private static final int[] SPEEDS = {110, 90, 70, 50};
+
+    private RoadGraphFixtures() {
+    }
+
+    /**
+     * @param side        Nombre de nœuds par côté (side² nœuds)
+     * @param seed        Graine du générateur
+     * @param oneWayRatio Proportion d'arêtes à sens unique
+     */
+    public static RoadGraph grid(int side, long seed, double oneWayRatio) {
+        return gridBuilder(side, seed, oneWayRatio).build();
+    }
+
+    /**
+     * Builder de la grille, pour y ajouter des nœuds ou arêtes avant
+     * construction. Les node_id valent 1000 + 3 × (ligne × side + colonne).
+     */
+    public static RoadGraphBuilder gridBuilder(int side, long seed, double oneWayRatio) {
+        Random random = new Random(seed);
+        RoadGraphBuilder builder = new RoadGraphBuilder();
+        double[] lat = new double[side * side];
+        double[] lon = new double[side * side];
+        for (int i = 0; i < lat.length; i++) {
+            lat[i] = 3.80 + (i / side) * 0.01 + random.nextDouble() * 0.002;
+            lon[i] = 11.45 + (i % side) * 0.01 + random.nextDouble() * 0.002;
+            builder.addNode(nodeId(i), lat[i], lon[i], "N" + i);
+        }
+        long edgeId = 1;
+        for (int i = 0; i < lat.length; i++) {
+            int column = i % side;
+            int[] neighbors = {
+                    column < side - 1 ? i + 1 : -1,
+                    i + side < lat.length ? i + side : -1,
+                    column < side - 1 && i + side < lat.length ? i + side + 1 : -1};
+            for (int j : neighbors) {
+                if (j < 0 || random.nextDouble() < 0.1) {
+                    continue;
+                }
+                double meters = haversineMeters(lat[i], lon[i], lat[j], lon[j]);
+                int type = random.nextInt(ROAD_TYPES.length);
+                int seconds = (int) Math.ceil(meters / 1000.0 / SPEEDS[type] * 3600 * (1 + random.nextDouble()));
+                boolean oneWay = random.nextDouble() < oneWayRatio;
+                boolean reversed = oneWay && random.nextBoolean();
+                builder.addEdge(edgeId++, 0, nodeId(reversed ? j : i), nodeId(reversed ? i : j), meters,
+                        SPEEDS[type], seconds, oneWay, ROAD_TYPES[type], "Rue " + (i % 7));
+            }
+        }
+        return builder;
+    }
+
+    public static long nodeId(int gridIndex) {
+        return 1000L + gridIndex * 3L;
+    }
+
+    /**
+     * Dijkstra de référence (file de priorité de la JDK, sans réutilisation
+     * d'état) sur les poids effectifs du graphe, arcs fermés exclus.
+     *
+     * @return Temps minimal depuis {@code source} vers chaque nœud, ou
+     *         Long.MAX_VALUE si le nœud n'est pas atteignable
+     */
+    public static long[] dijkstra(RoadGraph graph, int source) {
+        int[] firstOut = graph.getFirstOut();
+        int[] arcHead = graph.getArcHead();
+        int[] arcWeight = graph.getArcWeight();
+        long[] dist = new long[graph.getNodeCount()];
+        Arrays.fill(dist, Long.MAX_VALUE);
+        dist[source] = 0;
+        PriorityQueue<long[]> queue = new PriorityQueue<>((a, b) -> Long.compare(a[0], b[0]));
+        queue.add(new long[]{0, source});
+        while (!queue.isEmpty()) {
+            long[] entry = queue.poll();
+            int node = (int) entry[1];
+            if (entry[0] > dist[node]) {
+                continue;
+            }
+            for (int arc = firstOut[node]; arc < firstOut[node + 1]; arc++) {
+                if (arcWeight[arc] >= RoadGraph.CLOSED_WEIGHT) {
+                    continue;
+                }
+                long candidate = dist[node] + arcWeight[arc];
+                if (candidate < dist[arcHead[arc]]) {
+                    dist[arcHead[arc]] = candidate;
+                    queue.add(new long[]{candidate, arcHead[arc]});
+                }
+            }
+        }
+        return dist;
+    }
+
+    private static double haversineMeters(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 6_371_000 * 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    }
+}
@@ -0,0 +1,70 @@
+package com.enspy.tripplanning.routing.graph;
+
+import com.enspy.tripplanning.routing.model.Route;
+import com.enspy.tripplanning.routing.service.AStarService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RoadGraphSnapshotTest {
+
+    private static final long NETWORK_VERSION = 0x5EED_0001L;
+
+    private final RoadGraph graph = RoadGraphFixtures.grid(30, 111, 0.3);
+
+    @Test
+    void snapshotRoutesLikeTheOriginalGraph(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("road-graph.bin");
+        RoadGraphSnapshot.write(graph, NETWORK_VERSION, file);
+
+        RoadGraph read = RoadGraphSnapshot.read(file, NETWORK_VERSION);
+
+        assertNotNull(read);
+        assertEquals(graph.getFingerprint(), read.getFingerprint());
+        assertArrayEquals(graph.getNames(), read.getNames());
+        assertArrayEquals(graph.getEdgeOneWay(), read.getEdgeOneWay());
+        AStarService aStar = new AStarService(null, null, null, null, null, null, null);
+        Random random = new Random(112);
+        for (int query = 0; query < 50; query++) {
+            int start = random.nextInt(graph.getNodeCount());
+            int end = random.nextInt(graph.getNodeCount());
+            long expected = RoadGraphFixtures.dijkstra(graph, start)[end];
+
+            Route route = aStar.executeOnGraph(read, start, end, null);
+
+            assertEquals(expected != Long.MAX_VALUE, route.getFound(), "requête " + query);
+            if (route.getFound()) {
+                assertEquals(expected, (long) route.getTotalTimeSeconds(), "requête " + query);
+            }
+        }
+    }
+
+    @Test
+    void snapshotOfAnotherNetworkVersionIsIgnored(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("road-graph.bin");
+        RoadGraphSnapshot.write(graph, NETWORK_VERSION, file);
+
+        assertNull(RoadGraphSnapshot.read(file, NETWORK_VERSION + 1));
+    }
+
+    @Test
+    void corruptedOrMissingSnapshotIsIgnored(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("road-graph.bin");
+        RoadGraphSnapshot.write(graph, NETWORK_VERSION, file);
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length / 2] ^= 0x5A;
+        Files.write(file, bytes);
+
+        assertNull(RoadGraphSnapshot.read(file, NETWORK_VERSION));
+        assertNull(RoadGraphSnapshot.read(directory.resolve("absent.bin"), NETWORK_VERSION));
+    }
+}
@@ -0,0 +1,42 @@
+package com.enspy.tripplanning.routing.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class RoadGraphTest {
+
+    @Test
+    void weightVersionDependsOnlyOnEffectiveWeights() {
+        RoadGraph graph = RoadGraphFixtures.grid(20, 161, 0.2);
+        RoadGraph replica = RoadGraphFixtures.grid(20, 161, 0.2);
+        assertEquals(graph.getFingerprint(), graph.getWeightVersion());
+
+        double[] factors = new double[graph.getEdgeCount()];
+        Arrays.fill(factors, 1.0);
+        factors[3] = 2.0;
+        factors[17] = Double.POSITIVE_INFINITY;
+
+        // Même surcharge sur deux instances : même version, quel que soit
+        // le nombre d'applications précédentes
+        graph.applyEdgeFactors(factors);
+        replica.applyEdgeFactors(null);
+        replica.applyEdgeFactors(factors.clone());
+        assertEquals(graph.getWeightVersion(), replica.getWeightVersion());
+        assertNotEquals(graph.getFingerprint(), graph.getWeightVersion());
+
+        factors[3] = 3.0;
+        replica.applyEdgeFactors(factors);
+        assertNotEquals(graph.getWeightVersion(), replica.getWeightVersion());
+
+        // Facteurs neutres ou retour aux poids de base : empreinte du graphe
+        Arrays.fill(factors, 1.0);
+        graph.applyEdgeFactors(factors);
+        assertEquals(graph.getFingerprint(), graph.getWeightVersion());
+        replica.applyEdgeFactors(null);
+        assertEquals(replica.getFingerprint(), replica.getWeightVersion());
+    }
+}
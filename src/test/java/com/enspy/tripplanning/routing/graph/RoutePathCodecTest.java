@@ -0,0 +1,67 @@
+package com.enspy.tripplanning.routing.graph;
+
+import com.enspy.tripplanning.routing.model.Route;
+import com.enspy.tripplanning.routing.service.AStarService;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RoutePathCodecTest {
+
+    @Test
+    void idsRoundTripWithNegativeAndLargeGaps() {
+        long[] ids = {5, 6, 4, 1_000_000_007L, -3, Long.MAX_VALUE, Long.MIN_VALUE, 0};
+
+        assertArrayEquals(ids, RoutePathCodec.decode(RoutePathCodec.encode(ids)));
+        assertArrayEquals(new long[0], RoutePathCodec.decode(RoutePathCodec.encode(new long[0])));
+        // Identifiants voisins : un octet par écart
+        assertEquals(1 + 4, RoutePathCodec.encode(new long[]{1, 2, 3, 4}).length);
+    }
+
+    @Test
+    void truncatedDataIsRejected() {
+        byte[] data = RoutePathCodec.encode(new long[]{1_000_000, 2_000_000});
+
+        assertThrows(IllegalArgumentException.class,
+                () -> RoutePathCodec.decode(Arrays.copyOf(data, data.length - 1)));
+    }
+
+    @Test
+    void decodedPathRebuildsTheSameRoute() {
+        RoadGraph graph = RoadGraphFixtures.grid(25, 162, 0.3);
+        AStarService aStar = new AStarService(null, null, null, null, null, null, null);
+        Random random = new Random(163);
+        int checked = 0;
+        for (int query = 0; query < 30; query++) {
+            int start = random.nextInt(graph.getNodeCount());
+            int end = random.nextInt(graph.getNodeCount());
+            Route route = aStar.executeOnGraph(graph, start, end, null);
+            if (!route.isValid()) {
+                continue;
+            }
+
+            Route decoded = RoutePathCodec.toRoute(graph, RoutePathCodec.encodeNodes(route.getNodes()),
+                    RoutePathCodec.encodeEdges(route.getEdges()), 0);
+
+            long expected = RoadGraphFixtures.dijkstra(graph, start)[end];
+            assertEquals(expected, (long) decoded.getTotalTimeSeconds(), "requête " + query);
+            assertEquals(route.getNodes().size(), decoded.getNodes().size());
+            for (int i = 0; i < route.getEdges().size(); i++) {
+                assertEquals(route.getEdges().get(i).getEdgeId(), decoded.getEdges().get(i).getEdgeId());
+            }
+            checked++;
+        }
+        assertTrue(checked > 0);
+
+        // Chemin qui ne correspond plus au graphe : pas de route
+        assertNull(RoutePathCodec.toRoute(graph, RoutePathCodec.encode(new long[]{RoadGraphFixtures.nodeId(0), 7}),
+                RoutePathCodec.encode(new long[]{1}), 0));
+    }
+}
@@ -0,0 +1,53 @@
+package com.enspy.tripplanning.routing.graph;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RoutingProfileTest {
+
+    @Test
+    void edgesWithoutRoadTypeAreClosedForEveryProfile() {
+        for (RoutingProfile profile : RoutingProfile.values()) {
+            assertFalse(profile.allows(null), profile.name());
+            assertEquals(RoadGraph.CLOSED_WEIGHT, profile.weight(null, 1000, 60), profile.name());
+        }
+
+        RoadGraph graph = new RoadGraphBuilder()
+                .addNode(10, 3.84, 11.50, "A")
+                .addNode(20, 3.85, 11.50, "B")
+                .addNode(30, 3.86, 11.50, "C")
+                .addEdge(1, 0, 10, 20, 1100, 50, 80, false, "primary", "Rue 1")
+                .addEdge(2, 0, 20, 30, 1100, 50, 90, false, null, "Sans type")
+                .build();
+
+        long[] seconds = RoadGraphFixtures.dijkstra(graph, graph.indexOf(10));
+        assertEquals(80, seconds[graph.indexOf(20)]);
+        assertEquals(Long.MAX_VALUE, seconds[graph.indexOf(30)]);
+    }
+
+    @Test
+    void restrictedProfilesAreNeverFasterThanTheCar() {
+        assertTrue(RoutingProfile.CAR.allows("Residential"));
+        assertFalse(RoutingProfile.CAR.allows("footway"));
+        assertFalse(RoutingProfile.TRUCK.allows("living_street"));
+        // 10 km de motorway en 300 s : plafonné à 80 km/h pour le poids lourd
+        assertEquals(300, RoutingProfile.CAR.weight("motorway", 10_000, 300));
+        assertEquals(450, RoutingProfile.TRUCK.weight("motorway", 10_000, 300));
+        assertEquals(400, RoutingProfile.MOTORBIKE.weight("motorway", 10_000, 300));
+
+        RoadGraph car = RoadGraphFixtures.grid(20, 101, 0.2);
+        for (RoutingProfile profile : RoutingProfile.values()) {
+            RoadGraph view = car.withProfile(profile);
+            for (int source = 0; source < car.getNodeCount(); source += 53) {
+                long[] fastest = RoadGraphFixtures.dijkstra(car, source);
+                long[] restricted = RoadGraphFixtures.dijkstra(view, source);
+                for (int node = 0; node < car.getNodeCount(); node++) {
+                    assertTrue(restricted[node] >= fastest[node], profile + " " + source + " → " + node);
+                }
+            }
+        }
+    }
+}
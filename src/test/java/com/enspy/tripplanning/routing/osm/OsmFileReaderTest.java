@@ -0,0 +1,108 @@
+package com.enspy.tripplanning.routing.osm;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OsmFileReaderTest {
+
+    private static final String XML = """
+            <?xml version="1.0" encoding="UTF-8"?>
+            <osm version="0.6">
+             <node id="1" lat="3.8000000" lon="11.5000000"/>
+             <node id="2" lat="3.8010000" lon="11.5010000"><tag k="highway" v="traffic_signals"/></node>
+             <node id="3" lat="-0.0001000" lon="11.5020000"/>
+             <way id="100"><nd ref="1"/><nd ref="2"/><nd ref="3"/><tag k="highway" v="primary"/><tag k="name" v="Rue du March&#233;"/></way>
+             <way id="101"><nd ref="3"/><nd ref="1"/><tag k="highway" v="footway"/></way>
+             <relation id="500"><member type="way" ref="100" role=""/><tag k="type" v="route"/></relation>
+            </osm>
+            """;
+
+    @TempDir
+    Path directory;
+
+    /** Éléments reçus, dans l'ordre du fichier */
+    private static final class Recorder implements OsmHandler {
+        private final boolean nodes;
+        private final List<String> events = new ArrayList<>();
+        private final Map<Long, Map<String, String>> tags = new HashMap<>();
+
+        private Recorder(boolean nodes) {
+            this.nodes = nodes;
+        }
+
+        @Override
+        public boolean wantsNodes() {
+            return nodes;
+        }
+
+        @Override
+        public void node(long id, double latitude, double longitude) {
+            events.add("node " + id + " " + latitude + " " + longitude);
+        }
+
+        @Override
+        public void way(long id, long[] nodeRefs, Map<String, String> wayTags) {
+            events.add("way " + id + " " + Arrays.toString(nodeRefs));
+            tags.put(id, new HashMap<>(wayTags));
+        }
+    }
+
+    @Test
+    void xmlElementsAreStreamedInFileOrder() throws IOException {
+        Path file = directory.resolve("extrait.osm");
+        Files.writeString(file, XML);
+        Recorder recorder = new Recorder(true);
+
+        OsmFileReader.read(file, recorder);
+
+        assertEquals(List.of(
+                "node 1 3.8 11.5",
+                "node 2 3.801 11.501",
+                "node 3 -1.0E-4 11.502",
+                "way 100 [1, 2, 3]",
+                "way 101 [3, 1]"), recorder.events);
+        assertEquals(Map.of("highway", "primary", "name", "Rue du Marché"), recorder.tags.get(100L));
+        assertEquals(Map.of("highway", "footway"), recorder.tags.get(101L));
+    }
+
+    @Test
+    void gzipExtractGivesTheSameWaysAndNodesCanBeSkipped() throws IOException {
+        Path file = directory.resolve("extrait.osm.gz");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(file))) {
+            out.write(XML.getBytes(StandardCharsets.UTF_8));
+        }
+        Recorder recorder = new Recorder(false);
+
+        OsmFileReader.read(file, recorder);
+
+        assertEquals(List.of("way 100 [1, 2, 3]", "way 101 [3, 1]"), recorder.events);
+        assertArrayEquals(new Object[] { 100L, 101L }, recorder.tags.keySet().stream().sorted().toArray());
+    }
+
+    @Test
+    void unknownExtensionIsRejected() throws IOException {
+        Path file = directory.resolve("extrait.csv");
+        Files.writeString(file, "id,lat,lon");
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> OsmFileReader.read(file, new Recorder(true)));
+        assertTrue(error.getMessage().contains("extrait.csv"));
+    }
+}
@@ -0,0 +1,49 @@
+package com.enspy.tripplanning.routing.osm;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class OsmHighwayTest {
+
+    @Test
+    void onlyOpenCarriagewaysAreImported() {
+        assertEquals("primary", OsmHighway.roadType(Map.of("highway", "primary")));
+        assertEquals("track", OsmHighway.roadType(Map.of("highway", "track")));
+        assertNull(OsmHighway.roadType(Map.of("highway", "footway")));
+        assertNull(OsmHighway.roadType(Map.of("building", "yes")));
+        assertNull(OsmHighway.roadType(Map.of("highway", "service", "access", "private")));
+        assertNull(OsmHighway.roadType(Map.of("highway", "track", "motorcar", "no")));
+        // motor_vehicle prime sur access
+        assertEquals("residential", OsmHighway.roadType(
+                Map.of("highway", "residential", "access", "no", "motor_vehicle", "yes")));
+    }
+
+    @Test
+    void maxSpeedFallsBackToTheRoadTypeDefault() {
+        assertEquals(60, OsmHighway.maxSpeedKmh(Map.of("maxspeed", "60"), "primary"));
+        assertEquals(50, OsmHighway.maxSpeedKmh(Map.of("maxspeed", "50 km/h"), "primary"));
+        assertEquals(40, OsmHighway.maxSpeedKmh(Map.of("maxspeed", "25 mph"), "primary"));
+        assertEquals(80, OsmHighway.maxSpeedKmh(Map.of("maxspeed", "FR:urban"), "primary"));
+        assertEquals(80, OsmHighway.maxSpeedKmh(Map.of("maxspeed", "0"), "primary"));
+        assertEquals(110, OsmHighway.maxSpeedKmh(Map.of(), "motorway"));
+        assertEquals(30, OsmHighway.maxSpeedKmh(Map.of(), "inconnu"));
+    }
+
+    @Test
+    void directionAndName() {
+        assertEquals(1, OsmHighway.oneWay(Map.of("oneway", "yes"), "primary"));
+        assertEquals(-1, OsmHighway.oneWay(Map.of("oneway", "-1"), "primary"));
+        assertEquals(0, OsmHighway.oneWay(Map.of("oneway", "no"), "motorway"));
+        assertEquals(1, OsmHighway.oneWay(Map.of(), "motorway_link"));
+        assertEquals(1, OsmHighway.oneWay(Map.of("junction", "roundabout"), "tertiary"));
+        assertEquals(0, OsmHighway.oneWay(Map.of("oneway", "alternating"), "tertiary"));
+
+        assertEquals("Boulevard du 20 Mai", OsmHighway.roadName(Map.of("name", "Boulevard du 20 Mai", "ref", "N1")));
+        assertEquals("N3", OsmHighway.roadName(Map.of("ref", "N3")));
+        assertNull(OsmHighway.roadName(Map.of()));
+    }
+}
@@ -0,0 +1,55 @@
+package com.enspy.tripplanning.routing.osm;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OsmNodeTableTest {
+
+    @Test
+    void countsUsesAndKeepsEntriesAcrossGrowth() {
+        // Capacité initiale minimale : plusieurs agrandissements
+        OsmNodeTable table = new OsmNodeTable(1);
+        Random random = new Random(161);
+        long[] ids = random.longs(5_000, 1, Long.MAX_VALUE).distinct().toArray();
+        for (int i = 0; i < ids.length; i++) {
+            table.markUse(ids[i], false);
+            if (i % 3 == 0) {
+                table.markUse(ids[i], false);
+            }
+        }
+        table.markUse(ids[1], true);
+        table.freeze();
+
+        assertEquals(ids.length, table.size());
+        for (int i = 0; i < ids.length; i++) {
+            int slot = table.find(ids[i]);
+            assertTrue(slot >= 0, "nœud " + ids[i]);
+            // Intersection : deux chemins, ou une extrémité
+            assertEquals(i % 3 == 0 || i == 1, table.isJunction(slot), "nœud " + ids[i]);
+            assertFalse(table.hasCoordinates(slot));
+        }
+        // Identifiants tirés positifs : un négatif est absent
+        assertEquals(-1, table.find(-5));
+    }
+
+    @Test
+    void storesCoordinatesToTheOsmPrecision() {
+        OsmNodeTable table = new OsmNodeTable(16);
+        table.markUse(1L << 40, true);
+        table.freeze();
+        int slot = table.find(1L << 40);
+
+        table.setCoordinates(slot, -3.8712345, 11.5212345);
+        table.setNodeId(slot, 42);
+
+        assertTrue(table.hasCoordinates(slot));
+        assertEquals(-3.8712345, table.latitude(slot), 1e-9);
+        assertEquals(11.5212345, table.longitude(slot), 1e-9);
+        assertEquals(42, table.nodeId(slot));
+    }
+}
@@ -0,0 +1,86 @@
+package com.enspy.tripplanning.routing.service;
+
+import com.enspy.tripplanning.routing.graph.RoadGraph;
+import com.enspy.tripplanning.routing.graph.RoadGraphFixtures;
+import com.enspy.tripplanning.routing.model.RoadEdge;
+import com.enspy.tripplanning.routing.model.Route;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AStarServiceTest {
+
+    /** Seules les méthodes sur le graphe résident sont testées : aucune dépendance */
+    private final AStarService aStar = new AStarService(null, null, null, null, null, null, null);
+
+    @Test
+    void graphSearchMatchesReferenceDijkstra() {
+        RoadGraph graph = RoadGraphFixtures.grid(40, 1, 0.3);
+        Random random = new Random(11);
+        for (int query = 0; query < 100; query++) {
+            int start = random.nextInt(graph.getNodeCount());
+            int end = random.nextInt(graph.getNodeCount());
+            long expected = RoadGraphFixtures.dijkstra(graph, start)[end];
+
+            Route route = aStar.executeOnGraph(graph, start, end, null);
+
+            if (expected == Long.MAX_VALUE) {
+                assertFalse(route.getFound(), "requête " + query);
+                continue;
+            }
+            assertTrue(route.getFound(), "requête " + query);
+            assertEquals(expected, (long) route.getTotalTimeSeconds(), "requête " + query);
+            assertPathIsConnected(route);
+        }
+    }
+
+    @Test
+    void unreachableDestinationIsNotFound() {
+        RoadGraph graph = RoadGraphFixtures.gridBuilder(10, 3, 0.0)
+                .addNode(5, 3.70, 11.40, "Isolé")
+                .build();
+
+        Route route = aStar.executeOnGraph(graph, graph.indexOf(RoadGraphFixtures.nodeId(0)), graph.indexOf(5), null);
+
+        assertFalse(route.getFound());
+    }
+
+    @Test
+    void closedEdgesAreNeverTaken() {
+        RoadGraph graph = RoadGraphFixtures.grid(30, 4, 0.2);
+        double[] factors = new double[graph.getEdgeIds().length];
+        Random random = new Random(13);
+        for (int e = 0; e < factors.length; e++) {
+            factors[e] = random.nextDouble() < 0.25 ? Double.POSITIVE_INFINITY : 1.0;
+        }
+        graph.applyEdgeFactors(factors);
+
+        for (int query = 0; query < 60; query++) {
+            int start = random.nextInt(graph.getNodeCount());
+            int end = random.nextInt(graph.getNodeCount());
+            long expected = RoadGraphFixtures.dijkstra(graph, start)[end];
+
+            Route route = aStar.executeOnGraph(graph, start, end, null);
+
+            assertEquals(expected != Long.MAX_VALUE, route.getFound(), "requête " + query);
+            if (route.getFound()) {
+                assertEquals(expected, (long) route.getTotalTimeSeconds(), "requête " + query);
+            }
+        }
+    }
+
+    private static void assertPathIsConnected(Route route) {
+        assertEquals(route.getEdges().size() + 1, route.getNodes().size());
+        for (int i = 0; i < route.getEdges().size(); i++) {
+            RoadEdge edge = route.getEdges().get(i);
+            long from = route.getNodes().get(i).getNodeId();
+            long to = route.getNodes().get(i + 1).getNodeId();
+            assertTrue(edge.getSourceNodeId() == from && edge.getTargetNodeId() == to
+                    || !edge.getOneWay() && edge.getSourceNodeId() == to && edge.getTargetNodeId() == from);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.enspy.tripplanning.routing.service;
+
+import com.enspy.tripplanning.routing.dto.BatchRoutePairDTO;
+import com.enspy.tripplanning.routing.dto.BatchRouteRequest;
+import com.enspy.tripplanning.routing.dto.BatchRouteResultDTO;
+import com.enspy.tripplanning.routing.graph.RoadGraph;
+import com.enspy.tripplanning.routing.graph.RoadGraphFixtures;
+import com.enspy.tripplanning.routing.model.CalculatedRoute;
+import com.enspy.tripplanning.routing.repository.CalculatedRouteRepository;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BatchRoutingServiceTest {
+
+    private final RoadGraph graph = RoadGraphFixtures.grid(25, 101, 0.3);
+    private final AStarService aStar = new AStarService(null, null, null, null, null, null, null);
+    private final RoadGraphService graphService = mock(RoadGraphService.class);
+    private final SnappingService snappingService = mock(SnappingService.class);
+    private final RoutingEngineService engine = mock(RoutingEngineService.class);
+    private final CalculatedRouteRepository repository = mock(CalculatedRouteRepository.class);
+    private final BatchRoutingService batchService = new BatchRoutingService(graphService, snappingService,
+            new CalculatedRouteService(repository, engine, graphService, 24));
+
+    /** Contenu de calculated_routes : (départ, arrivée, version) → entrée */
+    private final Map<List<Long>, CalculatedRoute> table = new ConcurrentHashMap<>();
+
+    BatchRoutingServiceTest() {
+        when(graphService.getGraph()).thenReturn(graph);
+        when(engine.calculateShortestPath(anyLong(), anyLong())).thenAnswer(call -> Mono.fromCallable(() ->
+                aStar.executeOnGraph(graph, graph.indexOf(call.getArgument(0)), graph.indexOf(call.getArgument(1)),
+                        null)));
+        when(repository.findCachedRoute(anyLong(), anyLong(), anyLong())).thenAnswer(call ->
+                Mono.justOrEmpty(table.get(List.of(call.getArgument(0), call.getArgument(1), call.getArgument(2)))));
+        when(repository.save(any(CalculatedRoute.class))).thenAnswer(call -> {
+            CalculatedRoute route = call.getArgument(0);
+            table.put(List.of(route.getFromWaypointId(), route.getToWaypointId(), route.getGraphVersion()), route);
+            return Mono.just(route);
+        });
+    }
+
+    @Test
+    void everyPairGetsTheReferenceTimeAndDuplicatesAreComputedOnce() {
+        // 40 couples dont 10 doublons et un point hors réseau (-1)
+        Random random = new Random(102);
+        int[] nodes = new int[84];
+        for (int i = 0; i < 60; i++) {
+            nodes[i] = random.nextInt(graph.getNodeCount());
+        }
+        System.arraycopy(nodes, 0, nodes, 60, 20);
+        nodes[80] = -1;
+        nodes[81] = 0;
+        nodes[82] = 3;
+        nodes[83] = 3;
+        when(snappingService.snapToIndices(any(), any())).thenReturn(Mono.just(nodes));
+        List<BatchRoutePairDTO> pairs = new ArrayList<>();
+        for (int i = 0; i < nodes.length / 2; i++) {
+            pairs.add(BatchRoutePairDTO.builder().id("c" + i)
+                    .startLatitude(3.8).startLongitude(11.5).endLatitude(3.9).endLongitude(11.6).build());
+        }
+
+        List<BatchRouteResultDTO> results = batchService.calculateBatch(BatchRouteRequest.builder()
+                .pairs(pairs).includeGeometry(true).build()).collectList().block();
+
+        assertNotNull(results);
+        assertEquals(pairs.size(), results.size());
+        for (BatchRouteResultDTO result : results) {
+            int i = result.getIndex();
+            assertEquals("c" + i, result.getId());
+            if (nodes[2 * i] < 0) {
+                assertFalse(result.getFound());
+                continue;
+            }
+            long expected = RoadGraphFixtures.dijkstra(graph, nodes[2 * i])[nodes[2 * i + 1]];
+            assertEquals(expected != Long.MAX_VALUE, result.getFound(), "couple " + i);
+            if (result.getFound()) {
+                assertEquals(expected, (long) result.getTotalTimeSeconds(), "couple " + i);
+                assertNotNull(result.getGeometryEncoded());
+            }
+        }
+        verify(engine, times(31)).calculateShortestPath(anyLong(), anyLong());
+    }
+
+    @Test
+    void repeatedPairsAreServedFromTheCacheUntilWeightsChange() {
+        Random random = new Random(103);
+        int[] nodes = new int[40];
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = random.nextInt(graph.getNodeCount());
+        }
+        when(snappingService.snapToIndices(any(), any())).thenReturn(Mono.just(nodes));
+        BatchRouteRequest request = request(nodes.length / 2);
+
+        List<BatchRouteResultDTO> computed = sortedTimes(request);
+        int found = (int) computed.stream().filter(BatchRouteResultDTO::getFound).count();
+        verify(engine, times(20)).calculateShortestPath(anyLong(), anyLong());
+        verify(repository, times(found)).save(any(CalculatedRoute.class));
+
+        // Même version du graphe : tous les couples trouvés sont relus du cache
+        clearInvocations(engine);
+        List<BatchRouteResultDTO> cached = sortedTimes(request);
+        verify(engine, times(20 - found)).calculateShortestPath(anyLong(), anyLong());
+        for (int i = 0; i < computed.size(); i++) {
+            assertEquals(computed.get(i).getFound(), cached.get(i).getFound(), "couple " + i);
+            assertEquals(computed.get(i).getTotalTimeSeconds(), cached.get(i).getTotalTimeSeconds(), "couple " + i);
+            assertEquals(computed.get(i).getGeometryEncoded(), cached.get(i).getGeometryEncoded(), "couple " + i);
+        }
+
+        // Poids modifiés : nouvelle version, les entrées existantes ne servent plus
+        double[] factors = new double[graph.getEdgeCount()];
+        Arrays.fill(factors, 1.0);
+        factors[0] = 3.0;
+        graph.applyEdgeFactors(factors);
+        clearInvocations(engine);
+        sortedTimes(request);
+        verify(engine, times(20)).calculateShortestPath(anyLong(), anyLong());
+    }
+
+    private static BatchRouteRequest request(int count) {
+        List<BatchRoutePairDTO> pairs = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            pairs.add(BatchRoutePairDTO.builder().id("c" + i)
+                    .startLatitude(3.8).startLongitude(11.5).endLatitude(3.9).endLongitude(11.6).build());
+        }
+        return BatchRouteRequest.builder().pairs(pairs).includeGeometry(true).build();
+    }
+
+    private List<BatchRouteResultDTO> sortedTimes(BatchRouteRequest request) {
+        List<BatchRouteResultDTO> results = Objects.requireNonNull(
+                batchService.calculateBatch(request).collectList().block());
+        results.sort((a, b) -> Integer.compare(a.getIndex(), b.getIndex()));
+        return results;
+    }
+}
@@ -0,0 +1,85 @@
+package com.enspy.tripplanning.routing.service;
+
+import com.enspy.tripplanning.routing.dto.EdgeWeightOverrideRequest;
+import com.enspy.tripplanning.routing.graph.RoadGraph;
+import com.enspy.tripplanning.routing.graph.RoadGraphFixtures;
+import com.enspy.tripplanning.routing.graph.RoadGraphWeightsChangedEvent;
+import com.enspy.tripplanning.routing.model.EdgeWeightOverride;
+import com.enspy.tripplanning.routing.repository.EdgeWeightOverrideRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EdgeWeightOverrideServiceTest {
+
+    private final RoadGraph graph = RoadGraphFixtures.grid(10, 91, 0.2);
+    private final EdgeWeightOverrideRepository repository = mock(EdgeWeightOverrideRepository.class);
+    private final RoadGraphService graphService = mock(RoadGraphService.class);
+    private final ApplicationEventPublisher publisher = mock(ApplicationEventPublisher.class);
+    private final EdgeWeightOverrideService service =
+            new EdgeWeightOverrideService(repository, graphService, publisher);
+
+    /** Contenu de la table, partagé avec les autres instances */
+    private final List<EdgeWeightOverride> table = new ArrayList<>();
+
+    EdgeWeightOverrideServiceTest() {
+        when(graphService.getGraph()).thenReturn(graph);
+        when(repository.deleteExpired()).thenReturn(Mono.just(0L));
+        when(repository.findActive()).thenAnswer(call -> Flux.fromIterable(new ArrayList<>(table)));
+    }
+
+    @Test
+    void factorNotAboveOneIsRejected() {
+        EdgeWeightOverrideRequest request = EdgeWeightOverrideRequest.builder()
+                .edgeIds(List.of(graph.getEdgeIds()[0])).timeFactor(1.0).build();
+
+        ResponseStatusException error = assertThrows(ResponseStatusException.class,
+                () -> service.create(request).blockLast());
+
+        assertEquals(HttpStatus.BAD_REQUEST, error.getStatusCode());
+        verify(repository, never()).saveAll(any(Iterable.class));
+    }
+
+    @Test
+    void refreshAppliesOverridesWrittenElsewhereOnlyOnce() {
+        long baseVersion = graph.getWeightVersion();
+        table.add(override(graph.getEdgeIds()[3], true, null));
+        table.add(override(graph.getEdgeIds()[5], false, 2.0));
+
+        service.refresh().block();
+        service.refresh().block();
+
+        assertNotEquals(baseVersion, graph.getWeightVersion());
+        verify(publisher, times(1)).publishEvent(any(RoadGraphWeightsChangedEvent.class));
+
+        // Suppression par une autre instance : poids de base rétablis
+        table.clear();
+        service.refresh().block();
+        service.refresh().block();
+
+        assertEquals(baseVersion, graph.getWeightVersion());
+        verify(publisher, times(2)).publishEvent(any(RoadGraphWeightsChangedEvent.class));
+    }
+
+    private static EdgeWeightOverride override(long edgeId, boolean closed, Double timeFactor) {
+        return EdgeWeightOverride.builder().edgeId(edgeId).closed(closed).timeFactor(timeFactor)
+                .expiresAt(LocalDateTime.now().plusHours(1)).build();
+    }
+}
@@ -0,0 +1,123 @@
+package com.enspy.tripplanning.routing.service;
+
+import com.enspy.tripplanning.routing.dto.osrm.OsrmResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OsrmClientTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicInteger calls = new AtomicInteger();
+
+    /**
+     * Client sur un serveur simulé : {@code server} reçoit le numéro d'appel
+     * (à partir de 0) et rend la réponse.
+     */
+    private OsrmClient client(IntFunction<Mono<ClientResponse>> server, long openDurationMs) {
+        ExchangeFunction exchange = request -> server.apply(calls.getAndIncrement());
+        return new OsrmClient(WebClient.builder().exchangeFunction(exchange), registry,
+                "http://osrm.test", 4, 1000, 100, 2000, true, 0.95, 20, 3, openDurationMs);
+    }
+
+    private static Mono<ClientResponse> ok() {
+        return Mono.just(ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body("{\"code\":\"Ok\",\"routes\":[]}")
+                .build());
+    }
+
+    private static Mono<ClientResponse> status(HttpStatus status) {
+        return Mono.just(ClientResponse.create(status).build());
+    }
+
+    @Test
+    void serverErrorsOpenTheCircuitAndTheProbeClosesIt() throws InterruptedException {
+        OsrmClient client = client(call -> call < 3 ? status(HttpStatus.BAD_GATEWAY) : ok(), 100);
+
+        for (int i = 0; i < 3; i++) {
+            assertThrows(WebClientResponseException.class, () -> client.get("/route").block());
+        }
+        assertThrows(OsrmClient.CircuitOpenException.class, () -> client.get("/route").block());
+        assertEquals(3, calls.get());
+        assertEquals(1.0, registry.get("routing.osrm.requests").tag("outcome", "rejected").counter().count());
+
+        Thread.sleep(150);
+        OsrmResponse response = client.get("/route").block();
+        assertEquals("Ok", response.getCode());
+        assertEquals(0.0, registry.get("routing.osrm.circuit.open").gauge().value());
+    }
+
+    @Test
+    void clientErrorsLeaveTheCircuitClosed() {
+        OsrmClient client = client(call -> status(HttpStatus.BAD_REQUEST), 60_000);
+
+        for (int i = 0; i < 5; i++) {
+            assertThrows(WebClientResponseException.class, () -> client.get("/route").block());
+        }
+        assertEquals(5, calls.get());
+        assertEquals(0.0, registry.get("routing.osrm.circuit.open").gauge().value());
+    }
+
+    @Test
+    void slowResponseIsHedgedOnceLatencyIsKnown() {
+        // 20 appels rapides, puis un appel lent doublé par une requête rapide
+        OsrmClient client = client(call -> call == 20 ? ok().delayElement(Duration.ofMillis(1500)) : ok(), 60_000);
+        for (int i = 0; i < 20; i++) {
+            client.get("/route").block();
+        }
+        assertEquals(0.0, registry.get("routing.osrm.hedged").counter().count());
+
+        long start = System.nanoTime();
+        OsrmResponse response = client.get("/route").block();
+
+        assertEquals("Ok", response.getCode());
+        assertTrue(System.nanoTime() - start < Duration.ofMillis(1000).toNanos());
+        assertEquals(1.0, registry.get("routing.osrm.hedged").counter().count());
+        assertEquals(22, calls.get());
+    }
+
+    @Test
+    void halfOpenBreakerAllowsASingleProbe() throws InterruptedException {
+        OsrmCircuitBreaker breaker = new OsrmCircuitBreaker(2, 50);
+        breaker.onFailure();
+        assertTrue(breaker.tryAcquire());
+        breaker.onFailure();
+        assertEquals(OsrmCircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+
+        Thread.sleep(80);
+        assertTrue(breaker.tryAcquire());
+        assertEquals(OsrmCircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+
+        // Essai en échec : réouverture immédiate
+        breaker.onFailure();
+        assertEquals(OsrmCircuitBreaker.State.OPEN, breaker.getState());
+
+        Thread.sleep(80);
+        assertTrue(breaker.tryAcquire());
+        breaker.onCancel();
+        assertTrue(breaker.tryAcquire());
+        breaker.onSuccess();
+        assertEquals(OsrmCircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+        assertTrue(breaker.tryAcquire());
+    }
+}
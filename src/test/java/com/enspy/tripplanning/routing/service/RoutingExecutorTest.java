@@ -0,0 +1,122 @@
+package com.enspy.tripplanning.routing.service;
+
+import com.enspy.tripplanning.routing.exception.RoutingOverloadedException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RoutingExecutorTest {
+
+    private final List<RoutingExecutor> executors = new ArrayList<>();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void stop() {
+        release.countDown();
+        executors.forEach(RoutingExecutor::stop);
+    }
+
+    private RoutingExecutor executor(int threads, int queueCapacity, int interactiveWeight) {
+        RoutingExecutor executor = new RoutingExecutor(threads, queueCapacity, interactiveWeight, 3, 4);
+        executor.start();
+        executors.add(executor);
+        return executor;
+    }
+
+    /** Occupe un thread du pool jusqu'à la fin du test (ou {@link #release}) */
+    private void block(RoutingExecutor executor, boolean batch) throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        Mono<Boolean> task = executor.submit(() -> {
+            started.countDown();
+            return release.await(10, TimeUnit.SECONDS);
+        });
+        (batch ? task.contextWrite(RoutingExecutor.batchLane()) : task).subscribe();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void fullQueueIsRejectedImmediately() throws InterruptedException {
+        RoutingExecutor executor = executor(1, 1, 4);
+        block(executor, false);
+        executor.submit(() -> 1).subscribe();
+
+        RoutingOverloadedException error = assertThrows(RoutingOverloadedException.class,
+                () -> executor.submit(() -> 2).block());
+
+        assertEquals(3, error.getRetryAfterSeconds());
+        assertEquals(1, executor.getRejectedCount());
+        assertEquals(1, executor.getQueued(RoutingExecutor.Lane.INTERACTIVE));
+        // La voie par lot a sa propre file
+        executor.submit(() -> 3).contextWrite(RoutingExecutor.batchLane()).subscribe();
+        assertEquals(1, executor.getQueued(RoutingExecutor.Lane.BATCH));
+    }
+
+    @Test
+    void lanesAreServedByWeight() throws InterruptedException {
+        RoutingExecutor executor = executor(1, 16, 2);
+        block(executor, true);
+
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(9);
+        for (int i = 0; i < 3; i++) {
+            executor.submit(() -> order.add("B")).contextWrite(RoutingExecutor.batchLane())
+                    .subscribe(added -> done.countDown());
+        }
+        for (int i = 0; i < 6; i++) {
+            executor.submit(() -> order.add("I")).subscribe(added -> done.countDown());
+        }
+        release.countDown();
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("I", "I", "B", "I", "I", "B", "I", "I", "B"), order);
+    }
+
+    @Test
+    void cancelledTaskIsNotRun() throws InterruptedException {
+        RoutingExecutor executor = executor(1, 4, 4);
+        block(executor, false);
+        AtomicBoolean ran = new AtomicBoolean();
+        Disposable subscription = executor.submit(() -> ran.getAndSet(true)).subscribe();
+        subscription.dispose();
+
+        release.countDown();
+        // Calcul suivant exécuté : le calcul annulé est passé
+        assertEquals(1, executor.submit(() -> 1).block());
+        assertFalse(ran.get());
+    }
+
+    @Test
+    void forkedTaskRunsOnAnotherPoolThread() {
+        RoutingExecutor executor = executor(2, 4, 4);
+        AtomicReference<String> forkedThread = new AtomicReference<>();
+
+        String callerThread = executor.submit(() -> {
+            CountDownLatch forked = new CountDownLatch(1);
+            assertTrue(executor.fork(() -> {
+                forkedThread.set(Thread.currentThread().getName());
+                forked.countDown();
+            }));
+            assertTrue(forked.await(5, TimeUnit.SECONDS));
+            return Thread.currentThread().getName();
+        }).contextWrite(RoutingExecutor.batchLane()).block();
+
+        assertTrue(callerThread.startsWith("routing-"));
+        assertTrue(forkedThread.get().startsWith("routing-"));
+        assertNotEquals(callerThread, forkedThread.get());
+    }
+}
@@ -0,0 +1,66 @@
+package com.enspy.tripplanning.routing.service;
+
+import com.enspy.tripplanning.routing.graph.RoadGraph;
+import com.enspy.tripplanning.routing.graph.RoadGraphFixtures;
+import com.enspy.tripplanning.routing.model.Route;
+import com.enspy.tripplanning.routing.model.SearchAlgorithm;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RoutingMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final RoutingMetrics metrics = new RoutingMetrics(registry);
+    private final AStarService aStar = new AStarService(null, null, null, null, null, null, null);
+
+    @Test
+    void searchEffortIsCountedAndPublished() {
+        RoadGraph graph = RoadGraphFixtures.grid(20, 151, 0.0);
+
+        Route route = aStar.executeOnGraph(graph, 0, graph.getNodeCount() - 1, null);
+        metrics.record(route);
+
+        assertTrue(route.getFound());
+        assertEquals(SearchAlgorithm.ASTAR, route.getAlgorithm());
+        // Chaque nœud fixé a été inséré au moins une fois, et ses arcs examinés
+        assertTrue(route.getHeapPushes() >= route.getNodesExplored());
+        assertTrue(route.getEdgesRelaxed() >= route.getNodesExplored() - 1);
+        assertTrue(route.getHeapDecreaseKeys() >= 0);
+
+        String band = bandOf(route.getTotalDistanceKm());
+        DistributionSummary settled = registry.get("routing.search.nodes.settled")
+                .tags("algorithm", SearchAlgorithm.ASTAR.getTag(), "distance", band).summary();
+        assertEquals(1, settled.count());
+        assertEquals(route.getNodesExplored(), (int) settled.totalAmount());
+        assertEquals(route.getEdgesRelaxed(), (int) registry.get("routing.search.edges.relaxed")
+                .summary().totalAmount());
+        assertEquals(route.getHeapPushes(), (int) registry.get("routing.search.heap.pushes")
+                .summary().totalAmount());
+    }
+
+    @Test
+    void routesWithoutPathOrEngineAreTaggedOrIgnored() {
+        metrics.record(Route.builder().found(true).totalDistanceKm(30.0).nodesExplored(5).build());
+        assertNull(registry.find("routing.search.nodes.settled").summary());
+
+        metrics.record(Route.builder().found(false).algorithm(SearchAlgorithm.CH).nodesExplored(7).build());
+        metrics.record(Route.builder().found(true).algorithm(SearchAlgorithm.CH).totalDistanceKm(250.0)
+                .nodesExplored(9).build());
+
+        assertEquals(7, registry.get("routing.search.nodes.settled").tags("distance", "none")
+                .summary().totalAmount());
+        assertEquals(9, registry.get("routing.search.nodes.settled").tags("distance", "200km+")
+                .summary().totalAmount());
+        // Mesures absentes : non enregistrées
+        assertNull(registry.find("routing.search.snap").timer());
+    }
+
+    private static String bandOf(double km) {
+        return km < 10 ? "0-10km" : km < 50 ? "10-50km" : km < 200 ? "50-200km" : "200km+";
+    }
+}
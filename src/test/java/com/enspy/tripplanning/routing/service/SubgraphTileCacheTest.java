@@ -0,0 +1,176 @@
+package com.enspy.tripplanning.routing.service;
+
+import com.enspy.tripplanning.routing.model.RoadEdge;
+import com.enspy.tripplanning.routing.model.RoadNode;
+import com.enspy.tripplanning.routing.model.Subgraph;
+import com.enspy.tripplanning.routing.repository.RoadEdgeRepository;
+import com.enspy.tripplanning.routing.repository.RoadNodeRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SubgraphTileCacheTest {
+
+    private static final double TILE = 0.25;
+
+    private final RoadNodeRepository nodeRepository = mock(RoadNodeRepository.class);
+    private final RoadEdgeRepository edgeRepository = mock(RoadEdgeRepository.class);
+    private final Map<Long, RoadNode> nodes = new HashMap<>();
+    private final List<RoadEdge> edges = new ArrayList<>();
+
+    /** Réseau aléatoire sur 1° x 1° autour de Yaoundé (16 tuiles) */
+    @BeforeEach
+    void network() {
+        Random random = new Random(111);
+        for (long id = 1; id <= 400; id++) {
+            nodes.put(id, RoadNode.builder().nodeId(id)
+                    .latitude(3.5 + random.nextDouble()).longitude(11.0 + random.nextDouble()).build());
+        }
+        for (long id = 1; id <= 800; id++) {
+            long source = 1 + random.nextInt(400);
+            long target = 1 + random.nextInt(400);
+            edges.add(RoadEdge.builder().edgeId(id).sourceNodeId(source).targetNodeId(target)
+                    .oneWay(random.nextBoolean()).streetName("Rue " + id).build());
+        }
+
+        when(nodeRepository.findNodesInBoundingBox(anyDouble(), anyDouble(), anyDouble(), anyDouble()))
+                .thenAnswer(call -> Flux.fromIterable(nodes.values())
+                        .filter(node -> inside(node, call.getArgument(0), call.getArgument(1),
+                                call.getArgument(2), call.getArgument(3))));
+        // Boîte englobante de l'arête : segment entre ses extrémités
+        when(edgeRepository.findEdgesInBoundingBox(anyDouble(), anyDouble(), anyDouble(), anyDouble()))
+                .thenAnswer(call -> Flux.fromIterable(edges)
+                        .filter(edge -> intersects(edge, call.getArgument(0), call.getArgument(1),
+                                call.getArgument(2), call.getArgument(3))));
+        when(nodeRepository.findAllById(anyIterable())).thenAnswer(call -> {
+            Iterable<Long> ids = call.getArgument(0);
+            return Flux.fromIterable(ids).map(nodes::get);
+        });
+    }
+
+    private SubgraphTileCache cache(long maxBytes) {
+        return new SubgraphTileCache(nodeRepository, edgeRepository, new SimpleMeterRegistry(), TILE, maxBytes);
+    }
+
+    @Test
+    void unionOfTilesMatchesDirectScanAndIsReadOnce() {
+        SubgraphTileCache cache = cache(Long.MAX_VALUE);
+        double minLat = 3.6, minLon = 11.1, maxLat = 3.95, maxLon = 11.4;
+
+        Subgraph subgraph = cache.getSubgraph(minLat, minLon, maxLat, maxLon).block();
+
+        assertNotNull(subgraph);
+        // Toute arête qui touche la zone est présente, une seule fois par extrémité
+        for (RoadEdge edge : edges) {
+            if (!intersects(edge, minLat, minLon, maxLat, maxLon)) {
+                continue;
+            }
+            assertNotNull(subgraph.getNode(edge.getSourceNodeId()), "arête " + edge.getEdgeId());
+            assertNotNull(subgraph.getNode(edge.getTargetNodeId()), "arête " + edge.getEdgeId());
+            long occurrences = subgraph.getNeighbors(edge.getSourceNodeId()).stream()
+                    .filter(e -> e.getEdgeId().equals(edge.getEdgeId())).count();
+            assertEquals(edge.getSourceNodeId().equals(edge.getTargetNodeId()) && !edge.getOneWay() ? 2 : 1,
+                    occurrences, "arête " + edge.getEdgeId());
+        }
+        assertEquals(4, cache.getTileCount());
+        verify(edgeRepository, times(4)).findEdgesInBoundingBox(anyDouble(), anyDouble(), anyDouble(), anyDouble());
+
+        // Même zone : aucune lecture supplémentaire
+        Subgraph again = cache.getSubgraph(minLat, minLon, maxLat, maxLon).block();
+        assertNotNull(again);
+        assertEquals(subgraph.getNodes().keySet(), again.getNodes().keySet());
+        verify(edgeRepository, times(4)).findEdgesInBoundingBox(anyDouble(), anyDouble(), anyDouble(), anyDouble());
+    }
+
+    @Test
+    void concurrentRequestsShareOneLoad() {
+        when(edgeRepository.findEdgesInBoundingBox(anyDouble(), anyDouble(), anyDouble(), anyDouble()))
+                .thenAnswer(call -> Flux.fromIterable(edges).delaySubscription(Duration.ofMillis(50)));
+        SubgraphTileCache cache = cache(Long.MAX_VALUE);
+        long key = cache.tileKey(3.8, 11.5);
+
+        assertNull(cache.getCachedTile(key));
+        List<Subgraph> tiles = Flux.merge(cache.getTile(key), cache.getTile(key), cache.getTile(key))
+                .collectList().block();
+
+        assertNotNull(tiles);
+        assertEquals(3, tiles.size());
+        assertSame(tiles.get(0), tiles.get(1));
+        assertSame(tiles.get(0), tiles.get(2));
+        assertSame(tiles.get(0), cache.getCachedTile(key));
+        verify(edgeRepository, times(1)).findEdgesInBoundingBox(anyDouble(), anyDouble(), anyDouble(), anyDouble());
+    }
+
+    @Test
+    void leastRecentlyUsedTilesAreEvictedUnderTheMemoryBudget() {
+        SubgraphTileCache probe = cache(Long.MAX_VALUE);
+        probe.getTile(probe.tileKey(3.6, 11.1)).block();
+        long tileBytes = probe.getBytes();
+        assertTrue(tileBytes > 0);
+
+        // Budget d'environ deux tuiles
+        SubgraphTileCache cache = cache(tileBytes * 5 / 2);
+        long first = cache.tileKey(3.6, 11.1);
+        long second = cache.tileKey(3.6, 11.4);
+        long third = cache.tileKey(3.9, 11.1);
+        long fourth = cache.tileKey(3.9, 11.4);
+        cache.getTile(first).block();
+        cache.getTile(second).block();
+        cache.getCachedTile(first);
+        cache.getTile(third).block();
+        cache.getTile(fourth).block();
+
+        assertTrue(cache.getBytes() <= tileBytes * 5 / 2);
+        assertNotNull(cache.getCachedTile(fourth));
+        assertNull(cache.getCachedTile(second));
+
+        cache.invalidateAll();
+        assertEquals(0, cache.getTileCount());
+        assertEquals(0, cache.getBytes());
+    }
+
+    @Test
+    void tileOutsideTheNetworkIsEmpty() {
+        SubgraphTileCache cache = cache(Long.MAX_VALUE);
+
+        Subgraph tile = cache.getTile(cache.tileKey(-20.0, -40.0)).block();
+
+        assertNotNull(tile);
+        assertTrue(tile.getNodes().isEmpty());
+        assertTrue(tile.getNeighbors().isEmpty());
+    }
+
+    private static boolean inside(RoadNode node, double minLat, double minLon, double maxLat, double maxLon) {
+        return node.getLatitude() >= minLat && node.getLatitude() <= maxLat
+                && node.getLongitude() >= minLon && node.getLongitude() <= maxLon;
+    }
+
+    private boolean intersects(RoadEdge edge, double minLat, double minLon, double maxLat, double maxLon) {
+        RoadNode a = nodes.get(edge.getSourceNodeId());
+        RoadNode b = nodes.get(edge.getTargetNodeId());
+        return Math.min(a.getLatitude(), b.getLatitude()) <= maxLat
+                && Math.max(a.getLatitude(), b.getLatitude()) >= minLat
+                && Math.min(a.getLongitude(), b.getLongitude()) <= maxLon
+                && Math.max(a.getLongitude(), b.getLongitude()) >= minLon;
+    }
+}
@@ -0,0 +1,136 @@
+package com.enspy.tripplanning.routing.service;
+
+import com.enspy.tripplanning.routing.dto.MatrixPointDTO;
+import com.enspy.tripplanning.routing.dto.MatrixRequest;
+import com.enspy.tripplanning.routing.dto.MatrixRowDTO;
+import com.enspy.tripplanning.routing.engine.OneToManyDijkstra;
+import com.enspy.tripplanning.routing.exception.RoutingOverloadedException;
+import com.enspy.tripplanning.routing.graph.RoadGraph;
+import com.enspy.tripplanning.routing.graph.RoadGraphFixtures;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TravelTimeMatrixServiceTest {
+
+    private final RoadGraph graph = RoadGraphFixtures.grid(20, 111, 0.3);
+    private final RoadGraphService graphService = mock(RoadGraphService.class);
+    private final SnappingService snappingService = mock(SnappingService.class);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private RoutingExecutor executor;
+
+    TravelTimeMatrixServiceTest() {
+        when(graphService.getGraph()).thenReturn(graph);
+    }
+
+    @AfterEach
+    void stop() {
+        release.countDown();
+        executor.stop();
+    }
+
+    /**
+     * Service sur un pool de deux threads, {@code queueCapacity} calculs en
+     * attente par voie, une ligne soumise à la fois
+     */
+    private TravelTimeMatrixService matrixService(int queueCapacity) {
+        executor = new RoutingExecutor(2, queueCapacity, 4, 3, 4);
+        executor.start();
+        return new TravelTimeMatrixService(graphService, mock(ContractionHierarchyService.class), snappingService,
+                executor, 1);
+    }
+
+    @Test
+    void rowsMatchTheReferenceDijkstra() {
+        Random random = new Random(112);
+        int[] sources = new int[12];
+        int[] destinations = new int[15];
+        for (int i = 0; i < sources.length; i++) {
+            sources[i] = random.nextInt(graph.getNodeCount());
+        }
+        for (int j = 0; j < destinations.length; j++) {
+            destinations[j] = random.nextInt(graph.getNodeCount());
+        }
+        sources[5] = -1;
+        destinations[7] = -1;
+        when(snappingService.snapToIndices(any(), any())).thenAnswer(call ->
+                Mono.just(call.<List<?>>getArgument(1).size() == sources.length ? sources : destinations));
+
+        List<MatrixRowDTO> rows = matrixService(256).computeMatrix(MatrixRequest.builder()
+                .sources(points(sources.length)).destinations(points(destinations.length)).build())
+                .collectList().block();
+
+        assertNotNull(rows);
+        assertEquals(sources.length, rows.size());
+        for (MatrixRowDTO row : rows) {
+            int i = row.getSourceIndex();
+            long[] reference = sources[i] >= 0 ? RoadGraphFixtures.dijkstra(graph, sources[i]) : null;
+            for (int j = 0; j < destinations.length; j++) {
+                Integer duration = row.getDurationsSeconds().get(j);
+                if (reference == null || destinations[j] < 0 || reference[destinations[j]] == Long.MAX_VALUE) {
+                    assertNull(duration, i + " → " + j);
+                } else {
+                    assertEquals(reference[destinations[j]], (long) duration, i + " → " + j);
+                }
+            }
+        }
+    }
+
+    @Test
+    void rowsAreRejectedWhenTheBatchLaneIsFull() throws Exception {
+        int[] nodes = { 0, 50, 100, 150 };
+        when(snappingService.snapToIndices(any(), any())).thenReturn(Mono.just(nodes));
+        TravelTimeMatrixService matrixService = matrixService(1);
+        // Deux threads occupés, un calcul par lot en file : la voie est pleine
+        block();
+        block();
+        CompletableFuture<Integer> queued = executor.submit(() -> 0).contextWrite(RoutingExecutor.batchLane())
+                .toFuture();
+
+        assertThrows(RoutingOverloadedException.class,
+                () -> matrixService.computeDurations(points(nodes.length)).block());
+        assertEquals(1, executor.getRejectedCount());
+
+        // Pool libéré : la matrice est calculée, sans dépasser la file
+        release.countDown();
+        assertEquals(0, queued.get(5, TimeUnit.SECONDS));
+        int[][] durations = matrixService.computeDurations(points(nodes.length)).block();
+        assertNotNull(durations);
+        for (int i = 0; i < nodes.length; i++) {
+            long[] reference = RoadGraphFixtures.dijkstra(graph, nodes[i]);
+            for (int j = 0; j < nodes.length; j++) {
+                long expected = reference[nodes[j]] != Long.MAX_VALUE ? reference[nodes[j]] : OneToManyDijkstra.UNREACHABLE;
+                assertEquals(expected, durations[i][j], i + " → " + j);
+            }
+        }
+    }
+
+    private void block() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        executor.submit(() -> {
+            started.countDown();
+            return release.await(10, TimeUnit.SECONDS);
+        }).subscribe();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+    }
+
+    private static List<MatrixPointDTO> points(int count) {
+        return Collections.nCopies(count, new MatrixPointDTO(3.85, 11.50));
+    }
+}